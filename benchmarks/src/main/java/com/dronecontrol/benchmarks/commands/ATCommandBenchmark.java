@@ -0,0 +1,103 @@
+package com.dronecontrol.benchmarks.commands;
+
+import com.dronecontrol.droneapi.CommandSender;
+import com.dronecontrol.droneapi.commands.simple.FlightMoveCommand;
+import com.dronecontrol.droneapi.commands.simple.SetConfigValueATCommand;
+import com.dronecontrol.droneapi.data.DroneConfiguration;
+import com.dronecontrol.droneapi.data.LoginData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Compares the text of the commands created as strings with the allocation free version the command sender uses
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ATCommandBenchmark
+{
+  private static final int MOVE_COUNT = 1024;
+
+  private float[] moves;
+
+  private int moveIndex;
+
+  private int sequenceNumber;
+
+  private SetConfigValueATCommand configCommand;
+
+  private ByteBuffer commandBuffer;
+
+  @Setup
+  public void setUp()
+  {
+    // Pilot inputs in the range of the move commands, with a fixed seed so every run sends the same commands
+    Random random = new Random(42);
+    moves = new float[MOVE_COUNT * 4];
+    for (int index = 0; index < moves.length; index++)
+    {
+      moves[index] = random.nextFloat() * 2 - 1;
+    }
+
+    configCommand = new SetConfigValueATCommand(new LoginData("benchmarks", "benchmarks"), DroneConfiguration.VIDEO_CODEC_KEY, 129);
+    commandBuffer = ByteBuffer.allocate(CommandSender.SENDING_BUFFER_SIZE);
+  }
+
+  @Benchmark
+  public String flightMoveCommandText()
+  {
+    return nextFlightMoveCommand().getCommandText(nextSequenceNumber());
+  }
+
+  @Benchmark
+  public ByteBuffer flightMoveCommandBytes()
+  {
+    commandBuffer.clear();
+    nextFlightMoveCommand().writeCommandText(commandBuffer, nextSequenceNumber());
+    return commandBuffer;
+  }
+
+  @Benchmark
+  public String setConfigValueCommandText()
+  {
+    int sequenceNumber = nextSequenceNumber();
+    return configCommand.getPreparationCommandText(sequenceNumber) + configCommand.getCommandText(sequenceNumber);
+  }
+
+  @Benchmark
+  public ByteBuffer setConfigValueCommandBytes()
+  {
+    int sequenceNumber = nextSequenceNumber();
+    commandBuffer.clear();
+    configCommand.writePreparationCommandText(commandBuffer, sequenceNumber);
+    configCommand.writeCommandText(commandBuffer, sequenceNumber);
+    return commandBuffer;
+  }
+
+  // A new command is created for every pilot input like the drone controller does
+  private FlightMoveCommand nextFlightMoveCommand()
+  {
+    int offset = moveIndex * 4;
+    moveIndex = (moveIndex + 1) % MOVE_COUNT;
+    return new FlightMoveCommand(moves[offset], moves[offset + 1], moves[offset + 2], moves[offset + 3]);
+  }
+
+  private int nextSequenceNumber()
+  {
+    sequenceNumber++;
+    return sequenceNumber;
+  }
+}
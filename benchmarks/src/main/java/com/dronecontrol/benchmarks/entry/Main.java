@@ -0,0 +1,47 @@
+package com.dronecontrol.benchmarks.entry;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the benchmarks with the allocation rate of the gc profiler and writes the results to benchmarks.json,
+// the usual JMH arguments can be passed, e.g. a benchmark name pattern or -p recording=<directory>
+public class Main
+{
+  private static final String RESULT_FILE = "benchmarks.json";
+
+  private static final String VECTOR_KERNELS_CLASS_FILE = "com/dronecontrol/videovector/VectorP264Kernels.class";
+
+  private static final int VECTOR_MODULE_JAVA_VERSION = 16;
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException
+  {
+    ChainedOptionsBuilder optionsBuilder = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(RESULT_FILE);
+
+    // The vectorized video kernels of the vector profile are only loaded by the forks with the incubating vector module
+    if (isVectorModuleNeeded())
+    {
+      optionsBuilder.jvmArgsPrepend("--add-modules=jdk.incubator.vector");
+    }
+
+    Options options = optionsBuilder.build();
+    new Runner(options).run();
+  }
+
+  private static boolean isVectorModuleNeeded()
+  {
+    String javaVersion = System.getProperty("java.specification.version");
+    return !javaVersion.startsWith("1.") && Integer.parseInt(javaVersion) >= VECTOR_MODULE_JAVA_VERSION
+            && Main.class.getClassLoader().getResource(VECTOR_KERNELS_CLASS_FILE) != null;
+  }
+}
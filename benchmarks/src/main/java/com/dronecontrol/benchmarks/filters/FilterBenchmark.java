@@ -0,0 +1,90 @@
+package com.dronecontrol.benchmarks.filters;
+
+import com.dronecontrol.perceptual.components.filters.BilateralFilter;
+import com.dronecontrol.perceptual.components.filters.KalmanFilter;
+import com.dronecontrol.perceptual.components.filters.KalmanFilterLinear2D;
+import com.dronecontrol.perceptual.components.filters.SlidingFilter;
+import com.dronecontrol.perceptual.data.body.Coordinate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Runs the filters of the hand detection on a noisy hand movement, the filters keep their history between the calls
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FilterBenchmark
+{
+  private static final int COORDINATE_COUNT = 1024;
+
+  // The camera delivers about 30 frames per second, one sweep of the hand takes about two seconds
+  private static final int FRAMES_PER_SWEEP = 60;
+
+  private static final float NOISE = 0.01f;
+
+  private Coordinate[] coordinates;
+
+  private int coordinateIndex;
+
+  private BilateralFilter bilateralFilter;
+
+  private SlidingFilter slidingFilter;
+
+  private KalmanFilterLinear2D kalmanFilter;
+
+  @Setup
+  public void setUp()
+  {
+    Random random = new Random(42);
+    coordinates = new Coordinate[COORDINATE_COUNT];
+    for (int index = 0; index < COORDINATE_COUNT; index++)
+    {
+      double phase = 2 * Math.PI * index / FRAMES_PER_SWEEP;
+      coordinates[index] = new Coordinate(0.5f + 0.3f * (float) Math.sin(phase) + (float) random.nextGaussian() * NOISE,
+              0.5f + 0.2f * (float) Math.cos(phase) + (float) random.nextGaussian() * NOISE,
+              0.4f + (float) random.nextGaussian() * NOISE);
+    }
+
+    bilateralFilter = new BilateralFilter();
+    slidingFilter = new SlidingFilter(new KalmanFilterLinear2D(new KalmanFilter()), new KalmanFilterLinear2D(new KalmanFilter()));
+    kalmanFilter = new KalmanFilterLinear2D(new KalmanFilter());
+  }
+
+  @Benchmark
+  public Coordinate bilateralFilter()
+  {
+    return bilateralFilter.getFilteredCoordinate(nextCoordinate());
+  }
+
+  @Benchmark
+  public Coordinate slidingFilter()
+  {
+    return slidingFilter.getFilteredCoordinate(nextCoordinate());
+  }
+
+  @Benchmark
+  public Coordinate kalmanFilterLinear2D()
+  {
+    return kalmanFilter.updateAndGetCoordinate(nextCoordinate());
+  }
+
+  private Coordinate nextCoordinate()
+  {
+    Coordinate coordinate = coordinates[coordinateIndex];
+    coordinateIndex = (coordinateIndex + 1) % COORDINATE_COUNT;
+    return coordinate;
+  }
+}
@@ -0,0 +1,155 @@
+package com.dronecontrol.benchmarks.latency;
+
+import com.dronecontrol.droneapi.DroneController;
+import com.dronecontrol.droneapi.data.Config;
+import com.dronecontrol.dronesimulator.DroneSimulator;
+import com.dronecontrol.dronesimulator.data.SimulatorConfig;
+import com.dronecontrol.dronesimulator.data.SimulatorStatistics;
+import com.dronecontrol.socketcontrol.control.DroneInputController;
+import com.dronecontrol.socketcontrol.helpers.RaceTimer;
+import com.dronecontrol.socketcontrol.input.SocketDataReceiver;
+import org.codehaus.jackson.map.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Measures the latency from a pilot input until the datagram with the move command is sent, the drone is replaced by the
+// simulator on the loopback interface, which also streams nav data and video at the configured rates as background load
+public class ControlLatencyHarness
+{
+  private static final String APPLICATION_NAME = "latency-harness";
+
+  private static final String PILOT_MESSAGE = "{\"movementData\":{\"roll\":%.4f,\"pitch\":%.4f,\"yaw\":%.4f,\"gaz\":0.0},\"pilotActions\":[]}";
+
+  // The inputs follow a circle, so most of them differ enough from the previous one to cause a move command
+  private static final float INPUT_AMPLITUDE = 0.5f;
+
+  private static final int SECONDS_PER_CIRCLE = 2;
+
+  private final LatencySettings settings;
+
+  private final DroneSimulator simulator;
+
+  private final DroneController droneController;
+
+  private SocketDataReceiver socketDataReceiver;
+
+  private long inputCount;
+
+  public ControlLatencyHarness(LatencySettings settings)
+  {
+    this.settings = settings;
+
+    SimulatorConfig simulatorConfig = new SimulatorConfig();
+    simulatorConfig.setNavDataRate(settings.getNavDataRate());
+    simulatorConfig.setVideoFrameRate(settings.getVideoFrameRate());
+    simulator = new DroneSimulator(simulatorConfig);
+
+    droneController = DroneController.build();
+  }
+
+  public static void main(String[] args) throws IOException
+  {
+    LatencySettings settings = new LatencySettings();
+    LatencyReport report = new ControlLatencyHarness(settings).run();
+
+    System.out.println(report);
+    report.write(settings.getReportFile());
+    System.exit(0);
+  }
+
+  public LatencyReport run()
+  {
+    simulator.start();
+    try
+    {
+      startDroneController();
+      return measure();
+    } finally
+    {
+      if (socketDataReceiver != null)
+      {
+        socketDataReceiver.dispose();
+      }
+      droneController.stop();
+      simulator.stop();
+    }
+  }
+
+  private void startDroneController()
+  {
+    if (settings.getInputSource() == LatencySettings.InputSource.SOCKET)
+    {
+      // The same path as in the socket control, only the socket itself is left out
+      DroneInputController droneInputController = new DroneInputController(droneController, new RaceTimer());
+      droneController.addReadyStateChangeListener(droneInputController);
+
+      socketDataReceiver = new SocketDataReceiver(new ObjectMapper());
+      socketDataReceiver.addMovementDataListener(droneInputController);
+    }
+
+    Config config = simulator.getConfig().createClientConfig(APPLICATION_NAME, APPLICATION_NAME);
+    config.setCommandRate(settings.getCommandRate());
+    config.setEventLoopEnabled(settings.isEventLoopEnabled());
+    droneController.start(config);
+    droneController.takeOff();
+  }
+
+  private LatencyReport measure()
+  {
+    sendInputs(settings.getWarmupSeconds());
+
+    droneController.getInputLatencyStatistics().requestReset();
+    SimulatorStatistics simulatorStatistics = simulator.getStatistics();
+    long navDataPacketCount = simulatorStatistics.getNavDataPacketCount();
+    long videoFrameCount = simulatorStatistics.getVideoFrameCount();
+    inputCount = 0;
+
+    sendInputs(settings.getDurationSeconds());
+
+    LatencyReport report = new LatencyReport(settings);
+    report.addCounts(inputCount, simulatorStatistics.getNavDataPacketCount() - navDataPacketCount,
+            simulatorStatistics.getVideoFrameCount() - videoFrameCount);
+    report.addStatistics(droneController.getInputLatencyStatistics());
+    return report;
+  }
+
+  // The inputs are sent at a fixed rate, late inputs are sent right away so the rate is kept on average
+  private void sendInputs(int seconds)
+  {
+    long periodNanos = TimeUnit.SECONDS.toNanos(1) / settings.getInputRate();
+    long endNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+    long nextInputNanos = System.nanoTime();
+    while (nextInputNanos - endNanos < 0)
+    {
+      long waitNanos = nextInputNanos - System.nanoTime();
+      if (waitNanos > 0)
+      {
+        LockSupport.parkNanos(waitNanos);
+      }
+
+      sendInput();
+      nextInputNanos += periodNanos;
+    }
+  }
+
+  private void sendInput()
+  {
+    double phase = 2 * Math.PI * inputCount / (settings.getInputRate() * SECONDS_PER_CIRCLE);
+    float roll = (float) Math.sin(phase) * INPUT_AMPLITUDE;
+    float pitch = (float) Math.cos(phase) * INPUT_AMPLITUDE;
+    float yaw = (float) Math.sin(2 * phase) * INPUT_AMPLITUDE;
+
+    if (socketDataReceiver != null)
+    {
+      socketDataReceiver.OnData(String.format(Locale.US, PILOT_MESSAGE, roll, pitch, yaw));
+    } else
+    {
+      droneController.move(roll, pitch, yaw, 0);
+    }
+    inputCount++;
+  }
+}
@@ -0,0 +1,119 @@
+package com.dronecontrol.benchmarks.latency;
+
+import com.dronecontrol.droneapi.data.InputLatencyStatistics;
+import com.dronecontrol.droneapi.data.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+// Formats the input latencies as a plain text report with the percentiles of every stage and the distribution of the total
+public class LatencyReport
+{
+  private static final double[] PERCENTILES = new double[]{50, 90, 99, 99.9};
+
+  private static final long[] DISTRIBUTION_BOUNDS_MICROS = new long[]{100, 250, 500, 1000, 2500, 5000, 10000, 15000, 20000, 30000, 50000,
+          100000};
+
+  private final StringWriter text;
+
+  private final PrintWriter writer;
+
+  public LatencyReport(LatencySettings settings)
+  {
+    text = new StringWriter();
+    writer = new PrintWriter(text);
+
+    writer.println("Control latency from the pilot input to the AT*PCMD datagram");
+    writer.println(settings);
+    writer.println();
+  }
+
+  public void addCounts(long inputCount, long navDataPacketCount, long videoFrameCount)
+  {
+    writer.println(String.format("Inputs: %d, nav data packets: %d, video frames: %d", inputCount, navDataPacketCount, videoFrameCount));
+    writer.println();
+  }
+
+  public void addStatistics(InputLatencyStatistics statistics)
+  {
+    writer.println(String.format("%-22s %10s %10s %10s %10s %10s %10s %10s", "Stage (microseconds)", "count", "average", "p50", "p90", "p99",
+            "p99.9", "max"));
+    addStage("input -> command", statistics.getWaitingHistogram());
+    addStage("command -> datagram", statistics.getSendingHistogram());
+    addStage("input -> datagram", statistics.getTotalHistogram());
+    writer.println();
+
+    addDistribution(statistics.getTotalHistogram());
+  }
+
+  private void addStage(String name, LatencyHistogram histogram)
+  {
+    writer.print(String.format("%-22s %10d %10d", name, histogram.getCount(), toMicros(histogram.getAverageNanos())));
+    for (double percentile : PERCENTILES)
+    {
+      writer.print(String.format(" %10d", toMicros(histogram.getPercentileNanos(percentile))));
+    }
+    writer.println(String.format(" %10d", toMicros(histogram.getMaxNanos())));
+  }
+
+  private void addDistribution(LatencyHistogram histogram)
+  {
+    long[] boundsNanos = new long[DISTRIBUTION_BOUNDS_MICROS.length];
+    for (int index = 0; index < boundsNanos.length; index++)
+    {
+      boundsNanos[index] = TimeUnit.MICROSECONDS.toNanos(DISTRIBUTION_BOUNDS_MICROS[index]);
+    }
+    long[] cumulativeCounts = histogram.getCumulativeCounts(boundsNanos);
+    long count = Math.max(1, histogram.getCount());
+
+    writer.println("Distribution of input -> datagram");
+    long previousCount = 0;
+    for (int index = 0; index < boundsNanos.length; index++)
+    {
+      long bucketCount = cumulativeCounts[index] - previousCount;
+      writer.println(String.format("  <= %6d us %10d %7.2f%%%s", DISTRIBUTION_BOUNDS_MICROS[index], bucketCount, 100.0 * bucketCount / count,
+              getBar(bucketCount, count)));
+      previousCount = cumulativeCounts[index];
+    }
+    long remainingCount = histogram.getCount() - previousCount;
+    writer.println(String.format("   > %6d us %10d %7.2f%%%s", DISTRIBUTION_BOUNDS_MICROS[DISTRIBUTION_BOUNDS_MICROS.length - 1], remainingCount,
+            100.0 * remainingCount / count, getBar(remainingCount, count)));
+  }
+
+  private String getBar(long bucketCount, long count)
+  {
+    StringBuilder bar = new StringBuilder(bucketCount > 0 ? " " : "");
+    for (int index = 0; index < 50 * bucketCount / count; index++)
+    {
+      bar.append('#');
+    }
+    return bar.toString();
+  }
+
+  private long toMicros(long nanos)
+  {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
+  }
+
+  public void write(String fileName) throws IOException
+  {
+    writer.flush();
+    try (Writer fileWriter = Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8))
+    {
+      fileWriter.write(text.toString());
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    writer.flush();
+    return text.toString();
+  }
+}
@@ -0,0 +1,100 @@
+package com.dronecontrol.benchmarks.latency;
+
+import com.dronecontrol.droneapi.data.Config;
+import com.dronecontrol.dronesimulator.data.SimulatorConfig;
+
+// Settings of the latency harness, read from system properties like -Dlatency.inputRate=100
+public class LatencySettings
+{
+  public enum InputSource
+  {
+    // Inputs go directly to DroneController.move
+    CONTROLLER,
+    // Inputs are JSON messages passed to the socket data receiver, like the socket control does
+    SOCKET
+  }
+
+  private final InputSource inputSource;
+
+  private final int inputRate;
+
+  private final int warmupSeconds;
+
+  private final int durationSeconds;
+
+  private final int commandRate;
+
+  private final boolean eventLoopEnabled;
+
+  private final int navDataRate;
+
+  private final int videoFrameRate;
+
+  private final String reportFile;
+
+  public LatencySettings()
+  {
+    inputSource = InputSource.valueOf(System.getProperty("latency.inputSource", InputSource.CONTROLLER.name()).toUpperCase());
+    inputRate = Integer.getInteger("latency.inputRate", 60);
+    warmupSeconds = Integer.getInteger("latency.warmupSeconds", 5);
+    durationSeconds = Integer.getInteger("latency.durationSeconds", 30);
+    commandRate = Integer.getInteger("latency.commandRate", Config.DEFAULT_COMMAND_RATE);
+    eventLoopEnabled = Boolean.getBoolean("latency.eventLoop");
+    navDataRate = Integer.getInteger("latency.navDataRate", SimulatorConfig.DEFAULT_NAV_DATA_RATE);
+    videoFrameRate = Integer.getInteger("latency.videoFrameRate", SimulatorConfig.DEFAULT_VIDEO_FRAME_RATE);
+    reportFile = System.getProperty("latency.report", "latency-report.txt");
+  }
+
+  public InputSource getInputSource()
+  {
+    return inputSource;
+  }
+
+  public int getInputRate()
+  {
+    return inputRate;
+  }
+
+  public int getWarmupSeconds()
+  {
+    return warmupSeconds;
+  }
+
+  public int getDurationSeconds()
+  {
+    return durationSeconds;
+  }
+
+  public int getCommandRate()
+  {
+    return commandRate;
+  }
+
+  public boolean isEventLoopEnabled()
+  {
+    return eventLoopEnabled;
+  }
+
+  public int getNavDataRate()
+  {
+    return navDataRate;
+  }
+
+  public int getVideoFrameRate()
+  {
+    return videoFrameRate;
+  }
+
+  public String getReportFile()
+  {
+    return reportFile;
+  }
+
+  @Override
+  public String toString()
+  {
+    return String.format("Input source: %s, input rate: %d/s, command rate: %d/s, event loop: %s, nav data rate: %d/s, " +
+            "video frame rate: %d/s, warmup: %d s, duration: %d s", inputSource, inputRate, commandRate, eventLoopEnabled, navDataRate,
+            videoFrameRate, warmupSeconds, durationSeconds);
+  }
+}
@@ -0,0 +1,74 @@
+package com.dronecontrol.benchmarks.navdata;
+
+import com.dronecontrol.benchmarks.payloads.BenchmarkPayloads;
+import com.dronecontrol.droneapi.data.NavData;
+import com.dronecontrol.droneapi.navdata.NavigationDataDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class NavigationDataDecoderBenchmark
+{
+  // Directory of a traffic recording, the packets of the simulator are used if it is empty
+  @Param(BenchmarkPayloads.SIMULATED)
+  public String recording;
+
+  private List<ByteBuffer> packets;
+
+  private NavigationDataDecoder decoder;
+
+  private int packetIndex;
+
+  @Setup
+  public void setUp()
+  {
+    packets = BenchmarkPayloads.getNavDataPackets(recording);
+    decoder = new NavigationDataDecoder();
+  }
+
+  @Benchmark
+  public void decode(Blackhole blackhole)
+  {
+    NavData navData = decoder.getNavDataFrom(nextPacket());
+
+    // The nav data is a view on the packet, so the values are read like a listener would do
+    blackhole.consume(navData.getState().isFlying());
+    blackhole.consume(navData.getAltitude());
+    blackhole.consume(navData.getPitch());
+    blackhole.consume(navData.getRoll());
+    blackhole.consume(navData.getYaw());
+    blackhole.consume(navData.getBatteryLevel());
+  }
+
+  @Benchmark
+  public NavData decodeAndSnapshot()
+  {
+    return decoder.getNavDataFrom(nextPacket()).snapshot();
+  }
+
+  private ByteBuffer nextPacket()
+  {
+    ByteBuffer packet = packets.get(packetIndex);
+    packetIndex = (packetIndex + 1) % packets.size();
+    return packet;
+  }
+}
@@ -0,0 +1,149 @@
+package com.dronecontrol.benchmarks.payloads;
+
+import com.dronecontrol.droneapi.data.DroneConfiguration;
+import com.dronecontrol.droneapi.recording.RecordType;
+import com.dronecontrol.droneapi.recording.RecordingReader;
+import com.dronecontrol.droneapi.recording.TrafficRecorder;
+import com.dronecontrol.droneapi.recording.VideoRecorder;
+import com.dronecontrol.dronesimulator.SimulatedDrone;
+import com.dronecontrol.dronesimulator.navdata.NavDataEncoder;
+import com.dronecontrol.dronesimulator.video.P264PictureEncoder;
+import com.dronecontrol.dronesimulator.video.P264TexturedPictureEncoder;
+import com.google.common.collect.Lists;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkState;
+
+// Provides the drone payloads for the benchmarks, either read from a recording of a real flight or created by the
+// encoders of the simulator, which produce the same wire format
+public final class BenchmarkPayloads
+{
+  public static final String SIMULATED = "";
+
+  // Pseudo random pictures with AC coefficients and skipped macro blocks, closer to a real video than the flat pictures
+  public static final String TEXTURED_CIF = "textured-cif";
+
+  public static final String TEXTURED_QVGA = "textured-qvga";
+
+  private static final long TEXTURE_SEED = 42;
+
+  private static final int SIMULATED_NAV_DATA_COUNT = 512;
+
+  private static final int SIMULATED_PICTURE_COUNT = 32;
+
+  private static final int NAV_DATA_RATE = 15;
+
+  private static final int TAKE_OFF_REFERENCE = 1 << 9;
+
+  private BenchmarkPayloads()
+  {
+  }
+
+  // Every packet is a direct buffer of its own with the position at 0 and the limit at the end of the packet
+  public static List<ByteBuffer> getNavDataPackets(String recordingDirectory)
+  {
+    if (SIMULATED.equals(recordingDirectory))
+    {
+      return simulateNavDataPackets();
+    }
+    return readRecords(new File(recordingDirectory), TrafficRecorder.NAV_DATA_STREAM, RecordType.NAV_DATA);
+  }
+
+  // Every picture is one complete P264 datagram in a direct buffer of its own
+  public static List<ByteBuffer> getP264Pictures(String recordingDirectory)
+  {
+    if (SIMULATED.equals(recordingDirectory))
+    {
+      return simulateP264Pictures();
+    } else if (TEXTURED_CIF.equals(recordingDirectory))
+    {
+      return simulateTexturedP264Pictures(P264TexturedPictureEncoder.CIF_FORMAT);
+    } else if (TEXTURED_QVGA.equals(recordingDirectory))
+    {
+      return simulateTexturedP264Pictures(P264TexturedPictureEncoder.QVGA_FORMAT);
+    }
+    return readRecords(new File(recordingDirectory), VideoRecorder.VIDEO_STREAM, RecordType.VIDEO_P264);
+  }
+
+  private static List<ByteBuffer> simulateNavDataPackets()
+  {
+    SimulatedDrone drone = new SimulatedDrone("1.11.5", 80);
+    drone.setConfigValue(DroneConfiguration.ENABLE_NAV_DATA_KEY, "TRUE");
+    drone.setReference(TAKE_OFF_REFERENCE);
+
+    NavDataEncoder encoder = new NavDataEncoder();
+    long periodNanos = TimeUnit.SECONDS.toNanos(1) / NAV_DATA_RATE;
+
+    List<ByteBuffer> packets = Lists.newArrayList();
+    for (int index = 0; index < SIMULATED_NAV_DATA_COUNT; index++)
+    {
+      // A slow figure eight, so the angles, speeds and the altitude change from packet to packet
+      double phase = 2 * Math.PI * index / SIMULATED_NAV_DATA_COUNT;
+      drone.setMove(true, (float) Math.sin(phase) * 0.3f, (float) Math.sin(2 * phase) * 0.3f, (float) Math.cos(phase) * 0.2f, 0.1f);
+      drone.advance(periodNanos);
+
+      ByteBuffer packet = ByteBuffer.allocateDirect(NavDataEncoder.MAX_PACKET_SIZE);
+      encoder.encode(drone, index + 1, packet);
+      packets.add(packet);
+    }
+    return packets;
+  }
+
+  private static List<ByteBuffer> simulateP264Pictures()
+  {
+    P264PictureEncoder encoder = new P264PictureEncoder();
+
+    List<ByteBuffer> pictures = Lists.newArrayList();
+    for (int frameIndex = 0; frameIndex < SIMULATED_PICTURE_COUNT; frameIndex++)
+    {
+      ByteBuffer picture = ByteBuffer.allocateDirect(P264PictureEncoder.MAX_PICTURE_SIZE);
+      encoder.encode(frameIndex, picture);
+      pictures.add(picture);
+    }
+    return pictures;
+  }
+
+  private static List<ByteBuffer> simulateTexturedP264Pictures(int pictureFormat)
+  {
+    P264TexturedPictureEncoder encoder = new P264TexturedPictureEncoder(pictureFormat, TEXTURE_SEED);
+
+    List<ByteBuffer> pictures = Lists.newArrayList();
+    for (int frameIndex = 0; frameIndex < SIMULATED_PICTURE_COUNT; frameIndex++)
+    {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(P264TexturedPictureEncoder.MAX_PICTURE_SIZE);
+      encoder.encode(frameIndex, buffer);
+      pictures.add(copy(buffer));
+    }
+    return pictures;
+  }
+
+  private static List<ByteBuffer> readRecords(File directory, String streamName, RecordType recordType)
+  {
+    RecordingReader reader = new RecordingReader(directory, streamName);
+
+    List<ByteBuffer> records = Lists.newArrayList();
+    while (reader.next())
+    {
+      if (reader.getType() == recordType)
+      {
+        records.add(copy(reader.getData()));
+      }
+    }
+
+    checkState(!records.isEmpty(), String.format("The recording in %s contains no %s records", directory, recordType));
+    return records;
+  }
+
+  // The records are copied, so the benchmarks do not read from the mapped segment files
+  private static ByteBuffer copy(ByteBuffer data)
+  {
+    ByteBuffer copy = ByteBuffer.allocateDirect(data.remaining());
+    copy.put(data.duplicate());
+    copy.flip();
+    return copy;
+  }
+}
@@ -0,0 +1,146 @@
+package com.dronecontrol.benchmarks.socket;
+
+import com.dronecontrol.benchmarks.payloads.BenchmarkPayloads;
+import com.dronecontrol.droneapi.data.NavData;
+import com.dronecontrol.droneapi.navdata.NavigationDataDecoder;
+import com.dronecontrol.socketcontrol.input.SocketDataReceiver;
+import com.dronecontrol.socketcontrol.input.SocketDataSender;
+import com.dronecontrol.socketcontrol.input.data.MovementData;
+import com.dronecontrol.socketcontrol.input.data.PilotAction;
+import com.dronecontrol.socketcontrol.input.events.MovementDataListener;
+import com.dronecontrol.socketcontrol.input.events.PilotActionListener;
+import com.dronecontrol.socketcontrol.input.socket.SocketClient;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Parses the pilot messages of the socket server and serializes the drone data sent back to it
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SocketDataBenchmark
+{
+  private static final int MESSAGE_COUNT = 1024;
+
+  private static final String MOVEMENT_MESSAGE = "{\"type\":\"pilot\",\"movementData\":{\"roll\":%.3f,\"pitch\":%.3f,\"yaw\":%.3f,\"gaz\":%.3f}," +
+          "\"pilotActions\":[%s]}";
+
+  private String[] messages;
+
+  private int messageIndex;
+
+  private SocketDataReceiver socketDataReceiver;
+
+  private SocketDataSender socketDataSender;
+
+  private ConnectedSocketClient socketClient;
+
+  private List<ByteBuffer> navDataPackets;
+
+  private NavigationDataDecoder navDataDecoder;
+
+  private int navDataIndex;
+
+  // The listeners keep the last events, the failsafe of the receiver also calls them from its own thread
+  private volatile MovementData lastMovementData;
+
+  private volatile PilotAction lastPilotAction;
+
+  @Setup
+  public void setUp()
+  {
+    // Most messages of the socket server only move the drone, every hundredth one also takes off or lands
+    Random random = new Random(42);
+    messages = new String[MESSAGE_COUNT];
+    for (int index = 0; index < MESSAGE_COUNT; index++)
+    {
+      String pilotActions = index % 100 == 0 ? "\"" + PilotAction.TAKE_OFF_LAND + "\"" : "";
+      messages[index] = String.format(Locale.US, MOVEMENT_MESSAGE, random.nextFloat() * 2 - 1, random.nextFloat() * 2 - 1,
+              random.nextFloat() * 2 - 1, random.nextFloat() * 2 - 1, pilotActions);
+    }
+
+    ObjectMapper objectMapper = new ObjectMapper();
+    socketDataReceiver = new SocketDataReceiver(objectMapper);
+    socketDataReceiver.addMovementDataListener(new MovementDataListener()
+    {
+      @Override
+      public void onMovementData(MovementData movementData)
+      {
+        lastMovementData = movementData;
+      }
+    });
+    socketDataReceiver.addPilotActionListener(new PilotActionListener()
+    {
+      @Override
+      public void onPilotAction(PilotAction pilotAction)
+      {
+        lastPilotAction = pilotAction;
+      }
+    });
+
+    // The client is connected to no server, it keeps the serialized text instead of writing it to a socket
+    socketClient = new ConnectedSocketClient();
+    socketDataSender = new SocketDataSender(socketClient, new JsonFactory(), objectMapper);
+    navDataPackets = BenchmarkPayloads.getNavDataPackets(BenchmarkPayloads.SIMULATED);
+    navDataDecoder = new NavigationDataDecoder();
+  }
+
+  @TearDown
+  public void tearDown()
+  {
+    socketDataReceiver.dispose();
+  }
+
+  @Benchmark
+  public MovementData receivePilotData()
+  {
+    socketDataReceiver.OnData(messages[messageIndex]);
+    messageIndex = (messageIndex + 1) % MESSAGE_COUNT;
+    return lastMovementData;
+  }
+
+  @Benchmark
+  public String sendDroneData()
+  {
+    NavData navData = navDataDecoder.getNavDataFrom(navDataPackets.get(navDataIndex));
+    navDataIndex = (navDataIndex + 1) % navDataPackets.size();
+    socketDataSender.onNavData(navData);
+    return socketClient.lastContent;
+  }
+
+  private static class ConnectedSocketClient extends SocketClient
+  {
+    private String lastContent;
+
+    @Override
+    public void send(String content)
+    {
+      lastContent = content;
+    }
+
+    @Override
+    public boolean isConnected()
+    {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.dronecontrol.benchmarks.video;
+
+import com.dronecontrol.benchmarks.payloads.BenchmarkPayloads;
+import com.dronecontrol.droneapi.video.P264ImageDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkState;
+
+// Compares the frames per second of the decoder with the reference decoder without the lookup tables and DC-only paths,
+// and with the vectorized kernels if the benchmarks are built with the vector profile
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class P264DecoderComparisonBenchmark
+{
+  @Param({BenchmarkPayloads.TEXTURED_CIF, BenchmarkPayloads.TEXTURED_QVGA, BenchmarkPayloads.SIMULATED})
+  public String recording;
+
+  private List<ByteBuffer> pictures;
+
+  private P264ImageDecoder decoder;
+
+  private P264ImageDecoder scalarDecoder;
+
+  private ReferenceP264ImageDecoder referenceDecoder;
+
+  private int pictureIndex;
+
+  @Setup
+  public void setUp()
+  {
+    pictures = BenchmarkPayloads.getP264Pictures(recording);
+    decoder = new P264ImageDecoder();
+    scalarDecoder = new P264ImageDecoder();
+    scalarDecoder.setVectorKernelsEnabled(false);
+    referenceDecoder = new ReferenceP264ImageDecoder();
+
+    verifyPictures();
+  }
+
+  // Both decoders must give the same pixels for every picture of the recording, otherwise the comparison is meaningless
+  private void verifyPictures()
+  {
+    for (int index = 0; index < pictures.size(); index++)
+    {
+      ByteBuffer picture = pictures.get(index);
+      decoder.determineImageFromStream(picture, picture.limit());
+      scalarDecoder.determineImageFromStream(picture, picture.limit());
+      referenceDecoder.determineImageFromStream(picture, picture.limit());
+
+      checkState(Arrays.equals(decoder.getJavaPixelData(), referenceDecoder.getJavaPixelData()),
+              String.format("Picture %d of %s is decoded differently than by the reference decoder", index, recording));
+      checkState(Arrays.equals(scalarDecoder.getJavaPixelData(), referenceDecoder.getJavaPixelData()),
+              String.format("Picture %d of %s is decoded differently without the vector kernels", index, recording));
+    }
+  }
+
+  @Benchmark
+  public int[] decode()
+  {
+    ByteBuffer picture = nextPicture();
+    decoder.determineImageFromStream(picture, picture.limit());
+    return decoder.getJavaPixelData();
+  }
+
+  @Benchmark
+  public int[] decodeWithoutVectorKernels()
+  {
+    ByteBuffer picture = nextPicture();
+    scalarDecoder.determineImageFromStream(picture, picture.limit());
+    return scalarDecoder.getJavaPixelData();
+  }
+
+  @Benchmark
+  public int[] decodeWithReference()
+  {
+    ByteBuffer picture = nextPicture();
+    referenceDecoder.determineImageFromStream(picture, picture.limit());
+    return referenceDecoder.getJavaPixelData();
+  }
+
+  private ByteBuffer nextPicture()
+  {
+    ByteBuffer picture = pictures.get(pictureIndex);
+    pictureIndex = (pictureIndex + 1) % pictures.size();
+    return picture;
+  }
+}
@@ -0,0 +1,87 @@
+package com.dronecontrol.benchmarks.video;
+
+import com.dronecontrol.benchmarks.payloads.BenchmarkPayloads;
+import com.dronecontrol.droneapi.video.P264ImageDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class P264ImageDecoderBenchmark
+{
+  // Directory of a video recording of an AR.Drone 1, the pictures of the simulator are used if it is empty
+  @Param({BenchmarkPayloads.SIMULATED, BenchmarkPayloads.TEXTURED_CIF, BenchmarkPayloads.TEXTURED_QVGA})
+  public String recording;
+
+  // Threads decoding the slices in parallel, 0 decodes on the benchmark thread
+  @Param({"0", "2", "4"})
+  public int parallelism;
+
+  private List<ByteBuffer> pictures;
+
+  private P264ImageDecoder decoder;
+
+  private int pictureIndex;
+
+  @Setup
+  public void setUp()
+  {
+    pictures = BenchmarkPayloads.getP264Pictures(recording);
+    decoder = new P264ImageDecoder();
+    decoder.setParallelism(parallelism);
+  }
+
+  @TearDown
+  public void tearDown()
+  {
+    decoder.setParallelism(0);
+  }
+
+  @Benchmark
+  public int[] decode()
+  {
+    ByteBuffer picture = nextPicture();
+    decoder.determineImageFromStream(picture, picture.limit());
+    return decoder.getJavaPixelData();
+  }
+
+  // Decodes the picture and creates the image like the video retriever does for every received picture
+  @Benchmark
+  public BufferedImage decodeToImage()
+  {
+    ByteBuffer picture = nextPicture();
+    decoder.determineImageFromStream(picture, picture.limit());
+    int width = decoder.getWidth();
+    int height = decoder.getHeight();
+
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    image.setRGB(0, 0, width, height, decoder.getJavaPixelData(), 0, width);
+    return image;
+  }
+
+  private ByteBuffer nextPicture()
+  {
+    ByteBuffer picture = pictures.get(pictureIndex);
+    pictureIndex = (pictureIndex + 1) % pictures.size();
+    return picture;
+  }
+}
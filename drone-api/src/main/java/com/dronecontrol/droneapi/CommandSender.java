@@ -1,26 +1,51 @@
 package com.dronecontrol.droneapi;
 
 import com.dronecontrol.droneapi.commands.ATCommand;
-import com.dronecontrol.droneapi.commands.Command;
+import com.dronecontrol.droneapi.commands.simple.FlightMoveCommand;
 import com.dronecontrol.droneapi.commands.simple.WatchDogCommand;
 import com.dronecontrol.droneapi.components.AddressComponent;
 import com.dronecontrol.droneapi.components.ErrorListenerComponent;
+import com.dronecontrol.droneapi.components.EventLoopComponent;
 import com.dronecontrol.droneapi.components.ReadyStateListenerComponent;
 import com.dronecontrol.droneapi.components.ThreadComponent;
+import com.dronecontrol.droneapi.components.TickSchedulerComponent;
 import com.dronecontrol.droneapi.components.UdpComponent;
+import com.dronecontrol.droneapi.concurrent.BoundedMpscQueue;
+import com.dronecontrol.droneapi.concurrent.LatestValueSlot;
+import com.dronecontrol.droneapi.data.CommandSenderStatistics;
+import com.dronecontrol.droneapi.data.Config;
+import com.dronecontrol.droneapi.data.InputLatencyStatistics;
+import com.dronecontrol.droneapi.data.TickStatistics;
+import com.dronecontrol.droneapi.data.UdpStatistics;
 import com.dronecontrol.droneapi.listeners.ReadyStateChangeListener;
+import com.dronecontrol.droneapi.recording.TrafficRecorder;
 import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 import org.apache.log4j.Logger;
 
-import java.net.DatagramPacket;
 import java.net.InetAddress;
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-import static com.dronecontrol.droneapi.helpers.ThreadHelper.sleep;
+import static com.google.common.base.Preconditions.checkArgument;
 
 public class CommandSender implements Runnable
 {
+  // Maximum size of an AT command packet accepted by the drone
+  public static final int SENDING_BUFFER_SIZE = 1024;
+
+  public static final int COMMAND_QUEUE_CAPACITY = 256;
+
+  public static final int PRIORITY_COMMAND_QUEUE_CAPACITY = 16;
+
+  // Milliseconds between two watch dog commands, independent of the command rate
+  private static final int WATCH_DOG_INTERVAL = 150;
+
+  private static final ATCommand WATCH_DOG_COMMAND = new WatchDogCommand();
+
   private final Logger logger = Logger.getLogger(CommandSender.class);
 
   private final ThreadComponent threadComponent;
@@ -35,12 +60,55 @@ public class CommandSender implements Runnable
 
   private final InternalStateWatcher internalStateWatcher;
 
+  private final TickSchedulerComponent tickSchedulerComponent;
+
+  private final EventLoopComponent eventLoopComponent;
+
+  private final CommandSenderStatistics statistics;
+
+  private final InputLatencyStatistics inputLatencyStatistics;
+
   private ReadyStateChangeListener.ReadyState readyState = ReadyStateChangeListener.ReadyState.NOT_READY;
 
-  private List<ATCommand> commandsToSend;
+  private final BoundedMpscQueue<ATCommand> commandQueue;
+
+  private final BoundedMpscQueue<ATCommand> priorityCommandQueue;
+
+  private final AtomicLong priorityRequestNanos;
+
+  private final List<LatestCommandSlot> latestCommandSlots;
+
+  private final List<ATCommand> pendingCommands;
+
+  private final Runnable tickTask;
+
+  private final Runnable priorityCommandsTask;
+
+  private EventLoopComponent.ScheduledTask scheduledTickTask;
+
+  private ByteBuffer sendingByteBuffer;
+
+  private ByteBuffer commandByteBuffer;
+
+  private boolean batchingEnabled = true;
+
+  private int commandRate = Config.DEFAULT_COMMAND_RATE;
+
+  private boolean eventLoopEnabled = false;
+
+  private TrafficRecorder trafficRecorder;
+
+  private long tickCount;
+
+  private int watchDogTicks;
+
+  private int packetsInCurrentTick;
 
   private int sequenceNumber = 1;
 
+  // The move command with an input time in the sending buffer, its latency is recorded when the buffer is sent
+  private FlightMoveCommand pendingMoveCommand;
+
   private String droneIpAddress;
 
   private int commandPort;
@@ -48,7 +116,8 @@ public class CommandSender implements Runnable
   @Inject
   public CommandSender(ThreadComponent threadComponent, AddressComponent addressComponent, UdpComponent udpComponent,
                        ReadyStateListenerComponent readyStateListenerComponent, ErrorListenerComponent errorListenerComponent,
-                       InternalStateWatcher internalStateWatcher)
+                       InternalStateWatcher internalStateWatcher, TickSchedulerComponent tickSchedulerComponent,
+                       EventLoopComponent eventLoopComponent)
   {
     this.threadComponent = threadComponent;
     this.addressComponent = addressComponent;
@@ -56,8 +125,43 @@ public class CommandSender implements Runnable
     this.readyStateListenerComponent = readyStateListenerComponent;
     this.errorListenerComponent = errorListenerComponent;
     this.internalStateWatcher = internalStateWatcher;
+    this.tickSchedulerComponent = tickSchedulerComponent;
+    this.eventLoopComponent = eventLoopComponent;
+    this.statistics = new CommandSenderStatistics();
+    this.inputLatencyStatistics = new InputLatencyStatistics();
 
-    commandsToSend = Lists.newArrayList();
+    commandQueue = new BoundedMpscQueue<>(COMMAND_QUEUE_CAPACITY);
+    priorityCommandQueue = new BoundedMpscQueue<>(PRIORITY_COMMAND_QUEUE_CAPACITY);
+    priorityRequestNanos = new AtomicLong();
+    latestCommandSlots = new CopyOnWriteArrayList<>();
+    pendingCommands = Lists.newArrayList();
+
+    addLatestWinsCommandType(FlightMoveCommand.class);
+
+    tickTask = new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        tick();
+      }
+    };
+    priorityCommandsTask = new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        trySendingPriorityCommands();
+      }
+    };
+
+    determineSendingBuffer();
+  }
+
+  private void determineSendingBuffer()
+  {
+    sendingByteBuffer = ByteBuffer.allocateDirect(SENDING_BUFFER_SIZE);
+    commandByteBuffer = ByteBuffer.allocate(SENDING_BUFFER_SIZE);
   }
 
   public void start(String droneIpAddress, int commandPort)
@@ -65,14 +169,81 @@ public class CommandSender implements Runnable
     this.droneIpAddress = droneIpAddress;
     this.commandPort = commandPort;
 
-    logger.info("Starting command sender thread");
-    threadComponent.start(this);
+    if (eventLoopEnabled)
+    {
+      logger.info("Starting command sender on the event loop");
+      startOnEventLoop();
+    } else
+    {
+      logger.info("Starting command sender thread");
+      threadComponent.start(this);
+    }
   }
 
   public void stop()
   {
-    logger.info("Stopping command sender thread");
-    threadComponent.stopAndWait();
+    if (eventLoopEnabled)
+    {
+      logger.info("Stopping command sender on the event loop");
+      stopOnEventLoop();
+    } else
+    {
+      logger.info("Stopping command sender thread");
+      threadComponent.stopAndWait();
+    }
+  }
+
+  // The ticks are scheduled on the shared event loop instead of running on an own thread, must be set before starting
+  public void setEventLoopEnabled(boolean eventLoopEnabled)
+  {
+    this.eventLoopEnabled = eventLoopEnabled;
+  }
+
+  // Records every sent datagram, null disables recording, must be set before starting
+  public void setTrafficRecorder(TrafficRecorder trafficRecorder)
+  {
+    this.trafficRecorder = trafficRecorder;
+  }
+
+  public void setBatchingEnabled(boolean batchingEnabled)
+  {
+    this.batchingEnabled = batchingEnabled;
+  }
+
+  public void setCommandRate(int ticksPerSecond)
+  {
+    checkArgument(ticksPerSecond > 0, "The command rate must be positive");
+    this.commandRate = ticksPerSecond;
+  }
+
+  public CommandSenderStatistics getStatistics()
+  {
+    return statistics;
+  }
+
+  public void setSocketBufferSizes(int socketReceiveBufferSize, int socketSendBufferSize)
+  {
+    udpComponent.setSocketBufferSizes(socketReceiveBufferSize, socketSendBufferSize);
+  }
+
+  public void setFixedLocalPortEnabled(boolean fixedLocalPortEnabled)
+  {
+    udpComponent.setLocalPortFixed(fixedLocalPortEnabled);
+  }
+
+  public InputLatencyStatistics getInputLatencyStatistics()
+  {
+    return inputLatencyStatistics;
+  }
+
+  public UdpStatistics getUdpStatistics()
+  {
+    return udpComponent.getStatistics();
+  }
+
+  public TickStatistics getTickStatistics()
+  {
+    return tickSchedulerComponent.getStatistics();
   }
 
   public void addReadyStateChangeListener(ReadyStateChangeListener readyStateChangeListener)
@@ -85,15 +256,80 @@ public class CommandSender implements Runnable
     readyStateListenerComponent.addReadyStateChangeListener(readyStateChangeListener);
   }
 
+  // Only the newest command of this type that was not sent yet is kept, older ones are replaced
+  public void addLatestWinsCommandType(Class<? extends ATCommand> commandType)
+  {
+    if (getLatestCommandSlot(commandType) == null)
+    {
+      latestCommandSlots.add(new LatestCommandSlot(commandType));
+    }
+  }
+
   public void sendCommand(ATCommand command)
   {
-    queue(command);
+    LatestCommandSlot latestCommandSlot = getLatestCommandSlot(command.getClass());
+    if (latestCommandSlot != null)
+    {
+      offer(latestCommandSlot, command);
+    } else
+    {
+      queue(command);
+    }
+  }
+
+  private LatestCommandSlot getLatestCommandSlot(Class<? extends ATCommand> commandType)
+  {
+    for (int index = 0; index < latestCommandSlots.size(); index++)
+    {
+      LatestCommandSlot latestCommandSlot = latestCommandSlots.get(index);
+      if (latestCommandSlot.commandType == commandType)
+      {
+        return latestCommandSlot;
+      }
+    }
+    return null;
   }
 
-  private Command queue(ATCommand command)
+  private void offer(LatestCommandSlot latestCommandSlot, ATCommand command)
   {
-    commandsToSend.add(command);
-    return command;
+    if (latestCommandSlot.slot.offer(command))
+    {
+      statistics.onCommandReplaced();
+    }
+  }
+
+  // Priority commands are sent ahead of all other commands and without waiting for the next tick
+  public void sendPriorityCommand(ATCommand command)
+  {
+    if (!priorityCommandQueue.offer(command))
+    {
+      statistics.onCommandDropped();
+      logger.warn(String.format("The priority command queue is full, dropping command '%s'", command.getClass().getSimpleName()));
+      return;
+    }
+    wakeUp();
+  }
+
+  // Sends the pending priority commands and the flight mode commands of the internal state right away
+  public void wakeUp()
+  {
+    priorityRequestNanos.compareAndSet(0, System.nanoTime());
+    if (eventLoopEnabled)
+    {
+      eventLoopComponent.execute(priorityCommandsTask);
+    } else
+    {
+      tickSchedulerComponent.wakeUp();
+    }
+  }
+
+  private void queue(ATCommand command)
+  {
+    if (!commandQueue.offer(command))
+    {
+      statistics.onCommandDropped();
+      logger.warn(String.format("The command queue is full, dropping command '%s'", command.getClass().getSimpleName()));
+    }
   }
 
   @Override
@@ -110,28 +346,96 @@ public class CommandSender implements Runnable
 
   private void doRun()
   {
-    int count = 1;
     connectToCommandSenderPort();
+    resetTicks();
+    tickSchedulerComponent.start(commandRate);
 
     while (!threadComponent.isStopped())
     {
-      count = trySending(count);
-      changeReadyState();
+      tick();
+
+      while (!tickSchedulerComponent.waitForNextTick())
+      {
+        trySendingPriorityCommands();
+      }
     }
 
     disconnectFromCommandSenderPort();
   }
 
-  private int trySending(int count)
+  private void startOnEventLoop()
+  {
+    eventLoopComponent.execute(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        connectToCommandSenderPort();
+        resetTicks();
+      }
+    });
+
+    long periodNanos = TimeUnit.SECONDS.toNanos(1) / commandRate;
+    scheduledTickTask = eventLoopComponent.scheduleAtFixedRate(tickTask, periodNanos, tickSchedulerComponent.getStatistics());
+  }
+
+  private void stopOnEventLoop()
+  {
+    if (scheduledTickTask == null)
+    {
+      return;
+    }
+
+    scheduledTickTask.cancel();
+    scheduledTickTask = null;
+    eventLoopComponent.execute(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        disconnectFromCommandSenderPort();
+      }
+    });
+  }
+
+  private void resetTicks()
+  {
+    tickCount = 0;
+    watchDogTicks = getWatchDogTicks();
+  }
+
+  private void tick()
+  {
+    trySending(tickCount % watchDogTicks == 0);
+    changeReadyState();
+    tickCount++;
+  }
+
+  private int getWatchDogTicks()
+  {
+    return Math.max(1, commandRate * WATCH_DOG_INTERVAL / 1000);
+  }
+
+  private void trySending(boolean watchDogNeeded)
   {
     try
     {
-      count = sendPendingCommands(count);
+      sendPendingCommands(watchDogNeeded);
     } catch (Throwable e)
     {
       logger.warn("Exception while trying to send data: " + e.getMessage());
     }
-    return count;
+  }
+
+  private void trySendingPriorityCommands()
+  {
+    try
+    {
+      sendPriorityCommands();
+    } catch (Throwable e)
+    {
+      logger.warn("Exception while trying to send priority data: " + e.getMessage());
+    }
   }
 
   private void connectToCommandSenderPort()
@@ -142,53 +446,144 @@ public class CommandSender implements Runnable
     udpComponent.connect(address, commandPort);
   }
 
-  private int sendPendingCommands(int count)
+  private void sendPendingCommands(boolean watchDogNeeded)
+  {
+    List<ATCommand> commands = getCommands(watchDogNeeded);
+    sendAll(commands);
+    completeTick();
+    completePriorityRequest();
+  }
+
+  private void sendPriorityCommands()
+  {
+    List<ATCommand> commands = pendingCommands;
+    addPriorityCommands(commands);
+    sendAll(commands);
+    flushCommandBytes();
+    completePriorityRequest();
+  }
+
+  private void sendAll(List<ATCommand> commands)
   {
-    List<ATCommand> commands = getCommands(count);
-    for (ATCommand command : commands)
+    for (int index = 0; index < commands.size(); index++)
     {
-      send(command);
+      send(commands.get(index));
     }
-    sleep(15);
-    return count + 1;
+    commands.clear();
   }
 
-  private List<ATCommand> getCommands(int count)
+  private List<ATCommand> getCommands(boolean watchDogNeeded)
   {
-    List<ATCommand> commands = commandsToSend;
-    if (count % 10 == 1)
+    List<ATCommand> commands = pendingCommands;
+    addPriorityCommands(commands);
+    commandQueue.drainTo(commands);
+    drainLatestCommandSlots(commands);
+
+    if (watchDogNeeded)
     {
-      commands.add(new WatchDogCommand());
+      commands.add(WATCH_DOG_COMMAND);
     }
-    commands.addAll(internalStateWatcher.getCommandsToUpholdInternalState());
+    internalStateWatcher.addCommandsToUpholdInternalState(commands);
 
-    commandsToSend = Lists.newArrayList();
     return commands;
   }
 
+  private void addPriorityCommands(List<ATCommand> commands)
+  {
+    priorityCommandQueue.drainTo(commands);
+    internalStateWatcher.addFlightModeCommands(commands);
+  }
+
+  private void completePriorityRequest()
+  {
+    long requestNanos = priorityRequestNanos.getAndSet(0);
+    if (requestNanos != 0)
+    {
+      statistics.onPriorityCommandsSent(System.nanoTime() - requestNanos);
+    }
+  }
+
+  private void drainLatestCommandSlots(List<ATCommand> commands)
+  {
+    for (int index = 0; index < latestCommandSlots.size(); index++)
+    {
+      ATCommand command = latestCommandSlots.get(index).slot.take();
+      if (command != null)
+      {
+        commands.add(command);
+      }
+    }
+  }
+
   private void send(ATCommand command)
   {
+    // The preparation command and its command are kept together in one packet if batching is enabled
+    commandByteBuffer.clear();
     if (command.isPreparationCommandNeeded())
     {
-      sendCommandText(command.getPreparationCommandText(getSequenceNumber()));
+      command.writePreparationCommandText(commandByteBuffer, getSequenceNumber());
+      if (!batchingEnabled)
+      {
+        appendCommandBytes(command);
+        commandByteBuffer.clear();
+      }
     }
 
-    sendCommandText(command.getCommandText(getSequenceNumber()));
+    command.writeCommandText(commandByteBuffer, getSequenceNumber());
+    appendCommandBytes(command);
   }
 
-  private void sendCommandText(String commandText)
+  private void appendCommandBytes(ATCommand command)
   {
-    byte[] sendData = commandText.getBytes();
-    InetAddress address = addressComponent.getInetAddress(droneIpAddress);
-    DatagramPacket sendPacket = new DatagramPacket(sendData, sendData.length, address, commandPort);
+    commandByteBuffer.flip();
+    if (sendingByteBuffer.remaining() < commandByteBuffer.remaining())
+    {
+      flushCommandBytes();
+    }
+    sendingByteBuffer.put(commandByteBuffer);
+
+    if (command instanceof FlightMoveCommand && ((FlightMoveCommand) command).hasInputTime())
+    {
+      pendingMoveCommand = (FlightMoveCommand) command;
+    }
 
-    // For debugging purposes ... used very often
-    /*if (!commandText.startsWith("AT*COMWDG"))
+    if (!batchingEnabled)
     {
-      System.out.println(commandText);
-    }*/
+      flushCommandBytes();
+    }
+  }
+
+  private void completeTick()
+  {
+    flushCommandBytes();
+    statistics.onTickCompleted(packetsInCurrentTick);
+    packetsInCurrentTick = 0;
+  }
+
+  private void flushCommandBytes()
+  {
+    int length = sendingByteBuffer.position();
+    if (length == 0)
+    {
+      return;
+    }
+
+    sendingByteBuffer.flip();
+    if (trafficRecorder != null)
+    {
+      trafficRecorder.recordCommands(sendingByteBuffer);
+    }
+    udpComponent.send(sendingByteBuffer);
+    sendingByteBuffer.clear();
+
+    if (pendingMoveCommand != null)
+    {
+      inputLatencyStatistics.onMoveCommandSent(pendingMoveCommand.getInputNanos(), pendingMoveCommand.getCreationNanos(), System.nanoTime());
+      pendingMoveCommand = null;
+    }
 
-    udpComponent.send(sendPacket);
+    statistics.onPacketSent(length);
+    packetsInCurrentTick++;
   }
 
   private int getSequenceNumber()
@@ -210,4 +605,17 @@ public class CommandSender implements Runnable
     logger.info(String.format("Disconnecting from command send port %d", commandPort));
     udpComponent.disconnect();
   }
+
+  private static class LatestCommandSlot
+  {
+    private final Class<? extends ATCommand> commandType;
+
+    private final LatestValueSlot<ATCommand> slot;
+
+    private LatestCommandSlot(Class<? extends ATCommand> commandType)
+    {
+      this.commandType = commandType;
+      this.slot = new LatestValueSlot<>();
+    }
+  }
 }
\ No newline at end of file
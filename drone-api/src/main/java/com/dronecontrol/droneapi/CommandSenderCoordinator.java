@@ -1,5 +1,11 @@
 package com.dronecontrol.droneapi;
 
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.dronecontrol.droneapi.commands.Command;
 import com.dronecontrol.droneapi.commands.ComposedCommand;
@@ -10,8 +16,16 @@ import com.dronecontrol.droneapi.listeners.DroneConfigurationListener;
 import com.dronecontrol.droneapi.listeners.NavDataListener;
 import org.apache.log4j.Logger;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 import static com.google.common.base.Preconditions.checkState;
-import static com.dronecontrol.droneapi.helpers.ThreadHelper.sleep;
 
 public class CommandSenderCoordinator implements NavDataListener, DroneConfigurationListener
 {
@@ -21,9 +35,13 @@ public class CommandSenderCoordinator implements NavDataListener, DroneConfigura
 
   private final CommandSender commandSender;
 
-  private NavData currentNavData;
+  private final List<PendingCheck> pendingChecks;
+
+  private final ScheduledExecutorService timeoutExecutor;
+
+  private volatile NavData currentNavData;
 
-  private DroneConfiguration currentDroneConfiguration;
+  private volatile DroneConfiguration currentDroneConfiguration;
 
   @Inject
   public CommandSenderCoordinator(CommandSender commandSender, NavigationDataRetriever navigationDataRetriever,
@@ -32,69 +50,105 @@ public class CommandSenderCoordinator implements NavDataListener, DroneConfigura
     this.commandSender = commandSender;
     navigationDataRetriever.addNavDataListener(this);
     configurationDataRetriever.addDroneConfigurationListener(this);
+
+    pendingChecks = new CopyOnWriteArrayList<>();
+    timeoutExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("command-timeout-%d").build());
   }
 
   public void executeCommand(Command command)
   {
-    if (command instanceof SimpleCommand)
+    try
     {
-      executeSimpleCommand((SimpleCommand) command);
-    } else if (command instanceof ComposedCommand)
+      executeCommandAsync(command).get();
+    } catch (InterruptedException e)
+    {
+      throw new IllegalStateException("Waiting for the command was interrupted", e);
+    } catch (ExecutionException e)
     {
-      executeComposedCommand((ComposedCommand) command);
+      throw Throwables.propagate(e.getCause());
     }
   }
 
-  private void executeSimpleCommand(SimpleCommand command)
+  // The future completes as soon as the command check succeeds, the timeout of the command is only an upper bound
+  public ListenableFuture<Void> executeCommandAsync(Command command)
   {
-    int currentTry = 0;
-    do
-    {
-      command.execute(commandSender, this);
-      if (checkSuccessful(command, currentTry))
-      {
-        break;
-      }
-      currentTry++;
-    } while (true);
+    return execute(command, 0);
   }
 
-  private void executeComposedCommand(ComposedCommand command)
+  private ListenableFuture<Void> execute(final Command command, final int currentTry)
   {
-    int currentTry = 0;
-    do
+    ListenableFuture<Void> executed;
+    if (command instanceof SimpleCommand)
+    {
+      executed = executeSimpleCommand((SimpleCommand) command);
+    } else if (command instanceof ComposedCommand)
+    {
+      executed = executeAllSubCommands(((ComposedCommand) command).getCommands().iterator());
+    } else
     {
-      executeAllSubCommands(command);
-      if (checkSuccessful(command, currentTry))
+      return Futures.immediateFuture(null);
+    }
+
+    return Futures.transform(executed, new AsyncFunction<Void, Void>()
+    {
+      @Override
+      public ListenableFuture<Void> apply(Void input)
       {
-        break;
+        return checkSuccessful(command, currentTry);
       }
-      currentTry++;
-    } while (true);
+    });
+  }
+
+  private ListenableFuture<Void> executeSimpleCommand(SimpleCommand command)
+  {
+    command.execute(commandSender, this);
+    return Futures.immediateFuture(null);
   }
 
-  private void executeAllSubCommands(ComposedCommand command)
+  private ListenableFuture<Void> executeAllSubCommands(final Iterator<Command> subCommands)
   {
-    for (Command subCommand : command.getCommands())
+    if (!subCommands.hasNext())
     {
-      executeCommand(subCommand);
+      return Futures.immediateFuture(null);
     }
+
+    return Futures.transform(execute(subCommands.next(), 0), new AsyncFunction<Void, Void>()
+    {
+      @Override
+      public ListenableFuture<Void> apply(Void input)
+      {
+        return executeAllSubCommands(subCommands);
+      }
+    });
   }
 
-  private boolean checkSuccessful(Command command, int currentTry)
+  private ListenableFuture<Void> checkSuccessful(final Command command, final int currentTry)
   {
-    waitFor(command);
-
-    try
+    final PendingCheck pendingCheck = new PendingCheck(command);
+    if (command.getTimeoutMillis() == Command.NO_TIMEOUT)
     {
-      command.checkSuccess(currentNavData, currentDroneConfiguration);
-      return true;
-    } catch (Exception e)
+      pendingCheck.checkLastTime();
+    } else
     {
-      checkCurrentTry(currentTry, e);
-      logger.debug(String.format("Command check failed: %s", e.getMessage()));
-      return false;
+      pendingCheck.start();
     }
+
+    return Futures.transform(pendingCheck.result, new AsyncFunction<Boolean, Void>()
+    {
+      @Override
+      public ListenableFuture<Void> apply(Boolean successful)
+      {
+        if (successful)
+        {
+          return Futures.immediateFuture(null);
+        }
+
+        checkCurrentTry(currentTry, pendingCheck.lastError);
+        logger.debug(String.format("Command check failed: %s", pendingCheck.lastError.getMessage()));
+        return execute(command, currentTry + 1);
+      }
+    });
   }
 
   private void checkCurrentTry(int currentTry, Exception e)
@@ -102,14 +156,6 @@ public class CommandSenderCoordinator implements NavDataListener, DroneConfigura
     checkState(currentTry <= MAX_RETRIES, "A check operation was not successful: " + e.getMessage());
   }
 
-  private void waitFor(Command command)
-  {
-    if (command.getTimeoutMillis() != Command.NO_TIMEOUT)
-    {
-      sleep(command.getTimeoutMillis());
-    }
-  }
-
   public void resetConfiguration()
   {
     currentDroneConfiguration = null;
@@ -119,11 +165,97 @@ public class CommandSenderCoordinator implements NavDataListener, DroneConfigura
   public void onDroneConfiguration(DroneConfiguration configuration)
   {
     currentDroneConfiguration = configuration;
+    checkPendingCommands();
   }
 
   @Override
   public void onNavData(NavData navData)
   {
-    currentNavData = navData;
+    // The nav data is reused for the next packet, so a copy is kept while commands are waiting for it
+    if (!pendingChecks.isEmpty() || currentNavData == null)
+    {
+      currentNavData = navData.snapshot();
+    }
+    checkPendingCommands();
+  }
+
+  private void checkPendingCommands()
+  {
+    for (PendingCheck pendingCheck : pendingChecks)
+    {
+      pendingCheck.check();
+    }
+  }
+
+  // Evaluates the check of a command each time new data arrives until it succeeds or the timeout is reached
+  private class PendingCheck
+  {
+    private final Command command;
+
+    private final SettableFuture<Boolean> result;
+
+    private ScheduledFuture<?> timeoutFuture;
+
+    private volatile Exception lastError;
+
+    private PendingCheck(Command command)
+    {
+      this.command = command;
+      this.result = SettableFuture.create();
+    }
+
+    private void start()
+    {
+      pendingChecks.add(this);
+      timeoutFuture = timeoutExecutor.schedule(new Runnable()
+      {
+        @Override
+        public void run()
+        {
+          checkLastTime();
+        }
+      }, command.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void check()
+    {
+      if (!result.isDone() && isSuccessful())
+      {
+        complete(true);
+      }
+    }
+
+    private void checkLastTime()
+    {
+      if (!result.isDone())
+      {
+        complete(isSuccessful());
+      }
+    }
+
+    private boolean isSuccessful()
+    {
+      try
+      {
+        command.checkSuccess(currentNavData, currentDroneConfiguration);
+        return true;
+      } catch (Exception e)
+      {
+        lastError = e;
+        return false;
+      }
+    }
+
+    private void complete(boolean successful)
+    {
+      pendingChecks.remove(this);
+      if (timeoutFuture != null)
+      {
+        timeoutFuture.cancel(false);
+      }
+
+      // Only the first completion counts, the next step then runs on the calling thread without blocking it
+      result.set(successful);
+    }
   }
-}
\ No newline at end of file
+}
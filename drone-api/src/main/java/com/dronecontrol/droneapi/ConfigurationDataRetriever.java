@@ -1,28 +1,38 @@
 package com.dronecontrol.droneapi;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.dronecontrol.droneapi.components.AddressComponent;
+import com.dronecontrol.droneapi.components.ChannelHandler;
+import com.dronecontrol.droneapi.components.ConnectHandler;
 import com.dronecontrol.droneapi.components.ErrorListenerComponent;
+import com.dronecontrol.droneapi.components.EventLoopComponent;
 import com.dronecontrol.droneapi.components.ReadyStateListenerComponent;
 import com.dronecontrol.droneapi.components.TcpComponent;
 import com.dronecontrol.droneapi.components.ThreadComponent;
+import com.dronecontrol.droneapi.configdata.ConfigurationDataDecoder;
 import com.dronecontrol.droneapi.data.DroneConfiguration;
 import com.dronecontrol.droneapi.listeners.DroneConfigurationListener;
 import com.dronecontrol.droneapi.listeners.ReadyStateChangeListener;
+import com.dronecontrol.droneapi.recording.TrafficRecorder;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
 import java.net.SocketTimeoutException;
-import java.util.Collection;
-import java.util.Map;
+import java.nio.ByteBuffer;
 import java.util.Set;
 
+import static com.google.common.base.Preconditions.checkState;
+
 public class ConfigurationDataRetriever implements Runnable
 {
-  public static final String SEPARATOR = " = ";
+  // Only used if a dump is not terminated, it is considered complete then if nothing is received for this time
+  private static final int READ_TIMEOUT = 1000;
+
+  // The connection of the channel fails if the drone does not accept it within this time
+  private static final int CONNECT_TIMEOUT = 3000;
+
+  private static final int RECEIVING_BUFFER_SIZE = 4096;
 
   private final Logger logger = Logger.getLogger(ConfigurationDataRetriever.class);
 
@@ -38,36 +48,131 @@ public class ConfigurationDataRetriever implements Runnable
 
   private final Set<DroneConfigurationListener> droneConfigurationListeners;
 
+  private final ConfigurationDataDecoder decoder;
+
+  private final EventLoopComponent eventLoopComponent;
+
+  private final ChannelHandler channelHandler;
+
+  private final ConnectHandler connectHandler;
+
+  private final Runnable endOfDataTask;
+
+  private final Runnable connectTimeoutTask;
+
+  private final ByteBuffer receivingBuffer;
+
+  private EventLoopComponent.ScheduledTask scheduledEndOfDataTask;
+
+  private EventLoopComponent.ScheduledTask scheduledConnectTimeoutTask;
+
+  private boolean eventLoopEnabled = false;
+
+  private boolean startedOnEventLoop = false;
+
+  // The decoder is not thread safe, recordings may only be replayed while stopped
+  private volatile boolean started = false;
+
+  private TrafficRecorder trafficRecorder;
+
   private String droneIpAddress;
 
   private int configDataPort;
 
   @Inject
   public ConfigurationDataRetriever(ThreadComponent threadComponent, AddressComponent addressComponent, TcpComponent tcpComponent,
-                                    ReadyStateListenerComponent readyStateListenerComponent, ErrorListenerComponent errorListenerComponent)
+                                    ReadyStateListenerComponent readyStateListenerComponent, ErrorListenerComponent errorListenerComponent,
+                                    EventLoopComponent eventLoopComponent, ConfigurationDataDecoder decoder)
   {
     this.threadComponent = threadComponent;
     this.addressComponent = addressComponent;
     this.tcpComponent = tcpComponent;
     this.readyStateListenerComponent = readyStateListenerComponent;
     this.errorListenerComponent = errorListenerComponent;
+    this.eventLoopComponent = eventLoopComponent;
+    this.decoder = decoder;
 
     droneConfigurationListeners = Sets.newHashSet();
+
+    receivingBuffer = ByteBuffer.allocate(RECEIVING_BUFFER_SIZE);
+
+    channelHandler = new ChannelHandler()
+    {
+      @Override
+      public void onReadable()
+      {
+        receivePendingData();
+      }
+    };
+    connectHandler = new ConnectHandler()
+    {
+      @Override
+      public void onConnectable()
+      {
+        finishConnectToConfigDataPort();
+      }
+    };
+    endOfDataTask = new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        scheduledEndOfDataTask = null;
+        completeDump();
+      }
+    };
+    connectTimeoutTask = new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        scheduledConnectTimeoutTask = null;
+        failConnectToConfigDataPort(new IllegalStateException(String.format("Timeout while connecting to config data port %d", configDataPort)));
+      }
+    };
   }
 
   public void start(String droneIpAddress, int configDataPort)
   {
     this.droneIpAddress = droneIpAddress;
     this.configDataPort = configDataPort;
+    started = true;
 
-    logger.info("Starting config data thread");
-    threadComponent.start(this);
+    if (eventLoopEnabled)
+    {
+      logger.info("Starting config data retriever on the event loop");
+      startOnEventLoop();
+    } else
+    {
+      logger.info("Starting config data thread");
+      threadComponent.start(this);
+    }
   }
 
   public void stop()
   {
-    logger.info("Stopping config data thread");
-    threadComponent.stopAndWait();
+    if (eventLoopEnabled)
+    {
+      logger.info("Stopping config data retriever on the event loop");
+      stopOnEventLoop();
+    } else
+    {
+      logger.info("Stopping config data thread");
+      threadComponent.stopAndWait();
+    }
+    started = false;
+  }
+
+  // The channel is multiplexed by the shared event loop instead of an own thread, must be set before starting
+  public void setEventLoopEnabled(boolean eventLoopEnabled)
+  {
+    this.eventLoopEnabled = eventLoopEnabled;
+  }
+
+  // Records every received chunk of config data, null disables recording, must be set before starting
+  public void setTrafficRecorder(TrafficRecorder trafficRecorder)
+  {
+    this.trafficRecorder = trafficRecorder;
   }
 
   public void addReadyStateChangeListener(ReadyStateChangeListener readyStateChangeListener)
@@ -117,7 +222,7 @@ public class ConfigurationDataRetriever implements Runnable
     {
       try
       {
-        processData(readLines());
+        receiveData();
       } catch (Throwable e)
       {
         logger.error("Error processing the config control data", e);
@@ -130,72 +235,201 @@ public class ConfigurationDataRetriever implements Runnable
   private void connectToConfigDataPort()
   {
     logger.info(String.format("Connecting to config data port %d", configDataPort));
-    tcpComponent.connect(addressComponent.getInetAddress(droneIpAddress), configDataPort, 1000);
+    tcpComponent.connect(addressComponent.getInetAddress(droneIpAddress), configDataPort, READ_TIMEOUT);
   }
 
-  public Collection<String> readLines()
+  private void startOnEventLoop()
   {
+    startedOnEventLoop = true;
+    eventLoopComponent.execute(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        startConnectToConfigDataPort();
+      }
+    });
+  }
+
+  // The connection is established by the selector of the event loop, so a slow drone does not block the other channels
+  private void startConnectToConfigDataPort()
+  {
+    logger.info(String.format("Connecting to config data port %d", configDataPort));
     try
     {
-      return doReadLines();
-    } catch (IOException | ClassNotFoundException e)
+      if (tcpComponent.connectChannel(addressComponent.getInetAddress(droneIpAddress), configDataPort))
+      {
+        onConnectedToConfigDataPort();
+      } else
+      {
+        eventLoopComponent.registerConnect(tcpComponent.getChannel(), connectHandler);
+        scheduledConnectTimeoutTask = eventLoopComponent.schedule(connectTimeoutTask, CONNECT_TIMEOUT);
+      }
+    } catch (RuntimeException e)
     {
-      throw new IllegalStateException("Error receiving current lines", e);
+      failConnectToConfigDataPort(e);
     }
   }
 
-  private Collection<String> doReadLines() throws IOException, ClassNotFoundException
+  private void finishConnectToConfigDataPort()
   {
-    Collection<String> receivedLines = Lists.newArrayList();
-
     try
     {
-      String line = tcpComponent.getReader().readLine();
-      while (line != null)
+      if (tcpComponent.finishConnect())
       {
-        receivedLines.add(line);
-        line = tcpComponent.getReader().readLine();
+        cancelConnectTimeoutTask();
+        onConnectedToConfigDataPort();
+      } else
+      {
+        eventLoopComponent.registerConnect(tcpComponent.getChannel(), connectHandler);
       }
-    } catch (SocketTimeoutException e)
+    } catch (RuntimeException e)
     {
-      // EOF is reached (this is a dirty workaround, but there is no indicator telling us when to stop)
+      failConnectToConfigDataPort(e);
     }
+  }
 
-    return receivedLines;
+  private void onConnectedToConfigDataPort()
+  {
+    eventLoopComponent.register(tcpComponent.getChannel(), channelHandler);
+    readyStateListenerComponent.emitReadyStateChange(ReadyStateChangeListener.ReadyState.READY);
   }
 
-  private void processData(Collection<String> lines)
+  private void failConnectToConfigDataPort(Exception e)
   {
-    if (lines.size() == 0)
+    cancelConnectTimeoutTask();
+    disconnectFromConfigDataPort();
+    errorListenerComponent.emitError(e);
+  }
+
+  private void stopOnEventLoop()
+  {
+    if (!startedOnEventLoop)
     {
       return;
     }
 
-    logger.debug("Drone configuration data received");
-    DroneConfiguration droneConfiguration = getDroneConfiguration(lines);
+    startedOnEventLoop = false;
+    eventLoopComponent.execute(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        cancelConnectTimeoutTask();
+        cancelEndOfDataTask();
+        disconnectFromConfigDataPort();
+      }
+    });
+  }
 
-    for (DroneConfigurationListener listener : droneConfigurationListeners)
+  private void receiveData()
+  {
+    try
     {
-      listener.onDroneConfiguration(droneConfiguration);
+      int length = tcpComponent.getInputStream().read(receivingBuffer.array());
+      if (length < 0)
+      {
+        completeDump();
+        return;
+      }
+
+      receivingBuffer.clear();
+      receivingBuffer.limit(length);
+      decodeReceivedBytes();
+    } catch (SocketTimeoutException e)
+    {
+      completeDump();
+    } catch (IOException e)
+    {
+      throw new IllegalStateException("Error receiving config data", e);
     }
   }
 
-  private DroneConfiguration getDroneConfiguration(Collection<String> lines)
+  private void receivePendingData()
   {
-    Map<String, String> configMap = Maps.newHashMap();
+    int length = tcpComponent.read(receivingBuffer);
+    while (length > 0)
+    {
+      receivingBuffer.flip();
+      decodeReceivedBytes();
+      receivingBuffer.clear();
+
+      length = tcpComponent.read(receivingBuffer);
+    }
 
-    for (String line : lines)
+    cancelEndOfDataTask();
+    if (length < 0)
     {
-      String[] configOption = line.split(SEPARATOR);
-      if (configOption.length != 2)
+      logger.warn("The config data channel was closed by the drone");
+      eventLoopComponent.unregister(tcpComponent.getChannel());
+      completeDump();
+    } else if (decoder.hasData())
+    {
+      scheduledEndOfDataTask = eventLoopComponent.schedule(endOfDataTask, READ_TIMEOUT);
+    }
+  }
+
+  private void decodeReceivedBytes()
+  {
+    if (trafficRecorder != null)
+    {
+      trafficRecorder.recordConfigData(receivingBuffer);
+    }
+    decodeBytes(receivingBuffer);
+  }
+
+  // Processes recorded config data as if it was received from the drone
+  public void processRecordedData(ByteBuffer recordedData)
+  {
+    checkState(!started, "Recorded config data can not be processed while the config data retriever is running");
+    decodeBytes(recordedData);
+  }
+
+  private void decodeBytes(ByteBuffer receivingBuffer)
+  {
+    // A buffer may contain the end of one dump and the start of the next one
+    while (receivingBuffer.hasRemaining())
+    {
+      if (decoder.decode(receivingBuffer))
       {
-        continue;
+        processData(decoder.getDroneConfiguration());
       }
+    }
+  }
+
+  private void completeDump()
+  {
+    if (decoder.hasData())
+    {
+      processData(decoder.getDroneConfiguration());
+    }
+  }
 
-      configMap.put(configOption[0], configOption[1]);
+  private void cancelEndOfDataTask()
+  {
+    if (scheduledEndOfDataTask != null)
+    {
+      scheduledEndOfDataTask.cancel();
+      scheduledEndOfDataTask = null;
+    }
+  }
+
+  private void cancelConnectTimeoutTask()
+  {
+    if (scheduledConnectTimeoutTask != null)
+    {
+      scheduledConnectTimeoutTask.cancel();
+      scheduledConnectTimeoutTask = null;
     }
+  }
 
-    return new DroneConfiguration(configMap);
+  private void processData(DroneConfiguration droneConfiguration)
+  {
+    logger.debug("Drone configuration data received");
+    for (DroneConfigurationListener listener : droneConfigurationListeners)
+    {
+      listener.onDroneConfiguration(droneConfiguration);
+    }
   }
 
   private void disconnectFromConfigDataPort()
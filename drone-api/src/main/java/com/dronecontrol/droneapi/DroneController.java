@@ -6,23 +6,35 @@ import com.dronecontrol.droneapi.commands.composed.GetConfigurationDataCommand;
 import com.dronecontrol.droneapi.commands.composed.PlayFlightAnimationCommand;
 import com.dronecontrol.droneapi.commands.composed.PlayLedAnimationCommand;
 import com.dronecontrol.droneapi.commands.composed.SetConfigValueCommand;
+import com.dronecontrol.droneapi.commands.composed.SetConfigValuesCommand;
 import com.dronecontrol.droneapi.commands.composed.SwitchCameraCommand;
 import com.dronecontrol.droneapi.components.ErrorListenerComponent;
 import com.dronecontrol.droneapi.components.ReadyStateListenerComponent;
+import com.dronecontrol.droneapi.data.CommandSenderStatistics;
 import com.dronecontrol.droneapi.data.Config;
 import com.dronecontrol.droneapi.data.DroneConfiguration;
+import com.dronecontrol.droneapi.data.InputLatencyStatistics;
+import com.dronecontrol.droneapi.data.NavDataDispatchStatistics;
+import com.dronecontrol.droneapi.data.NavDataSequenceStatistics;
+import com.dronecontrol.droneapi.data.TickStatistics;
 import com.dronecontrol.droneapi.data.enums.Camera;
 import com.dronecontrol.droneapi.data.enums.ControllerState;
 import com.dronecontrol.droneapi.data.enums.DroneVersion;
 import com.dronecontrol.droneapi.data.enums.FlightAnimation;
 import com.dronecontrol.droneapi.data.enums.LedAnimation;
+import com.dronecontrol.droneapi.data.enums.NavDataAggregation;
 import com.dronecontrol.droneapi.injection.Context;
 import com.dronecontrol.droneapi.listeners.ErrorListener;
 import com.dronecontrol.droneapi.listeners.NavDataListener;
 import com.dronecontrol.droneapi.listeners.ReadyStateChangeListener;
 import com.dronecontrol.droneapi.listeners.VideoDataListener;
+import com.dronecontrol.droneapi.navdata.NavDataHistory;
+import com.dronecontrol.droneapi.recording.TrafficReplayer;
+import com.dronecontrol.droneapi.recording.VideoReplayer;
 import org.apache.log4j.Logger;
 
+import java.io.File;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -51,6 +63,12 @@ public class DroneController
 
   private final InternalStateWatcher internalStateWatcher;
 
+  private final CommandSender atCommandSender;
+
+  private final TrafficReplayer trafficReplayer;
+
+  private final VideoReplayer videoReplayer;
+
   private ExecutorService executor;
 
   private Config config;
@@ -64,7 +82,8 @@ public class DroneController
   public DroneController(ReadyStateListenerComponent readyStateListenerComponent, ErrorListenerComponent errorListenerComponent,
                          DroneStartupCoordinator droneStartupCoordinator, CommandSenderCoordinator commandSenderCoordinator,
                          NavigationDataRetriever navigationDataRetriever, VideoRetrieverP264 videoRetrieverP264,
-                         VideoRetrieverH264 videoRetrieverH264, InternalStateWatcher internalStateWatcher)
+                         VideoRetrieverH264 videoRetrieverH264, InternalStateWatcher internalStateWatcher, CommandSender atCommandSender,
+                         TrafficReplayer trafficReplayer, VideoReplayer videoReplayer)
   {
     this.readyStateListenerComponent = readyStateListenerComponent;
     this.errorListenerComponent = errorListenerComponent;
@@ -74,6 +93,9 @@ public class DroneController
     this.videoRetrieverP264 = videoRetrieverP264;
     this.videoRetrieverH264 = videoRetrieverH264;
     this.internalStateWatcher = internalStateWatcher;
+    this.atCommandSender = atCommandSender;
+    this.trafficReplayer = trafficReplayer;
+    this.videoReplayer = videoReplayer;
   }
 
   public void startAsync(final Config config)
@@ -153,6 +175,21 @@ public class DroneController
     navigationDataRetriever.addNavDataListener(navDataListener);
   }
 
+  public void addNavDataListener(NavDataListener navDataListener, int queueCapacity)
+  {
+    navigationDataRetriever.addNavDataListener(navDataListener, queueCapacity);
+  }
+
+  public void addRateLimitedNavDataListener(NavDataListener navDataListener, float maxRateHz, NavDataAggregation aggregation)
+  {
+    navigationDataRetriever.addRateLimitedNavDataListener(navDataListener, maxRateHz, aggregation);
+  }
+
+  public NavDataDispatchStatistics getNavDataDispatchStatistics(NavDataListener navDataListener)
+  {
+    return navigationDataRetriever.getNavDataDispatchStatistics(navDataListener);
+  }
+
   public void removeNavDataListener(NavDataListener navDataListener)
   {
     navigationDataRetriever.removeNavDataListener(navDataListener);
@@ -182,12 +219,51 @@ public class DroneController
     return droneStartupCoordinator.getDroneConfiguration();
   }
 
+  public CommandSenderStatistics getCommandSenderStatistics()
+  {
+    return atCommandSender.getStatistics();
+  }
+
+  public InputLatencyStatistics getInputLatencyStatistics()
+  {
+    return atCommandSender.getInputLatencyStatistics();
+  }
+
+  public TickStatistics getCommandTickStatistics()
+  {
+    return atCommandSender.getTickStatistics();
+  }
+
+  public NavDataSequenceStatistics getNavDataSequenceStatistics()
+  {
+    return navigationDataRetriever.getSequenceStatistics();
+  }
+
+  // Passes a recording made with Config.setRecordingDirectory to the listeners, the controller must not be running since
+  // the recording goes through the same decoders as the received data
+  public void replayRecording(String recordingDirectory, float speed)
+  {
+    trafficReplayer.replay(new File(recordingDirectory), speed);
+  }
+
+  // Passes a video recording to the video listeners, starting at the last keyframe before the given frame
+  public void replayVideoRecording(String recordingDirectory, float speed, int startFrameNumber)
+  {
+    videoReplayer.replay(new File(recordingDirectory), speed, startFrameNumber);
+  }
+
+  public NavDataHistory getNavDataHistory()
+  {
+    return navigationDataRetriever.getHistory();
+  }
+
   public void takeOff()
   {
     checkInitializationState();
 
     logger.debug("Taking off");
     internalStateWatcher.requestTakeOff();
+    atCommandSender.wakeUp();
   }
 
   public void land()
@@ -196,6 +272,7 @@ public class DroneController
 
     logger.debug("Landing");
     internalStateWatcher.requestLand();
+    atCommandSender.wakeUp();
   }
 
   public void emergency()
@@ -204,6 +281,7 @@ public class DroneController
 
     logger.debug("Setting emergency");
     internalStateWatcher.requestEmergency();
+    atCommandSender.wakeUp();
   }
 
   public void flatTrim()
@@ -215,11 +293,17 @@ public class DroneController
   }
 
   public void move(float roll, float pitch, float yaw, float gaz)
+  {
+    move(roll, pitch, yaw, gaz, System.nanoTime());
+  }
+
+  // The input time (System.nanoTime) is when the input was received, e.g. from a socket, the input latency is measured from it
+  public void move(float roll, float pitch, float yaw, float gaz, long inputNanos)
   {
     checkInitializationState();
 
     logger.trace(String.format("Moving - roll: %.2f, pitch: %.2f, yaw: %.2f, gaz: %.2f", roll, pitch, yaw, gaz));
-    internalStateWatcher.requestMove(roll, pitch, yaw, gaz);
+    internalStateWatcher.requestMove(roll, pitch, yaw, gaz, inputNanos);
   }
 
   public Future switchCamera(Camera camera)
@@ -254,6 +338,15 @@ public class DroneController
     return executeCommandsAsync(new SetConfigValueCommand(config.getLoginData(), key, value), new GetConfigurationDataCommand());
   }
 
+  // Writes all values one after another and verifies them with a single configuration download
+  public Future setConfigValues(Map<String, Object> values)
+  {
+    checkInitializationState();
+
+    logger.debug(String.format("Setting config values %s", values.toString()));
+    return executeCommandsAsync(new SetConfigValuesCommand(config.getLoginData(), values));
+  }
+
   public void executeCommands(Command... commands)
   {
     for (Command command : commands)
@@ -3,6 +3,7 @@ package com.dronecontrol.droneapi;
 import com.google.inject.Inject;
 import com.dronecontrol.droneapi.commands.composed.InitializeConfigurationCommand;
 import com.dronecontrol.droneapi.components.AddressComponent;
+import com.dronecontrol.droneapi.components.EventLoopComponent;
 import com.dronecontrol.droneapi.data.Config;
 import com.dronecontrol.droneapi.data.DroneConfiguration;
 import com.dronecontrol.droneapi.data.NavData;
@@ -11,8 +12,12 @@ import com.dronecontrol.droneapi.data.enums.DroneVersion;
 import com.dronecontrol.droneapi.listeners.DroneConfigurationListener;
 import com.dronecontrol.droneapi.listeners.NavDataListener;
 import com.dronecontrol.droneapi.listeners.ReadyStateChangeListener;
+import com.dronecontrol.droneapi.recording.TrafficRecorder;
+import com.dronecontrol.droneapi.recording.VideoRecorder;
 import org.apache.log4j.Logger;
 
+import java.io.File;
+
 import static com.google.common.base.Preconditions.checkState;
 import static com.dronecontrol.droneapi.helpers.ThreadHelper.sleep;
 
@@ -38,6 +43,8 @@ public class DroneStartupCoordinator implements ReadyStateChangeListener, NavDat
 
   private final ConfigurationDataRetriever configurationDataRetriever;
 
+  private final EventLoopComponent eventLoopComponent;
+
   private Config config;
 
   private ControllerState currentState;
@@ -46,11 +53,15 @@ public class DroneStartupCoordinator implements ReadyStateChangeListener, NavDat
 
   private DroneConfiguration droneConfiguration;
 
+  private TrafficRecorder trafficRecorder;
+
+  private VideoRecorder videoRecorder;
+
   @Inject
   public DroneStartupCoordinator(CommandSenderCoordinator commandSenderCoordinator, AddressComponent addressComponent, VersionReader versionReader,
                                  CommandSender commandSender, NavigationDataRetriever navigationDataRetriever,
                                  VideoRetrieverP264 videoRetrieverP264, VideoRetrieverH264 videoRetrieverH264,
-                                 ConfigurationDataRetriever configurationDataRetriever)
+                                 ConfigurationDataRetriever configurationDataRetriever, EventLoopComponent eventLoopComponent)
   {
     this.commandSenderCoordinator = commandSenderCoordinator;
     this.addressComponent = addressComponent;
@@ -60,6 +71,7 @@ public class DroneStartupCoordinator implements ReadyStateChangeListener, NavDat
     this.videoRetrieverP264 = videoRetrieverP264;
     this.videoRetrieverH264 = videoRetrieverH264;
     this.configurationDataRetriever = configurationDataRetriever;
+    this.eventLoopComponent = eventLoopComponent;
 
     addListeners(commandSender);
     currentState = ControllerState.STARTED;
@@ -138,11 +150,50 @@ public class DroneStartupCoordinator implements ReadyStateChangeListener, NavDat
 
   private void startWorkers()
   {
+    startEventLoop();
+    startRecording();
+
+    commandSender.setBatchingEnabled(config.isCommandBatchingEnabled());
+    commandSender.setCommandRate(config.getCommandRate());
+    commandSender.setSocketBufferSizes(config.getSocketReceiveBufferSize(), config.getSocketSendBufferSize());
+    commandSender.setFixedLocalPortEnabled(config.isFixedLocalPortsEnabled());
+    commandSender.setEventLoopEnabled(config.isEventLoopEnabled());
     commandSender.start(config.getDroneIpAddress(), config.getCommandPort());
+    configurationDataRetriever.setEventLoopEnabled(config.isEventLoopEnabled());
     configurationDataRetriever.start(config.getDroneIpAddress(), config.getConfigDataPort());
+    navigationDataRetriever.setSocketBufferSizes(config.getSocketReceiveBufferSize(), config.getSocketSendBufferSize());
+    navigationDataRetriever.setFixedLocalPortEnabled(config.isFixedLocalPortsEnabled());
+    navigationDataRetriever.setEventLoopEnabled(config.isEventLoopEnabled());
     navigationDataRetriever.start(config.getDroneIpAddress(), config.getNavDataPort());
   }
 
+  private void startEventLoop()
+  {
+    if (config.isEventLoopEnabled())
+    {
+      eventLoopComponent.start();
+    }
+  }
+
+  private void startRecording()
+  {
+    if (config.getRecordingDirectory() != null)
+    {
+      logger.info(String.format("Recording the drone traffic into %s", config.getRecordingDirectory()));
+      trafficRecorder = new TrafficRecorder(new File(config.getRecordingDirectory()));
+      if (config.isVideoRecordingEnabled())
+      {
+        videoRecorder = new VideoRecorder(new File(config.getRecordingDirectory()));
+      }
+    }
+
+    commandSender.setTrafficRecorder(trafficRecorder);
+    configurationDataRetriever.setTrafficRecorder(trafficRecorder);
+    navigationDataRetriever.setTrafficRecorder(trafficRecorder);
+    videoRetrieverP264.setVideoRecorder(videoRecorder);
+    videoRetrieverH264.setVideoRecorder(videoRecorder);
+  }
+
   private void login()
   {
     if (droneVersion == DroneVersion.AR_DRONE_1)
@@ -158,6 +209,10 @@ public class DroneStartupCoordinator implements ReadyStateChangeListener, NavDat
   {
     if (droneVersion == DroneVersion.AR_DRONE_1)
     {
+      videoRetrieverP264.setSocketBufferSizes(config.getSocketReceiveBufferSize(), config.getSocketSendBufferSize());
+      videoRetrieverP264.setFixedLocalPortEnabled(config.isFixedLocalPortsEnabled());
+      videoRetrieverP264.setEventLoopEnabled(config.isEventLoopEnabled());
+      videoRetrieverP264.setDecodingParallelism(config.getVideoDecodingParallelism());
       videoRetrieverP264.start(config.getDroneIpAddress(), config.getVideoDataPort());
     } else
     {
@@ -181,6 +236,8 @@ public class DroneStartupCoordinator implements ReadyStateChangeListener, NavDat
     navigationDataRetriever.stop();
     commandSender.stop();
     stopVideoRetriever();
+    stopEventLoop();
+    stopRecording();
   }
 
   private void stopVideoRetriever()
@@ -194,6 +251,28 @@ public class DroneStartupCoordinator implements ReadyStateChangeListener, NavDat
     }
   }
 
+  private void stopEventLoop()
+  {
+    if (eventLoopComponent.isStarted())
+    {
+      eventLoopComponent.stop();
+    }
+  }
+
+  private void stopRecording()
+  {
+    if (trafficRecorder != null)
+    {
+      trafficRecorder.close();
+      trafficRecorder = null;
+    }
+    if (videoRecorder != null)
+    {
+      videoRecorder.close();
+      videoRecorder = null;
+    }
+  }
+
   @Override
   public void onDroneConfiguration(DroneConfiguration configuration)
   {
@@ -1,12 +1,12 @@
 package com.dronecontrol.droneapi;
 
-import com.google.common.collect.Lists;
 import com.dronecontrol.droneapi.commands.ATCommand;
 import com.dronecontrol.droneapi.commands.simple.FlatTrimCommand;
 import com.dronecontrol.droneapi.commands.simple.FlightModeCommand;
 import com.dronecontrol.droneapi.commands.simple.FlightMoveCommand;
 import com.dronecontrol.droneapi.data.InternalState;
 import com.dronecontrol.droneapi.data.NavData;
+import com.dronecontrol.droneapi.data.NavDataState;
 import com.dronecontrol.droneapi.data.enums.FlightMode;
 import com.dronecontrol.droneapi.listeners.NavDataListener;
 
@@ -17,54 +17,78 @@ public class InternalStateWatcher implements NavDataListener
 {
   private static final float MOVE_THRESHOLD = 0.02f;
 
+  private static final ATCommand TAKE_OFF_COMMAND = new FlightModeCommand(FlightMode.TAKE_OFF);
+
+  private static final ATCommand LAND_COMMAND = new FlightModeCommand(FlightMode.LAND);
+
+  private static final ATCommand EMERGENCY_COMMAND = new FlightModeCommand(FlightMode.EMERGENCY);
+
+  private static final ATCommand FLAT_TRIM_COMMAND = new FlatTrimCommand();
+
   private InternalState internalState;
 
-  private NavData currentNavData;
+  // Only used by the command sender thread, which sends it within the same tick, so it is updated for every move
+  private final FlightMoveCommand moveCommand;
+
+  // Only the state flags are kept, the nav data itself is reused for the next packet
+  private final NavDataState currentState;
+
+  private volatile boolean navDataReceived;
 
   @Inject
   public InternalStateWatcher(NavigationDataRetriever navigationDataRetriever)
   {
     navigationDataRetriever.addNavDataListener(this);
     internalState = new InternalState();
+    currentState = new NavDataState();
+    moveCommand = new FlightMoveCommand(0, 0, 0, 0);
   }
 
-  public Collection<ATCommand> getCommandsToUpholdInternalState()
+  // The flight mode commands are safety critical, they are sent ahead of all other commands and repeated until confirmed
+  public void addFlightModeCommands(Collection<ATCommand> commands)
   {
-    if (currentNavData == null)
+    if (!navDataReceived)
     {
-      return Lists.newArrayList();
+      return;
     }
 
-    Collection<ATCommand> commands = Lists.newArrayList();
-    addNecessaryCommands(commands);
-    resetState();
-
-    return commands;
-  }
-
-  private void addNecessaryCommands(Collection<ATCommand> commands)
-  {
-    if (internalState.isTakeOffRequested() && !currentNavData.getState().isFlying())
+    if (internalState.isTakeOffRequested() && !currentState.isFlying())
     {
-      commands.add(new FlightModeCommand(FlightMode.TAKE_OFF));
+      commands.add(TAKE_OFF_COMMAND);
     }
-    if (internalState.isLandRequested() && currentNavData.getState().isFlying())
+    if (internalState.isLandRequested() && currentState.isFlying())
     {
-      commands.add(new FlightModeCommand(FlightMode.LAND));
+      commands.add(LAND_COMMAND);
     }
-    if (internalState.isEmergencyRequested() && currentNavData.getState().isEmergency())
+    if (internalState.isEmergencyRequested() && currentState.isEmergency())
     {
-      commands.add(new FlightModeCommand(FlightMode.EMERGENCY));
+      commands.add(EMERGENCY_COMMAND);
     }
+  }
+
+  public void addCommandsToUpholdInternalState(Collection<ATCommand> commands)
+  {
+    if (!navDataReceived)
+    {
+      return;
+    }
+
+    addNecessaryCommands(commands);
+    resetState();
+  }
+
+  private void addNecessaryCommands(Collection<ATCommand> commands)
+  {
     if (internalState.isFlatTrimRequested())
     {
-      commands.add(new FlatTrimCommand());
+      commands.add(FLAT_TRIM_COMMAND);
     }
 
     if (internalState.isMoveRequested())
     {
-      commands.add(new FlightMoveCommand(internalState.getRequestedRoll(), internalState.getRequestedPitch(),
-              internalState.getRequestedYaw(), internalState.getRequestedGaz()));
+      moveCommand.update(internalState.getRequestedRoll(), internalState.getRequestedPitch(),
+              internalState.getRequestedYaw(), internalState.getRequestedGaz(), internalState.getMoveInputNanos());
+      commands.add(moveCommand);
     }
   }
 
@@ -76,17 +100,17 @@ public class InternalStateWatcher implements NavDataListener
 
     // Emergency state may reset itself
     // If it is set in nav data, there is no need for further checks
-    if (internalState.isEmergencyRequested() && currentNavData.getState().isEmergency())
+    if (internalState.isEmergencyRequested() && currentState.isEmergency())
     {
       internalState.setEmergencyRequested(false);
     }
 
     // Flying and landing states can be reset whenever the requested state occurs
-    if (internalState.isTakeOffRequested() && currentNavData.getState().isFlying())
+    if (internalState.isTakeOffRequested() && currentState.isFlying())
     {
       internalState.setTakeOffRequested(false);
     }
-    if (internalState.isLandRequested() && !currentNavData.getState().isFlying())
+    if (internalState.isLandRequested() && !currentState.isFlying())
     {
       internalState.setLandRequested(false);
     }
@@ -119,16 +143,23 @@ public class InternalStateWatcher implements NavDataListener
   @Override
   public void onNavData(NavData navData)
   {
-    currentNavData = navData;
+    currentState.setStateFlags(navData.getState().getStateFlags());
+    navDataReceived = true;
   }
 
-  public void requestMove(float roll, float pitch, float yaw, float gaz)
+  // The input time is when the pilot input was received, the latency until the move command is sent is measured from it
+  public void requestMove(float roll, float pitch, float yaw, float gaz, long inputNanos)
   {
     if (Math.abs(roll - internalState.getRequestedRoll()) > MOVE_THRESHOLD
             || Math.abs(pitch - internalState.getRequestedPitch()) > MOVE_THRESHOLD
             || Math.abs(yaw - internalState.getRequestedYaw()) > MOVE_THRESHOLD
             || Math.abs(gaz - internalState.getRequestedGaz()) > MOVE_THRESHOLD)
     {
+      // Inputs which are not sent yet are merged into one move command, the oldest input counts for the latency
+      if (!internalState.isMoveRequested())
+      {
+        internalState.setMoveInputNanos(inputNanos);
+      }
       internalState.setMoveRequested(true);
       internalState.setRequestedRoll(roll);
       internalState.setRequestedPitch(pitch);
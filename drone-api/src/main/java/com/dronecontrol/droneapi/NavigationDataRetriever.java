@@ -1,28 +1,49 @@
 package com.dronecontrol.droneapi;
 
-import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.dronecontrol.droneapi.components.AddressComponent;
+import com.dronecontrol.droneapi.components.ChannelHandler;
 import com.dronecontrol.droneapi.components.ErrorListenerComponent;
+import com.dronecontrol.droneapi.components.EventLoopComponent;
 import com.dronecontrol.droneapi.components.ReadyStateListenerComponent;
 import com.dronecontrol.droneapi.components.ThreadComponent;
 import com.dronecontrol.droneapi.components.UdpComponent;
+import com.dronecontrol.droneapi.concurrent.ByteBufferPool;
 import com.dronecontrol.droneapi.data.NavData;
+import com.dronecontrol.droneapi.data.NavDataDispatchStatistics;
+import com.dronecontrol.droneapi.data.NavDataSequenceStatistics;
+import com.dronecontrol.droneapi.data.UdpStatistics;
+import com.dronecontrol.droneapi.data.enums.NavDataAggregation;
 import com.dronecontrol.droneapi.listeners.NavDataListener;
 import com.dronecontrol.droneapi.listeners.ReadyStateChangeListener;
+import com.dronecontrol.droneapi.navdata.AsyncNavDataListener;
+import com.dronecontrol.droneapi.navdata.NavDataHistory;
+import com.dronecontrol.droneapi.navdata.NavDataSequenceTracker;
 import com.dronecontrol.droneapi.navdata.NavigationDataDecoder;
+import com.dronecontrol.droneapi.navdata.RateLimitedNavDataListener;
+import com.dronecontrol.droneapi.recording.TrafficRecorder;
 import org.apache.log4j.Logger;
 
-import java.net.DatagramPacket;
 import java.net.InetAddress;
-import java.util.Set;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 import static com.dronecontrol.droneapi.helpers.ThreadHelper.sleep;
+import static com.google.common.base.Preconditions.checkState;
 
 public class NavigationDataRetriever implements Runnable
 {
   public static final int RECEIVING_BUFFER_SIZE = 10240;
 
+  private static final int MAX_IDLE_BUFFERS = 4;
+
+  private static final int INITIALIZATION_DELAY = 100;
+
+  // Power of two, about 40 seconds of nav data in the full mode of the drone, 160 KB outside of the heap
+  private static final int HISTORY_CAPACITY = 8192;
+
   private final Logger logger = Logger.getLogger(NavigationDataRetriever.class);
 
   private final ThreadComponent threadComponent;
@@ -37,11 +58,33 @@ public class NavigationDataRetriever implements Runnable
 
   private final NavigationDataDecoder decoder;
 
-  private final Set<NavDataListener> navDataListeners;
+  private final List<NavDataListener> navDataListeners;
+
+  private final List<AsyncNavDataListener> asyncNavDataListeners;
+
+  private final ByteBufferPool bufferPool;
+
+  private final NavDataSequenceTracker sequenceTracker;
+
+  private final NavDataHistory history;
+
+  private final EventLoopComponent eventLoopComponent;
+
+  private final ChannelHandler channelHandler;
 
-  private byte[] receivingBuffer;
+  private boolean eventLoopEnabled = false;
 
-  private DatagramPacket incomingDataPacket;
+  // The decoder, the sequence tracker and the history are not thread safe, recordings may only be replayed while stopped
+  private volatile boolean started = false;
+
+  private TrafficRecorder trafficRecorder;
+
+  private EventLoopComponent.ScheduledTask initializationTask;
+
+  private EventLoopComponent.ScheduledTask keepAliveTask;
+
+  // Only accessed by the event loop thread
+  private boolean dataReceived;
 
   private String droneIpAddress;
 
@@ -50,7 +93,7 @@ public class NavigationDataRetriever implements Runnable
   @Inject
   public NavigationDataRetriever(ThreadComponent threadComponent, AddressComponent addressComponent, UdpComponent udpComponent,
                                  ReadyStateListenerComponent readyStateListenerComponent, ErrorListenerComponent errorListenerComponent,
-                                 NavigationDataDecoder decoder)
+                                 NavigationDataDecoder decoder, EventLoopComponent eventLoopComponent)
   {
     super();
     this.threadComponent = threadComponent;
@@ -59,24 +102,83 @@ public class NavigationDataRetriever implements Runnable
     this.readyStateListenerComponent = readyStateListenerComponent;
     this.errorListenerComponent = errorListenerComponent;
     this.decoder = decoder;
-    navDataListeners = Sets.newLinkedHashSet();
-
-    determineDatagramPackets();
+    this.eventLoopComponent = eventLoopComponent;
+    navDataListeners = new CopyOnWriteArrayList<>();
+    asyncNavDataListeners = new CopyOnWriteArrayList<>();
+    // One byte more than the largest packet, so a packet which fills the buffer was truncated
+    bufferPool = new ByteBufferPool(RECEIVING_BUFFER_SIZE + 1, MAX_IDLE_BUFFERS);
+    sequenceTracker = new NavDataSequenceTracker();
+    history = new NavDataHistory(HISTORY_CAPACITY);
+
+    channelHandler = new ChannelHandler()
+    {
+      @Override
+      public void onReadable()
+      {
+        receivePendingData();
+      }
+    };
   }
 
   public void start(String droneIpAddress, int navDataPort)
   {
     this.droneIpAddress = droneIpAddress;
     this.navDataPort = navDataPort;
+    started = true;
 
-    logger.info("Starting nav data thread");
-    threadComponent.start(this);
+    if (eventLoopEnabled)
+    {
+      logger.info("Starting nav data retriever on the event loop");
+      startOnEventLoop();
+    } else
+    {
+      logger.info("Starting nav data thread");
+      threadComponent.start(this);
+    }
   }
 
   public void stop()
   {
-    logger.info("Stopping nav data thread");
-    threadComponent.stopAndWait();
+    if (eventLoopEnabled)
+    {
+      logger.info("Stopping nav data retriever on the event loop");
+      stopOnEventLoop();
+    } else
+    {
+      logger.info("Stopping nav data thread");
+      threadComponent.stopAndWait();
+    }
+    started = false;
+  }
+
+  // The channel is multiplexed by the shared event loop instead of an own thread, must be set before starting
+  public void setEventLoopEnabled(boolean eventLoopEnabled)
+  {
+    this.eventLoopEnabled = eventLoopEnabled;
+  }
+
+  // Records every received packet before it is decoded, null disables recording, must be set before starting
+  public void setTrafficRecorder(TrafficRecorder trafficRecorder)
+  {
+    this.trafficRecorder = trafficRecorder;
+  }
+
+  // Processes a recorded packet as if it was received from the drone
+  public void processRecordedData(ByteBuffer recordedData)
+  {
+    checkNotStarted();
+    processData(recordedData);
+  }
+
+  public void resetSequenceTracking()
+  {
+    checkNotStarted();
+    sequenceTracker.reset();
+  }
+
+  private void checkNotStarted()
+  {
+    checkState(!started, "Recorded nav data can not be processed while the nav data retriever is running");
   }
 
   public void addReadyStateChangeListener(ReadyStateChangeListener readyStateChangeListener)
@@ -91,24 +193,106 @@ public class NavigationDataRetriever implements Runnable
 
   public void addNavDataListener(NavDataListener navDataListener)
   {
-    if (!navDataListeners.contains(navDataListener))
+    if (!navDataListeners.contains(navDataListener) && getRateLimitedNavDataListener(navDataListener) == null)
     {
       navDataListeners.add(navDataListener);
     }
   }
 
+  // The nav data is downsampled here once instead of every listener dropping the packets it is not interested in
+  public void addRateLimitedNavDataListener(NavDataListener navDataListener, float maxRateHz, NavDataAggregation aggregation)
+  {
+    if (!navDataListeners.contains(navDataListener) && getRateLimitedNavDataListener(navDataListener) == null)
+    {
+      navDataListeners.add(new RateLimitedNavDataListener(navDataListener, maxRateHz, aggregation));
+    }
+  }
+
+  // The listener is called on its own thread, if it is slower than the drone the oldest queued nav data is dropped
+  public void addNavDataListener(NavDataListener navDataListener, int queueCapacity)
+  {
+    if (!navDataListeners.contains(navDataListener) && getAsyncNavDataListener(navDataListener) == null)
+    {
+      asyncNavDataListeners.add(new AsyncNavDataListener(navDataListener, queueCapacity));
+    }
+  }
+
   public void removeNavDataListener(NavDataListener navDataListener)
   {
     if (navDataListeners.contains(navDataListener))
     {
       navDataListeners.remove(navDataListener);
     }
+
+    RateLimitedNavDataListener rateLimitedNavDataListener = getRateLimitedNavDataListener(navDataListener);
+    if (rateLimitedNavDataListener != null)
+    {
+      navDataListeners.remove(rateLimitedNavDataListener);
+    }
+
+    AsyncNavDataListener asyncNavDataListener = getAsyncNavDataListener(navDataListener);
+    if (asyncNavDataListener != null)
+    {
+      asyncNavDataListeners.remove(asyncNavDataListener);
+      asyncNavDataListener.shutdown();
+    }
+  }
+
+  // Only available for listeners which were added with a queue capacity
+  public NavDataDispatchStatistics getNavDataDispatchStatistics(NavDataListener navDataListener)
+  {
+    AsyncNavDataListener asyncNavDataListener = getAsyncNavDataListener(navDataListener);
+    return asyncNavDataListener != null ? asyncNavDataListener.getStatistics() : null;
+  }
+
+  private RateLimitedNavDataListener getRateLimitedNavDataListener(NavDataListener navDataListener)
+  {
+    for (NavDataListener listener : navDataListeners)
+    {
+      if (listener instanceof RateLimitedNavDataListener
+              && ((RateLimitedNavDataListener) listener).getNavDataListener() == navDataListener)
+      {
+        return (RateLimitedNavDataListener) listener;
+      }
+    }
+    return null;
+  }
+
+  private AsyncNavDataListener getAsyncNavDataListener(NavDataListener navDataListener)
+  {
+    for (AsyncNavDataListener asyncNavDataListener : asyncNavDataListeners)
+    {
+      if (asyncNavDataListener.getNavDataListener() == navDataListener)
+      {
+        return asyncNavDataListener;
+      }
+    }
+    return null;
+  }
+
+  public void setSocketBufferSizes(int socketReceiveBufferSize, int socketSendBufferSize)
+  {
+    udpComponent.setSocketBufferSizes(socketReceiveBufferSize, socketSendBufferSize);
+  }
+
+  public void setFixedLocalPortEnabled(boolean fixedLocalPortEnabled)
+  {
+    udpComponent.setLocalPortFixed(fixedLocalPortEnabled);
+  }
+
+  public UdpStatistics getUdpStatistics()
+  {
+    return udpComponent.getStatistics();
   }
 
-  private void determineDatagramPackets()
+  public NavDataSequenceStatistics getSequenceStatistics()
   {
-    receivingBuffer = new byte[RECEIVING_BUFFER_SIZE];
-    incomingDataPacket = new DatagramPacket(receivingBuffer, receivingBuffer.length);
+    return sequenceTracker.getStatistics();
+  }
+
+  public NavDataHistory getHistory()
+  {
+    return history;
   }
 
   @Override
@@ -131,28 +315,120 @@ public class NavigationDataRetriever implements Runnable
 
     while (!threadComponent.isStopped())
     {
+      ByteBuffer receivingBuffer = bufferPool.acquire();
       try
       {
-        udpComponent.receive(incomingDataPacket);
-        processData();
+        if (udpComponent.receive(receivingBuffer))
+        {
+          receivedData(receivingBuffer);
+        } else
+        {
+          // The drone may have restarted its nav data stream while nothing arrived
+          sequenceTracker.reset();
+        }
 
         udpComponent.sendKeepAlivePacket();
       } catch (Throwable e)
       {
         udpComponent.sendKeepAlivePacket();
         logger.error(e.getMessage(), e);
+      } finally
+      {
+        bufferPool.release(receivingBuffer);
       }
     }
 
     disconnectFromNavDataPort();
   }
 
+  private void startOnEventLoop()
+  {
+    eventLoopComponent.execute(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        connectToNavDataPort();
+        eventLoopComponent.register(udpComponent.getChannel(), channelHandler);
+      }
+    });
+
+    initializationTask = eventLoopComponent.schedule(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        udpComponent.sendKeepAlivePacket();
+        readyStateListenerComponent.emitReadyStateChange(ReadyStateChangeListener.ReadyState.READY);
+      }
+    }, INITIALIZATION_DELAY);
+
+    // Replaces the receive timeout of the thread mode, the drone stops sending if it does not get keep alive packets
+    keepAliveTask = eventLoopComponent.scheduleAtFixedRate(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        checkKeepAlive();
+      }
+    }, TimeUnit.MILLISECONDS.toNanos(UdpComponent.DEFAULT_TIMEOUT), null);
+  }
+
+  private void stopOnEventLoop()
+  {
+    if (keepAliveTask == null)
+    {
+      return;
+    }
+
+    initializationTask.cancel();
+    keepAliveTask.cancel();
+    keepAliveTask = null;
+    eventLoopComponent.execute(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        disconnectFromNavDataPort();
+      }
+    });
+  }
+
+  private void receivePendingData()
+  {
+    ByteBuffer receivingBuffer = bufferPool.acquire();
+    try
+    {
+      while (udpComponent.receiveNow(receivingBuffer))
+      {
+        dataReceived = true;
+        receivedData(receivingBuffer);
+        udpComponent.sendKeepAlivePacket();
+      }
+    } finally
+    {
+      bufferPool.release(receivingBuffer);
+    }
+  }
+
+  private void checkKeepAlive()
+  {
+    if (!dataReceived)
+    {
+      udpComponent.getStatistics().onTimeout();
+      sequenceTracker.reset();
+      udpComponent.sendKeepAlivePacket();
+    }
+    dataReceived = false;
+  }
+
   private void connectToNavDataPort()
   {
     InetAddress address = addressComponent.getInetAddress(droneIpAddress);
 
     logger.info(String.format("Connecting to nav data port %d", navDataPort));
     udpComponent.connect(address, navDataPort);
+    sequenceTracker.reset();
   }
 
   private void initializeCommunication()
@@ -161,25 +437,56 @@ public class NavigationDataRetriever implements Runnable
     udpComponent.sendKeepAlivePacket();
   }
 
-  private void processData()
+  private void receivedData(ByteBuffer receivingBuffer)
   {
-    NavData navData = getNavData();
-    if (navData == null)
+    if (trafficRecorder != null)
+    {
+      trafficRecorder.recordNavData(receivingBuffer);
+    }
+    processData(receivingBuffer);
+  }
+
+  private void processData(ByteBuffer receivingBuffer)
+  {
+    NavData navData = getNavData(receivingBuffer);
+    long receivedNanos = System.nanoTime();
+    if (navData == null || !sequenceTracker.accept(navData.getSequenceNumber(), receivedNanos))
     {
       return;
     }
-    logger.trace(String.format("Received nav data - battery level: %d percent, altitude: %.2f", navData.getBatteryLevel(), navData.getAltitude()));
-    for (NavDataListener listener : navDataListeners)
+    history.append(navData, receivedNanos);
+    if (logger.isTraceEnabled())
+    {
+      logger.trace(String.format("Received nav data - battery level: %d percent, altitude: %.2f", navData.getBatteryLevel(), navData.getAltitude()));
+    }
+
+    // Iterated by index to avoid creating an iterator for every packet
+    for (int index = 0; index < navDataListeners.size(); index++)
+    {
+      navDataListeners.get(index).onNavData(navData);
+    }
+
+    if (!asyncNavDataListeners.isEmpty())
+    {
+      dispatchAsync(navData, receivedNanos);
+    }
+  }
+
+  // One snapshot is shared by all asynchronous listeners since it is never modified
+  private void dispatchAsync(NavData navData, long receivedNanos)
+  {
+    NavData snapshot = navData.snapshot();
+    for (int index = 0; index < asyncNavDataListeners.size(); index++)
     {
-      listener.onNavData(navData);
+      asyncNavDataListeners.get(index).offer(snapshot, receivedNanos);
     }
   }
 
-  private NavData getNavData()
+  private NavData getNavData(ByteBuffer receivingBuffer)
   {
     try
     {
-      return decoder.getNavDataFrom(receivingBuffer, incomingDataPacket.getLength());
+      return decoder.getNavDataFrom(receivingBuffer);
     } catch (RuntimeException e)
     {
       // Happens from time to time
@@ -50,11 +50,21 @@ public abstract class VideoRetrieverAbstract implements Runnable
     droneAddress = addressComponent.getInetAddress(droneIpAddress);
     this.videoDataPort = videoDataPort;
 
+    startWorker();
+  }
+
+  public void stop()
+  {
+    stopWorker();
+  }
+
+  protected void startWorker()
+  {
     logger.info("Starting video thread");
     threadComponent.start(this);
   }
 
-  public void stop()
+  protected void stopWorker()
   {
     logger.info("Stopping video thread");
     threadComponent.stopAndWait();
@@ -7,11 +7,15 @@ import com.dronecontrol.droneapi.components.TcpComponent;
 import com.dronecontrol.droneapi.components.ThreadComponent;
 import com.dronecontrol.droneapi.listeners.ImageListener;
 import com.dronecontrol.droneapi.listeners.VideoDataListener;
+import com.dronecontrol.droneapi.recording.RecordingInputStream;
+import com.dronecontrol.droneapi.recording.VideoRecorder;
 import com.dronecontrol.droneapi.video.H264VideoDecoder;
+import com.dronecontrol.droneapi.video.VideoStreamSource;
 import com.google.inject.Inject;
 import org.apache.log4j.Logger;
 
 import java.awt.image.BufferedImage;
+import java.io.InputStream;
 
 import static com.dronecontrol.droneapi.helpers.ThreadHelper.sleep;
 
@@ -23,6 +27,10 @@ public class VideoRetrieverH264 extends VideoRetrieverAbstract implements ImageL
 
   private final H264VideoDecoder videoDecoder;
 
+  private final VideoStreamSource videoStreamSource;
+
+  private VideoRecorder videoRecorder;
+
   @Inject
   public VideoRetrieverH264(ThreadComponent threadComponent, AddressComponent addressComponent, TcpComponent tcpComponent,
                             ReadyStateListenerComponent readyStateListenerComponent, ErrorListenerComponent errorListenerComponent,
@@ -31,6 +39,28 @@ public class VideoRetrieverH264 extends VideoRetrieverAbstract implements ImageL
     super(threadComponent, addressComponent, readyStateListenerComponent, errorListenerComponent);
     this.tcpComponent = tcpComponent;
     this.videoDecoder = videoDecoder;
+
+    videoStreamSource = new VideoStreamSource()
+    {
+      @Override
+      public InputStream getInputStream()
+      {
+        InputStream inputStream = VideoRetrieverH264.this.tcpComponent.getInputStream();
+        return videoRecorder != null ? new RecordingInputStream(inputStream, videoRecorder) : inputStream;
+      }
+
+      @Override
+      public void reconnect()
+      {
+        VideoRetrieverH264.this.tcpComponent.reconnect();
+      }
+    };
+  }
+
+  // Records the undecoded stream with an index of the frames, null disables recording, must be set before starting
+  public void setVideoRecorder(VideoRecorder videoRecorder)
+  {
+    this.videoRecorder = videoRecorder;
   }
 
   @Override
@@ -63,7 +93,7 @@ public class VideoRetrieverH264 extends VideoRetrieverAbstract implements ImageL
   {
     try
     {
-      videoDecoder.startDecoding(tcpComponent, this);
+      videoDecoder.startDecoding(videoStreamSource, this);
     } catch (Exception e)
     {
       logger.warn("Exception while decoding video stream: " + e.getMessage());
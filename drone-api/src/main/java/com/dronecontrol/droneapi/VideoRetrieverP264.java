@@ -2,16 +2,21 @@ package com.dronecontrol.droneapi;
 
 import com.google.inject.Inject;
 import com.dronecontrol.droneapi.components.AddressComponent;
+import com.dronecontrol.droneapi.components.ChannelHandler;
 import com.dronecontrol.droneapi.components.ErrorListenerComponent;
+import com.dronecontrol.droneapi.components.EventLoopComponent;
 import com.dronecontrol.droneapi.components.ReadyStateListenerComponent;
 import com.dronecontrol.droneapi.components.ThreadComponent;
 import com.dronecontrol.droneapi.components.UdpComponent;
+import com.dronecontrol.droneapi.data.UdpStatistics;
 import com.dronecontrol.droneapi.listeners.VideoDataListener;
+import com.dronecontrol.droneapi.recording.VideoRecorder;
 import com.dronecontrol.droneapi.video.P264ImageDecoder;
 import org.apache.log4j.Logger;
 
 import java.awt.image.BufferedImage;
-import java.net.DatagramPacket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
 
 import static com.dronecontrol.droneapi.helpers.ThreadHelper.sleep;
 
@@ -21,30 +26,155 @@ public class VideoRetrieverP264 extends VideoRetrieverAbstract
 
   public static final int RECEIVING_BUFFER_SIZE = 1024000;
 
+  private static final int INITIALIZATION_DELAY = 1000;
+
   private final UdpComponent udpComponent;
 
   private final P264ImageDecoder imageDecoder;
 
-  private byte[] receivingBuffer;
+  private final EventLoopComponent eventLoopComponent;
+
+  private final ChannelHandler channelHandler;
+
+  private ByteBuffer receivingBuffer;
+
+  private boolean eventLoopEnabled = false;
+
+  private VideoRecorder videoRecorder;
+
+  private EventLoopComponent.ScheduledTask initializationTask;
 
-  private DatagramPacket incomingDataPacket;
+  private EventLoopComponent.ScheduledTask keepAliveTask;
+
+  // Only accessed by the event loop thread
+  private boolean dataReceived;
 
   @Inject
   public VideoRetrieverP264(ThreadComponent threadComponent, AddressComponent addressComponent, UdpComponent udpComponent,
                             ReadyStateListenerComponent readyStateListenerComponent, ErrorListenerComponent errorListenerComponent,
-                            P264ImageDecoder imageDecoder)
+                            P264ImageDecoder imageDecoder, EventLoopComponent eventLoopComponent)
   {
     super(threadComponent, addressComponent, readyStateListenerComponent, errorListenerComponent);
     this.udpComponent = udpComponent;
     this.imageDecoder = imageDecoder;
+    this.eventLoopComponent = eventLoopComponent;
+
+    receivingBuffer = ByteBuffer.allocateDirect(RECEIVING_BUFFER_SIZE);
+
+    channelHandler = new ChannelHandler()
+    {
+      @Override
+      public void onReadable()
+      {
+        receivePendingData();
+      }
+    };
+  }
 
-    determineDatagramPackets();
+  // The channel is multiplexed by the shared event loop instead of an own thread, must be set before starting
+  public void setEventLoopEnabled(boolean eventLoopEnabled)
+  {
+    this.eventLoopEnabled = eventLoopEnabled;
   }
 
-  private void determineDatagramPackets()
+  // Decodes the slices of every picture on this many threads, 0 decodes on the receiving thread, must be set before starting
+  public void setDecodingParallelism(int parallelism)
   {
-    receivingBuffer = new byte[RECEIVING_BUFFER_SIZE];
-    incomingDataPacket = new DatagramPacket(receivingBuffer, receivingBuffer.length, getDroneAddress(), getVideoDataPort());
+    imageDecoder.setParallelism(parallelism);
+  }
+
+  @Override
+  protected void startWorker()
+  {
+    if (!eventLoopEnabled)
+    {
+      super.startWorker();
+      return;
+    }
+
+    logger.info("Starting video retriever on the event loop");
+    eventLoopComponent.execute(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        connectToVideoDataPort();
+        eventLoopComponent.register(udpComponent.getChannel(), channelHandler);
+        udpComponent.sendKeepAlivePacket();
+      }
+    });
+
+    initializationTask = eventLoopComponent.schedule(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        setReady();
+      }
+    }, INITIALIZATION_DELAY);
+
+    keepAliveTask = eventLoopComponent.scheduleAtFixedRate(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        checkKeepAlive();
+      }
+    }, TimeUnit.MILLISECONDS.toNanos(UdpComponent.DEFAULT_TIMEOUT), null);
+  }
+
+  @Override
+  protected void stopWorker()
+  {
+    if (!eventLoopEnabled)
+    {
+      super.stopWorker();
+      return;
+    }
+    if (keepAliveTask == null)
+    {
+      return;
+    }
+
+    logger.info("Stopping video retriever on the event loop");
+    initializationTask.cancel();
+    keepAliveTask.cancel();
+    keepAliveTask = null;
+    eventLoopComponent.execute(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        disconnectFromVideoDataPort();
+      }
+    });
+  }
+
+  // Records every received picture with an index of the frames, null disables recording, must be set before starting
+  public void setVideoRecorder(VideoRecorder videoRecorder)
+  {
+    this.videoRecorder = videoRecorder;
+  }
+
+  // Decodes a recorded picture as if it was received from the drone
+  public void processRecordedData(ByteBuffer recordedData)
+  {
+    processData(recordedData);
+  }
+
+  public void setSocketBufferSizes(int socketReceiveBufferSize, int socketSendBufferSize)
+  {
+    udpComponent.setSocketBufferSizes(socketReceiveBufferSize, socketSendBufferSize);
+  }
+
+  public void setFixedLocalPortEnabled(boolean fixedLocalPortEnabled)
+  {
+    udpComponent.setLocalPortFixed(fixedLocalPortEnabled);
+  }
+
+  public UdpStatistics getUdpStatistics()
+  {
+    return udpComponent.getStatistics();
   }
 
   @Override
@@ -58,8 +188,10 @@ public class VideoRetrieverP264 extends VideoRetrieverAbstract
     {
       try
       {
-        udpComponent.receive(incomingDataPacket);
-        processData();
+        if (udpComponent.receive(receivingBuffer))
+        {
+          receivedData();
+        }
 
         udpComponent.sendKeepAlivePacket();
       } catch (RuntimeException e)
@@ -71,6 +203,32 @@ public class VideoRetrieverP264 extends VideoRetrieverAbstract
     disconnectFromVideoDataPort();
   }
 
+  private void receivePendingData()
+  {
+    while (udpComponent.receiveNow(receivingBuffer))
+    {
+      dataReceived = true;
+      try
+      {
+        receivedData();
+      } catch (RuntimeException e)
+      {
+        // This happens sometimes, but does not hinder the video data from being displayed
+      }
+      udpComponent.sendKeepAlivePacket();
+    }
+  }
+
+  private void checkKeepAlive()
+  {
+    if (!dataReceived)
+    {
+      udpComponent.getStatistics().onTimeout();
+      udpComponent.sendKeepAlivePacket();
+    }
+    dataReceived = false;
+  }
+
   private void connectToVideoDataPort()
   {
     logger.info(String.format("Connecting to video data port %d", getVideoDataPort()));
@@ -83,9 +241,23 @@ public class VideoRetrieverP264 extends VideoRetrieverAbstract
     sleep(1000);
   }
 
-  private void processData()
+  private void receivedData()
+  {
+    if (videoRecorder == null)
+    {
+      processData(receivingBuffer);
+      return;
+    }
+
+    // The decoder resets the position and limit of the buffer, so it is recorded first
+    videoRecorder.recordP264(receivingBuffer);
+    processData(receivingBuffer);
+    videoRecorder.indexP264Frame(imageDecoder.getFrameIndex(), imageDecoder.getPictureType() == P264ImageDecoder.INTRA_PICTURE);
+  }
+
+  private void processData(ByteBuffer buffer)
   {
-    BufferedImage image = getImage();
+    BufferedImage image = getImage(buffer);
 
     logger.trace(String.format("Received video data - width: %d, height: %d", image.getWidth(), image.getHeight()));
 
@@ -97,7 +269,12 @@ public class VideoRetrieverP264 extends VideoRetrieverAbstract
 
   public BufferedImage getImage()
   {
-    imageDecoder.determineImageFromStream(receivingBuffer, incomingDataPacket.getLength());
+    return getImage(receivingBuffer);
+  }
+
+  private BufferedImage getImage(ByteBuffer buffer)
+  {
+    imageDecoder.determineImageFromStream(buffer, buffer.limit());
     int width = imageDecoder.getWidth();
     int height = imageDecoder.getHeight();
 
@@ -1,10 +1,16 @@
 package com.dronecontrol.droneapi.commands;
 
+import java.nio.ByteBuffer;
+
 public interface ATCommand extends SimpleCommand
 {
   String getCommandText(int sequenceNumber);
 
   String getPreparationCommandText(int sequenceNumber);
 
+  void writeCommandText(ByteBuffer buffer, int sequenceNumber);
+
+  void writePreparationCommandText(ByteBuffer buffer, int sequenceNumber);
+
   boolean isPreparationCommandNeeded();
-}
\ No newline at end of file
+}
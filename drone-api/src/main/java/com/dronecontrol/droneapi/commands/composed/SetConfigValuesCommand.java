@@ -0,0 +1,87 @@
+package com.dronecontrol.droneapi.commands.composed;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.dronecontrol.droneapi.commands.Command;
+import com.dronecontrol.droneapi.commands.ComposedCommand;
+import com.dronecontrol.droneapi.commands.simple.SetConfigValueATCommand;
+import com.dronecontrol.droneapi.data.DroneConfiguration;
+import com.dronecontrol.droneapi.data.LoginData;
+import com.dronecontrol.droneapi.data.NavData;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+public class SetConfigValuesCommand implements ComposedCommand
+{
+  private final LoginData loginData;
+
+  private final Map<String, Object> values;
+
+  public SetConfigValuesCommand(LoginData loginData, Map<String, Object> values)
+  {
+    checkArgument(!values.isEmpty(), "At least one config value must be given");
+
+    this.loginData = loginData;
+    this.values = ImmutableMap.copyOf(values);
+  }
+
+  @Override
+  public Collection<Command> getCommands()
+  {
+    // Each write still needs its own ACK cycle, but the configuration is only fetched once to verify all of them
+    List<Command> commands = Lists.newArrayList();
+    for (Map.Entry<String, Object> entry : values.entrySet())
+    {
+      commands.add(new SetConfigValueCommand(loginData, entry.getKey(), entry.getValue()));
+    }
+    commands.add(new GetConfigurationDataCommand());
+
+    return commands;
+  }
+
+  @Override
+  public int getTimeoutMillis()
+  {
+    return NO_TIMEOUT;
+  }
+
+  @Override
+  public void checkSuccess(NavData navData, DroneConfiguration droneConfiguration)
+  {
+    for (Map.Entry<String, Object> entry : values.entrySet())
+    {
+      String value = droneConfiguration.getConfig().get(entry.getKey());
+      checkState(value != null && isConfigValue(entry.getValue(), value),
+              String.format("The config value '%s' was not set to '%s', but was '%s'", entry.getKey(), entry.getValue(), value));
+    }
+  }
+
+  // The drone formats the values on its own, e.g. floats with six decimals, so numbers are compared by value
+  private static boolean isConfigValue(Object expectedValue, String value)
+  {
+    if (expectedValue instanceof Boolean)
+    {
+      return SetConfigValueATCommand.getConfigValueText(expectedValue).equalsIgnoreCase(value.trim());
+    }
+    if (expectedValue instanceof Number)
+    {
+      try
+      {
+        if (expectedValue instanceof Float || expectedValue instanceof Double)
+        {
+          return Float.parseFloat(value) == ((Number) expectedValue).floatValue();
+        }
+        return Double.parseDouble(value) == ((Number) expectedValue).doubleValue();
+      } catch (NumberFormatException e)
+      {
+        return false;
+      }
+    }
+    return expectedValue.toString().equals(value);
+  }
+}
@@ -6,10 +6,16 @@ import com.dronecontrol.droneapi.commands.ATCommand;
 import com.dronecontrol.droneapi.data.DroneConfiguration;
 import com.dronecontrol.droneapi.data.NavData;
 
+import java.nio.ByteBuffer;
+
+import static com.dronecontrol.droneapi.helpers.AsciiEncodingHelper.putAscii;
+
 public abstract class ATCommandAbstract implements ATCommand
 {
   private static final String CARRIAGE_RETURN = "\r";
 
+  private static final byte CARRIAGE_RETURN_BYTE = '\r';
+
   private static final int NO_TIMEOUT = 0;
 
   private final boolean preparationCommandNeeded;
@@ -37,8 +43,42 @@ public abstract class ATCommandAbstract implements ATCommand
     return getCommand(sequenceNumber) + CARRIAGE_RETURN;
   }
 
+  @Override
+  public void writePreparationCommandText(ByteBuffer buffer, int sequenceNumber)
+  {
+    if (writePreparationCommand(buffer, sequenceNumber))
+    {
+      buffer.put(CARRIAGE_RETURN_BYTE);
+    }
+  }
+
+  @Override
+  public void writeCommandText(ByteBuffer buffer, int sequenceNumber)
+  {
+    writeCommand(buffer, sequenceNumber);
+    buffer.put(CARRIAGE_RETURN_BYTE);
+  }
+
   protected abstract String getCommand(int sequenceNumber);
 
+  // Overwrite with an allocation free version if the command is sent frequently
+  protected void writeCommand(ByteBuffer buffer, int sequenceNumber)
+  {
+    putAscii(buffer, getCommand(sequenceNumber));
+  }
+
+  protected boolean writePreparationCommand(ByteBuffer buffer, int sequenceNumber)
+  {
+    String preparationCommand = getPreparationCommand(sequenceNumber);
+    if (preparationCommand == null)
+    {
+      return false;
+    }
+
+    putAscii(buffer, preparationCommand);
+    return true;
+  }
+
   protected String getPreparationCommand(int sequenceNumber)
   {
     return null;
@@ -0,0 +1,26 @@
+package com.dronecontrol.droneapi.commands.simple;
+
+import java.nio.ByteBuffer;
+
+import static com.dronecontrol.droneapi.helpers.AsciiEncodingHelper.getAsciiBytes;
+import static com.dronecontrol.droneapi.helpers.AsciiEncodingHelper.putInt;
+
+public class ATCommandTemplate
+{
+  private final byte[] prefix;
+
+  private final byte[] suffix;
+
+  public ATCommandTemplate(String prefix, String suffix)
+  {
+    this.prefix = getAsciiBytes(prefix);
+    this.suffix = getAsciiBytes(suffix);
+  }
+
+  public void write(ByteBuffer buffer, int sequenceNumber)
+  {
+    buffer.put(prefix);
+    putInt(buffer, sequenceNumber);
+    buffer.put(suffix);
+  }
+}
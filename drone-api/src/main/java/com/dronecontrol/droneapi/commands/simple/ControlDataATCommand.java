@@ -5,11 +5,17 @@ import com.dronecontrol.droneapi.CommandSenderCoordinator;
 import com.dronecontrol.droneapi.data.DroneConfiguration;
 import com.dronecontrol.droneapi.data.NavData;
 import com.dronecontrol.droneapi.data.enums.ControlDataMode;
+import com.google.common.collect.Maps;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
 
 import static com.google.common.base.Preconditions.checkState;
 
 public class ControlDataATCommand extends ATCommandAbstract
 {
+  private static final Map<ControlDataMode, ATCommandTemplate> TEMPLATES = createTemplates();
+
   private final ControlDataMode controlDataMode;
 
   public ControlDataATCommand(ControlDataMode controlDataMode)
@@ -28,12 +34,28 @@ public class ControlDataATCommand extends ATCommandAbstract
     super.execute(commandSender, commandSenderCoordinator);
   }
 
+  private static Map<ControlDataMode, ATCommandTemplate> createTemplates()
+  {
+    Map<ControlDataMode, ATCommandTemplate> templates = Maps.newEnumMap(ControlDataMode.class);
+    for (ControlDataMode controlDataMode : ControlDataMode.values())
+    {
+      templates.put(controlDataMode, new ATCommandTemplate("AT*CTRL=", "," + controlDataMode.getControlModeCode() + ",0"));
+    }
+    return templates;
+  }
+
   @Override
   protected String getCommand(int sequenceNumber)
   {
     return String.format("AT*CTRL=%d,%d,0", sequenceNumber, controlDataMode.getControlModeCode());
   }
 
+  @Override
+  protected void writeCommand(ByteBuffer buffer, int sequenceNumber)
+  {
+    TEMPLATES.get(controlDataMode).write(buffer, sequenceNumber);
+  }
+
   @Override
   public int getTimeoutMillis()
   {
@@ -1,9 +1,15 @@
 package com.dronecontrol.droneapi.commands.simple;
 
 import com.dronecontrol.droneapi.data.enums.FlightMode;
+import com.google.common.collect.Maps;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
 
 public class FlightModeCommand extends ATCommandAbstract
 {
+  private static final Map<FlightMode, ATCommandTemplate> TEMPLATES = createTemplates();
+
   private final FlightMode flightMode;
 
   public FlightModeCommand(FlightMode flightMode)
@@ -12,9 +18,25 @@ public class FlightModeCommand extends ATCommandAbstract
     this.flightMode = flightMode;
   }
 
+  private static Map<FlightMode, ATCommandTemplate> createTemplates()
+  {
+    Map<FlightMode, ATCommandTemplate> templates = Maps.newEnumMap(FlightMode.class);
+    for (FlightMode flightMode : FlightMode.values())
+    {
+      templates.put(flightMode, new ATCommandTemplate("AT*REF=", "," + flightMode.getCommandCode()));
+    }
+    return templates;
+  }
+
   @Override
   protected String getCommand(int sequenceNumber)
   {
     return String.format("AT*REF=%d,%d", sequenceNumber, flightMode.getCommandCode());
   }
+
+  @Override
+  protected void writeCommand(ByteBuffer buffer, int sequenceNumber)
+  {
+    TEMPLATES.get(flightMode).write(buffer, sequenceNumber);
+  }
 }
@@ -1,24 +1,54 @@
 package com.dronecontrol.droneapi.commands.simple;
 
+import java.nio.ByteBuffer;
+
+import static com.dronecontrol.droneapi.helpers.AsciiEncodingHelper.getAsciiBytes;
+import static com.dronecontrol.droneapi.helpers.AsciiEncodingHelper.putInt;
 import static com.dronecontrol.droneapi.helpers.BinaryDataHelper.getNormalizedIntValue;
 
 public class FlightMoveCommand extends ATCommandAbstract
 {
-  private final float roll;
+  public static final long NO_INPUT_TIME = 0;
+
+  private static final byte[] PREFIX = getAsciiBytes("AT*PCMD=");
+
+  private static final byte[] PROGRESSIVE_FLAG = getAsciiBytes(",1,");
+
+  private static final byte SEPARATOR = ',';
+
+  private float roll;
+
+  private float pitch;
+
+  private float yaw;
 
-  private final float pitch;
+  private float gaz;
 
-  private final float yaw;
+  private long inputNanos;
 
-  private final float gaz;
+  private long creationNanos;
 
   public FlightMoveCommand(float roll, float pitch, float yaw, float gaz)
+  {
+    this(roll, pitch, yaw, gaz, NO_INPUT_TIME);
+  }
+
+  // The input time of the pilot input this command was created for, the command sender measures the latency from it
+  public FlightMoveCommand(float roll, float pitch, float yaw, float gaz, long inputNanos)
   {
     super(false);
+    update(roll, pitch, yaw, gaz, inputNanos);
+  }
+
+  // Lets the command sender thread reuse one command for all moves, it must not be changed while it is queued elsewhere
+  public void update(float roll, float pitch, float yaw, float gaz, long inputNanos)
+  {
     this.roll = roll;
     this.pitch = pitch;
     this.yaw = yaw;
     this.gaz = gaz;
+    this.inputNanos = inputNanos;
+    this.creationNanos = inputNanos == NO_INPUT_TIME ? NO_INPUT_TIME : System.nanoTime();
   }
 
   @Override
@@ -27,4 +57,34 @@ public class FlightMoveCommand extends ATCommandAbstract
     return String.format("AT*PCMD=%d,%d,%d,%d,%d,%d", sequenceNumber, 1, getNormalizedIntValue(roll), getNormalizedIntValue(pitch),
             getNormalizedIntValue(gaz), getNormalizedIntValue(yaw));
   }
+
+  @Override
+  protected void writeCommand(ByteBuffer buffer, int sequenceNumber)
+  {
+    buffer.put(PREFIX);
+    putInt(buffer, sequenceNumber);
+    buffer.put(PROGRESSIVE_FLAG);
+    putInt(buffer, getNormalizedIntValue(roll));
+    buffer.put(SEPARATOR);
+    putInt(buffer, getNormalizedIntValue(pitch));
+    buffer.put(SEPARATOR);
+    putInt(buffer, getNormalizedIntValue(gaz));
+    buffer.put(SEPARATOR);
+    putInt(buffer, getNormalizedIntValue(yaw));
+  }
+
+  public boolean hasInputTime()
+  {
+    return inputNanos != NO_INPUT_TIME;
+  }
+
+  public long getInputNanos()
+  {
+    return inputNanos;
+  }
+
+  public long getCreationNanos()
+  {
+    return creationNanos;
+  }
 }
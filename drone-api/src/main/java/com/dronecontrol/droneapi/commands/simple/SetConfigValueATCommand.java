@@ -4,6 +4,8 @@ import com.dronecontrol.droneapi.data.DroneConfiguration;
 import com.dronecontrol.droneapi.data.LoginData;
 import com.dronecontrol.droneapi.data.NavData;
 
+import java.nio.ByteBuffer;
+
 import static com.google.common.base.Preconditions.checkState;
 
 public class SetConfigValueATCommand extends ATCommandAbstract
@@ -14,12 +16,18 @@ public class SetConfigValueATCommand extends ATCommandAbstract
 
   private final String value;
 
+  private final ATCommandTemplate preparationTemplate;
+
+  private final ATCommandTemplate template;
+
   protected SetConfigValueATCommand(LoginData loginData)
   {
     super(true);
     this.loginData = loginData;
     this.key = null;
     this.value = null;
+    this.preparationTemplate = createPreparationTemplate(loginData);
+    this.template = null;
   }
 
   public SetConfigValueATCommand(LoginData loginData, String key, Object value)
@@ -27,7 +35,25 @@ public class SetConfigValueATCommand extends ATCommandAbstract
     super(true);
     this.loginData = loginData;
     this.key = key;
-    this.value = value.toString();
+    this.value = getConfigValueText(value);
+    this.preparationTemplate = createPreparationTemplate(loginData);
+    this.template = new ATCommandTemplate("AT*CONFIG=", String.format(",\"%s\",\"%s\"", this.key, this.value));
+  }
+
+  // The drone writes booleans in upper case, so they are sent the same way
+  public static String getConfigValueText(Object value)
+  {
+    if (value instanceof Boolean)
+    {
+      return (Boolean) value ? "TRUE" : "FALSE";
+    }
+    return value.toString();
+  }
+
+  private static ATCommandTemplate createPreparationTemplate(LoginData loginData)
+  {
+    return new ATCommandTemplate("AT*CONFIG_IDS=", String.format(",\"%s\",\"%s\",\"%s\"", loginData.getSessionChecksum(),
+            loginData.getProfileChecksum(), loginData.getApplicationChecksum()));
   }
 
   @Override
@@ -44,6 +70,20 @@ public class SetConfigValueATCommand extends ATCommandAbstract
     return String.format("AT*CONFIG=%d,\"%s\",\"%s\"", sequenceNumber, key, value);
   }
 
+  @Override
+  protected boolean writePreparationCommand(ByteBuffer buffer, int sequenceNumber)
+  {
+    preparationTemplate.write(buffer, sequenceNumber);
+    return true;
+  }
+
+  @Override
+  protected void writeCommand(ByteBuffer buffer, int sequenceNumber)
+  {
+    checkState(key != null && value != null, "Cannot write the command text with no key or value set");
+    template.write(buffer, sequenceNumber);
+  }
+
   @Override
   public int getTimeoutMillis()
   {
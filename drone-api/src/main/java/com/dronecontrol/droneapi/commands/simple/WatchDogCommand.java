@@ -1,7 +1,11 @@
 package com.dronecontrol.droneapi.commands.simple;
 
+import java.nio.ByteBuffer;
+
 public class WatchDogCommand extends ATCommandAbstract
 {
+  private static final ATCommandTemplate TEMPLATE = new ATCommandTemplate("AT*COMWDG=", "");
+
   public WatchDogCommand()
   {
     super(false);
@@ -12,4 +16,10 @@ public class WatchDogCommand extends ATCommandAbstract
   {
     return String.format("AT*COMWDG=%d", sequenceNumber);
   }
+
+  @Override
+  protected void writeCommand(ByteBuffer buffer, int sequenceNumber)
+  {
+    TEMPLATE.write(buffer, sequenceNumber);
+  }
 }
@@ -0,0 +1,7 @@
+package com.dronecontrol.droneapi.components;
+
+public interface ChannelHandler
+{
+  // Called on the event loop thread whenever the registered channel has data to read
+  void onReadable();
+}
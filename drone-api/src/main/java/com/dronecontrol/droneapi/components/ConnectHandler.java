@@ -0,0 +1,7 @@
+package com.dronecontrol.droneapi.components;
+
+public interface ConnectHandler
+{
+  // Called on the event loop thread when the connection of the registered channel can be finished
+  void onConnectable();
+}
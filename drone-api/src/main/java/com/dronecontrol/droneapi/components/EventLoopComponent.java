@@ -0,0 +1,364 @@
+package com.dronecontrol.droneapi.components;
+
+import com.dronecontrol.droneapi.data.TickStatistics;
+import com.google.inject.Inject;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public class EventLoopComponent implements Runnable
+{
+  private static final long ONE_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final Logger logger = Logger.getLogger(EventLoopComponent.class);
+
+  private final ThreadComponent threadComponent;
+
+  private final ErrorListenerComponent errorListenerComponent;
+
+  private final Queue<Runnable> tasks;
+
+  // Only accessed by the event loop thread
+  private final PriorityQueue<ScheduledTask> scheduledTasks;
+
+  private volatile Selector selector;
+
+  private volatile Thread loopThread;
+
+  private long scheduledTaskCount;
+
+  @Inject
+  public EventLoopComponent(ThreadComponent threadComponent, ErrorListenerComponent errorListenerComponent)
+  {
+    this.threadComponent = threadComponent;
+    this.errorListenerComponent = errorListenerComponent;
+
+    tasks = new ConcurrentLinkedQueue<>();
+    scheduledTasks = new PriorityQueue<>();
+  }
+
+  public void start()
+  {
+    try
+    {
+      selector = Selector.open();
+    } catch (IOException e)
+    {
+      throw new IllegalStateException("Error while opening the selector", e);
+    }
+
+    logger.info("Starting event loop thread");
+    threadComponent.start(this);
+  }
+
+  public void stop()
+  {
+    logger.info("Stopping event loop thread");
+    threadComponent.stop();
+    wakeUpSelector();
+    threadComponent.stopAndWait();
+  }
+
+  public boolean isStarted()
+  {
+    return !threadComponent.isStopped();
+  }
+
+  public boolean inEventLoop()
+  {
+    return Thread.currentThread() == loopThread;
+  }
+
+  public void execute(Runnable task)
+  {
+    tasks.offer(task);
+    if (!inEventLoop())
+    {
+      wakeUpSelector();
+    }
+  }
+
+  // The channel has to be non-blocking, the handler is called on the event loop thread
+  public void register(SelectableChannel channel, ChannelHandler handler)
+  {
+    register(channel, SelectionKey.OP_READ, handler);
+  }
+
+  // The channel has to be non-blocking and connecting, afterwards it is registered for reading with register()
+  public void registerConnect(SelectableChannel channel, ConnectHandler handler)
+  {
+    register(channel, SelectionKey.OP_CONNECT, handler);
+  }
+
+  private void register(final SelectableChannel channel, final int interestOps, final Object handler)
+  {
+    execute(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        try
+        {
+          channel.register(selector, interestOps, handler);
+        } catch (ClosedChannelException e)
+        {
+          throw new IllegalStateException("Error while registering closed channel", e);
+        }
+      }
+    });
+  }
+
+  public void unregister(final SelectableChannel channel)
+  {
+    execute(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        SelectionKey key = channel.keyFor(selector);
+        if (key != null)
+        {
+          key.cancel();
+        }
+      }
+    });
+  }
+
+  public ScheduledTask schedule(Runnable task, long delayMillis)
+  {
+    return schedule(new ScheduledTask(task, TimeUnit.MILLISECONDS.toNanos(delayMillis), 0, null));
+  }
+
+  // Runs the task at a fixed rate without drift, missed periods are skipped and recorded in the statistics (may be null)
+  public ScheduledTask scheduleAtFixedRate(Runnable task, long periodNanos, TickStatistics statistics)
+  {
+    checkArgument(periodNanos > 0, "The period must be positive");
+    return schedule(new ScheduledTask(task, periodNanos, periodNanos, statistics));
+  }
+
+  private ScheduledTask schedule(final ScheduledTask scheduledTask)
+  {
+    execute(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        scheduledTask.sequenceNumber = scheduledTaskCount++;
+        scheduledTasks.offer(scheduledTask);
+      }
+    });
+    return scheduledTask;
+  }
+
+  private void wakeUpSelector()
+  {
+    Selector currentSelector = selector;
+    if (currentSelector != null)
+    {
+      currentSelector.wakeup();
+    }
+  }
+
+  @Override
+  public void run()
+  {
+    loopThread = Thread.currentThread();
+    try
+    {
+      doRun();
+    } catch (Throwable e)
+    {
+      errorListenerComponent.emitError(e);
+    }
+  }
+
+  private void doRun() throws IOException
+  {
+    while (!threadComponent.isStopped())
+    {
+      select();
+      processSelectedKeys();
+      runTasks();
+      runScheduledTasks();
+    }
+
+    // Lets the workers disconnect their channels before the selector is closed
+    runTasks();
+    selector.close();
+    selector = null;
+  }
+
+  private void select() throws IOException
+  {
+    long timeoutNanos = getNanosUntilNextScheduledTask();
+    if (!tasks.isEmpty() || timeoutNanos < ONE_MILLISECOND)
+    {
+      selector.selectNow();
+    } else if (timeoutNanos == Long.MAX_VALUE)
+    {
+      selector.select();
+    } else
+    {
+      selector.select(TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+    }
+  }
+
+  private long getNanosUntilNextScheduledTask()
+  {
+    ScheduledTask scheduledTask = scheduledTasks.peek();
+    if (scheduledTask == null)
+    {
+      return Long.MAX_VALUE;
+    }
+    return scheduledTask.deadlineNanos - System.nanoTime();
+  }
+
+  private void processSelectedKeys()
+  {
+    Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+    while (iterator.hasNext())
+    {
+      SelectionKey key = iterator.next();
+      iterator.remove();
+
+      if (key.isValid() && key.isConnectable())
+      {
+        // The handler finishes the connection and registers the channel again
+        key.interestOps(0);
+        try
+        {
+          ((ConnectHandler) key.attachment()).onConnectable();
+        } catch (Throwable e)
+        {
+          logger.error("Error while connecting channel", e);
+        }
+      } else if (key.isValid() && key.isReadable())
+      {
+        try
+        {
+          ((ChannelHandler) key.attachment()).onReadable();
+        } catch (Throwable e)
+        {
+          logger.error("Error while handling channel data", e);
+        }
+      }
+    }
+  }
+
+  private void runTasks()
+  {
+    Runnable task = tasks.poll();
+    while (task != null)
+    {
+      runSafely(task);
+      task = tasks.poll();
+    }
+  }
+
+  private void runScheduledTasks()
+  {
+    long now = System.nanoTime();
+    ScheduledTask scheduledTask = scheduledTasks.peek();
+    while (scheduledTask != null && scheduledTask.deadlineNanos <= now)
+    {
+      scheduledTasks.poll();
+      if (!scheduledTask.cancelled)
+      {
+        scheduledTask.run(now);
+        if (scheduledTask.periodNanos > 0 && !scheduledTask.cancelled)
+        {
+          scheduledTask.advance(now);
+          scheduledTasks.offer(scheduledTask);
+        }
+      }
+
+      now = System.nanoTime();
+      scheduledTask = scheduledTasks.peek();
+    }
+  }
+
+  private void runSafely(Runnable task)
+  {
+    try
+    {
+      task.run();
+    } catch (Throwable e)
+    {
+      logger.error("Error while running event loop task", e);
+    }
+  }
+
+  public class ScheduledTask implements Comparable<ScheduledTask>
+  {
+    private final Runnable task;
+
+    private final long periodNanos;
+
+    private final TickStatistics statistics;
+
+    private long deadlineNanos;
+
+    private long sequenceNumber;
+
+    private volatile boolean cancelled;
+
+    private ScheduledTask(Runnable task, long delayNanos, long periodNanos, TickStatistics statistics)
+    {
+      this.task = task;
+      this.periodNanos = periodNanos;
+      this.statistics = statistics;
+
+      deadlineNanos = System.nanoTime() + delayNanos;
+    }
+
+    public void cancel()
+    {
+      cancelled = true;
+    }
+
+    private void run(long now)
+    {
+      if (statistics != null)
+      {
+        statistics.onTick(now - deadlineNanos);
+      }
+      runSafely(task);
+    }
+
+    private void advance(long now)
+    {
+      // The deadlines are advanced by whole periods, so the time spent for the task does not add up
+      deadlineNanos += periodNanos;
+      if (now >= deadlineNanos)
+      {
+        long missedPeriods = (now - deadlineNanos) / periodNanos + 1;
+        deadlineNanos += missedPeriods * periodNanos;
+        if (statistics != null)
+        {
+          statistics.onTicksMissed(missedPeriods);
+        }
+      }
+    }
+
+    @Override
+    public int compareTo(ScheduledTask other)
+    {
+      if (deadlineNanos != other.deadlineNanos)
+      {
+        return deadlineNanos < other.deadlineNanos ? -1 : 1;
+      }
+      return Long.compare(sequenceNumber, other.sequenceNumber);
+    }
+  }
+}
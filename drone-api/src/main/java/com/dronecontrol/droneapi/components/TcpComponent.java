@@ -7,7 +7,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 
 public class TcpComponent
 {
@@ -27,6 +30,8 @@ public class TcpComponent
 
   private BufferedReader reader = null;
 
+  private SocketChannel channel = null;
+
   public void connect(InetAddress address, int port)
   {
     connect(address, port, DEFAULT_TIMEOUT);
@@ -49,14 +54,51 @@ public class TcpComponent
     }
   }
 
+  // Starts connecting a non-blocking channel which is read with read() instead of the stream and reader (used by the
+  // event loop), returns true if it is connected right away, otherwise finishConnect() completes the connection
+  public boolean connectChannel(InetAddress address, int port)
+  {
+    this.address = address;
+    this.port = port;
+
+    try
+    {
+      channel = SocketChannel.open();
+      socket = channel.socket();
+      channel.configureBlocking(false);
+      return channel.connect(new InetSocketAddress(address, port));
+    } catch (IOException e)
+    {
+      throw new IllegalStateException(String.format("Error while connecting to TCP channel %s:%d", address.getHostName(), port), e);
+    }
+  }
+
+  // Called once the channel is connectable, returns false if the connection is still pending
+  public boolean finishConnect()
+  {
+    try
+    {
+      return channel.finishConnect();
+    } catch (IOException e)
+    {
+      throw new IllegalStateException(String.format("Error while connecting to TCP channel %s:%d", address.getHostName(), port), e);
+    }
+  }
+
   public void disconnect()
   {
+    if (socket == null)
+    {
+      return;
+    }
+
     try
     {
       socket.close();
 
       socket = null;
       reader = null;
+      channel = null;
     } catch (IOException e)
     {
       throw new IllegalStateException("Error while disconnecting socket", e);
@@ -102,4 +144,21 @@ public class TcpComponent
   {
     return reader;
   }
+
+  // Reads the pending bytes of the channel without blocking, returns -1 at the end of the stream
+  public int read(ByteBuffer buffer)
+  {
+    try
+    {
+      return channel.read(buffer);
+    } catch (IOException e)
+    {
+      throw new IllegalStateException("Error reading from channel", e);
+    }
+  }
+
+  public SocketChannel getChannel()
+  {
+    return channel;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.dronecontrol.droneapi.components;
+
+import com.dronecontrol.droneapi.data.TickStatistics;
+import com.google.common.base.Ticker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public class TickSchedulerComponent
+{
+  private final TickStatistics statistics;
+
+  private final AtomicBoolean wakeUpRequested;
+
+  private final Ticker ticker;
+
+  private volatile Thread tickingThread;
+
+  private long periodNanos;
+
+  private long nextTickNanos;
+
+  public TickSchedulerComponent()
+  {
+    this(Ticker.systemTicker());
+  }
+
+  TickSchedulerComponent(Ticker ticker)
+  {
+    this.ticker = ticker;
+    statistics = new TickStatistics();
+    wakeUpRequested = new AtomicBoolean();
+  }
+
+  public void start(int ticksPerSecond)
+  {
+    checkArgument(ticksPerSecond > 0, "The tick rate must be positive");
+
+    tickingThread = Thread.currentThread();
+    periodNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+    nextTickNanos = ticker.read() + periodNanos;
+  }
+
+  // Returns false if the wait was ended early by wakeUp(), the next tick is still due at its deadline then
+  public boolean waitForNextTick()
+  {
+    long now = ticker.read();
+    while (now < nextTickNanos)
+    {
+      if (wakeUpRequested.getAndSet(false))
+      {
+        return false;
+      }
+
+      LockSupport.parkNanos(nextTickNanos - now);
+      now = ticker.read();
+    }
+
+    statistics.onTick(now - nextTickNanos);
+
+    // The deadlines are advanced by whole periods, so the time spent for a tick and oversleeping do not add up
+    nextTickNanos += periodNanos;
+    if (now >= nextTickNanos)
+    {
+      long missedTicks = (now - nextTickNanos) / periodNanos + 1;
+      nextTickNanos += missedTicks * periodNanos;
+      statistics.onTicksMissed(missedTicks);
+    }
+
+    return true;
+  }
+
+  public void wakeUp()
+  {
+    wakeUpRequested.set(true);
+
+    Thread thread = tickingThread;
+    if (thread != null)
+    {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  public long getPeriodNanos()
+  {
+    return periodNanos;
+  }
+
+  public TickStatistics getStatistics()
+  {
+    return statistics;
+  }
+}
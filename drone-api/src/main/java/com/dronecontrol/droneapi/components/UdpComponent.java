@@ -1,44 +1,122 @@
 package com.dronecontrol.droneapi.components;
 
+import com.dronecontrol.droneapi.data.UdpStatistics;
+import org.apache.log4j.Logger;
+
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
-import java.net.SocketException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 
 public class UdpComponent
 {
   private static final byte[] KEEP_ALIVE_BYTES = new byte[]{0x01, 0x00, 0x00, 0x00};
 
-  private DatagramPacket keepAlivePacket;
+  public static final int DEFAULT_TIMEOUT = 3000;
+
+  private final Logger logger = Logger.getLogger(UdpComponent.class);
+
+  private final UdpStatistics statistics;
+
+  private final ByteBuffer keepAliveBuffer;
+
+  private DatagramChannel channel;
 
-  private DatagramSocket socket;
+  private Selector selector;
 
   private InetAddress address;
 
   private int port;
 
+  private int timeout = DEFAULT_TIMEOUT;
+
+  private int socketReceiveBufferSize;
+
+  private int socketSendBufferSize;
+
+  private boolean localPortFixed = true;
+
+  public UdpComponent()
+  {
+    statistics = new UdpStatistics();
+
+    keepAliveBuffer = ByteBuffer.allocateDirect(KEEP_ALIVE_BYTES.length);
+    keepAliveBuffer.put(KEEP_ALIVE_BYTES);
+  }
+
+  // A size of 0 keeps the default of the operating system, must be set before connecting
+  public void setSocketBufferSizes(int socketReceiveBufferSize, int socketSendBufferSize)
+  {
+    this.socketReceiveBufferSize = socketReceiveBufferSize;
+    this.socketSendBufferSize = socketSendBufferSize;
+  }
+
+  // Without a fixed local port any free port is used, must be set before connecting
+  public void setLocalPortFixed(boolean localPortFixed)
+  {
+    this.localPortFixed = localPortFixed;
+  }
+
+  public void setTimeout(int timeout)
+  {
+    this.timeout = timeout;
+  }
+
   public void connect(InetAddress address, int port)
   {
     this.address = address;
     this.port = port;
 
-    determineKeepAlivePacket(address, port);
-
     try
     {
-      socket = new DatagramSocket(port);
-      socket.setSoTimeout(3000);
-    } catch (SocketException e)
+      channel = DatagramChannel.open();
+      configureSocketOptions();
+
+      // The drone sends to the same port number on the client, so by default the local port equals the remote one
+      channel.bind(new InetSocketAddress(localPortFixed ? port : 0));
+      channel.connect(new InetSocketAddress(address, port));
+
+      channel.configureBlocking(false);
+    } catch (IOException e)
+    {
+      throw new IllegalStateException(String.format("Error while connecting to UDP port %s:%d", address.getHostAddress(), port), e);
+    }
+  }
+
+  private void configureSocketOptions() throws IOException
+  {
+    channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+    if (socketReceiveBufferSize > 0)
+    {
+      channel.setOption(StandardSocketOptions.SO_RCVBUF, socketReceiveBufferSize);
+    }
+    if (socketSendBufferSize > 0)
     {
-      throw new IllegalStateException(e);
+      channel.setOption(StandardSocketOptions.SO_SNDBUF, socketSendBufferSize);
     }
   }
 
   public void disconnect()
   {
-    socket.disconnect();
-    socket = null;
+    try
+    {
+      if (selector != null)
+      {
+        selector.close();
+      }
+      channel.close();
+
+      selector = null;
+      channel = null;
+    } catch (IOException e)
+    {
+      throw new IllegalStateException("Error while disconnecting channel", e);
+    }
   }
 
   public void reconnect()
@@ -47,35 +125,113 @@ public class UdpComponent
     connect(address, port);
   }
 
-  private void determineKeepAlivePacket(InetAddress address, int port)
+  public void sendKeepAlivePacket()
   {
-    keepAlivePacket = new DatagramPacket(KEEP_ALIVE_BYTES, KEEP_ALIVE_BYTES.length, address, port);
+    keepAliveBuffer.rewind();
+    send(keepAliveBuffer);
   }
 
-  public void sendKeepAlivePacket()
+  // Sends the remaining bytes of the buffer as one datagram
+  public void send(ByteBuffer buffer)
   {
-    send(keepAlivePacket);
+    try
+    {
+      int length = buffer.remaining();
+      if (channel.write(buffer) == 0 && length > 0)
+      {
+        statistics.onSendDropped();
+      } else
+      {
+        statistics.onPacketSent(length);
+      }
+    } catch (IOException e)
+    {
+      statistics.onSendDropped();
+      logger.error(String.format("Error while sending to UDP port %d", port), e);
+    }
   }
 
-  public void send(DatagramPacket packet)
+  // Receives one datagram into the buffer and flips it, returns false if nothing was received within the timeout.
+  // A datagram which fills the whole buffer counts as truncated, so the buffer has to be larger than the largest datagram.
+  public boolean receive(ByteBuffer buffer)
   {
     try
     {
-      socket.send(packet);
+      buffer.clear();
+      if (selector == null)
+      {
+        // Only needed without the event loop, which selects the channel itself
+        selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
+      }
+
+      if (selector.select(timeout) == 0)
+      {
+        statistics.onTimeout();
+        return false;
+      }
+      selector.selectedKeys().clear();
+
+      return read(buffer);
     } catch (IOException e)
     {
-      throw new IllegalStateException(e);
+      onReceiveError(e);
+      return false;
     }
   }
 
-  public void receive(DatagramPacket packet)
+  // Same as receive(), but returns false right away if no datagram is pending (used by the event loop)
+  public boolean receiveNow(ByteBuffer buffer)
   {
     try
     {
-      socket.receive(packet);
+      buffer.clear();
+      return read(buffer);
     } catch (IOException e)
     {
-      throw new IllegalStateException(e);
+      onReceiveError(e);
+      return false;
     }
   }
-}
\ No newline at end of file
+
+  private boolean read(ByteBuffer buffer) throws IOException
+  {
+    try
+    {
+      int length = channel.read(buffer);
+      if (length <= 0)
+      {
+        return false;
+      }
+
+      if (!buffer.hasRemaining())
+      {
+        statistics.onPacketTruncated();
+      }
+      statistics.onPacketReceived(length);
+
+      buffer.flip();
+      return true;
+    } catch (PortUnreachableException e)
+    {
+      statistics.onReceiveError();
+      return false;
+    }
+  }
+
+  private void onReceiveError(IOException e)
+  {
+    statistics.onReceiveError();
+    logger.error(String.format("Error while receiving from UDP port %d", port), e);
+  }
+
+  public DatagramChannel getChannel()
+  {
+    return channel;
+  }
+
+  public UdpStatistics getStatistics()
+  {
+    return statistics;
+  }
+}
@@ -0,0 +1,101 @@
+package com.dronecontrol.droneapi.concurrent;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+// Bounded lock-free queue for many producer threads and exactly one consumer thread.
+// Producers claim a slot by incrementing the producer index and publish the element afterwards,
+// so the consumer stops draining at the first slot that is claimed but not yet published.
+public class BoundedMpscQueue<E>
+{
+  private final AtomicReferenceArray<E> elements;
+
+  private final int mask;
+
+  private final AtomicLong producerIndex;
+
+  private final AtomicLong consumerIndex;
+
+  private final AtomicLong overflowCount;
+
+  public BoundedMpscQueue(int capacity)
+  {
+    checkArgument(capacity > 0 && Integer.bitCount(capacity) == 1, "The capacity must be a power of two");
+
+    elements = new AtomicReferenceArray<>(capacity);
+    mask = capacity - 1;
+    producerIndex = new AtomicLong();
+    consumerIndex = new AtomicLong();
+    overflowCount = new AtomicLong();
+  }
+
+  public boolean offer(E element)
+  {
+    checkNotNull(element);
+
+    long currentProducerIndex;
+    do
+    {
+      currentProducerIndex = producerIndex.get();
+      if (currentProducerIndex - consumerIndex.get() >= elements.length())
+      {
+        overflowCount.incrementAndGet();
+        return false;
+      }
+    } while (!producerIndex.compareAndSet(currentProducerIndex, currentProducerIndex + 1));
+
+    elements.lazySet(getOffset(currentProducerIndex), element);
+    return true;
+  }
+
+  // Must only be called from the consumer thread
+  public int drainTo(Collection<? super E> target)
+  {
+    long currentConsumerIndex = consumerIndex.get();
+    int drained = 0;
+
+    E element = elements.get(getOffset(currentConsumerIndex));
+    while (element != null)
+    {
+      elements.lazySet(getOffset(currentConsumerIndex), null);
+      currentConsumerIndex++;
+      consumerIndex.lazySet(currentConsumerIndex);
+
+      target.add(element);
+      drained++;
+
+      element = elements.get(getOffset(currentConsumerIndex));
+    }
+
+    return drained;
+  }
+
+  private int getOffset(long index)
+  {
+    return (int) (index & mask);
+  }
+
+  public int size()
+  {
+    return (int) (producerIndex.get() - consumerIndex.get());
+  }
+
+  public boolean isEmpty()
+  {
+    return size() == 0;
+  }
+
+  public int capacity()
+  {
+    return elements.length();
+  }
+
+  public long getOverflowCount()
+  {
+    return overflowCount.get();
+  }
+}
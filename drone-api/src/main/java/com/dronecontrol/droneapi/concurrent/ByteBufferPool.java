@@ -0,0 +1,58 @@
+package com.dronecontrol.droneapi.concurrent;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+// Pool of equally sized direct buffers, buffers are allocated lazily and at most maxIdleBuffers are kept
+public class ByteBufferPool
+{
+  private final int bufferSize;
+
+  private final BlockingQueue<ByteBuffer> idleBuffers;
+
+  private final AtomicLong allocatedBufferCount;
+
+  public ByteBufferPool(int bufferSize, int maxIdleBuffers)
+  {
+    checkArgument(bufferSize > 0, "The buffer size must be positive");
+    checkArgument(maxIdleBuffers > 0, "At least one idle buffer must be kept");
+
+    this.bufferSize = bufferSize;
+    idleBuffers = new ArrayBlockingQueue<>(maxIdleBuffers);
+    allocatedBufferCount = new AtomicLong();
+  }
+
+  public ByteBuffer acquire()
+  {
+    ByteBuffer buffer = idleBuffers.poll();
+    if (buffer == null)
+    {
+      allocatedBufferCount.incrementAndGet();
+      buffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return buffer;
+  }
+
+  public void release(ByteBuffer buffer)
+  {
+    checkArgument(buffer.capacity() == bufferSize, "The buffer does not belong to this pool");
+
+    buffer.clear();
+    idleBuffers.offer(buffer);
+  }
+
+  public int getBufferSize()
+  {
+    return bufferSize;
+  }
+
+  public long getAllocatedBufferCount()
+  {
+    return allocatedBufferCount.get();
+  }
+}
@@ -0,0 +1,30 @@
+package com.dronecontrol.droneapi.concurrent;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Holds only the most recent value offered; older values not yet taken are replaced
+public class LatestValueSlot<E>
+{
+  private final AtomicReference<E> value;
+
+  public LatestValueSlot()
+  {
+    value = new AtomicReference<>();
+  }
+
+  // Returns true if a value which was not taken yet has been replaced
+  public boolean offer(E newValue)
+  {
+    return value.getAndSet(newValue) != null;
+  }
+
+  public E take()
+  {
+    return value.getAndSet(null);
+  }
+
+  public boolean isEmpty()
+  {
+    return value.get() == null;
+  }
+}
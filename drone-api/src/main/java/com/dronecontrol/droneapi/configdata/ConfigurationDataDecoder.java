@@ -0,0 +1,117 @@
+package com.dronecontrol.droneapi.configdata;
+
+import com.dronecontrol.droneapi.data.DroneConfiguration;
+import com.google.common.collect.Maps;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+public class ConfigurationDataDecoder
+{
+  // The drone terminates every config dump with a zero byte
+  private static final byte END_OF_DUMP = 0x00;
+
+  private static final byte LINE_FEED = '\n';
+
+  private static final byte CARRIAGE_RETURN = '\r';
+
+  private static final byte[] SEPARATOR = new byte[]{' ', '=', ' '};
+
+  private static final int INITIAL_LINE_LENGTH = 256;
+
+  private final Map<String, String> configValues;
+
+  private byte[] lineBytes;
+
+  private int lineLength;
+
+  private boolean dataReceived;
+
+  public ConfigurationDataDecoder()
+  {
+    configValues = Maps.newHashMap();
+    lineBytes = new byte[INITIAL_LINE_LENGTH];
+  }
+
+  // Consumes the ASCII bytes of the buffer up to the end of a dump, returns true if a dump was completed
+  public boolean decode(ByteBuffer buffer)
+  {
+    while (buffer.hasRemaining())
+    {
+      byte value = buffer.get();
+      dataReceived = true;
+
+      if (value == END_OF_DUMP)
+      {
+        completeLine();
+        return true;
+      } else if (value == LINE_FEED)
+      {
+        completeLine();
+      } else if (value != CARRIAGE_RETURN)
+      {
+        appendToLine(value);
+      }
+    }
+
+    return false;
+  }
+
+  public boolean hasData()
+  {
+    return dataReceived;
+  }
+
+  // Returns the config values decoded so far and starts a new dump
+  public DroneConfiguration getDroneConfiguration()
+  {
+    completeLine();
+    DroneConfiguration droneConfiguration = new DroneConfiguration(configValues);
+
+    configValues.clear();
+    dataReceived = false;
+
+    return droneConfiguration;
+  }
+
+  private void appendToLine(byte value)
+  {
+    if (lineLength == lineBytes.length)
+    {
+      lineBytes = Arrays.copyOf(lineBytes, lineBytes.length * 2);
+    }
+    lineBytes[lineLength++] = value;
+  }
+
+  private void completeLine()
+  {
+    int separatorIndex = getSeparatorIndex();
+    if (separatorIndex >= 0)
+    {
+      String key = getAsciiString(0, separatorIndex);
+      int valueIndex = separatorIndex + SEPARATOR.length;
+      configValues.put(key, getAsciiString(valueIndex, lineLength - valueIndex));
+    }
+
+    lineLength = 0;
+  }
+
+  private int getSeparatorIndex()
+  {
+    for (int index = 0; index <= lineLength - SEPARATOR.length; index++)
+    {
+      if (lineBytes[index] == SEPARATOR[0] && lineBytes[index + 1] == SEPARATOR[1] && lineBytes[index + 2] == SEPARATOR[2])
+      {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  private String getAsciiString(int offset, int length)
+  {
+    return new String(lineBytes, offset, length, StandardCharsets.US_ASCII);
+  }
+}
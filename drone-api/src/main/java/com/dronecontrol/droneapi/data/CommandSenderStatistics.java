@@ -0,0 +1,137 @@
+package com.dronecontrol.droneapi.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CommandSenderStatistics
+{
+  // Written by the threads queueing commands
+  private final AtomicLong droppedCommandCount = new AtomicLong();
+
+  private final AtomicLong replacedCommandCount = new AtomicLong();
+
+  // Only the command sender thread writes these values, so volatile is sufficient for readers
+  private volatile long tickCount;
+
+  private volatile long packetCount;
+
+  private volatile long byteCount;
+
+  private volatile int lastPacketsPerTick;
+
+  private volatile int maxPacketsPerTick;
+
+  private volatile int lastBytesPerPacket;
+
+  private volatile int maxBytesPerPacket;
+
+  private volatile long priorityRequestCount;
+
+  private volatile long lastPriorityLatencyNanos;
+
+  private volatile long maxPriorityLatencyNanos;
+
+  public void onCommandDropped()
+  {
+    droppedCommandCount.incrementAndGet();
+  }
+
+  public void onCommandReplaced()
+  {
+    replacedCommandCount.incrementAndGet();
+  }
+
+  public void onPacketSent(int bytes)
+  {
+    packetCount++;
+    byteCount += bytes;
+    lastBytesPerPacket = bytes;
+    maxBytesPerPacket = Math.max(maxBytesPerPacket, bytes);
+  }
+
+  public void onTickCompleted(int packets)
+  {
+    tickCount++;
+    lastPacketsPerTick = packets;
+    maxPacketsPerTick = Math.max(maxPacketsPerTick, packets);
+  }
+
+  public void onPriorityCommandsSent(long latencyNanos)
+  {
+    priorityRequestCount++;
+    lastPriorityLatencyNanos = latencyNanos;
+    maxPriorityLatencyNanos = Math.max(maxPriorityLatencyNanos, latencyNanos);
+  }
+
+  public long getDroppedCommandCount()
+  {
+    return droppedCommandCount.get();
+  }
+
+  public long getReplacedCommandCount()
+  {
+    return replacedCommandCount.get();
+  }
+
+  public long getTickCount()
+  {
+    return tickCount;
+  }
+
+  public long getPacketCount()
+  {
+    return packetCount;
+  }
+
+  public long getByteCount()
+  {
+    return byteCount;
+  }
+
+  public int getLastPacketsPerTick()
+  {
+    return lastPacketsPerTick;
+  }
+
+  public int getMaxPacketsPerTick()
+  {
+    return maxPacketsPerTick;
+  }
+
+  public int getLastBytesPerPacket()
+  {
+    return lastBytesPerPacket;
+  }
+
+  public int getMaxBytesPerPacket()
+  {
+    return maxBytesPerPacket;
+  }
+
+  public float getAveragePacketsPerTick()
+  {
+    long ticks = tickCount;
+    return ticks == 0 ? 0.0f : (float) packetCount / ticks;
+  }
+
+  public float getAverageBytesPerPacket()
+  {
+    long packets = packetCount;
+    return packets == 0 ? 0.0f : (float) byteCount / packets;
+  }
+
+  public long getPriorityRequestCount()
+  {
+    return priorityRequestCount;
+  }
+
+  // Time between requesting priority commands and handing them to the socket
+  public long getLastPriorityLatencyNanos()
+  {
+    return lastPriorityLatencyNanos;
+  }
+
+  public long getMaxPriorityLatencyNanos()
+  {
+    return maxPriorityLatencyNanos;
+  }
+}
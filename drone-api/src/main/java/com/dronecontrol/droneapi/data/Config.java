@@ -13,6 +13,8 @@ public final class Config
 
   public static final String MIN_FIRMWARE_VERSION = "1.6.4";
 
+  public static final int DEFAULT_COMMAND_RATE = 66;
+
   private final LoginData loginData;
 
   private final int maxStartupRetries;
@@ -33,6 +35,30 @@ public final class Config
 
   private ARDrone2VideoCodec arDrone2VideoCodec = ARDrone2VideoCodec.H264_360P;
 
+  private boolean commandBatchingEnabled = true;
+
+  private int commandRate = DEFAULT_COMMAND_RATE;
+
+  // Socket buffer sizes of the UDP channels, 0 keeps the default of the operating system
+  private int socketReceiveBufferSize = 0;
+
+  private int socketSendBufferSize = 0;
+
+  // The drone sends to the same UDP port numbers on the client, a simulator on the same address needs free local ports
+  private boolean fixedLocalPortsEnabled = true;
+
+  // Runs all workers except the H264 video retriever on one shared event loop thread
+  private boolean eventLoopEnabled = false;
+
+  // Records the raw nav data, commands and config data into this directory, null disables recording
+  private String recordingDirectory = null;
+
+  // Also records the undecoded video stream into the recording directory
+  private boolean videoRecordingEnabled = false;
+
+  // Threads of the fork-join pool decoding the slices of the AR.Drone 1 video, 0 decodes on the video thread
+  private int videoDecodingParallelism = 0;
+
   public Config(String applicationName, String profileName)
   {
     this(applicationName, profileName, NO_RETRIES);
@@ -133,4 +159,94 @@ public final class Config
   {
     this.arDrone2VideoCodec = arDrone2VideoCodec;
   }
-}
\ No newline at end of file
+
+  public boolean isCommandBatchingEnabled()
+  {
+    return commandBatchingEnabled;
+  }
+
+  public void setCommandBatchingEnabled(boolean commandBatchingEnabled)
+  {
+    this.commandBatchingEnabled = commandBatchingEnabled;
+  }
+
+  public int getCommandRate()
+  {
+    return commandRate;
+  }
+
+  public void setCommandRate(int commandRate)
+  {
+    this.commandRate = commandRate;
+  }
+
+  public int getSocketReceiveBufferSize()
+  {
+    return socketReceiveBufferSize;
+  }
+
+  public void setSocketReceiveBufferSize(int socketReceiveBufferSize)
+  {
+    this.socketReceiveBufferSize = socketReceiveBufferSize;
+  }
+
+  public int getSocketSendBufferSize()
+  {
+    return socketSendBufferSize;
+  }
+
+  public void setSocketSendBufferSize(int socketSendBufferSize)
+  {
+    this.socketSendBufferSize = socketSendBufferSize;
+  }
+
+  public boolean isFixedLocalPortsEnabled()
+  {
+    return fixedLocalPortsEnabled;
+  }
+
+  public void setFixedLocalPortsEnabled(boolean fixedLocalPortsEnabled)
+  {
+    this.fixedLocalPortsEnabled = fixedLocalPortsEnabled;
+  }
+
+  public boolean isEventLoopEnabled()
+  {
+    return eventLoopEnabled;
+  }
+
+  public void setEventLoopEnabled(boolean eventLoopEnabled)
+  {
+    this.eventLoopEnabled = eventLoopEnabled;
+  }
+
+  public String getRecordingDirectory()
+  {
+    return recordingDirectory;
+  }
+
+  public void setRecordingDirectory(String recordingDirectory)
+  {
+    this.recordingDirectory = recordingDirectory;
+  }
+
+  public boolean isVideoRecordingEnabled()
+  {
+    return videoRecordingEnabled;
+  }
+
+  public void setVideoRecordingEnabled(boolean videoRecordingEnabled)
+  {
+    this.videoRecordingEnabled = videoRecordingEnabled;
+  }
+
+  public int getVideoDecodingParallelism()
+  {
+    return videoDecodingParallelism;
+  }
+
+  public void setVideoDecodingParallelism(int videoDecodingParallelism)
+  {
+    this.videoDecodingParallelism = videoDecodingParallelism;
+  }
+}
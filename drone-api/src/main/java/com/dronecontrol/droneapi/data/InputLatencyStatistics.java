@@ -0,0 +1,57 @@
+package com.dronecontrol.droneapi.data;
+
+// Latencies of the move inputs from the pilot until the move command is handed to the socket, written by the command
+// sender thread. A move command covers all inputs since the last one, the latency is taken from the oldest of them.
+public class InputLatencyStatistics
+{
+  // From the input until the internal state watcher created the move command on the next tick
+  private final LatencyHistogram waitingHistogram = new LatencyHistogram();
+
+  // From creating the move command until the datagram with it was sent
+  private final LatencyHistogram sendingHistogram = new LatencyHistogram();
+
+  private final LatencyHistogram totalHistogram = new LatencyHistogram();
+
+  private volatile boolean resetRequested;
+
+  public void onMoveCommandSent(long inputNanos, long creationNanos, long sentNanos)
+  {
+    if (resetRequested)
+    {
+      resetRequested = false;
+      reset();
+    }
+
+    waitingHistogram.record(creationNanos - inputNanos);
+    sendingHistogram.record(sentNanos - creationNanos);
+    totalHistogram.record(sentNanos - inputNanos);
+  }
+
+  // The histograms may only be changed by the command sender thread, so they are reset before the next latency is recorded
+  public void requestReset()
+  {
+    resetRequested = true;
+  }
+
+  private void reset()
+  {
+    waitingHistogram.reset();
+    sendingHistogram.reset();
+    totalHistogram.reset();
+  }
+
+  public LatencyHistogram getWaitingHistogram()
+  {
+    return waitingHistogram;
+  }
+
+  public LatencyHistogram getSendingHistogram()
+  {
+    return sendingHistogram;
+  }
+
+  public LatencyHistogram getTotalHistogram()
+  {
+    return totalHistogram;
+  }
+}
@@ -2,23 +2,25 @@ package com.dronecontrol.droneapi.data;
 
 public class InternalState
 {
-  private boolean takeOffRequested;
+  private volatile boolean takeOffRequested;
 
-  private boolean landRequested;
+  private volatile boolean landRequested;
 
-  private boolean emergencyRequested;
+  private volatile boolean emergencyRequested;
 
-  private boolean flatTrimRequested;
+  private volatile boolean flatTrimRequested;
 
-  private boolean moveRequested;
+  private volatile boolean moveRequested;
 
-  private float requestedRoll;
+  private volatile float requestedRoll;
 
-  private float requestedPitch;
+  private volatile float requestedPitch;
 
-  private float requestedYaw;
+  private volatile float requestedYaw;
 
-  private float requestedGaz;
+  private volatile float requestedGaz;
+
+  private volatile long moveInputNanos;
 
   public boolean isTakeOffRequested()
   {
@@ -109,4 +111,14 @@ public class InternalState
   {
     this.requestedGaz = requestedGaz;
   }
+
+  public long getMoveInputNanos()
+  {
+    return moveInputNanos;
+  }
+
+  public void setMoveInputNanos(long moveInputNanos)
+  {
+    this.moveInputNanos = moveInputNanos;
+  }
 }
\ No newline at end of file
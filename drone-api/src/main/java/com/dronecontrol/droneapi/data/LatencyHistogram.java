@@ -0,0 +1,139 @@
+package com.dronecontrol.droneapi.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+// Histogram of latencies with a fixed memory footprint, every power of two is split into 16 linear buckets,
+// so a percentile is off by at most 1/16 of its value. Only one thread may record and reset, any thread may read.
+public class LatencyHistogram
+{
+  private static final int SUB_BUCKET_BITS = 4;
+
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  // Values below the sub bucket count get a bucket of their own, every higher power of two gets 16 buckets
+  private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+
+  private volatile long count;
+
+  private volatile long maxNanos;
+
+  private volatile long totalNanos;
+
+  public void record(long latencyNanos)
+  {
+    long nanos = Math.max(0, latencyNanos);
+    int bucket = getBucket(nanos);
+    bucketCounts.lazySet(bucket, bucketCounts.get(bucket) + 1);
+
+    count++;
+    maxNanos = Math.max(maxNanos, nanos);
+    totalNanos += nanos;
+  }
+
+  public void reset()
+  {
+    for (int bucket = 0; bucket < BUCKET_COUNT; bucket++)
+    {
+      bucketCounts.set(bucket, 0);
+    }
+    count = 0;
+    maxNanos = 0;
+    totalNanos = 0;
+  }
+
+  private static int getBucket(long nanos)
+  {
+    if (nanos < SUB_BUCKET_COUNT)
+    {
+      return (int) nanos;
+    }
+
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+    int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  private static long getUpperBoundNanos(int bucket)
+  {
+    if (bucket < SUB_BUCKET_COUNT)
+    {
+      return bucket;
+    }
+
+    int exponent = bucket / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+    long subBucket = bucket % SUB_BUCKET_COUNT;
+    long lowerBound = (1L << exponent) + (subBucket << (exponent - SUB_BUCKET_BITS));
+    return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+  }
+
+  public long getCount()
+  {
+    return count;
+  }
+
+  public long getMaxNanos()
+  {
+    return maxNanos;
+  }
+
+  public long getAverageNanos()
+  {
+    long latencies = count;
+    return latencies == 0 ? 0 : totalNanos / latencies;
+  }
+
+  // The upper bound of the bucket holding the percentile, capped at the maximum, e.g. 99.9 for the 99.9th percentile
+  public long getPercentileNanos(double percentile)
+  {
+    checkArgument(percentile >= 0 && percentile <= 100, "The percentile must be between 0 and 100");
+
+    long totalCount = 0;
+    for (int bucket = 0; bucket < BUCKET_COUNT; bucket++)
+    {
+      totalCount += bucketCounts.get(bucket);
+    }
+    if (totalCount == 0)
+    {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+    long cumulativeCount = 0;
+    for (int bucket = 0; bucket < BUCKET_COUNT; bucket++)
+    {
+      cumulativeCount += bucketCounts.get(bucket);
+      if (cumulativeCount >= rank)
+      {
+        return Math.min(getUpperBoundNanos(bucket), maxNanos);
+      }
+    }
+    return maxNanos;
+  }
+
+  // Counts of all latencies up to the given upper bounds, the bounds have to be ascending
+  public long[] getCumulativeCounts(long[] upperBoundsNanos)
+  {
+    long[] cumulativeCounts = new long[upperBoundsNanos.length];
+    long cumulativeCount = 0;
+    int boundIndex = 0;
+    for (int bucket = 0; bucket < BUCKET_COUNT && boundIndex < upperBoundsNanos.length; bucket++)
+    {
+      while (boundIndex < upperBoundsNanos.length && getUpperBoundNanos(bucket) > upperBoundsNanos[boundIndex])
+      {
+        cumulativeCounts[boundIndex] = cumulativeCount;
+        boundIndex++;
+      }
+      cumulativeCount += bucketCounts.get(bucket);
+    }
+    while (boundIndex < upperBoundsNanos.length)
+    {
+      cumulativeCounts[boundIndex] = cumulativeCount;
+      boundIndex++;
+    }
+    return cumulativeCounts;
+  }
+}
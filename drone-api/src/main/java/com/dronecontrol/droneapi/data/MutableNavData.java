@@ -0,0 +1,280 @@
+package com.dronecontrol.droneapi.data;
+
+import com.dronecontrol.droneapi.data.options.AltitudeOption;
+import com.dronecontrol.droneapi.data.options.EulerAnglesOption;
+import com.dronecontrol.droneapi.data.options.HdVideoStreamOption;
+import com.dronecontrol.droneapi.data.options.KalmanPressureOption;
+import com.dronecontrol.droneapi.data.options.MagnetoOption;
+import com.dronecontrol.droneapi.data.options.PhysMeasuresOption;
+import com.dronecontrol.droneapi.data.options.PwmOption;
+import com.dronecontrol.droneapi.data.options.RawMeasuresOption;
+import com.dronecontrol.droneapi.data.options.ReferencesOption;
+import com.dronecontrol.droneapi.data.options.TimeOption;
+import com.dronecontrol.droneapi.data.options.TrimsOption;
+import com.dronecontrol.droneapi.data.options.VisionDetectOption;
+import com.dronecontrol.droneapi.data.options.WifiOption;
+import com.dronecontrol.droneapi.data.options.WindOption;
+
+// Nav data holding its own values, used for snapshots and for nav data which is not decoded from a packet
+public class MutableNavData implements NavData
+{
+  private NavDataState state;
+
+  private boolean onlyHeaderPresent;
+
+  private int batteryLevel;
+
+  private int sequenceNumber;
+
+  private float pitch;
+
+  private float roll;
+
+  private float yaw;
+
+  private float altitude;
+
+  private float speedX;
+
+  private float speedY;
+
+  private float speedZ;
+
+  public MutableNavData()
+  {
+    onlyHeaderPresent = true;
+  }
+
+  @Override
+  public NavData snapshot()
+  {
+    MutableNavData navData = new MutableNavData();
+
+    navData.setState(new NavDataState(getState().getStateFlags()));
+    navData.setOnlyHeaderPresent(isOnlyHeaderPresent());
+    navData.setSequenceNumber(getSequenceNumber());
+    navData.setBatteryLevel(getBatteryLevel());
+    navData.setPitch(getPitch());
+    navData.setRoll(getRoll());
+    navData.setYaw(getYaw());
+    navData.setAltitude(getAltitude());
+    navData.setSpeedX(getSpeedX());
+    navData.setSpeedY(getSpeedY());
+    navData.setSpeedZ(getSpeedZ());
+
+    return navData;
+  }
+
+  @Override
+  public boolean isOnlyHeaderPresent()
+  {
+    return onlyHeaderPresent;
+  }
+
+  public void setOnlyHeaderPresent(boolean onlyHeaderPresent)
+  {
+    this.onlyHeaderPresent = onlyHeaderPresent;
+  }
+
+  public void setSequenceNumber(int sequenceNumber)
+  {
+    this.sequenceNumber = sequenceNumber;
+  }
+
+  @Override
+  public int getSequenceNumber()
+  {
+    return sequenceNumber;
+  }
+
+  @Override
+  public NavDataState getState()
+  {
+    return state;
+  }
+
+  public void setState(NavDataState state)
+  {
+    this.state = state;
+  }
+
+  @Override
+  public int getBatteryLevel()
+  {
+    return batteryLevel;
+  }
+
+  public void setBatteryLevel(int batteryLevel)
+  {
+    this.batteryLevel = batteryLevel;
+  }
+
+  public void setPitch(float pitch)
+  {
+    this.pitch = pitch;
+  }
+
+  @Override
+  public float getPitch()
+  {
+    return pitch;
+  }
+
+  public void setRoll(float roll)
+  {
+    this.roll = roll;
+  }
+
+  @Override
+  public float getRoll()
+  {
+    return roll;
+  }
+
+  public void setYaw(float yaw)
+  {
+    this.yaw = yaw;
+  }
+
+  @Override
+  public float getYaw()
+  {
+    return yaw;
+  }
+
+  @Override
+  public float getAltitude()
+  {
+    return altitude;
+  }
+
+  public void setAltitude(float altitude)
+  {
+    this.altitude = altitude;
+  }
+
+  public void setSpeedX(float speedX)
+  {
+    this.speedX = speedX;
+  }
+
+  @Override
+  public float getSpeedX()
+  {
+    return speedX;
+  }
+
+  public void setSpeedY(float speedY)
+  {
+    this.speedY = speedY;
+  }
+
+  @Override
+  public float getSpeedY()
+  {
+    return speedY;
+  }
+
+  public void setSpeedZ(float speedZ)
+  {
+    this.speedZ = speedZ;
+  }
+
+  @Override
+  public float getSpeedZ()
+  {
+    return speedZ;
+  }
+
+  // The demo option has tag 0, all other options are only sent if navdata_demo is disabled in the configuration
+  @Override
+  public boolean isOptionPresent(int tag)
+  {
+    return tag == 0 && !onlyHeaderPresent;
+  }
+
+  // The following options are only available for nav data decoded from a packet
+  @Override
+  public TimeOption getTimeOption()
+  {
+    return null;
+  }
+
+  @Override
+  public RawMeasuresOption getRawMeasuresOption()
+  {
+    return null;
+  }
+
+  @Override
+  public PhysMeasuresOption getPhysMeasuresOption()
+  {
+    return null;
+  }
+
+  @Override
+  public EulerAnglesOption getEulerAnglesOption()
+  {
+    return null;
+  }
+
+  @Override
+  public ReferencesOption getReferencesOption()
+  {
+    return null;
+  }
+
+  @Override
+  public TrimsOption getTrimsOption()
+  {
+    return null;
+  }
+
+  @Override
+  public PwmOption getPwmOption()
+  {
+    return null;
+  }
+
+  @Override
+  public AltitudeOption getAltitudeOption()
+  {
+    return null;
+  }
+
+  @Override
+  public VisionDetectOption getVisionDetectOption()
+  {
+    return null;
+  }
+
+  @Override
+  public MagnetoOption getMagnetoOption()
+  {
+    return null;
+  }
+
+  @Override
+  public WindOption getWindOption()
+  {
+    return null;
+  }
+
+  @Override
+  public KalmanPressureOption getKalmanPressureOption()
+  {
+    return null;
+  }
+
+  @Override
+  public HdVideoStreamOption getHdVideoStreamOption()
+  {
+    return null;
+  }
+
+  @Override
+  public WifiOption getWifiOption()
+  {
+    return null;
+  }
+}
\ No newline at end of file
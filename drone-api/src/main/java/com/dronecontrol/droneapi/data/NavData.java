@@ -1,141 +1,76 @@
 package com.dronecontrol.droneapi.data;
 
-public class NavData
+import com.dronecontrol.droneapi.data.options.AltitudeOption;
+import com.dronecontrol.droneapi.data.options.EulerAnglesOption;
+import com.dronecontrol.droneapi.data.options.HdVideoStreamOption;
+import com.dronecontrol.droneapi.data.options.KalmanPressureOption;
+import com.dronecontrol.droneapi.data.options.MagnetoOption;
+import com.dronecontrol.droneapi.data.options.PhysMeasuresOption;
+import com.dronecontrol.droneapi.data.options.PwmOption;
+import com.dronecontrol.droneapi.data.options.RawMeasuresOption;
+import com.dronecontrol.droneapi.data.options.ReferencesOption;
+import com.dronecontrol.droneapi.data.options.TimeOption;
+import com.dronecontrol.droneapi.data.options.TrimsOption;
+import com.dronecontrol.droneapi.data.options.VisionDetectOption;
+import com.dronecontrol.droneapi.data.options.WifiOption;
+import com.dronecontrol.droneapi.data.options.WindOption;
+
+// Read only access to the nav data, implemented by the decoder's view over the receive buffer and by MutableNavData
+public interface NavData
 {
-  private NavDataState state;
+  // The nav data passed to the listeners is only valid during the call, listeners which keep it have to take a snapshot
+  NavData snapshot();
 
-  private boolean onlyHeaderPresent;
+  boolean isOnlyHeaderPresent();
 
-  private int batteryLevel;
+  int getSequenceNumber();
 
-  private int sequenceNumber;
+  NavDataState getState();
 
-  private float pitch;
+  int getBatteryLevel();
 
-  private float roll;
+  float getPitch();
 
-  private float yaw;
+  float getRoll();
 
-  private float altitude;
+  float getYaw();
 
-  private float speedX;
+  float getAltitude();
 
-  private float speedY;
+  float getSpeedX();
 
-  private float speedZ;
+  float getSpeedY();
 
-  public NavData()
-  {
-    onlyHeaderPresent = true;
-  }
+  float getSpeedZ();
 
-  public boolean isOnlyHeaderPresent()
-  {
-    return onlyHeaderPresent;
-  }
+  boolean isOptionPresent(int tag);
 
-  public void setOnlyHeaderPresent(boolean onlyHeaderPresent)
-  {
-    this.onlyHeaderPresent = onlyHeaderPresent;
-  }
-
-  public void setSequenceNumber(int sequenceNumber)
-  {
-    this.sequenceNumber = sequenceNumber;
-  }
-
-  public int getSequenceNumber()
-  {
-    return sequenceNumber;
-  }
-
-  public NavDataState getState()
-  {
-    return state;
-  }
-
-  public void setState(NavDataState state)
-  {
-    this.state = state;
-  }
-
-  public int getBatteryLevel()
-  {
-    return batteryLevel;
-  }
-
-  public void setBatteryLevel(int batteryLevel)
-  {
-    this.batteryLevel = batteryLevel;
-  }
-
-  public void setPitch(float pitch)
-  {
-    this.pitch = pitch;
-  }
-
-  public float getPitch()
-  {
-    return pitch;
-  }
-
-  public void setRoll(float roll)
-  {
-    this.roll = roll;
-  }
-
-  public float getRoll()
-  {
-    return roll;
-  }
-
-  public void setYaw(float yaw)
-  {
-    this.yaw = yaw;
-  }
-
-  public float getYaw()
-  {
-    return yaw;
-  }
-
-  public float getAltitude()
-  {
-    return altitude;
-  }
-
-  public void setAltitude(float altitude)
-  {
-    this.altitude = altitude;
-  }
-
-  public void setSpeedX(float speedX)
-  {
-    this.speedX = speedX;
-  }
-
-  public float getSpeedX()
-  {
-    return speedX;
-  }
-
-  public void setSpeedY(float speedY)
-  {
-    this.speedY = speedY;
-  }
-
-  public float getSpeedY()
-  {
-    return speedY;
-  }
-
-  public void setSpeedZ(float speedZ)
-  {
-    this.speedZ = speedZ;
-  }
-
-  public float getSpeedZ()
-  {
-    return speedZ;
-  }
-}
\ No newline at end of file
+  // The following options are null if the drone did not send them
+  TimeOption getTimeOption();
+
+  RawMeasuresOption getRawMeasuresOption();
+
+  PhysMeasuresOption getPhysMeasuresOption();
+
+  EulerAnglesOption getEulerAnglesOption();
+
+  ReferencesOption getReferencesOption();
+
+  TrimsOption getTrimsOption();
+
+  PwmOption getPwmOption();
+
+  AltitudeOption getAltitudeOption();
+
+  VisionDetectOption getVisionDetectOption();
+
+  MagnetoOption getMagnetoOption();
+
+  WindOption getWindOption();
+
+  KalmanPressureOption getKalmanPressureOption();
+
+  HdVideoStreamOption getHdVideoStreamOption();
+
+  WifiOption getWifiOption();
+}
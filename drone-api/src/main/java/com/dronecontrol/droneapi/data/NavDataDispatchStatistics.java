@@ -0,0 +1,69 @@
+package com.dronecontrol.droneapi.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class NavDataDispatchStatistics
+{
+  private final AtomicLong droppedCount = new AtomicLong();
+
+  // Only the dispatching thread of the listener writes these values, so volatile is sufficient for readers
+  private volatile long deliveredCount;
+
+  private volatile long failedCount;
+
+  private volatile long lastLagNanos;
+
+  private volatile long maxLagNanos;
+
+  private volatile long totalLagNanos;
+
+  // Called by the receiving thread when the queue was full and the oldest nav data was replaced
+  public void onDropped()
+  {
+    droppedCount.incrementAndGet();
+  }
+
+  public void onDelivered(long lagNanos)
+  {
+    deliveredCount++;
+    lastLagNanos = lagNanos;
+    maxLagNanos = Math.max(maxLagNanos, lagNanos);
+    totalLagNanos += lagNanos;
+  }
+
+  public void onFailed()
+  {
+    failedCount++;
+  }
+
+  public long getDroppedCount()
+  {
+    return droppedCount.get();
+  }
+
+  public long getDeliveredCount()
+  {
+    return deliveredCount;
+  }
+
+  public long getFailedCount()
+  {
+    return failedCount;
+  }
+
+  public long getLastLagNanos()
+  {
+    return lastLagNanos;
+  }
+
+  public long getMaxLagNanos()
+  {
+    return maxLagNanos;
+  }
+
+  public long getAverageLagNanos()
+  {
+    long delivered = deliveredCount;
+    return delivered == 0 ? 0 : totalLagNanos / delivered;
+  }
+}
@@ -0,0 +1,122 @@
+package com.dronecontrol.droneapi.data;
+
+public class NavDataSequenceStatistics
+{
+  // About one second of nav data in the full mode of the drone
+  private static final int WINDOW_SIZE = 200;
+
+  private final long[] interArrivalNanos = new long[WINDOW_SIZE];
+
+  private final int[] lostBefore = new int[WINDOW_SIZE];
+
+  // Only the receiving thread writes these values, so volatile is sufficient for readers
+  private volatile long deliveredCount;
+
+  private volatile long lostCount;
+
+  private volatile long reorderedCount;
+
+  private volatile long duplicateCount;
+
+  private volatile long resetCount;
+
+  private int windowIndex;
+
+  private int windowCount;
+
+  public synchronized void onDelivered(long interArrival, int lost)
+  {
+    deliveredCount++;
+    lostCount += lost;
+
+    interArrivalNanos[windowIndex] = interArrival;
+    lostBefore[windowIndex] = lost;
+    windowIndex = (windowIndex + 1) % WINDOW_SIZE;
+    windowCount = Math.min(windowCount + 1, WINDOW_SIZE);
+  }
+
+  public void onReordered()
+  {
+    reorderedCount++;
+  }
+
+  public void onDuplicate()
+  {
+    duplicateCount++;
+  }
+
+  public void onReset()
+  {
+    resetCount++;
+  }
+
+  public long getDeliveredCount()
+  {
+    return deliveredCount;
+  }
+
+  public long getLostCount()
+  {
+    return lostCount;
+  }
+
+  public long getReorderedCount()
+  {
+    return reorderedCount;
+  }
+
+  public long getDuplicateCount()
+  {
+    return duplicateCount;
+  }
+
+  // Counts how often the drone restarted its sequence numbers, e.g. after a reconnect
+  public long getResetCount()
+  {
+    return resetCount;
+  }
+
+  // Share of the packets lost within the recent window, between 0 and 1
+  public synchronized float getWindowLossRate()
+  {
+    long lost = 0;
+    for (int index = 0; index < windowCount; index++)
+    {
+      lost += lostBefore[index];
+    }
+    return lost + windowCount == 0 ? 0 : (float) lost / (lost + windowCount);
+  }
+
+  public synchronized long getWindowMeanInterArrivalNanos()
+  {
+    return windowCount == 0 ? 0 : getWindowInterArrivalSum() / windowCount;
+  }
+
+  // Standard deviation of the time between two delivered packets within the recent window
+  public synchronized long getWindowJitterNanos()
+  {
+    if (windowCount < 2)
+    {
+      return 0;
+    }
+
+    double mean = (double) getWindowInterArrivalSum() / windowCount;
+    double squaredDeviations = 0;
+    for (int index = 0; index < windowCount; index++)
+    {
+      double deviation = interArrivalNanos[index] - mean;
+      squaredDeviations += deviation * deviation;
+    }
+    return (long) Math.sqrt(squaredDeviations / windowCount);
+  }
+
+  private long getWindowInterArrivalSum()
+  {
+    long sum = 0;
+    for (int index = 0; index < windowCount; index++)
+    {
+      sum += interArrivalNanos[index];
+    }
+    return sum;
+  }
+}
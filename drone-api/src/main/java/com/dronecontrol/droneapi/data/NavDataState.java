@@ -2,377 +2,412 @@ package com.dronecontrol.droneapi.data;
 
 import com.dronecontrol.droneapi.data.enums.ControlAlgorithm;
 
+import static com.dronecontrol.droneapi.helpers.BinaryDataHelper.flagSet;
+
 public class NavDataState
 {
-  private boolean flying;
+  private static final int FLYING_FLAG = 0;
+
+  private static final int VIDEO_ENABLED_FLAG = 1;
+
+  private static final int VISION_ENABLED_FLAG = 2;
 
-  private boolean videoEnabled;
+  private static final int CONTROL_ALGORITHM_FLAG = 3;
 
-  private boolean visionEnabled;
+  private static final int ALTITUDE_CONTROL_ACTIVE_FLAG = 4;
 
-  private ControlAlgorithm controlAlgorithm;
+  private static final int USER_FEEDBACK_ON_FLAG = 5;
 
-  private boolean altitudeControlActive;
+  private static final int CONTROL_RECEIVED_FLAG = 6;
 
-  private boolean userFeedbackOn;
+  private static final int TRIM_RECEIVED_FLAG = 7;
 
-  private boolean controlReceived;
+  private static final int TRIM_RUNNING_FLAG = 8;
 
-  private boolean trimReceived;
+  private static final int TRIM_SUCCEEDED_FLAG = 9;
 
-  private boolean trimRunning;
+  private static final int NAV_DATA_DEMO_ONLY_FLAG = 10;
 
-  private boolean trimSucceeded;
+  private static final int NAV_DATA_BOOTSTRAP_FLAG = 11;
 
-  private boolean navDataDemoOnly;
+  private static final int MOTORS_DOWN_FLAG = 12;
 
-  private boolean navDataBootstrap;
+  private static final int GYROMETERS_DOWN_FLAG = 14;
 
-  private boolean motorsDown;
+  private static final int BATTERY_TOO_LOW_FLAG = 15;
 
-  private boolean gyrometersDown;
+  private static final int BATTERY_TOO_HIGH_FLAG = 16;
 
-  private boolean batteryTooLow;
+  private static final int TIMER_ELAPSED_FLAG = 17;
 
-  private boolean batteryTooHigh;
+  private static final int NOT_ENOUGH_POWER_FLAG = 18;
 
-  private boolean timerElapsed;
+  private static final int ANGLES_OUT_OF_RANGE_FLAG = 19;
 
-  private boolean notEnoughPower;
+  private static final int TOO_MUCH_WIND_FLAG = 20;
 
-  private boolean anglesOutOfRange;
+  private static final int ULTRASONIC_SENSOR_DEAF_FLAG = 21;
 
-  private boolean tooMuchWind;
+  private static final int CUTOUT_SYSTEM_DETECTED_FLAG = 22;
 
-  private boolean ultrasonicSensorDeaf;
+  private static final int PIC_VERSION_NUMBER_OK_FLAG = 23;
 
-  private boolean cutoutSystemDetected;
+  private static final int AT_CODED_THREAD_ON_FLAG = 24;
 
-  private boolean picVersionNumberOK;
+  private static final int NAV_DATA_THREAD_ON_FLAG = 25;
 
-  private boolean atCodedThreadOn;
+  private static final int VIDEO_THREAD_ON_FLAG = 26;
 
-  private boolean navDataThreadOn;
+  private static final int ACQUISITION_THREAD_ON_FLAG = 27;
 
-  private boolean videoThreadOn;
+  private static final int CONTROL_WATCHDOG_DELAYED_FLAG = 28;
 
-  private boolean acquisitionThreadOn;
+  private static final int ADC_WATCHDOG_DELAYED_FLAG = 29;
 
-  private boolean controlWatchdogDelayed;
+  private static final int COMMUNICATION_PROBLEM_OCCURRED_FLAG = 30;
 
-  private boolean adcWatchdogDelayed;
+  private static final int EMERGENCY_FLAG = 31;
 
-  private boolean communicationProblemOccurred;
+  // All state flags as sent by the drone, written by the receiving thread and read by the others
+  private volatile int stateFlags;
+
+  public NavDataState()
+  {
+  }
+
+  public NavDataState(int stateFlags)
+  {
+    this.stateFlags = stateFlags;
+  }
 
-  private boolean emergency;
+  public int getStateFlags()
+  {
+    return stateFlags;
+  }
+
+  public void setStateFlags(int stateFlags)
+  {
+    this.stateFlags = stateFlags;
+  }
+
+  private void setFlag(int index, boolean value)
+  {
+    if (value)
+    {
+      stateFlags |= 1 << index;
+    } else
+    {
+      stateFlags &= ~(1 << index);
+    }
+  }
 
   public void setFlying(boolean flying)
   {
-    this.flying = flying;
+    setFlag(FLYING_FLAG, flying);
   }
 
   public boolean isFlying()
   {
-    return flying;
+    return flagSet(stateFlags, FLYING_FLAG);
   }
 
   public void setVideoEnabled(boolean videoEnabled)
   {
-    this.videoEnabled = videoEnabled;
+    setFlag(VIDEO_ENABLED_FLAG, videoEnabled);
   }
 
   public boolean isVideoEnabled()
   {
-    return videoEnabled;
+    return flagSet(stateFlags, VIDEO_ENABLED_FLAG);
   }
 
   public void setVisionEnabled(boolean visionEnabled)
   {
-    this.visionEnabled = visionEnabled;
+    setFlag(VISION_ENABLED_FLAG, visionEnabled);
   }
 
   public boolean isVisionEnabled()
   {
-    return visionEnabled;
+    return flagSet(stateFlags, VISION_ENABLED_FLAG);
   }
 
   public void setControlAlgorithm(ControlAlgorithm controlAlgorithm)
   {
-    this.controlAlgorithm = controlAlgorithm;
+    setFlag(CONTROL_ALGORITHM_FLAG, controlAlgorithm == ControlAlgorithm.ANGULAR_SPEED_CONTROL);
   }
 
   public ControlAlgorithm getControlAlgorithm()
   {
-    return controlAlgorithm;
+    return flagSet(stateFlags, CONTROL_ALGORITHM_FLAG) ? ControlAlgorithm.ANGULAR_SPEED_CONTROL : ControlAlgorithm.EULER_ANGLES_CONTROL;
   }
 
   public void setAltitudeControlActive(boolean altitudeControlActive)
   {
-    this.altitudeControlActive = altitudeControlActive;
+    setFlag(ALTITUDE_CONTROL_ACTIVE_FLAG, altitudeControlActive);
   }
 
   public boolean isAltitudeControlActive()
   {
-    return altitudeControlActive;
+    return flagSet(stateFlags, ALTITUDE_CONTROL_ACTIVE_FLAG);
   }
 
   public void setUserFeedbackOn(boolean userFeedbackOn)
   {
-    this.userFeedbackOn = userFeedbackOn;
+    setFlag(USER_FEEDBACK_ON_FLAG, userFeedbackOn);
   }
 
   public boolean isUserFeedbackOn()
   {
-    return userFeedbackOn;
+    return flagSet(stateFlags, USER_FEEDBACK_ON_FLAG);
   }
 
   public void setControlReceived(boolean controlReceived)
   {
-    this.controlReceived = controlReceived;
+    setFlag(CONTROL_RECEIVED_FLAG, controlReceived);
   }
 
   public boolean isControlReceived()
   {
-    return controlReceived;
+    return flagSet(stateFlags, CONTROL_RECEIVED_FLAG);
   }
 
   public void setTrimReceived(boolean trimReceived)
   {
-    this.trimReceived = trimReceived;
+    setFlag(TRIM_RECEIVED_FLAG, trimReceived);
   }
 
   public boolean isTrimReceived()
   {
-    return trimReceived;
+    return flagSet(stateFlags, TRIM_RECEIVED_FLAG);
   }
 
   public void setTrimRunning(boolean trimRunning)
   {
-    this.trimRunning = trimRunning;
+    setFlag(TRIM_RUNNING_FLAG, trimRunning);
   }
 
   public boolean isTrimRunning()
   {
-    return trimRunning;
+    return flagSet(stateFlags, TRIM_RUNNING_FLAG);
   }
 
   public void setTrimSucceeded(boolean trimSucceeded)
   {
-    this.trimSucceeded = trimSucceeded;
+    setFlag(TRIM_SUCCEEDED_FLAG, trimSucceeded);
   }
 
   public boolean isTrimSucceeded()
   {
-    return trimSucceeded;
+    return flagSet(stateFlags, TRIM_SUCCEEDED_FLAG);
   }
 
   public void setNavDataDemoOnly(boolean navDataDemoOnly)
   {
-    this.navDataDemoOnly = navDataDemoOnly;
+    setFlag(NAV_DATA_DEMO_ONLY_FLAG, navDataDemoOnly);
   }
 
   public boolean isNavDataDemoOnly()
   {
-    return navDataDemoOnly;
+    return flagSet(stateFlags, NAV_DATA_DEMO_ONLY_FLAG);
   }
 
   public void setNavDataBootstrap(boolean navDataBootstrap)
   {
-    this.navDataBootstrap = navDataBootstrap;
+    setFlag(NAV_DATA_BOOTSTRAP_FLAG, navDataBootstrap);
   }
 
   public boolean isNavDataBootstrap()
   {
-    return navDataBootstrap;
+    return flagSet(stateFlags, NAV_DATA_BOOTSTRAP_FLAG);
   }
 
   public void setMotorsDown(boolean motorsDown)
   {
-    this.motorsDown = motorsDown;
+    setFlag(MOTORS_DOWN_FLAG, motorsDown);
   }
 
   public boolean isMotorsDown()
   {
-    return motorsDown;
+    return flagSet(stateFlags, MOTORS_DOWN_FLAG);
   }
 
   public void setGyrometersDown(boolean gyrometersDown)
   {
-    this.gyrometersDown = gyrometersDown;
+    setFlag(GYROMETERS_DOWN_FLAG, gyrometersDown);
   }
 
   public boolean isGyrometersDown()
   {
-    return gyrometersDown;
+    return flagSet(stateFlags, GYROMETERS_DOWN_FLAG);
   }
 
   public void setBatteryTooLow(boolean batteryTooLow)
   {
-    this.batteryTooLow = batteryTooLow;
+    setFlag(BATTERY_TOO_LOW_FLAG, batteryTooLow);
   }
 
   public boolean isBatteryTooLow()
   {
-    return batteryTooLow;
+    return flagSet(stateFlags, BATTERY_TOO_LOW_FLAG);
   }
 
   public void setBatteryTooHigh(boolean batteryTooHigh)
   {
-    this.batteryTooHigh = batteryTooHigh;
+    setFlag(BATTERY_TOO_HIGH_FLAG, batteryTooHigh);
   }
 
   public boolean isBatteryTooHigh()
   {
-    return batteryTooHigh;
+    return flagSet(stateFlags, BATTERY_TOO_HIGH_FLAG);
   }
 
   public void setTimerElapsed(boolean timerElapsed)
   {
-    this.timerElapsed = timerElapsed;
+    setFlag(TIMER_ELAPSED_FLAG, timerElapsed);
   }
 
   public boolean isTimerElapsed()
   {
-    return timerElapsed;
+    return flagSet(stateFlags, TIMER_ELAPSED_FLAG);
   }
 
   public void setNotEnoughPower(boolean notEnoughPower)
   {
-    this.notEnoughPower = notEnoughPower;
+    setFlag(NOT_ENOUGH_POWER_FLAG, notEnoughPower);
   }
 
   public boolean isNotEnoughPower()
   {
-    return notEnoughPower;
+    return flagSet(stateFlags, NOT_ENOUGH_POWER_FLAG);
   }
 
   public void setAnglesOutOfRange(boolean anglesOutOfRange)
   {
-    this.anglesOutOfRange = anglesOutOfRange;
+    setFlag(ANGLES_OUT_OF_RANGE_FLAG, anglesOutOfRange);
   }
 
   public boolean isAnglesOutOfRange()
   {
-    return anglesOutOfRange;
+    return flagSet(stateFlags, ANGLES_OUT_OF_RANGE_FLAG);
   }
 
   public void setTooMuchWind(boolean tooMuchWind)
   {
-    this.tooMuchWind = tooMuchWind;
+    setFlag(TOO_MUCH_WIND_FLAG, tooMuchWind);
   }
 
   public boolean isTooMuchWind()
   {
-    return tooMuchWind;
+    return flagSet(stateFlags, TOO_MUCH_WIND_FLAG);
   }
 
   public void setUltrasonicSensorDeaf(boolean ultrasonicSensorDeaf)
   {
-    this.ultrasonicSensorDeaf = ultrasonicSensorDeaf;
+    setFlag(ULTRASONIC_SENSOR_DEAF_FLAG, ultrasonicSensorDeaf);
   }
 
   public boolean isUltrasonicSensorDeaf()
   {
-    return ultrasonicSensorDeaf;
+    return flagSet(stateFlags, ULTRASONIC_SENSOR_DEAF_FLAG);
   }
 
   public void setCutoutSystemDetected(boolean cutoutSystemDetected)
   {
-    this.cutoutSystemDetected = cutoutSystemDetected;
+    setFlag(CUTOUT_SYSTEM_DETECTED_FLAG, cutoutSystemDetected);
   }
 
   public boolean isCutoutSystemDetected()
   {
-    return cutoutSystemDetected;
+    return flagSet(stateFlags, CUTOUT_SYSTEM_DETECTED_FLAG);
   }
 
   public void setPicVersionNumberOK(boolean picVersionNumberOK)
   {
-    this.picVersionNumberOK = picVersionNumberOK;
+    setFlag(PIC_VERSION_NUMBER_OK_FLAG, picVersionNumberOK);
   }
 
   public boolean isPicVersionNumberOK()
   {
-    return picVersionNumberOK;
+    return flagSet(stateFlags, PIC_VERSION_NUMBER_OK_FLAG);
   }
 
   public void setAtCodedThreadOn(boolean atCodedThreadOn)
   {
-    this.atCodedThreadOn = atCodedThreadOn;
+    setFlag(AT_CODED_THREAD_ON_FLAG, atCodedThreadOn);
   }
 
   public boolean isAtCodedThreadOn()
   {
-    return atCodedThreadOn;
+    return flagSet(stateFlags, AT_CODED_THREAD_ON_FLAG);
   }
 
   public void setNavDataThreadOn(boolean navDataThreadOn)
   {
-    this.navDataThreadOn = navDataThreadOn;
+    setFlag(NAV_DATA_THREAD_ON_FLAG, navDataThreadOn);
   }
 
   public boolean isNavDataThreadOn()
   {
-    return navDataThreadOn;
+    return flagSet(stateFlags, NAV_DATA_THREAD_ON_FLAG);
   }
 
   public void setVideoThreadOn(boolean videoThreadOn)
   {
-    this.videoThreadOn = videoThreadOn;
+    setFlag(VIDEO_THREAD_ON_FLAG, videoThreadOn);
   }
 
   public boolean isVideoThreadOn()
   {
-    return videoThreadOn;
+    return flagSet(stateFlags, VIDEO_THREAD_ON_FLAG);
   }
 
   public void setAcquisitionThreadOn(boolean acquisitionThreadOn)
   {
-    this.acquisitionThreadOn = acquisitionThreadOn;
+    setFlag(ACQUISITION_THREAD_ON_FLAG, acquisitionThreadOn);
   }
 
   public boolean isAcquisitionThreadOn()
   {
-    return acquisitionThreadOn;
+    return flagSet(stateFlags, ACQUISITION_THREAD_ON_FLAG);
   }
 
   public void setControlWatchdogDelayed(boolean controlWatchdogDelayed)
   {
-    this.controlWatchdogDelayed = controlWatchdogDelayed;
+    setFlag(CONTROL_WATCHDOG_DELAYED_FLAG, controlWatchdogDelayed);
   }
 
   public boolean isControlWatchdogDelayed()
   {
-    return controlWatchdogDelayed;
+    return flagSet(stateFlags, CONTROL_WATCHDOG_DELAYED_FLAG);
   }
 
   public void setAdcWatchdogDelayed(boolean adcWatchdogDelayed)
   {
-    this.adcWatchdogDelayed = adcWatchdogDelayed;
+    setFlag(ADC_WATCHDOG_DELAYED_FLAG, adcWatchdogDelayed);
   }
 
   public boolean isAdcWatchdogDelayed()
   {
-    return adcWatchdogDelayed;
+    return flagSet(stateFlags, ADC_WATCHDOG_DELAYED_FLAG);
   }
 
   public void setCommunicationProblemOccurred(boolean communicationProblemOccurred)
   {
-    this.communicationProblemOccurred = communicationProblemOccurred;
+    setFlag(COMMUNICATION_PROBLEM_OCCURRED_FLAG, communicationProblemOccurred);
   }
 
   public boolean isCommunicationProblemOccurred()
   {
-    return communicationProblemOccurred;
+    return flagSet(stateFlags, COMMUNICATION_PROBLEM_OCCURRED_FLAG);
   }
 
   public void setEmergency(boolean emergency)
   {
-    this.emergency = emergency;
+    setFlag(EMERGENCY_FLAG, emergency);
   }
 
   public boolean isEmergency()
   {
-    return emergency;
+    return flagSet(stateFlags, EMERGENCY_FLAG);
   }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.dronecontrol.droneapi.data;
+
+// Aggregated values of one nav data series within a time window
+public class NavDataWindow
+{
+  private final int count;
+
+  private final float min;
+
+  private final float max;
+
+  private final float mean;
+
+  private final float last;
+
+  private final float slopePerSecond;
+
+  public NavDataWindow(int count, float min, float max, float mean, float last, float slopePerSecond)
+  {
+    this.count = count;
+    this.min = min;
+    this.max = max;
+    this.mean = mean;
+    this.last = last;
+    this.slopePerSecond = slopePerSecond;
+  }
+
+  public int getCount()
+  {
+    return count;
+  }
+
+  public float getMin()
+  {
+    return min;
+  }
+
+  public float getMax()
+  {
+    return max;
+  }
+
+  public float getMean()
+  {
+    return mean;
+  }
+
+  public float getLast()
+  {
+    return last;
+  }
+
+  // Least squares slope of the values over time, e.g. the climb rate for the altitude
+  public float getSlopePerSecond()
+  {
+    return slopePerSecond;
+  }
+}
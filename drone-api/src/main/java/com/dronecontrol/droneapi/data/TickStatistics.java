@@ -0,0 +1,90 @@
+package com.dronecontrol.droneapi.data;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class TickStatistics
+{
+  // Upper bounds of the lateness histogram buckets, the last bucket takes everything above
+  private static final long[] BUCKET_UPPER_BOUNDS_MICROS = new long[]{50, 100, 250, 500, 1000, 2000, 5000, 10000, Long.MAX_VALUE};
+
+  private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_UPPER_BOUNDS_MICROS.length);
+
+  // Only the ticking thread writes these values, so volatile is sufficient for readers
+  private volatile long tickCount;
+
+  private volatile long missedTickCount;
+
+  private volatile long lastLatenessNanos;
+
+  private volatile long maxLatenessNanos;
+
+  private volatile long totalLatenessNanos;
+
+  public void onTick(long latenessNanos)
+  {
+    tickCount++;
+    lastLatenessNanos = latenessNanos;
+    maxLatenessNanos = Math.max(maxLatenessNanos, latenessNanos);
+    totalLatenessNanos += latenessNanos;
+
+    int bucket = getBucket(TimeUnit.NANOSECONDS.toMicros(latenessNanos));
+    bucketCounts.lazySet(bucket, bucketCounts.get(bucket) + 1);
+  }
+
+  public void onTicksMissed(long ticks)
+  {
+    missedTickCount += ticks;
+  }
+
+  private int getBucket(long latenessMicros)
+  {
+    int bucket = 0;
+    while (latenessMicros > BUCKET_UPPER_BOUNDS_MICROS[bucket])
+    {
+      bucket++;
+    }
+    return bucket;
+  }
+
+  public long getTickCount()
+  {
+    return tickCount;
+  }
+
+  public long getMissedTickCount()
+  {
+    return missedTickCount;
+  }
+
+  public long getLastLatenessNanos()
+  {
+    return lastLatenessNanos;
+  }
+
+  public long getMaxLatenessNanos()
+  {
+    return maxLatenessNanos;
+  }
+
+  public long getAverageLatenessNanos()
+  {
+    long ticks = tickCount;
+    return ticks == 0 ? 0 : totalLatenessNanos / ticks;
+  }
+
+  public long[] getHistogramUpperBoundsMicros()
+  {
+    return BUCKET_UPPER_BOUNDS_MICROS.clone();
+  }
+
+  public long[] getHistogramCounts()
+  {
+    long[] counts = new long[bucketCounts.length()];
+    for (int bucket = 0; bucket < counts.length; bucket++)
+    {
+      counts[bucket] = bucketCounts.get(bucket);
+    }
+    return counts;
+  }
+}
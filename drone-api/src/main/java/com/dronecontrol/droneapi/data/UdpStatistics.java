@@ -0,0 +1,101 @@
+package com.dronecontrol.droneapi.data;
+
+public class UdpStatistics
+{
+  // Only the thread using the UDP component writes these values, so volatile is sufficient for readers
+  private volatile long receivedPacketCount;
+
+  private volatile long receivedByteCount;
+
+  private volatile long sentPacketCount;
+
+  private volatile long sentByteCount;
+
+  private volatile long timeoutCount;
+
+  private volatile long truncatedPacketCount;
+
+  private volatile long receiveErrorCount;
+
+  private volatile long sendDropCount;
+
+  public void onPacketReceived(int bytes)
+  {
+    receivedPacketCount++;
+    receivedByteCount += bytes;
+  }
+
+  public void onPacketSent(int bytes)
+  {
+    sentPacketCount++;
+    sentByteCount += bytes;
+  }
+
+  public void onTimeout()
+  {
+    timeoutCount++;
+  }
+
+  public void onPacketTruncated()
+  {
+    truncatedPacketCount++;
+  }
+
+  public void onReceiveError()
+  {
+    receiveErrorCount++;
+  }
+
+  public void onSendDropped()
+  {
+    sendDropCount++;
+  }
+
+  public long getReceivedPacketCount()
+  {
+    return receivedPacketCount;
+  }
+
+  public long getReceivedByteCount()
+  {
+    return receivedByteCount;
+  }
+
+  public long getSentPacketCount()
+  {
+    return sentPacketCount;
+  }
+
+  public long getSentByteCount()
+  {
+    return sentByteCount;
+  }
+
+  public long getTimeoutCount()
+  {
+    return timeoutCount;
+  }
+
+  // Packets larger than the receiving buffer, the rest of the datagram is discarded
+  public long getTruncatedPacketCount()
+  {
+    return truncatedPacketCount;
+  }
+
+  // For example ICMP port unreachable messages reported on the connected channel
+  public long getReceiveErrorCount()
+  {
+    return receiveErrorCount;
+  }
+
+  // Datagrams which could not be sent because the socket send buffer was full
+  public long getSendDropCount()
+  {
+    return sendDropCount;
+  }
+
+  public long getReceiveDropCount()
+  {
+    return truncatedPacketCount + receiveErrorCount;
+  }
+}
@@ -0,0 +1,11 @@
+package com.dronecontrol.droneapi.data.enums;
+
+// How the nav data received between two deliveries of a rate limited listener is combined,
+// the state and the sequence number are always taken from the latest nav data
+public enum NavDataAggregation
+{
+  LATEST,
+  MEAN,
+  MIN,
+  MAX
+}
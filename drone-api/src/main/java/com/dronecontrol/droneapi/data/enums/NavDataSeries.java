@@ -0,0 +1,14 @@
+package com.dronecontrol.droneapi.data.enums;
+
+// The values of the nav data which are kept in the nav data history
+public enum NavDataSeries
+{
+  ALTITUDE,
+  PITCH,
+  ROLL,
+  YAW,
+  SPEED_X,
+  SPEED_Y,
+  SPEED_Z,
+  BATTERY_LEVEL
+}
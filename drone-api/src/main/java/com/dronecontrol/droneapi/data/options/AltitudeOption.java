@@ -0,0 +1,48 @@
+package com.dronecontrol.droneapi.data.options;
+
+// Altitude estimations of the different sensors
+public class AltitudeOption extends NavDataOption
+{
+  public static final int TAG = 10;
+
+  // In millimeters
+  public int getVisionAltitude()
+  {
+    return getInt(4);
+  }
+
+  public float getAltitudeSpeed()
+  {
+    return getFloat(8);
+  }
+
+  public int getReferenceAltitude()
+  {
+    return getInt(12);
+  }
+
+  public int getRawAltitude()
+  {
+    return getInt(16);
+  }
+
+  public float getObservedAccelerationZ()
+  {
+    return getFloat(20);
+  }
+
+  public float getObservedAltitude()
+  {
+    return getFloat(24);
+  }
+
+  public long getObservationState()
+  {
+    return getUnsignedInt(40);
+  }
+
+  public long getEstimationState()
+  {
+    return getUnsignedInt(52);
+  }
+}
\ No newline at end of file
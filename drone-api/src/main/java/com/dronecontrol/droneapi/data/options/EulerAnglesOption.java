@@ -0,0 +1,17 @@
+package com.dronecontrol.droneapi.data.options;
+
+// Euler angles computed from the accelerometers
+public class EulerAnglesOption extends NavDataOption
+{
+  public static final int TAG = 5;
+
+  public float getTheta()
+  {
+    return getFloat(4);
+  }
+
+  public float getPhi()
+  {
+    return getFloat(8);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.dronecontrol.droneapi.data.options;
+
+// State of the HD video recording (AR.Drone 2.0 only)
+public class HdVideoStreamOption extends NavDataOption
+{
+  public static final int TAG = 25;
+
+  public long getState()
+  {
+    return getUnsignedInt(4);
+  }
+
+  public long getStorageFifoPacketCount()
+  {
+    return getUnsignedInt(8);
+  }
+
+  public long getStorageFifoSize()
+  {
+    return getUnsignedInt(12);
+  }
+
+  // In kilobytes
+  public long getUsbKeySize()
+  {
+    return getUnsignedInt(16);
+  }
+
+  // In kilobytes
+  public long getUsbKeyFreeSpace()
+  {
+    return getUnsignedInt(20);
+  }
+
+  public long getFrameNumber()
+  {
+    return getUnsignedInt(24);
+  }
+
+  // In seconds
+  public long getUsbKeyRemainingTime()
+  {
+    return getUnsignedInt(28);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.dronecontrol.droneapi.data.options;
+
+// Altitude estimation of the pressure sensor Kalman filter (AR.Drone 2.0 only)
+public class KalmanPressureOption extends NavDataOption
+{
+  public static final int TAG = 24;
+
+  public float getOffsetPressure()
+  {
+    return getFloat(4);
+  }
+
+  public float getEstimatedAltitude()
+  {
+    return getFloat(8);
+  }
+
+  public float getEstimatedAltitudeSpeed()
+  {
+    return getFloat(12);
+  }
+
+  public float getEstimatedPwmBias()
+  {
+    return getFloat(16);
+  }
+
+  public float getEstimatedPressureBias()
+  {
+    return getFloat(20);
+  }
+
+  public float getOffsetUltrasonic()
+  {
+    return getFloat(24);
+  }
+
+  public float getPredictionUltrasonic()
+  {
+    return getFloat(28);
+  }
+
+  public boolean isGroundEffect()
+  {
+    return getInt(44) != 0;
+  }
+
+  public boolean isUltrasonicRejected()
+  {
+    return getInt(52) != 0;
+  }
+}
\ No newline at end of file
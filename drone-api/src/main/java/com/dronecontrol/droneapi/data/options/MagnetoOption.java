@@ -0,0 +1,57 @@
+package com.dronecontrol.droneapi.data.options;
+
+// Magnetometer values (AR.Drone 2.0 only), the structure is packed
+public class MagnetoOption extends NavDataOption
+{
+  public static final int TAG = 22;
+
+  public short getMagnetometer(int axis)
+  {
+    return getShort(4 + axis * 2);
+  }
+
+  public float getRaw(int axis)
+  {
+    return getFloat(10 + axis * 4);
+  }
+
+  public float getRectified(int axis)
+  {
+    return getFloat(22 + axis * 4);
+  }
+
+  public float getOffset(int axis)
+  {
+    return getFloat(34 + axis * 4);
+  }
+
+  public float getHeadingUnwrapped()
+  {
+    return getFloat(46);
+  }
+
+  public float getHeadingGyroUnwrapped()
+  {
+    return getFloat(50);
+  }
+
+  public float getHeadingFusionUnwrapped()
+  {
+    return getFloat(54);
+  }
+
+  public boolean isCalibrated()
+  {
+    return getUnsignedByte(58) != 0;
+  }
+
+  public long getState()
+  {
+    return getUnsignedInt(59);
+  }
+
+  public float getRadius()
+  {
+    return getFloat(63);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.dronecontrol.droneapi.data.options;
+
+import java.nio.ByteBuffer;
+
+// Reads the values of one nav data option directly from the receive buffer, the positions are relative to the option start
+public abstract class NavDataOption
+{
+  private ByteBuffer buffer;
+
+  private int offset;
+
+  // Used by the decoder to point the option to the current packet, the buffer has to be little endian
+  public void wrap(ByteBuffer buffer, int offset)
+  {
+    this.buffer = buffer;
+    this.offset = offset;
+  }
+
+  public int getSize()
+  {
+    return getUnsignedShort(2);
+  }
+
+  protected int getInt(int position)
+  {
+    return buffer.getInt(offset + position);
+  }
+
+  protected long getUnsignedInt(int position)
+  {
+    return buffer.getInt(offset + position) & 0xFFFFFFFFL;
+  }
+
+  protected float getFloat(int position)
+  {
+    return buffer.getFloat(offset + position);
+  }
+
+  protected short getShort(int position)
+  {
+    return buffer.getShort(offset + position);
+  }
+
+  protected int getUnsignedShort(int position)
+  {
+    return buffer.getShort(offset + position) & 0xFFFF;
+  }
+
+  protected int getUnsignedByte(int position)
+  {
+    return buffer.get(offset + position) & 0xFF;
+  }
+}
@@ -0,0 +1,27 @@
+package com.dronecontrol.droneapi.data.options;
+
+// Calibrated sensor values
+public class PhysMeasuresOption extends NavDataOption
+{
+  public static final int TAG = 3;
+
+  public float getAccelerometerTemperature()
+  {
+    return getFloat(4);
+  }
+
+  public int getGyrometerTemperature()
+  {
+    return getUnsignedShort(8);
+  }
+
+  public float getAccelerometer(int axis)
+  {
+    return getFloat(10 + axis * 4);
+  }
+
+  public float getGyrometer(int axis)
+  {
+    return getFloat(22 + axis * 4);
+  }
+}
\ No newline at end of file
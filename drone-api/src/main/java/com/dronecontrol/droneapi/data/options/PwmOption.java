@@ -0,0 +1,57 @@
+package com.dronecontrol.droneapi.data.options;
+
+// Motor commands and control loop outputs
+public class PwmOption extends NavDataOption
+{
+  public static final int TAG = 9;
+
+  public int getMotor(int motor)
+  {
+    return getUnsignedByte(4 + motor);
+  }
+
+  public int getSaturatedMotor(int motor)
+  {
+    return getUnsignedByte(8 + motor);
+  }
+
+  public float getGazFeedForward()
+  {
+    return getFloat(12);
+  }
+
+  public float getGazAltitude()
+  {
+    return getFloat(16);
+  }
+
+  public float getAltitudeIntegral()
+  {
+    return getFloat(20);
+  }
+
+  public float getSpeedZReference()
+  {
+    return getFloat(24);
+  }
+
+  public int getPitchOutput()
+  {
+    return getInt(28);
+  }
+
+  public int getRollOutput()
+  {
+    return getInt(32);
+  }
+
+  public int getYawOutput()
+  {
+    return getInt(36);
+  }
+
+  public int getMotorCurrent(int motor)
+  {
+    return getUnsignedShort(60 + motor * 2);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.dronecontrol.droneapi.data.options;
+
+// Raw sensor values as read by the drone
+public class RawMeasuresOption extends NavDataOption
+{
+  public static final int TAG = 2;
+
+  public int getRawAccelerometer(int axis)
+  {
+    return getUnsignedShort(4 + axis * 2);
+  }
+
+  public int getRawGyrometer(int axis)
+  {
+    return getShort(10 + axis * 2);
+  }
+
+  public long getRawBatteryVoltage()
+  {
+    return getUnsignedInt(20);
+  }
+}
\ No newline at end of file
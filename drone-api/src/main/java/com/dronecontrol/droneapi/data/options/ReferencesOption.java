@@ -0,0 +1,47 @@
+package com.dronecontrol.droneapi.data.options;
+
+// Reference angles used by the control loops
+public class ReferencesOption extends NavDataOption
+{
+  public static final int TAG = 6;
+
+  public int getTheta()
+  {
+    return getInt(4);
+  }
+
+  public int getPhi()
+  {
+    return getInt(8);
+  }
+
+  public int getPitch()
+  {
+    return getInt(20);
+  }
+
+  public int getRoll()
+  {
+    return getInt(24);
+  }
+
+  public int getYaw()
+  {
+    return getInt(28);
+  }
+
+  public int getPsi()
+  {
+    return getInt(32);
+  }
+
+  public float getSpeedXReference()
+  {
+    return getFloat(36);
+  }
+
+  public float getSpeedYReference()
+  {
+    return getFloat(40);
+  }
+}
\ No newline at end of file
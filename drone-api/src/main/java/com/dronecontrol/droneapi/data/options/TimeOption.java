@@ -0,0 +1,24 @@
+package com.dronecontrol.droneapi.data.options;
+
+// Time since the drone was started
+public class TimeOption extends NavDataOption
+{
+  public static final int TAG = 1;
+
+  public int getTime()
+  {
+    return getInt(4);
+  }
+
+  // The upper 11 bits contain the seconds
+  public int getSeconds()
+  {
+    return getInt(4) >>> 21;
+  }
+
+  // The lower 21 bits contain the microseconds
+  public int getMicroseconds()
+  {
+    return getInt(4) & 0x1FFFFF;
+  }
+}
\ No newline at end of file
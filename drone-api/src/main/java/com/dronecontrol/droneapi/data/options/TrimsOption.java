@@ -0,0 +1,22 @@
+package com.dronecontrol.droneapi.data.options;
+
+// Trim values determined by the flat trim
+public class TrimsOption extends NavDataOption
+{
+  public static final int TAG = 7;
+
+  public float getAngularRatesTrimR()
+  {
+    return getFloat(4);
+  }
+
+  public float getEulerAnglesTrimTheta()
+  {
+    return getFloat(8);
+  }
+
+  public float getEulerAnglesTrimPhi()
+  {
+    return getFloat(12);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.dronecontrol.droneapi.data.options;
+
+// Tags detected by the cameras, up to four detections
+public class VisionDetectOption extends NavDataOption
+{
+  public static final int TAG = 16;
+
+  public int getDetectionCount()
+  {
+    return getInt(4);
+  }
+
+  public int getType(int detection)
+  {
+    return getInt(8 + detection * 4);
+  }
+
+  public int getCenterX(int detection)
+  {
+    return getInt(24 + detection * 4);
+  }
+
+  public int getCenterY(int detection)
+  {
+    return getInt(40 + detection * 4);
+  }
+
+  public int getWidth(int detection)
+  {
+    return getInt(56 + detection * 4);
+  }
+
+  public int getHeight(int detection)
+  {
+    return getInt(72 + detection * 4);
+  }
+
+  public int getDistance(int detection)
+  {
+    return getInt(88 + detection * 4);
+  }
+
+  public float getOrientationAngle(int detection)
+  {
+    return getFloat(104 + detection * 4);
+  }
+}
\ No newline at end of file
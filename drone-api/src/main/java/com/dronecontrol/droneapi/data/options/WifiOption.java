@@ -0,0 +1,12 @@
+package com.dronecontrol.droneapi.data.options;
+
+// Quality of the WiFi connection
+public class WifiOption extends NavDataOption
+{
+  public static final int TAG = 26;
+
+  public long getLinkQuality()
+  {
+    return getUnsignedInt(4);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.dronecontrol.droneapi.data.options;
+
+// Wind estimation (AR.Drone 2.0 only)
+public class WindOption extends NavDataOption
+{
+  public static final int TAG = 23;
+
+  public float getWindSpeed()
+  {
+    return getFloat(4);
+  }
+
+  public float getWindAngle()
+  {
+    return getFloat(8);
+  }
+
+  public float getCompensationTheta()
+  {
+    return getFloat(12);
+  }
+
+  public float getCompensationPhi()
+  {
+    return getFloat(16);
+  }
+}
\ No newline at end of file
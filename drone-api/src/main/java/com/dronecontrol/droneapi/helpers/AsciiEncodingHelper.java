@@ -0,0 +1,68 @@
+package com.dronecontrol.droneapi.helpers;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class AsciiEncodingHelper
+{
+  private static final byte[] MIN_INT_BYTES = getAsciiBytes(String.valueOf(Integer.MIN_VALUE));
+
+  public static byte[] getAsciiBytes(String text)
+  {
+    return text.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  public static void putAscii(ByteBuffer buffer, String text)
+  {
+    if (buffer.remaining() < text.length())
+    {
+      throw new BufferOverflowException();
+    }
+
+    for (int index = 0; index < text.length(); index++)
+    {
+      buffer.put((byte) text.charAt(index));
+    }
+  }
+
+  public static void putInt(ByteBuffer buffer, int value)
+  {
+    if (value == Integer.MIN_VALUE)
+    {
+      buffer.put(MIN_INT_BYTES);
+      return;
+    }
+
+    if (value < 0)
+    {
+      buffer.put((byte) '-');
+      value = -value;
+    }
+
+    int length = getDigitCount(value);
+    if (buffer.remaining() < length)
+    {
+      throw new BufferOverflowException();
+    }
+
+    int start = buffer.position();
+    for (int index = start + length - 1; index >= start; index--)
+    {
+      buffer.put(index, (byte) ('0' + value % 10));
+      value /= 10;
+    }
+    buffer.position(start + length);
+  }
+
+  private static int getDigitCount(int positiveValue)
+  {
+    int digitCount = 1;
+    while (positiveValue >= 10)
+    {
+      positiveValue /= 10;
+      digitCount++;
+    }
+    return digitCount;
+  }
+}
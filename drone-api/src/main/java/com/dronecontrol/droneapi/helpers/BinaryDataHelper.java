@@ -27,7 +27,7 @@ public class BinaryDataHelper
     return Float.intBitsToFloat(getIntValue(data, offset, length));
   }
 
-  public static int getNormalizedIntValue(Float value)
+  public static int getNormalizedIntValue(float value)
   {
     if (value < -1.0f)
     {
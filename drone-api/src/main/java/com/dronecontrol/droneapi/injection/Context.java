@@ -14,6 +14,7 @@ import com.dronecontrol.droneapi.NavigationDataRetriever;
 import com.dronecontrol.droneapi.VideoRetrieverH264;
 import com.dronecontrol.droneapi.VideoRetrieverP264;
 import com.dronecontrol.droneapi.components.ErrorListenerComponent;
+import com.dronecontrol.droneapi.components.EventLoopComponent;
 
 public class Context extends AbstractModule
 {
@@ -48,5 +49,6 @@ public class Context extends AbstractModule
     bind(VideoRetrieverP264.class).in(Singleton.class);
     bind(ConfigurationDataRetriever.class).in(Singleton.class);
     bind(ErrorListenerComponent.class).in(Singleton.class);
+    bind(EventLoopComponent.class).in(Singleton.class);
   }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.dronecontrol.droneapi.navdata;
+
+import com.dronecontrol.droneapi.data.NavData;
+import com.dronecontrol.droneapi.data.NavDataDispatchStatistics;
+import com.dronecontrol.droneapi.listeners.NavDataListener;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+// Delivers nav data to a listener on its own thread, so a slow listener does not delay receiving the next packet.
+// The queue is bounded, if the listener does not keep up the oldest nav data is dropped in favour of the latest one.
+public class AsyncNavDataListener
+{
+  private final Logger logger = Logger.getLogger(AsyncNavDataListener.class);
+
+  private final NavDataListener navDataListener;
+
+  private final ArrayBlockingQueue<PendingNavData> queue;
+
+  private final ExecutorService executor;
+
+  private final AtomicBoolean dispatchScheduled;
+
+  private final NavDataDispatchStatistics statistics;
+
+  private final Runnable dispatchTask;
+
+  public AsyncNavDataListener(NavDataListener navDataListener, int queueCapacity)
+  {
+    checkArgument(queueCapacity > 0, "The queue capacity must be positive");
+
+    this.navDataListener = navDataListener;
+    queue = new ArrayBlockingQueue<>(queueCapacity);
+    executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("navdata-listener-%d").build());
+    dispatchScheduled = new AtomicBoolean();
+    statistics = new NavDataDispatchStatistics();
+
+    dispatchTask = new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        dispatchPendingNavData();
+      }
+    };
+  }
+
+  public NavDataListener getNavDataListener()
+  {
+    return navDataListener;
+  }
+
+  public NavDataDispatchStatistics getStatistics()
+  {
+    return statistics;
+  }
+
+  // Must only be called by the receiving thread, the nav data has to be a snapshot which is not reused
+  public void offer(NavData navData, long receivedNanos)
+  {
+    PendingNavData pendingNavData = new PendingNavData(navData, receivedNanos);
+    while (!queue.offer(pendingNavData))
+    {
+      if (queue.poll() != null)
+      {
+        statistics.onDropped();
+      }
+    }
+
+    if (dispatchScheduled.compareAndSet(false, true))
+    {
+      executor.execute(dispatchTask);
+    }
+  }
+
+  public void shutdown()
+  {
+    executor.shutdown();
+  }
+
+  private void dispatchPendingNavData()
+  {
+    do
+    {
+      PendingNavData pendingNavData;
+      while ((pendingNavData = queue.poll()) != null)
+      {
+        deliver(pendingNavData);
+      }
+
+      dispatchScheduled.set(false);
+      // Nav data offered after the queue was found empty but before the flag was reset is delivered by this run
+    } while (!queue.isEmpty() && dispatchScheduled.compareAndSet(false, true));
+  }
+
+  private void deliver(PendingNavData pendingNavData)
+  {
+    statistics.onDelivered(System.nanoTime() - pendingNavData.receivedNanos);
+    try
+    {
+      navDataListener.onNavData(pendingNavData.navData);
+    } catch (RuntimeException e)
+    {
+      statistics.onFailed();
+      logger.error(e.getMessage(), e);
+    }
+  }
+
+  private static class PendingNavData
+  {
+    private final NavData navData;
+
+    private final long receivedNanos;
+
+    private PendingNavData(NavData navData, long receivedNanos)
+    {
+      this.navData = navData;
+      this.receivedNanos = receivedNanos;
+    }
+  }
+}
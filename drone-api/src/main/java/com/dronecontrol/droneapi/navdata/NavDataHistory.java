@@ -0,0 +1,215 @@
+package com.dronecontrol.droneapi.navdata;
+
+import com.dronecontrol.droneapi.data.NavData;
+import com.dronecontrol.droneapi.data.NavDataWindow;
+import com.dronecontrol.droneapi.data.enums.NavDataSeries;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+// Keeps the most recent nav data values in a fixed size ring outside of the heap, one column per value.
+// Exactly one thread appends, any thread may query. Readers do not lock, they check after reading whether
+// the writer has overwritten the slots in the meantime and read again in that case. Java 7 has no load fence
+// to keep the reads of the slots ahead of that check, so the readers write a volatile field before it, which
+// the JVMs implement as a full fence. The Java memory model itself does not promise this, so in theory the
+// check is best effort.
+public class NavDataHistory
+{
+  private static final int MAX_READ_ATTEMPTS = 4;
+
+  private static final int TIMESTAMP_BYTES = 8;
+
+  private static final int VALUE_BYTES = 4;
+
+  private static final int SERIES_COUNT = NavDataSeries.values().length;
+
+  private final int capacity;
+
+  private final int mask;
+
+  private final ByteBuffer timestamps;
+
+  private final ByteBuffer[] values;
+
+  private final ByteBuffer stateFlags;
+
+  private volatile long writeIndex;
+
+  // Only written by the readers to order their reads
+  private volatile int readFence;
+
+  public NavDataHistory(int capacity)
+  {
+    checkArgument(capacity > 1 && Integer.bitCount(capacity) == 1, "The capacity must be a power of two");
+
+    this.capacity = capacity;
+    mask = capacity - 1;
+
+    ByteBuffer memory = ByteBuffer.allocateDirect(capacity * (TIMESTAMP_BYTES + VALUE_BYTES * (SERIES_COUNT + 1)))
+            .order(ByteOrder.nativeOrder());
+    timestamps = slice(memory, capacity * TIMESTAMP_BYTES);
+    values = new ByteBuffer[SERIES_COUNT];
+    for (int series = 0; series < SERIES_COUNT; series++)
+    {
+      values[series] = slice(memory, capacity * VALUE_BYTES);
+    }
+    stateFlags = slice(memory, capacity * VALUE_BYTES);
+  }
+
+  private ByteBuffer slice(ByteBuffer memory, int length)
+  {
+    memory.limit(memory.position() + length);
+    ByteBuffer column = memory.slice().order(ByteOrder.nativeOrder());
+    memory.position(memory.limit());
+    return column;
+  }
+
+  // Must only be called by the receiving thread
+  public void append(NavData navData, long timestampNanos)
+  {
+    long index = writeIndex;
+    int slot = (int) (index & mask);
+
+    timestamps.putLong(slot * TIMESTAMP_BYTES, timestampNanos);
+    putValue(NavDataSeries.ALTITUDE, slot, navData.getAltitude());
+    putValue(NavDataSeries.PITCH, slot, navData.getPitch());
+    putValue(NavDataSeries.ROLL, slot, navData.getRoll());
+    putValue(NavDataSeries.YAW, slot, navData.getYaw());
+    putValue(NavDataSeries.SPEED_X, slot, navData.getSpeedX());
+    putValue(NavDataSeries.SPEED_Y, slot, navData.getSpeedY());
+    putValue(NavDataSeries.SPEED_Z, slot, navData.getSpeedZ());
+    putValue(NavDataSeries.BATTERY_LEVEL, slot, navData.getBatteryLevel());
+    stateFlags.putInt(slot * VALUE_BYTES, navData.getState().getStateFlags());
+
+    // Publishes the values written above to the readers
+    writeIndex = index + 1;
+  }
+
+  private void putValue(NavDataSeries series, int slot, float value)
+  {
+    values[series.ordinal()].putFloat(slot * VALUE_BYTES, value);
+  }
+
+  public int getCapacity()
+  {
+    return capacity;
+  }
+
+  public int getSize()
+  {
+    return (int) getReadableCount(writeIndex);
+  }
+
+  public long getTotalCount()
+  {
+    return writeIndex;
+  }
+
+  // Copies the last values into the target array, oldest first, and returns the number of copied values
+  public int getLast(NavDataSeries series, float[] target)
+  {
+    ByteBuffer column = values[series.ordinal()];
+    for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++)
+    {
+      long end = writeIndex;
+      int count = (int) Math.min(target.length, getReadableCount(end));
+      for (int index = 0; index < count; index++)
+      {
+        target[index] = column.getFloat(getSlot(end - count + index) * VALUE_BYTES);
+      }
+
+      if (isStillValid(end - count))
+      {
+        return count;
+      }
+    }
+    throw new IllegalStateException("The nav data history was overwritten while reading");
+  }
+
+  public int getLastStateFlags()
+  {
+    long end = writeIndex;
+    return end == 0 ? 0 : stateFlags.getInt(getSlot(end - 1) * VALUE_BYTES);
+  }
+
+  // Aggregates the values of the given time span before the latest entry, null if there are no values
+  public NavDataWindow getWindow(NavDataSeries series, long duration, TimeUnit timeUnit)
+  {
+    long windowNanos = timeUnit.toNanos(duration);
+    for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++)
+    {
+      long end = writeIndex;
+      if (end == 0)
+      {
+        return null;
+      }
+
+      long start = end - getReadableCount(end);
+      NavDataWindow window = aggregate(values[series.ordinal()], start, end, windowNanos);
+      if (isStillValid(end - window.getCount()))
+      {
+        return window;
+      }
+    }
+    throw new IllegalStateException("The nav data history was overwritten while reading");
+  }
+
+  private NavDataWindow aggregate(ByteBuffer column, long start, long end, long windowNanos)
+  {
+    long latestTimestamp = timestamps.getLong(getSlot(end - 1) * TIMESTAMP_BYTES);
+    float last = column.getFloat(getSlot(end - 1) * VALUE_BYTES);
+
+    int count = 0;
+    float min = Float.MAX_VALUE;
+    float max = -Float.MAX_VALUE;
+    double sumValues = 0;
+    double sumTimes = 0;
+    double sumTimesValues = 0;
+    double sumSquaredTimes = 0;
+
+    for (long index = end - 1; index >= start; index--)
+    {
+      int slot = getSlot(index);
+      long age = latestTimestamp - timestamps.getLong(slot * TIMESTAMP_BYTES);
+      if (age > windowNanos)
+      {
+        break;
+      }
+
+      float value = column.getFloat(slot * VALUE_BYTES);
+      double time = -age / (double) TimeUnit.SECONDS.toNanos(1);
+      count++;
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+      sumValues += value;
+      sumTimes += time;
+      sumTimesValues += time * value;
+      sumSquaredTimes += time * time;
+    }
+
+    double timeVariance = count * sumSquaredTimes - sumTimes * sumTimes;
+    float slope = timeVariance == 0 ? 0 : (float) ((count * sumTimesValues - sumTimes * sumValues) / timeVariance);
+    return new NavDataWindow(count, min, max, (float) (sumValues / count), last, slope);
+  }
+
+  // The slot of the oldest entry is the one the writer fills next, so it is never read
+  private long getReadableCount(long end)
+  {
+    return Math.min(end, capacity - 1);
+  }
+
+  private int getSlot(long index)
+  {
+    return (int) (index & mask);
+  }
+
+  // The oldest read entry must not have been overwritten by the writer while reading
+  private boolean isStillValid(long oldestReadIndex)
+  {
+    readFence = 0;
+    return writeIndex - capacity < oldestReadIndex;
+  }
+}
@@ -0,0 +1,90 @@
+package com.dronecontrol.droneapi.navdata;
+
+import com.dronecontrol.droneapi.data.NavDataSequenceStatistics;
+
+// Rejects nav data which is older than the last delivered one, UDP may duplicate or reorder packets
+public class NavDataSequenceTracker
+{
+  // The drone starts counting at 1 again when the nav data stream is restarted
+  private static final int FIRST_SEQUENCE_NUMBER = 1;
+
+  // UDP reorders packets only by a few positions, a larger step back means the drone restarted the counter
+  private static final int MAX_REORDER_DISTANCE = 64;
+
+  // If the first packet after a restart was lost, the stream is taken up again after this many rejected packets
+  private static final int MAX_CONSECUTIVE_REJECTS = 16;
+
+  private final NavDataSequenceStatistics statistics;
+
+  private boolean started;
+
+  private int lastSequenceNumber;
+
+  private long lastArrivalNanos;
+
+  private int consecutiveRejects;
+
+  public NavDataSequenceTracker()
+  {
+    statistics = new NavDataSequenceStatistics();
+  }
+
+  public NavDataSequenceStatistics getStatistics()
+  {
+    return statistics;
+  }
+
+  // Called when the connection is established again, the next sequence number is accepted in any case
+  public void reset()
+  {
+    started = false;
+  }
+
+  // Must only be called by the receiving thread, returns false if the nav data should be dropped
+  public boolean accept(int sequenceNumber, long arrivalNanos)
+  {
+    if (!started)
+    {
+      return deliver(sequenceNumber, arrivalNanos, 0);
+    }
+
+    // Compared as difference so the wrap around of the counter is handled
+    int difference = sequenceNumber - lastSequenceNumber;
+    if (difference > 0)
+    {
+      return deliver(sequenceNumber, arrivalNanos, difference - 1);
+    } else if (difference == 0)
+    {
+      statistics.onDuplicate();
+      return reject();
+    } else if (sequenceNumber == FIRST_SEQUENCE_NUMBER || difference < -MAX_REORDER_DISTANCE
+            || consecutiveRejects >= MAX_CONSECUTIVE_REJECTS)
+    {
+      statistics.onReset();
+      return deliver(sequenceNumber, arrivalNanos, 0);
+    }
+
+    statistics.onReordered();
+    return reject();
+  }
+
+  private boolean reject()
+  {
+    consecutiveRejects++;
+    return false;
+  }
+
+  private boolean deliver(int sequenceNumber, long arrivalNanos, int lost)
+  {
+    if (started)
+    {
+      statistics.onDelivered(arrivalNanos - lastArrivalNanos, lost);
+    }
+
+    started = true;
+    consecutiveRejects = 0;
+    lastSequenceNumber = sequenceNumber;
+    lastArrivalNanos = arrivalNanos;
+    return true;
+  }
+}
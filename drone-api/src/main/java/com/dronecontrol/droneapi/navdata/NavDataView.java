@@ -0,0 +1,274 @@
+package com.dronecontrol.droneapi.navdata;
+
+import com.dronecontrol.droneapi.data.NavData;
+import com.dronecontrol.droneapi.data.NavDataState;
+import com.dronecontrol.droneapi.data.options.AltitudeOption;
+import com.dronecontrol.droneapi.data.options.EulerAnglesOption;
+import com.dronecontrol.droneapi.data.options.HdVideoStreamOption;
+import com.dronecontrol.droneapi.data.options.KalmanPressureOption;
+import com.dronecontrol.droneapi.data.options.MagnetoOption;
+import com.dronecontrol.droneapi.data.options.NavDataOption;
+import com.dronecontrol.droneapi.data.options.PhysMeasuresOption;
+import com.dronecontrol.droneapi.data.options.PwmOption;
+import com.dronecontrol.droneapi.data.options.RawMeasuresOption;
+import com.dronecontrol.droneapi.data.options.ReferencesOption;
+import com.dronecontrol.droneapi.data.options.TimeOption;
+import com.dronecontrol.droneapi.data.options.TrimsOption;
+import com.dronecontrol.droneapi.data.options.VisionDetectOption;
+import com.dronecontrol.droneapi.data.options.WifiOption;
+import com.dronecontrol.droneapi.data.options.WindOption;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Read only nav data which reads its values from the receive buffer, it is reused for every packet
+public class NavDataView implements NavData
+{
+  // The drone sends tags up to 27, the checksum tag is handled by the decoder
+  static final int OPTION_TAG_COUNT = 32;
+
+  private static final int DEMO_TAG = 0;
+
+  private static final int NO_OFFSET = -1;
+
+  private final NavDataState state;
+
+  // Start offset of every option in the current packet, the options themselves are only read when requested
+  private final int[] optionOffsets;
+
+  private final TimeOption timeOption = new TimeOption();
+
+  private final RawMeasuresOption rawMeasuresOption = new RawMeasuresOption();
+
+  private final PhysMeasuresOption physMeasuresOption = new PhysMeasuresOption();
+
+  private final EulerAnglesOption eulerAnglesOption = new EulerAnglesOption();
+
+  private final ReferencesOption referencesOption = new ReferencesOption();
+
+  private final TrimsOption trimsOption = new TrimsOption();
+
+  private final PwmOption pwmOption = new PwmOption();
+
+  private final AltitudeOption altitudeOption = new AltitudeOption();
+
+  private final VisionDetectOption visionDetectOption = new VisionDetectOption();
+
+  private final MagnetoOption magnetoOption = new MagnetoOption();
+
+  private final WindOption windOption = new WindOption();
+
+  private final KalmanPressureOption kalmanPressureOption = new KalmanPressureOption();
+
+  private final HdVideoStreamOption hdVideoStreamOption = new HdVideoStreamOption();
+
+  private final WifiOption wifiOption = new WifiOption();
+
+  private ByteBuffer buffer;
+
+  private int sequenceNumber;
+
+  public NavDataView()
+  {
+    state = new NavDataState();
+    optionOffsets = new int[OPTION_TAG_COUNT];
+    Arrays.fill(optionOffsets, NO_OFFSET);
+  }
+
+  void wrap(ByteBuffer buffer, int stateFlags, int sequenceNumber)
+  {
+    this.buffer = buffer;
+    this.sequenceNumber = sequenceNumber;
+    state.setStateFlags(stateFlags);
+    Arrays.fill(optionOffsets, NO_OFFSET);
+  }
+
+  void setOptionOffset(int tag, int offset)
+  {
+    optionOffsets[tag] = offset;
+  }
+
+  // Copies the bytes of the packet, so the snapshot keeps all options without decoding them
+  @Override
+  public NavData snapshot()
+  {
+    ByteBuffer copy = ByteBuffer.allocate(buffer.limit()).order(buffer.order());
+    for (int index = 0; index < copy.capacity(); index++)
+    {
+      copy.put(index, buffer.get(index));
+    }
+
+    NavDataView navData = new NavDataView();
+    navData.wrap(copy, state.getStateFlags(), sequenceNumber);
+    System.arraycopy(optionOffsets, 0, navData.optionOffsets, 0, OPTION_TAG_COUNT);
+    return navData;
+  }
+
+  @Override
+  public boolean isOptionPresent(int tag)
+  {
+    return tag >= 0 && tag < OPTION_TAG_COUNT && optionOffsets[tag] != NO_OFFSET;
+  }
+
+  @Override
+  public boolean isOnlyHeaderPresent()
+  {
+    return !isOptionPresent(DEMO_TAG);
+  }
+
+  @Override
+  public int getSequenceNumber()
+  {
+    return sequenceNumber;
+  }
+
+  @Override
+  public NavDataState getState()
+  {
+    return state;
+  }
+
+  @Override
+  public int getBatteryLevel()
+  {
+    return isOnlyHeaderPresent() ? 0 : buffer.getInt(optionOffsets[DEMO_TAG] + 8);
+  }
+
+  @Override
+  public float getPitch()
+  {
+    return isOnlyHeaderPresent() ? 0 : buffer.getFloat(optionOffsets[DEMO_TAG] + 12) / 1000;
+  }
+
+  @Override
+  public float getRoll()
+  {
+    return isOnlyHeaderPresent() ? 0 : buffer.getFloat(optionOffsets[DEMO_TAG] + 16) / 1000;
+  }
+
+  @Override
+  public float getYaw()
+  {
+    return isOnlyHeaderPresent() ? 0 : buffer.getFloat(optionOffsets[DEMO_TAG] + 20) / 1000;
+  }
+
+  @Override
+  public float getAltitude()
+  {
+    return isOnlyHeaderPresent() ? 0 : (float) buffer.getInt(optionOffsets[DEMO_TAG] + 24) / 1000.0f;
+  }
+
+  @Override
+  public float getSpeedX()
+  {
+    return isOnlyHeaderPresent() ? 0 : buffer.getFloat(optionOffsets[DEMO_TAG] + 28);
+  }
+
+  @Override
+  public float getSpeedY()
+  {
+    return isOnlyHeaderPresent() ? 0 : buffer.getFloat(optionOffsets[DEMO_TAG] + 32);
+  }
+
+  @Override
+  public float getSpeedZ()
+  {
+    return isOnlyHeaderPresent() ? 0 : buffer.getFloat(optionOffsets[DEMO_TAG] + 36);
+  }
+
+  @Override
+  public TimeOption getTimeOption()
+  {
+    return getOption(TimeOption.TAG, timeOption);
+  }
+
+  @Override
+  public RawMeasuresOption getRawMeasuresOption()
+  {
+    return getOption(RawMeasuresOption.TAG, rawMeasuresOption);
+  }
+
+  @Override
+  public PhysMeasuresOption getPhysMeasuresOption()
+  {
+    return getOption(PhysMeasuresOption.TAG, physMeasuresOption);
+  }
+
+  @Override
+  public EulerAnglesOption getEulerAnglesOption()
+  {
+    return getOption(EulerAnglesOption.TAG, eulerAnglesOption);
+  }
+
+  @Override
+  public ReferencesOption getReferencesOption()
+  {
+    return getOption(ReferencesOption.TAG, referencesOption);
+  }
+
+  @Override
+  public TrimsOption getTrimsOption()
+  {
+    return getOption(TrimsOption.TAG, trimsOption);
+  }
+
+  @Override
+  public PwmOption getPwmOption()
+  {
+    return getOption(PwmOption.TAG, pwmOption);
+  }
+
+  @Override
+  public AltitudeOption getAltitudeOption()
+  {
+    return getOption(AltitudeOption.TAG, altitudeOption);
+  }
+
+  @Override
+  public VisionDetectOption getVisionDetectOption()
+  {
+    return getOption(VisionDetectOption.TAG, visionDetectOption);
+  }
+
+  @Override
+  public MagnetoOption getMagnetoOption()
+  {
+    return getOption(MagnetoOption.TAG, magnetoOption);
+  }
+
+  @Override
+  public WindOption getWindOption()
+  {
+    return getOption(WindOption.TAG, windOption);
+  }
+
+  @Override
+  public KalmanPressureOption getKalmanPressureOption()
+  {
+    return getOption(KalmanPressureOption.TAG, kalmanPressureOption);
+  }
+
+  @Override
+  public HdVideoStreamOption getHdVideoStreamOption()
+  {
+    return getOption(HdVideoStreamOption.TAG, hdVideoStreamOption);
+  }
+
+  @Override
+  public WifiOption getWifiOption()
+  {
+    return getOption(WifiOption.TAG, wifiOption);
+  }
+
+  private <T extends NavDataOption> T getOption(int tag, T option)
+  {
+    int offset = optionOffsets[tag];
+    if (offset == NO_OFFSET)
+    {
+      return null;
+    }
+
+    option.wrap(buffer, offset);
+    return option;
+  }
+}
@@ -0,0 +1,153 @@
+package com.dronecontrol.droneapi.navdata;
+
+import com.dronecontrol.droneapi.data.MutableNavData;
+import com.dronecontrol.droneapi.data.NavData;
+import com.dronecontrol.droneapi.data.NavDataState;
+import com.dronecontrol.droneapi.data.enums.NavDataAggregation;
+import com.dronecontrol.droneapi.listeners.NavDataListener;
+import com.google.common.base.Ticker;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+// Passes nav data to the listener at most with the given rate, the values in between are either skipped or aggregated
+public class RateLimitedNavDataListener implements NavDataListener
+{
+  private static final int BATTERY_LEVEL = 0;
+
+  private static final int PITCH = 1;
+
+  private static final int ROLL = 2;
+
+  private static final int YAW = 3;
+
+  private static final int ALTITUDE = 4;
+
+  private static final int SPEED_X = 5;
+
+  private static final int SPEED_Y = 6;
+
+  private static final int SPEED_Z = 7;
+
+  private static final int VALUE_COUNT = 8;
+
+  private final NavDataListener navDataListener;
+
+  private final NavDataAggregation aggregation;
+
+  private final long intervalNanos;
+
+  private final Ticker ticker;
+
+  private final double[] values;
+
+  private long lastDeliveryNanos;
+
+  private int aggregatedCount;
+
+  public RateLimitedNavDataListener(NavDataListener navDataListener, float maxRateHz, NavDataAggregation aggregation)
+  {
+    this(navDataListener, maxRateHz, aggregation, Ticker.systemTicker());
+  }
+
+  RateLimitedNavDataListener(NavDataListener navDataListener, float maxRateHz, NavDataAggregation aggregation, Ticker ticker)
+  {
+    checkArgument(maxRateHz > 0, "The rate must be positive");
+
+    this.navDataListener = navDataListener;
+    this.aggregation = aggregation;
+    this.ticker = ticker;
+    intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / maxRateHz);
+    values = new double[VALUE_COUNT];
+    lastDeliveryNanos = ticker.read() - intervalNanos;
+  }
+
+  public NavDataListener getNavDataListener()
+  {
+    return navDataListener;
+  }
+
+  // Called by the receiving thread only
+  @Override
+  public void onNavData(NavData navData)
+  {
+    if (aggregation != NavDataAggregation.LATEST && !navData.isOnlyHeaderPresent())
+    {
+      aggregate(navData);
+    }
+
+    long now = ticker.read();
+    if (now - lastDeliveryNanos < intervalNanos)
+    {
+      return;
+    }
+    lastDeliveryNanos = now;
+
+    if (aggregation == NavDataAggregation.LATEST || aggregatedCount == 0)
+    {
+      navDataListener.onNavData(navData);
+    } else
+    {
+      navDataListener.onNavData(getAggregatedNavData(navData));
+    }
+    aggregatedCount = 0;
+  }
+
+  private void aggregate(NavData navData)
+  {
+    aggregate(BATTERY_LEVEL, navData.getBatteryLevel());
+    aggregate(PITCH, navData.getPitch());
+    aggregate(ROLL, navData.getRoll());
+    aggregate(YAW, navData.getYaw());
+    aggregate(ALTITUDE, navData.getAltitude());
+    aggregate(SPEED_X, navData.getSpeedX());
+    aggregate(SPEED_Y, navData.getSpeedY());
+    aggregate(SPEED_Z, navData.getSpeedZ());
+    aggregatedCount++;
+  }
+
+  private void aggregate(int index, double value)
+  {
+    if (aggregatedCount == 0)
+    {
+      values[index] = value;
+      return;
+    }
+
+    switch (aggregation)
+    {
+      case MEAN:
+        values[index] += value;
+        break;
+      case MIN:
+        values[index] = Math.min(values[index], value);
+        break;
+      case MAX:
+        values[index] = Math.max(values[index], value);
+        break;
+    }
+  }
+
+  private NavData getAggregatedNavData(NavData latestNavData)
+  {
+    MutableNavData navData = new MutableNavData();
+    navData.setState(new NavDataState(latestNavData.getState().getStateFlags()));
+    navData.setSequenceNumber(latestNavData.getSequenceNumber());
+    navData.setOnlyHeaderPresent(false);
+    navData.setBatteryLevel((int) Math.round(getValue(BATTERY_LEVEL)));
+    navData.setPitch((float) getValue(PITCH));
+    navData.setRoll((float) getValue(ROLL));
+    navData.setYaw((float) getValue(YAW));
+    navData.setAltitude((float) getValue(ALTITUDE));
+    navData.setSpeedX((float) getValue(SPEED_X));
+    navData.setSpeedY((float) getValue(SPEED_Y));
+    navData.setSpeedZ((float) getValue(SPEED_Z));
+    return navData;
+  }
+
+  private double getValue(int index)
+  {
+    return aggregation == NavDataAggregation.MEAN ? values[index] / aggregatedCount : values[index];
+  }
+}
@@ -0,0 +1,35 @@
+package com.dronecontrol.droneapi.recording;
+
+public enum RecordType
+{
+  NAV_DATA(1),
+  AT_COMMANDS(2),
+  CONFIG_DATA(3),
+  VIDEO_H264(4),
+  VIDEO_P264(5),
+  VIDEO_FRAME(6);
+
+  private final int typeCode;
+
+  RecordType(int typeCode)
+  {
+    this.typeCode = typeCode;
+  }
+
+  public int getTypeCode()
+  {
+    return typeCode;
+  }
+
+  public static RecordType fromTypeCode(int typeCode)
+  {
+    for (RecordType recordType : values())
+    {
+      if (recordType.typeCode == typeCode)
+      {
+        return recordType;
+      }
+    }
+    throw new IllegalStateException(String.format("Unknown record type %d", typeCode));
+  }
+}
@@ -0,0 +1,84 @@
+package com.dronecontrol.droneapi.recording;
+
+import com.dronecontrol.droneapi.video.VideoStreamSource;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+// Provides a recorded H264 stream to the decoder, at the recorded pace or as fast as possible
+public class RecordedVideoSource implements VideoStreamSource
+{
+  private final RecordingReader reader;
+
+  private final ReplayClock replayClock;
+
+  private final InputStream inputStream;
+
+  private ByteBuffer currentData;
+
+  // Starts at the given offset of the stream, a speed of TrafficReplayer.MAX_SPEED does not wait at all
+  public RecordedVideoSource(RecordingReader reader, long startStreamOffset, float speed)
+  {
+    this.reader = reader;
+    replayClock = new ReplayClock(speed);
+
+    long recordStreamOffset = 0;
+    while (reader.next())
+    {
+      int length = reader.getData().remaining();
+      if (recordStreamOffset + length > startStreamOffset)
+      {
+        currentData = reader.getData();
+        currentData.position((int) (startStreamOffset - recordStreamOffset));
+        replayClock.waitFor(reader.getTimestampNanos());
+        break;
+      }
+      recordStreamOffset += length;
+    }
+
+    inputStream = new InputStream()
+    {
+      @Override
+      public int read()
+      {
+        byte[] singleByte = new byte[1];
+        return read(singleByte, 0, 1) < 0 ? -1 : singleByte[0] & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] buffer, int offset, int length)
+      {
+        return readRecordedBytes(buffer, offset, length);
+      }
+    };
+  }
+
+  @Override
+  public InputStream getInputStream()
+  {
+    return inputStream;
+  }
+
+  @Override
+  public void reconnect()
+  {
+    // A recording does not time out
+  }
+
+  private int readRecordedBytes(byte[] buffer, int offset, int length)
+  {
+    while (currentData == null || !currentData.hasRemaining())
+    {
+      if (!reader.next())
+      {
+        return -1;
+      }
+      currentData = reader.getData();
+      replayClock.waitFor(reader.getTimestampNanos());
+    }
+
+    int read = Math.min(length, currentData.remaining());
+    currentData.get(buffer, offset, read);
+    return read;
+  }
+}
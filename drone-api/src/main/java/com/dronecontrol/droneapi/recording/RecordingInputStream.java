@@ -0,0 +1,48 @@
+package com.dronecontrol.droneapi.recording;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Passes every byte read by the video decoder to the video recorder
+public class RecordingInputStream extends FilterInputStream
+{
+  private final VideoRecorder videoRecorder;
+
+  private final byte[] singleByte = new byte[1];
+
+  public RecordingInputStream(InputStream inputStream, VideoRecorder videoRecorder)
+  {
+    super(inputStream);
+    this.videoRecorder = videoRecorder;
+  }
+
+  @Override
+  public int read() throws IOException
+  {
+    int value = super.read();
+    if (value >= 0)
+    {
+      singleByte[0] = (byte) value;
+      videoRecorder.recordH264(singleByte, 0, 1);
+    }
+    return value;
+  }
+
+  @Override
+  public int read(byte[] buffer, int offset, int length) throws IOException
+  {
+    int read = super.read(buffer, offset, length);
+    videoRecorder.recordH264(buffer, offset, read);
+    return read;
+  }
+
+  @Override
+  public long skip(long count) throws IOException
+  {
+    // Skipped bytes have to be recorded as well, so they are read
+    byte[] buffer = new byte[(int) Math.min(count, 4096)];
+    int read = read(buffer, 0, buffer.length);
+    return Math.max(read, 0);
+  }
+}
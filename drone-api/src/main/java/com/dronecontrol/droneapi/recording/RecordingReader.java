@@ -0,0 +1,104 @@
+package com.dronecontrol.droneapi.recording;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static com.google.common.base.Preconditions.checkState;
+
+// Reads the records of one stream written by the recording writer, segment after segment
+public class RecordingReader
+{
+  private final File directory;
+
+  private final String streamName;
+
+  private MappedByteBuffer segment;
+
+  private int segmentIndex;
+
+  private RecordType type;
+
+  private long timestampNanos;
+
+  private ByteBuffer data;
+
+  public RecordingReader(File directory, String streamName)
+  {
+    this.directory = directory;
+    this.streamName = streamName;
+  }
+
+  // Moves to the next record, returns false if there are no more records
+  public boolean next()
+  {
+    while (segment != null || openNextSegment())
+    {
+      int length = segment.remaining() >= RecordingWriter.RECORD_HEADER_SIZE ? segment.getInt(segment.position()) : 0;
+      if (length > 0)
+      {
+        readRecord(length);
+        return true;
+      }
+      segment = null;
+    }
+    return false;
+  }
+
+  public RecordType getType()
+  {
+    return type;
+  }
+
+  public long getTimestampNanos()
+  {
+    return timestampNanos;
+  }
+
+  // The data starts at position 0, it is a view on the mapped segment and stays readable while it is referenced
+  public ByteBuffer getData()
+  {
+    return data;
+  }
+
+  private void readRecord(int length)
+  {
+    segment.getInt();
+    type = RecordType.fromTypeCode(segment.getInt());
+    timestampNanos = segment.getLong();
+
+    int end = segment.position() + length;
+    ByteBuffer record = segment.duplicate();
+    record.limit(end);
+    data = record.slice().order(ByteOrder.LITTLE_ENDIAN);
+    segment.position(end);
+  }
+
+  private boolean openNextSegment()
+  {
+    File segmentFile = RecordingWriter.getSegmentFile(directory, streamName, segmentIndex + 1);
+    if (!segmentFile.isFile())
+    {
+      return false;
+    }
+    segmentIndex++;
+
+    try (RandomAccessFile file = new RandomAccessFile(segmentFile, "r"))
+    {
+      segment = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+      segment.order(ByteOrder.LITTLE_ENDIAN);
+    } catch (IOException e)
+    {
+      throw new IllegalStateException("Could not read the recording segment", e);
+    }
+
+    checkState(segment.getInt() == RecordingWriter.MAGIC, "The file is not a recording segment");
+    checkState(segment.getInt() == RecordingWriter.VERSION, "The recording version is not supported");
+    segment.position(RecordingWriter.SEGMENT_HEADER_SIZE);
+    return true;
+  }
+}
@@ -0,0 +1,117 @@
+package com.dronecontrol.droneapi.recording;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+// Appends records to memory mapped segment files of one stream, a new segment is started when the current one is full.
+// Must only be used by one thread, appending copies the bytes into the mapped memory and does not allocate.
+public class RecordingWriter
+{
+  static final int MAGIC = 0x44524543;
+
+  static final int VERSION = 1;
+
+  // Magic, version, wall clock time and nano time at the start of the segment
+  static final int SEGMENT_HEADER_SIZE = 24;
+
+  // Payload length, type and timestamp, a length of 0 marks the end of the segment
+  static final int RECORD_HEADER_SIZE = 16;
+
+  private final File directory;
+
+  private final String streamName;
+
+  private final int segmentSize;
+
+  private MappedByteBuffer segment;
+
+  private int segmentIndex;
+
+  private long recordCount;
+
+  public RecordingWriter(File directory, String streamName, int segmentSize)
+  {
+    checkArgument(segmentSize > SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE, "The segment size is too small");
+    checkState(directory.isDirectory() || directory.mkdirs(), "The recording directory could not be created");
+
+    this.directory = directory;
+    this.streamName = streamName;
+    this.segmentSize = segmentSize;
+
+    // A new recording into the same directory, e.g. after a reconnect, continues after the existing segments
+    while (getSegmentFile(directory, streamName, segmentIndex + 1).exists())
+    {
+      segmentIndex++;
+    }
+  }
+
+  static File getSegmentFile(File directory, String streamName, int segmentIndex)
+  {
+    return new File(directory, String.format("%s-%06d.rec", streamName, segmentIndex));
+  }
+
+  // Records the bytes between position and limit, the position of the data is not changed
+  public void append(RecordType type, long timestampNanos, ByteBuffer data)
+  {
+    int length = data.remaining();
+    checkArgument(length > 0 && length <= segmentSize - SEGMENT_HEADER_SIZE - RECORD_HEADER_SIZE, "Invalid record length");
+
+    if (segment == null || segment.remaining() < RECORD_HEADER_SIZE + length)
+    {
+      startNextSegment();
+    }
+
+    segment.putInt(length);
+    segment.putInt(type.getTypeCode());
+    segment.putLong(timestampNanos);
+
+    int position = data.position();
+    segment.put(data);
+    data.position(position);
+
+    recordCount++;
+  }
+
+  public long getRecordCount()
+  {
+    return recordCount;
+  }
+
+  public void close()
+  {
+    if (segment != null)
+    {
+      segment.force();
+      segment = null;
+    }
+  }
+
+  private void startNextSegment()
+  {
+    close();
+    segmentIndex++;
+
+    try (RandomAccessFile file = new RandomAccessFile(getSegmentFile(directory, streamName, segmentIndex), "rw"))
+    {
+      // The mapping stays valid after the file is closed, the unused rest of the segment is zero
+      segment = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+      segment.order(ByteOrder.LITTLE_ENDIAN);
+    } catch (IOException e)
+    {
+      throw new IllegalStateException("Could not create the recording segment", e);
+    }
+
+    segment.putInt(MAGIC);
+    segment.putInt(VERSION);
+    segment.putLong(System.currentTimeMillis());
+    segment.putLong(System.nanoTime());
+  }
+}
@@ -0,0 +1,39 @@
+package com.dronecontrol.droneapi.recording;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Waits until a record is due, relative to the first record and scaled by the replay speed
+class ReplayClock
+{
+  private final float speed;
+
+  private long firstTimestampNanos = -1;
+
+  private long startNanos;
+
+  ReplayClock(float speed)
+  {
+    this.speed = speed;
+  }
+
+  void waitFor(long timestampNanos)
+  {
+    if (firstTimestampNanos < 0)
+    {
+      firstTimestampNanos = timestampNanos;
+      startNanos = System.nanoTime();
+    }
+    if (speed == TrafficReplayer.MAX_SPEED)
+    {
+      return;
+    }
+
+    long dueNanos = startNanos + (long) ((timestampNanos - firstTimestampNanos) / speed);
+    long remaining = dueNanos - System.nanoTime();
+    while (remaining > 0)
+    {
+      LockSupport.parkNanos(remaining);
+      remaining = dueNanos - System.nanoTime();
+    }
+  }
+}
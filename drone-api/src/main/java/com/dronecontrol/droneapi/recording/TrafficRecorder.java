@@ -0,0 +1,55 @@
+package com.dronecontrol.droneapi.recording;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+// Records the raw traffic between the drone and the api, every stream is written by its own thread into its own files
+public class TrafficRecorder
+{
+  public static final String NAV_DATA_STREAM = "navdata";
+
+  static final String AT_COMMANDS_STREAM = "commands";
+
+  static final String CONFIG_DATA_STREAM = "config";
+
+  private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  private final RecordingWriter navDataWriter;
+
+  private final RecordingWriter commandWriter;
+
+  private final RecordingWriter configDataWriter;
+
+  public TrafficRecorder(File directory)
+  {
+    navDataWriter = new RecordingWriter(directory, NAV_DATA_STREAM, SEGMENT_SIZE);
+    commandWriter = new RecordingWriter(directory, AT_COMMANDS_STREAM, SEGMENT_SIZE);
+    configDataWriter = new RecordingWriter(directory, CONFIG_DATA_STREAM, SEGMENT_SIZE);
+  }
+
+  // Called by the nav data receiving thread only
+  public void recordNavData(ByteBuffer data)
+  {
+    navDataWriter.append(RecordType.NAV_DATA, System.nanoTime(), data);
+  }
+
+  // Called by the command sending thread only
+  public void recordCommands(ByteBuffer data)
+  {
+    commandWriter.append(RecordType.AT_COMMANDS, System.nanoTime(), data);
+  }
+
+  // Called by the config data receiving thread only
+  public void recordConfigData(ByteBuffer data)
+  {
+    configDataWriter.append(RecordType.CONFIG_DATA, System.nanoTime(), data);
+  }
+
+  // Must only be called after all recording threads have stopped
+  public void close()
+  {
+    navDataWriter.close();
+    commandWriter.close();
+    configDataWriter.close();
+  }
+}
@@ -0,0 +1,78 @@
+package com.dronecontrol.droneapi.recording;
+
+import com.dronecontrol.droneapi.ConfigurationDataRetriever;
+import com.dronecontrol.droneapi.NavigationDataRetriever;
+import com.google.inject.Inject;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+// Feeds recorded nav data and config data through the decoders and listeners as if it was received from the drone,
+// the recorded commands are not replayed since there is no drone to send them to
+public class TrafficReplayer
+{
+  public static final float MAX_SPEED = 0;
+
+  private final Logger logger = Logger.getLogger(TrafficReplayer.class);
+
+  private final NavigationDataRetriever navigationDataRetriever;
+
+  private final ConfigurationDataRetriever configurationDataRetriever;
+
+  @Inject
+  public TrafficReplayer(NavigationDataRetriever navigationDataRetriever, ConfigurationDataRetriever configurationDataRetriever)
+  {
+    this.navigationDataRetriever = navigationDataRetriever;
+    this.configurationDataRetriever = configurationDataRetriever;
+  }
+
+  // Blocks until all records are replayed, a speed of 2 replays twice as fast as recorded, MAX_SPEED does not wait at all
+  public void replay(File directory, float speed)
+  {
+    checkArgument(speed >= 0, "The speed must not be negative");
+    logger.info(String.format("Replaying recording in %s", directory));
+
+    RecordingReader navDataReader = new RecordingReader(directory, TrafficRecorder.NAV_DATA_STREAM);
+    RecordingReader configDataReader = new RecordingReader(directory, TrafficRecorder.CONFIG_DATA_STREAM);
+    boolean navDataAvailable = navDataReader.next();
+    boolean configDataAvailable = configDataReader.next();
+
+    navigationDataRetriever.resetSequenceTracking();
+    ReplayClock replayClock = new ReplayClock(speed);
+    long replayedCount = 0;
+
+    while (navDataAvailable || configDataAvailable)
+    {
+      // Both streams are merged in the order they were recorded
+      RecordingReader reader = !configDataAvailable || navDataAvailable
+              && navDataReader.getTimestampNanos() <= configDataReader.getTimestampNanos() ? navDataReader : configDataReader;
+
+      replayClock.waitFor(reader.getTimestampNanos());
+      replay(reader);
+      replayedCount++;
+
+      if (reader == navDataReader)
+      {
+        navDataAvailable = navDataReader.next();
+      } else
+      {
+        configDataAvailable = configDataReader.next();
+      }
+    }
+
+    logger.info(String.format("Replayed %d records", replayedCount));
+  }
+
+  private void replay(RecordingReader reader)
+  {
+    if (reader.getType() == RecordType.NAV_DATA)
+    {
+      navigationDataRetriever.processRecordedData(reader.getData());
+    } else
+    {
+      configurationDataRetriever.processRecordedData(reader.getData());
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package com.dronecontrol.droneapi.recording;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Records the undecoded video stream and an index of the frames in it, must only be used by the video thread.
+// For H264 the frame boundaries are found by scanning the PaVE headers the drone puts in front of every frame.
+public class VideoRecorder
+{
+  public static final String VIDEO_STREAM = "video";
+
+  static final String VIDEO_INDEX_STREAM = "video-index";
+
+  // Offset of the frame in the whole stream, frame number and keyframe flag
+  static final int INDEX_ENTRY_SIZE = 13;
+
+  private static final int SEGMENT_SIZE = 256 * 1024 * 1024;
+
+  private static final int INDEX_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+  private static final byte[] PAVE_SIGNATURE = {'P', 'a', 'V', 'E'};
+
+  private static final int PAVE_MIN_HEADER_SIZE = 32;
+
+  private static final int PAVE_MAX_HEADER_SIZE = 128;
+
+  private static final int PAVE_FRAME_TYPE_IDR = 1;
+
+  private static final int PAVE_FRAME_TYPE_I = 2;
+
+  private final RecordingWriter videoWriter;
+
+  private final RecordingWriter indexWriter;
+
+  private final ByteBuffer indexEntry;
+
+  private final ByteBuffer header;
+
+  private byte[] wrappedData;
+
+  private ByteBuffer wrappedBuffer;
+
+  private long streamOffset;
+
+  private long headerStreamOffset;
+
+  private int payloadRemaining;
+
+  public VideoRecorder(File directory)
+  {
+    // The writers continue after the segments of an earlier recording into the same directory, so do the offsets
+    streamOffset = getRecordedStreamLength(directory);
+    headerStreamOffset = streamOffset;
+
+    videoWriter = new RecordingWriter(directory, VIDEO_STREAM, SEGMENT_SIZE);
+    indexWriter = new RecordingWriter(directory, VIDEO_INDEX_STREAM, INDEX_SEGMENT_SIZE);
+    indexEntry = ByteBuffer.allocate(INDEX_ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    header = ByteBuffer.allocate(PAVE_MAX_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  public void recordH264(byte[] data, int offset, int length)
+  {
+    if (length <= 0)
+    {
+      return;
+    }
+
+    // The decoder reads into the same array again and again, so it is only wrapped once
+    if (data != wrappedData)
+    {
+      wrappedData = data;
+      wrappedBuffer = ByteBuffer.wrap(data);
+    }
+    wrappedBuffer.limit(offset + length);
+    wrappedBuffer.position(offset);
+
+    videoWriter.append(RecordType.VIDEO_H264, System.nanoTime(), wrappedBuffer);
+    scanFrames(data, offset, length);
+  }
+
+  // Every datagram contains one picture, the frame is indexed after decoding when its type is known
+  public void recordP264(ByteBuffer datagram)
+  {
+    headerStreamOffset = streamOffset;
+    videoWriter.append(RecordType.VIDEO_P264, System.nanoTime(), datagram);
+    streamOffset += datagram.remaining();
+  }
+
+  public void indexP264Frame(int frameNumber, boolean keyframe)
+  {
+    writeIndexEntry(headerStreamOffset, frameNumber, keyframe);
+  }
+
+  public void close()
+  {
+    videoWriter.close();
+    indexWriter.close();
+  }
+
+  private static long getRecordedStreamLength(File directory)
+  {
+    long length = 0;
+    RecordingReader reader = new RecordingReader(directory, VIDEO_STREAM);
+    while (reader.next())
+    {
+      length += reader.getData().remaining();
+    }
+    return length;
+  }
+
+  private void scanFrames(byte[] data, int offset, int length)
+  {
+    int position = offset;
+    int end = offset + length;
+    while (position < end)
+    {
+      if (payloadRemaining > 0)
+      {
+        int skipped = Math.min(payloadRemaining, end - position);
+        payloadRemaining -= skipped;
+        position += skipped;
+        streamOffset += skipped;
+        continue;
+      }
+
+      if (header.position() == 0)
+      {
+        headerStreamOffset = streamOffset;
+      }
+      header.put(data[position++]);
+      streamOffset++;
+      processHeaderByte();
+    }
+  }
+
+  private void processHeaderByte()
+  {
+    // Shifting the retained bytes can complete a header or even reach into the next frame, so they are checked again
+    while (true)
+    {
+      int length = header.position();
+      if (!isSignatureAt(0, length))
+      {
+        // Not in sync with the frames, e.g. after a reconnect, so the search continues with the next signature
+        resynchronize();
+        continue;
+      }
+      if (length < PAVE_MIN_HEADER_SIZE)
+      {
+        return;
+      }
+
+      int headerSize = header.getShort(6) & 0xFFFF;
+      int payloadSize = header.getInt(8);
+      if (headerSize < PAVE_MIN_HEADER_SIZE || headerSize > PAVE_MAX_HEADER_SIZE || payloadSize < 0)
+      {
+        resynchronize();
+        continue;
+      }
+      if (length < headerSize)
+      {
+        return;
+      }
+
+      int frameType = header.get(30) & 0xFF;
+      writeIndexEntry(headerStreamOffset, header.getInt(20),
+              frameType == PAVE_FRAME_TYPE_IDR || frameType == PAVE_FRAME_TYPE_I);
+
+      long frameSize = (long) headerSize + payloadSize;
+      if (length <= frameSize)
+      {
+        payloadRemaining = (int) (frameSize - length);
+        header.clear();
+        return;
+      }
+      shift((int) frameSize);
+    }
+  }
+
+  // Drops the first byte and everything up to the next possible signature in the retained bytes
+  private void resynchronize()
+  {
+    int length = header.position();
+    int start = 1;
+    while (start < length && !isSignatureAt(start, length))
+    {
+      start++;
+    }
+    shift(start);
+  }
+
+  private void shift(int count)
+  {
+    int length = header.position();
+    for (int index = count; index < length; index++)
+    {
+      header.put(index - count, header.get(index));
+    }
+    header.position(length - count);
+    headerStreamOffset += count;
+  }
+
+  // A signature which is cut off by the end of the retained bytes matches as far as it goes
+  private boolean isSignatureAt(int start, int length)
+  {
+    int end = Math.min(length, start + PAVE_SIGNATURE.length);
+    for (int index = start; index < end; index++)
+    {
+      if (header.get(index) != PAVE_SIGNATURE[index - start])
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void writeIndexEntry(long frameStreamOffset, int frameNumber, boolean keyframe)
+  {
+    indexEntry.clear();
+    indexEntry.putLong(frameStreamOffset);
+    indexEntry.putInt(frameNumber);
+    indexEntry.put((byte) (keyframe ? 1 : 0));
+    indexEntry.flip();
+    indexWriter.append(RecordType.VIDEO_FRAME, System.nanoTime(), indexEntry);
+  }
+}
@@ -0,0 +1,104 @@
+package com.dronecontrol.droneapi.recording;
+
+import com.dronecontrol.droneapi.VideoRetrieverH264;
+import com.dronecontrol.droneapi.VideoRetrieverP264;
+import com.dronecontrol.droneapi.video.H264VideoDecoder;
+import com.google.inject.Inject;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+// Drives the video decoders from a recording made by the video recorder, the images are passed to the video listeners
+public class VideoReplayer
+{
+  public static final int FIRST_FRAME = 0;
+
+  private final Logger logger = Logger.getLogger(VideoReplayer.class);
+
+  private final H264VideoDecoder videoDecoder;
+
+  private final VideoRetrieverH264 videoRetrieverH264;
+
+  private final VideoRetrieverP264 videoRetrieverP264;
+
+  @Inject
+  public VideoReplayer(H264VideoDecoder videoDecoder, VideoRetrieverH264 videoRetrieverH264, VideoRetrieverP264 videoRetrieverP264)
+  {
+    this.videoDecoder = videoDecoder;
+    this.videoRetrieverH264 = videoRetrieverH264;
+    this.videoRetrieverP264 = videoRetrieverP264;
+  }
+
+  // Blocks until the recording is replayed, starts at the last keyframe before the given frame number
+  public void replay(File directory, float speed, int startFrameNumber)
+  {
+    checkArgument(speed >= 0, "The speed must not be negative");
+
+    long startStreamOffset = findStartStreamOffset(directory, startFrameNumber);
+    logger.info(String.format("Replaying video recording in %s from byte %d", directory, startStreamOffset));
+
+    RecordingReader reader = new RecordingReader(directory, VideoRecorder.VIDEO_STREAM);
+    if (isH264Recording(directory))
+    {
+      videoDecoder.startDecoding(new RecordedVideoSource(reader, startStreamOffset, speed), videoRetrieverH264);
+    } else
+    {
+      replayP264(reader, startStreamOffset, speed);
+    }
+  }
+
+  private long findStartStreamOffset(File directory, int startFrameNumber)
+  {
+    RecordingReader indexReader = new RecordingReader(directory, VideoRecorder.VIDEO_INDEX_STREAM);
+    long startStreamOffset = -1;
+    while (indexReader.next())
+    {
+      ByteBuffer entry = indexReader.getData();
+      int frameNumber = entry.getInt(8);
+      boolean keyframe = entry.get(12) != 0;
+      if (keyframe && (startStreamOffset < 0 || frameNumber <= startFrameNumber))
+      {
+        startStreamOffset = entry.getLong(0);
+      }
+      if (startStreamOffset >= 0 && frameNumber >= startFrameNumber)
+      {
+        break;
+      }
+    }
+    return Math.max(startStreamOffset, 0);
+  }
+
+  private boolean isH264Recording(File directory)
+  {
+    RecordingReader reader = new RecordingReader(directory, VideoRecorder.VIDEO_STREAM);
+    return reader.next() && reader.getType() == RecordType.VIDEO_H264;
+  }
+
+  private void replayP264(RecordingReader reader, long startStreamOffset, float speed)
+  {
+    ReplayClock replayClock = new ReplayClock(speed);
+    long recordStreamOffset = 0;
+    while (reader.next())
+    {
+      ByteBuffer picture = reader.getData();
+      recordStreamOffset += picture.remaining();
+      if (recordStreamOffset <= startStreamOffset)
+      {
+        continue;
+      }
+
+      replayClock.waitFor(reader.getTimestampNanos());
+      try
+      {
+        videoRetrieverP264.processRecordedData(picture);
+      } catch (RuntimeException e)
+      {
+        // Corrupt pictures are skipped just like during the flight
+        logger.debug("Could not decode recorded picture: " + e.getMessage());
+      }
+    }
+  }
+}
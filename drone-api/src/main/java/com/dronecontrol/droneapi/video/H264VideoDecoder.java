@@ -1,7 +1,6 @@
 package com.dronecontrol.droneapi.video;
 
 import com.dronecontrol.droneapi.listeners.ImageListener;
-import com.dronecontrol.droneapi.components.TcpComponent;
 import com.xuggle.xuggler.Global;
 import com.xuggle.xuggler.ICodec;
 import com.xuggle.xuggler.IContainer;
@@ -23,13 +22,13 @@ public class H264VideoDecoder
 
   private boolean stopped;
 
-  private TcpComponent tcpComponent;
+  private VideoStreamSource videoStreamSource;
 
   private ImageListener imageListener;
 
-  public void startDecoding(TcpComponent tcpComponent, ImageListener imageListener)
+  public void startDecoding(VideoStreamSource videoStreamSource, ImageListener imageListener)
   {
-    this.tcpComponent = tcpComponent;
+    this.videoStreamSource = videoStreamSource;
     this.imageListener = imageListener;
     stopped = false;
 
@@ -54,7 +53,7 @@ public class H264VideoDecoder
     IContainer container = IContainer.make();
 
     // Open up the container
-    if (container.open(tcpComponent.getInputStream(), null) < 0)
+    if (container.open(videoStreamSource.getInputStream(), null) < 0)
     {
       throw new IllegalArgumentException("could not open inpustream");
     }
@@ -234,7 +233,7 @@ public class H264VideoDecoder
     if (e instanceof SocketTimeoutException)
     {
       logger.warn("Socket timeout for video channel");
-      tcpComponent.reconnect();
+      videoStreamSource.reconnect();
     } else
     {
       logger.error(e);
@@ -35,6 +35,12 @@ class MacroBlock
 {
   short[][] DataBlocks;
 
+  // Bit per data block which only had a DC coefficient and holds one value
+  int DcOnlyBlocks;
+
+  // Set when a value of the data blocks is outside of the range of the color lookup tables
+  boolean OutOfTableRange;
+
   MacroBlock()
   {
     DataBlocks = new short[6][];
@@ -1,5 +1,18 @@
 package com.dronecontrol.droneapi.video;
 
+import com.google.common.collect.Lists;
+import org.apache.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
 
 // Copyright (C) 2007-2011, PARROT SA, all rights reserved.
 
@@ -35,6 +48,12 @@ public class P264ImageDecoder
 {
   private static final int BLOCK_WIDTH = 8;
 
+  private static final int BLOCK_SIZE = 64;
+
+  private static final int BLOCKS_PER_MACRO_BLOCK = 6;
+
+  private static final int ALL_BLOCKS = (1 << BLOCKS_PER_MACRO_BLOCK) - 1;
+
   private static final int CIF_WIDTH = 88;
 
   private static final int CIG_HEIGHT = 72;
@@ -89,6 +108,11 @@ public class P264ImageDecoder
    */
   private static final int QVGA = 2;
 
+  /**
+   * Picture type of a picture which can be decoded without the previous ones
+   */
+  public static final int INTRA_PICTURE = 0;
+
   private static final short[] ZIGZAG_POSITIONS =
           new short[]{0, 1, 8, 16, 9, 2, 3, 10, 17, 24, 32, 25, 18, 11, 4, 5, 12, 19, 26, 33, 40, 48, 41, 34, 27, 20, 13, 6, 7, 14, 21, 28, 35, 42,
                   49, 56, 57, 50, 43, 36, 29, 22, 15, 23, 30, 37, 44, 51, 58, 59, 52, 45, 38, 31, 39, 46, 53, 60, 61, 54, 47, 55, 62, 63,};
@@ -101,22 +125,62 @@ public class P264ImageDecoder
           new short[]{3, 5, 7, 9, 11, 13, 15, 17, 5, 7, 9, 11, 13, 15, 17, 19, 7, 9, 11, 13, 15, 17, 19, 21, 9, 11, 13, 15, 17, 19, 21, 23, 11, 13,
                   15, 17, 19, 21, 23, 25, 13, 15, 17, 19, 21, 23, 25, 27, 15, 17, 19, 21, 23, 25, 27, 29, 17, 19, 21, 23, 25, 27, 29, 31};
 
-  static byte[] CLZLUT =
-          new byte[]{8, 7, 6, 6, 5, 5, 5, 5, 4, 4, 4, 4, 4, 4, 4, 4, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2,
-                  2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
-                  1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 0, 0, 0,
-                  0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
-                  0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
-                  0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+  // Run and level codes of up to this many bits are decoded by a single lookup in the field code table
+  private static final int FIELD_CODE_TABLE_BITS = 12;
+
+  // A field code holds the length of the code in the lowest byte, then the run, the end of block flag and the level
+  private static final int FIELD_CODE_LENGTH_MASK = 0xFF;
+
+  private static final int FIELD_CODE_RUN_SHIFT = 8;
+
+  private static final int FIELD_CODE_RUN_MASK = 0x7F;
+
+  private static final int FIELD_CODE_LAST = 1 << 15;
+
+  private static final int FIELD_CODE_LEVEL_SHIFT = 16;
+
+  // Any longer run exceeds the zig zag positions just as well
+  private static final int MAX_RUN = 64;
+
+  private static final int[] FIELD_CODES = createFieldCodeTable();
 
   private static final int[] CROMA_QUADRANT_OFFSETS = new int[]{0, 4, 32, 36};
 
-  private short[] dataBlockBuffer = new short[64];
+  // The color lookup tables cover the values of the data blocks from -1024 to 1023, the values are checked by the
+  // inverse transform and macro blocks with other values are converted by calculation
+  private static final int TABLE_RANGE_OFFSET = 1024;
+
+  private static final int TABLE_RANGE_MASK = ~(2 * TABLE_RANGE_OFFSET - 1);
+
+  // Covers a luma value of the table range plus the largest chroma difference of the table range
+  private static final int CLAMP_OFFSET = 4096;
+
+  private static final int[] CLAMP_TABLE = createClampTable();
+
+  private static final int[] RED_DIFFERENCES = createChromaTable(359, 8);
+
+  private static final int[] GREEN_BLUE_PRODUCTS = createChromaTable(-88, 0);
 
-  private int streamField;
+  private static final int[] GREEN_RED_PRODUCTS = createChromaTable(-183, 0);
 
-  private int streamFieldBitIndex;
+  private static final int[] BLUE_DIFFERENCES = createChromaTable(454, 8);
 
+  // Needs the video-vector module on the class path and a JVM started with --add-modules jdk.incubator.vector
+  private static final String VECTOR_KERNELS_CLASS_NAME = "com.dronecontrol.videovector.VectorP264Kernels";
+
+  private static final P264Kernels VECTOR_KERNELS = loadVectorKernels();
+
+  // The vectorized kernels, null when the scalar code is used
+  private P264Kernels vectorKernels = VECTOR_KERNELS;
+
+  private short[] macroBlockCoefficients = new short[BLOCKS_PER_MACRO_BLOCK * BLOCK_SIZE];
+
+  // The unread bits of the stream from the highest bit on, the bits below them are always zero
+  private long streamCache;
+
+  private int streamCacheBitCount;
+
+  // Index of the next 32 bit word of the stream to load into the cache
   private int streamIndex;
 
   private int sliceCount;
@@ -146,9 +210,13 @@ public class P264ImageDecoder
    */
   private int pixelRowSize;
 
-  private byte[] imageStreamByteArray;
+  private ByteBuffer imageStream;
+
+  private byte[] wrappedImageStreamByteArray;
+
+  private ByteBuffer wrappedImageStream;
 
-  private int imageStreamCapacity;
+  private int imageStreamWordCount;
 
   private ImageSlice imageSlice;
 
@@ -157,12 +225,17 @@ public class P264ImageDecoder
   /* Data used by inverseTransform */
   private int[] workSpace = new int[64];
 
-  /* Data used by decodeFieldBytes */
-  private int run;
+  /* Data used by the parallel decoding, null when decoding on the calling thread */
+  private ForkJoinPool slicePool;
+
+  private SliceTask[] sliceTasks;
+
+  // The coefficients of the last coded macro block of every column, a skipped macro block repeats them
+  private short[] columnCoefficients;
 
-  private int level;
+  private int[] columnDcOnlyBlocks;
 
-  private boolean last;
+  private final List<SliceTask> pendingSliceTasks = Lists.newArrayList();
 
   /*
    * Convert a stream to an image
@@ -174,45 +247,238 @@ public class P264ImageDecoder
    */
   public void determineImageFromStream(byte[] imageStreamByteArray, int actualDatalength)
   {
-    this.imageStreamByteArray = imageStreamByteArray;
-    imageStreamCapacity = actualDatalength;
+    if (imageStreamByteArray != wrappedImageStreamByteArray)
+    {
+      wrappedImageStreamByteArray = imageStreamByteArray;
+      wrappedImageStream = ByteBuffer.wrap(imageStreamByteArray);
+    }
+    determineImageFromStream(wrappedImageStream, actualDatalength);
+  }
+
+  /*
+   * Same as above, but reads directly from a (direct) byte buffer without copying it.
+   * The stream data starts at index 0, the position and limit of the buffer are reset.
+   */
+  public void determineImageFromStream(ByteBuffer imageStream, int actualDatalength)
+  {
+    this.imageStream = imageStream;
+    imageStream.clear();
+    imageStream.order(ByteOrder.LITTLE_ENDIAN);
+
+    imageStreamWordCount = actualDatalength >> 2;
     processStream();
   }
 
   /*
-   * Adjusts the stream to fix the start of the actual data
+   * Decodes the slices in parallel on this many threads, 0 decodes on the calling thread.
    * 
-   * Prepares the stream data for reading the header, by adjusting byte values
+   * The bitstream is still parsed on the calling thread, only the inverse transform and the color
+   * conversion of every parsed slice run on a fork-join pool. Must be set before decoding.
    */
-  private void alignStreamData()
+  public void setParallelism(int parallelism)
+  {
+    checkArgument(parallelism >= 0, "The parallelism must not be negative");
+    if (slicePool != null)
+    {
+      slicePool.shutdown();
+    }
+
+    slicePool = parallelism > 0 ? new ForkJoinPool(parallelism) : null;
+    sliceTasks = null;
+    columnCoefficients = null;
+    columnDcOnlyBlocks = null;
+  }
+
+  public static boolean isVectorKernelsAvailable()
   {
-    int alignedLength;
-    int actualLength;
+    return VECTOR_KERNELS != null;
+  }
 
-    actualLength = streamFieldBitIndex;
+  /*
+   * Uses the vectorized kernels for the inverse transform and the color conversion, which are
+   * enabled by default if they are available. Must be set before decoding.
+   */
+  public void setVectorKernelsEnabled(boolean vectorKernelsEnabled)
+  {
+    checkState(!vectorKernelsEnabled || isVectorKernelsAvailable(), "The vectorized P264 kernels are not available");
+    vectorKernels = vectorKernelsEnabled ? VECTOR_KERNELS : null;
+  }
 
-    if (actualLength > 0)
+  private static P264Kernels loadVectorKernels()
+  {
+    Logger logger = Logger.getLogger(P264ImageDecoder.class);
+    try
     {
-      alignedLength = (actualLength & ~7);
-      if (alignedLength != actualLength)
-      {
-        alignedLength += 0x08;
-        streamField <<= (alignedLength - actualLength);
-        streamFieldBitIndex = alignedLength;
-      }
+      P264Kernels vectorKernels = (P264Kernels) Class.forName(VECTOR_KERNELS_CLASS_NAME).newInstance();
+      logger.info("Using the vectorized P264 kernels");
+      return vectorKernels;
+    } catch (ClassNotFoundException e)
+    {
+      return null;
+    } catch (ReflectiveOperationException | LinkageError | RuntimeException e)
+    {
+      // The vector module of the JVM is missing or the processor has no suitable vector registers
+      logger.info("The vectorized P264 kernels are not supported, using the scalar code: " + e);
+      return null;
     }
   }
 
+  /*
+   * Adjusts the stream to fix the start of the actual data
+   * 
+   * Prepares the stream data for reading the header, by adjusting byte values
+   */
+  private void alignStreamData()
+  {
+    // The words of the stream are loaded whole, so the bits in the cache end on a byte boundary
+    skipStreamData(streamCacheBitCount & 7);
+  }
+
   /*
    * Constructs the image from byte values
    * 
    * From the blocks in the image, uses the byte data which is converted to rgb
    * and applies various transformations, like saturation, to adjust for the
-   * image creation. See comments above peekStreamData for more information on
+   * image creation. See comments above processStream for more information on
    * how the image bytes are laid out and decoded then put together to form the 
    * image slice.
    */
-  private void composeImageSlice()
+  private void composeImageSlice(ImageSlice imageSlice, int sliceIndex)
+  {
+    int[] pixelDataQuadrantOffsets = new int[]{0, BLOCK_WIDTH, width * BLOCK_WIDTH, (width * BLOCK_WIDTH) + BLOCK_WIDTH};
+    int imageDataOffset = (sliceIndex - 1) * width * 16;
+
+    for (MacroBlock macroBlock : imageSlice.MacroBlocks)
+    {
+      if (macroBlock.DcOnlyBlocks == ALL_BLOCKS)
+      {
+        composeFlatMacroBlock(macroBlock.DataBlocks, imageDataOffset, pixelDataQuadrantOffsets);
+      } else if (vectorKernels != null)
+      {
+        vectorKernels.composeMacroBlock(macroBlock.DataBlocks, javaPixelData, imageDataOffset, width);
+      } else if (macroBlock.OutOfTableRange)
+      {
+        composeMacroBlock(macroBlock.DataBlocks, imageDataOffset, pixelDataQuadrantOffsets);
+      } else
+      {
+        composeMacroBlockFromTables(macroBlock.DataBlocks, imageDataOffset, pixelDataQuadrantOffsets);
+      }
+
+      imageDataOffset += 16;
+    }
+  }
+
+  /*
+   * Converts a macro block whose values are all within the range of the lookup tables
+   * 
+   * Gives the same colors as composeMacroBlock: the luma is shifted by 8 bits before the chroma
+   * product is added and the sum shifted back, which is the same as adding the shifted product.
+   */
+  private void composeMacroBlockFromTables(short[][] dbArr, int imageDataOffset, int[] pixelDataQuadrantOffsets)
+  {
+    for (int verticalStep = 0; verticalStep < BLOCK_WIDTH / 2; verticalStep++)
+    {
+      int chromaOffset = verticalStep * BLOCK_WIDTH;
+      int lumaElementIndex1 = verticalStep * BLOCK_WIDTH * 2;
+      int lumaElementIndex2 = lumaElementIndex1 + BLOCK_WIDTH;
+
+      int dataIndex1 = imageDataOffset + (2 * verticalStep * width);
+      int dataIndex2 = dataIndex1 + width;
+
+      for (int horizontalStep = 0; horizontalStep < BLOCK_WIDTH / 2; horizontalStep++)
+      {
+        for (int quadrant = 0; quadrant < 4; quadrant++)
+        {
+          int chromaIndex = chromaOffset + CROMA_QUADRANT_OFFSETS[quadrant] + horizontalStep;
+          int chromaBlueIndex = dbArr[4][chromaIndex] + TABLE_RANGE_OFFSET;
+          int chromaRedIndex = dbArr[5][chromaIndex] + TABLE_RANGE_OFFSET;
+
+          int redIndex = RED_DIFFERENCES[chromaRedIndex] + CLAMP_OFFSET;
+          int greenIndex = ((GREEN_BLUE_PRODUCTS[chromaBlueIndex] + GREEN_RED_PRODUCTS[chromaRedIndex]) >> 8) + CLAMP_OFFSET;
+          int blueIndex = BLUE_DIFFERENCES[chromaBlueIndex] + CLAMP_OFFSET;
+
+          short[] mbDBArr = dbArr[quadrant];
+          int pixelIndex1 = dataIndex1 + pixelDataQuadrantOffsets[quadrant] + 2 * horizontalStep;
+          int pixelIndex2 = dataIndex2 + pixelDataQuadrantOffsets[quadrant] + 2 * horizontalStep;
+          int lumaIndex1 = lumaElementIndex1 + 2 * horizontalStep;
+          int lumaIndex2 = lumaElementIndex2 + 2 * horizontalStep;
+
+          for (int pixel = 0; pixel < 2; pixel++)
+          {
+            int lumaElementValue1 = mbDBArr[lumaIndex1 + pixel];
+            int lumaElementValue2 = mbDBArr[lumaIndex2 + pixel];
+
+            javaPixelData[pixelIndex1 + pixel] = (CLAMP_TABLE[lumaElementValue1 + redIndex] << 16) |
+                    (CLAMP_TABLE[lumaElementValue1 + greenIndex] << 8) | CLAMP_TABLE[lumaElementValue1 + blueIndex];
+            javaPixelData[pixelIndex2 + pixel] = (CLAMP_TABLE[lumaElementValue2 + redIndex] << 16) |
+                    (CLAMP_TABLE[lumaElementValue2 + greenIndex] << 8) | CLAMP_TABLE[lumaElementValue2 + blueIndex];
+          }
+        }
+      }
+    }
+  }
+
+  /*
+   * Converts a macro block whose data blocks all hold a single value
+   * 
+   * Every luma block gives one color with the chroma values, so each quadrant is filled with it.
+   */
+  private void composeFlatMacroBlock(short[][] dbArr, int imageDataOffset, int[] pixelDataQuadrantOffsets)
+  {
+    for (int quadrant = 0; quadrant < 4; quadrant++)
+    {
+      int color = convertToRgb(dbArr[quadrant][0], dbArr[4][0], dbArr[5][0]);
+
+      int dataIndex = imageDataOffset + pixelDataQuadrantOffsets[quadrant];
+      for (int row = 0; row < BLOCK_WIDTH; row++)
+      {
+        Arrays.fill(javaPixelData, dataIndex, dataIndex + BLOCK_WIDTH, color);
+        dataIndex += width;
+      }
+    }
+  }
+
+  private static int convertToRgb(int luma, int chromaBlue, int chromaRed)
+  {
+    int u = chromaBlue - 128;
+    int v = chromaRed - 128;
+
+    int r = clamp(luma + ((359 * v) >> 8));
+    int g = clamp(luma + ((-88 * u - 183 * v) >> 8));
+    int b = clamp(luma + ((454 * u) >> 8));
+    return (r << 16) | (g << 8) | b;
+  }
+
+  private static int clamp(int value)
+  {
+    return value < 0 ? 0 : (value > 0xFF ? 0xFF : value);
+  }
+
+  private static int[] createClampTable()
+  {
+    int[] clampTable = new int[2 * CLAMP_OFFSET];
+    for (int index = 0; index < clampTable.length; index++)
+    {
+      clampTable[index] = clamp(index - CLAMP_OFFSET);
+    }
+    return clampTable;
+  }
+
+  // The product of the factor and every chroma value of the table range, minus 128 and shifted right
+  private static int[] createChromaTable(int factor, int shift)
+  {
+    int[] chromaTable = new int[2 * TABLE_RANGE_OFFSET];
+    for (int index = 0; index < chromaTable.length; index++)
+    {
+      chromaTable[index] = (factor * (index - TABLE_RANGE_OFFSET - 128)) >> shift;
+    }
+    return chromaTable;
+  }
+
+  /*
+   * Converts a macro block by calculation, which works for every value of the data blocks
+   */
+  private void composeMacroBlock(short[][] dbArr, int imageDataOffset, int[] pixelDataQuadrantOffsets)
   {
     int u, ug, ub;
     int v, vg, vr;
@@ -232,111 +498,102 @@ public class P264ImageDecoder
 
     int x = 0;
 
-    int[] pixelDataQuadrantOffsets = new int[]{0, BLOCK_WIDTH, width * BLOCK_WIDTH, (width * BLOCK_WIDTH) + BLOCK_WIDTH};
     short[] mbDBArr;
-    short[][] dbArr;
-    int imageDataOffset = (sliceIndex - 1) * width * 16;
 
-    for (MacroBlock macroBlock : imageSlice.MacroBlocks)
+    for (int verticalStep = 0; verticalStep < BLOCK_WIDTH / 2; verticalStep++)
     {
-      dbArr = macroBlock.DataBlocks;
-      for (int verticalStep = 0; verticalStep < BLOCK_WIDTH / 2; verticalStep++)
-      {
-        chromaOffset = verticalStep * BLOCK_WIDTH;
-        lumaElementIndex1 = verticalStep * BLOCK_WIDTH * 2;
-        lumaElementIndex2 = lumaElementIndex1 + BLOCK_WIDTH;
+      chromaOffset = verticalStep * BLOCK_WIDTH;
+      lumaElementIndex1 = verticalStep * BLOCK_WIDTH * 2;
+      lumaElementIndex2 = lumaElementIndex1 + BLOCK_WIDTH;
 
-        dataIndex1 = imageDataOffset + (2 * verticalStep * width);
-        dataIndex2 = dataIndex1 + width;
+      dataIndex1 = imageDataOffset + (2 * verticalStep * width);
+      dataIndex2 = dataIndex1 + width;
 
-        for (int horizontalStep = 0; horizontalStep < BLOCK_WIDTH / 2; horizontalStep++)
+      for (int horizontalStep = 0; horizontalStep < BLOCK_WIDTH / 2; horizontalStep++)
+      {
+        for (int quadrant = 0; quadrant < 4; quadrant++)
         {
-          for (int quadrant = 0; quadrant < 4; quadrant++)
-          {
-            int uvg;
-            int chromaIndex = chromaOffset + CROMA_QUADRANT_OFFSETS[quadrant] + horizontalStep;
-            chromaBlueValue = dbArr[4][chromaIndex];
-            chromaRedValue = dbArr[5][chromaIndex];
-            mbDBArr = dbArr[quadrant];
+          int uvg;
+          int chromaIndex = chromaOffset + CROMA_QUADRANT_OFFSETS[quadrant] + horizontalStep;
+          chromaBlueValue = dbArr[4][chromaIndex];
+          chromaRedValue = dbArr[5][chromaIndex];
+          mbDBArr = dbArr[quadrant];
 
-            u = chromaBlueValue - 128;
-            ug = 88 * u;
-            ub = 454 * u;
+          u = chromaBlueValue - 128;
+          ug = 88 * u;
+          ub = 454 * u;
 
-            v = chromaRedValue - 128;
-            vg = 183 * v;
-            vr = 359 * v;
+          v = chromaRedValue - 128;
+          vg = 183 * v;
+          vr = 359 * v;
 
-            uvg = ug + vg;
+          uvg = ug + vg;
 
-            for (int pixel = 0; pixel < 2; pixel++)
+          for (int pixel = 0; pixel < 2; pixel++)
+          {
+            int deltaIndex = 2 * horizontalStep + pixel;
+            lumaElementValue1 = mbDBArr[lumaElementIndex1 + deltaIndex] << 8;
+            lumaElementValue2 = mbDBArr[lumaElementIndex2 + deltaIndex] << 8;
+            x = lumaElementValue1 + vr;
+            if (x < 0)
             {
-              int deltaIndex = 2 * horizontalStep + pixel;
-              lumaElementValue1 = mbDBArr[lumaElementIndex1 + deltaIndex] << 8;
-              lumaElementValue2 = mbDBArr[lumaElementIndex2 + deltaIndex] << 8;
-              x = lumaElementValue1 + vr;
-              if (x < 0)
-              {
-                r = 0;
-              } else
-              {
-                x >>= 8;
-                r = (x > 0xFF) ? 0xFF : x;
-              }
-              x = lumaElementValue1 - uvg;
-              if (x < 0)
-              {
-                g = 0;
-              } else
-              {
-                x >>= 8;
-                g = (x > 0xFF) ? 0xFF : x;
-              }
-              x = lumaElementValue1 + ub;
-              if (x < 0)
-              {
-                b = 0;
-              } else
-              {
-                x >>= 8;
-                b = (x > 0xFF) ? 0xFF : x;
-              }
-              javaPixelData[dataIndex1 + pixelDataQuadrantOffsets[quadrant] + deltaIndex] = ((r << 16) | (g << 8) | b);
+              r = 0;
+            } else
+            {
+              x >>= 8;
+              r = (x > 0xFF) ? 0xFF : x;
+            }
+            x = lumaElementValue1 - uvg;
+            if (x < 0)
+            {
+              g = 0;
+            } else
+            {
+              x >>= 8;
+              g = (x > 0xFF) ? 0xFF : x;
+            }
+            x = lumaElementValue1 + ub;
+            if (x < 0)
+            {
+              b = 0;
+            } else
+            {
+              x >>= 8;
+              b = (x > 0xFF) ? 0xFF : x;
+            }
+            javaPixelData[dataIndex1 + pixelDataQuadrantOffsets[quadrant] + deltaIndex] = ((r << 16) | (g << 8) | b);
 
-              x = lumaElementValue2 + vr;
-              if (x < 0)
-              {
-                r = 0;
-              } else
-              {
-                x >>= 8;
-                r = (x > 0xFF) ? 0xFF : x;
-              }
-              x = lumaElementValue2 - uvg;
-              if (x < 0)
-              {
-                g = 0;
-              } else
-              {
-                x >>= 8;
-                g = (x > 0xFF) ? 0xFF : x;
-              }
-              x = lumaElementValue2 + ub;
-              if (x < 0)
-              {
-                b = 0;
-              } else
-              {
-                x >>= 8;
-                b = (x > 0xFF) ? 0xFF : x;
-              }
-              javaPixelData[dataIndex2 + pixelDataQuadrantOffsets[quadrant] + deltaIndex] = ((r << 16) | (g << 8) | b);
+            x = lumaElementValue2 + vr;
+            if (x < 0)
+            {
+              r = 0;
+            } else
+            {
+              x >>= 8;
+              r = (x > 0xFF) ? 0xFF : x;
+            }
+            x = lumaElementValue2 - uvg;
+            if (x < 0)
+            {
+              g = 0;
+            } else
+            {
+              x >>= 8;
+              g = (x > 0xFF) ? 0xFF : x;
             }
+            x = lumaElementValue2 + ub;
+            if (x < 0)
+            {
+              b = 0;
+            } else
+            {
+              x >>= 8;
+              b = (x > 0xFF) ? 0xFF : x;
+            }
+            javaPixelData[dataIndex2 + pixelDataQuadrantOffsets[quadrant] + deltaIndex] = ((r << 16) | (g << 8) | b);
           }
         }
       }
-
-      imageDataOffset += 16;
     }
   }
 
@@ -346,22 +603,22 @@ public class P264ImageDecoder
    * Decodes the byte stream data by combining the two fields, run fields and level fields
    * which are used to compress data.
    * 
-   * @param int[] run
-   *      Wrapper for an int. Used to calculate run value
+   * Works on the next 32 bits of the stream, a longer code is decoded with zeros behind them.
+   * Returns the field code with the length of the code, the run, whether this is the end of the
+   * block and the lower 16 bits of the level, which are all that is left once it is a short.
    * 
-   * @param int[] level
-   *      Wrapper for an int. Used to calculate run value with a sign
-   * 
-   * @param boolean[]last
-   *      Wrapper for a boolean. Used to determine if this is the end of the stream or not.
+   * @param int streamCode
+   *      The next 32 bits of the stream, bits behind the end of the stream are zero.
    */
-  private void decodeFieldBytes()
+  private static int decodeFieldCode(int streamCode)
   {
-    int streamCode;
     int streamLength;
     int zeroCount;
     int temp;
     int sign;
+    int run;
+    int level = 0;
+    boolean last;
 
     // Use the RLE and Huffman dictionaries to understand this code
     // fragment. You can find
@@ -373,23 +630,6 @@ public class P264ImageDecoder
     // can be negative or positive.
     // First we extract the run field info and then the level field info.
 
-    // NOTE: explicit inline expansion done here; simplified quite a bit
-    //streamCode = peekStreamData(imageStream, 32);
-
-    if ((streamFieldBitIndex > 0) && streamIndex < (imageStreamCapacity >> 2))
-    {
-      temp = ((imageStreamByteArray[streamIndex * 4 + 0] & 0xFF) |
-              ((imageStreamByteArray[streamIndex * 4 + 1] & 0xFF) << 8) |
-              ((imageStreamByteArray[streamIndex * 4 + 2] & 0xFF) << 16) |
-              ((imageStreamByteArray[streamIndex * 4 + 3] & 0xFF) << 24));
-
-      streamCode = ((streamField >>> streamFieldBitIndex) << streamFieldBitIndex) |
-              (temp >>> (32 - streamFieldBitIndex));
-    } else
-    {
-      streamCode = streamField;
-    }
-
     // Determine number of consecutive zeros in zig zag. (a.k.a
     // 'run' field info)
 
@@ -401,19 +641,7 @@ public class P264ImageDecoder
     // addtional bits
     // 3 - Calculate value of run, for coarse value 00001 this is (111) + 8
 
-    zeroCount = CLZLUT[streamCode >>> 24];
-    if (zeroCount == 8)
-    {
-      zeroCount += CLZLUT[(streamCode >>> 16) & 0xFF];
-      if (zeroCount == 16)
-      {
-        zeroCount += CLZLUT[(streamCode >>> 8) & 0xFF];
-        if (zeroCount == 24)
-        {
-          zeroCount += CLZLUT[streamCode & 0xFF];
-        }
-      }
-    }
+    zeroCount = Integer.numberOfLeadingZeros(streamCode);
 
     if (zeroCount > 1)
     {
@@ -457,19 +685,7 @@ public class P264ImageDecoder
     // 3 - Calculate value of run, for coarse value 00001 this is (xxx) + 8,
     // multiply by sign
 
-    zeroCount = CLZLUT[streamCode >>> 24];
-    if (zeroCount == 8)
-    {
-      zeroCount += CLZLUT[(streamCode >>> 16) & 0xFF];
-      if (zeroCount == 16)
-      {
-        zeroCount += CLZLUT[(streamCode >>> 8) & 0xFF];
-        if (zeroCount == 24)
-        {
-          zeroCount += CLZLUT[streamCode & 0xFF];
-        }
-      }
-    }
+    zeroCount = Integer.numberOfLeadingZeros(streamCode);
 
     if (zeroCount == 1)
     {
@@ -520,41 +736,74 @@ public class P264ImageDecoder
       last = false;
     }
 
-    readStreamDataInt(streamLength);
+    if (run < 0 || run > MAX_RUN)
+    {
+      run = MAX_RUN;
+    }
+    return streamLength | run << FIELD_CODE_RUN_SHIFT | (last ? FIELD_CODE_LAST : 0) | level << FIELD_CODE_LEVEL_SHIFT;
+  }
+
+  // Every entry decodes the codes which start with the bits of its index, or is 0 if the code is longer
+  private static int[] createFieldCodeTable()
+  {
+    int[] fieldCodes = new int[1 << FIELD_CODE_TABLE_BITS];
+    for (int index = 0; index < fieldCodes.length; index++)
+    {
+      int fieldCode = decodeFieldCode(index << (32 - FIELD_CODE_TABLE_BITS));
+      if ((fieldCode & FIELD_CODE_LENGTH_MASK) <= FIELD_CODE_TABLE_BITS)
+      {
+        fieldCodes[index] = fieldCode;
+      }
+    }
+    return fieldCodes;
+  }
+
+  // Decodes the next run and level code from the stream, the common short codes come straight from the table
+  private int readFieldCode()
+  {
+    int streamCode = peekStreamData();
+    int fieldCode = FIELD_CODES[streamCode >>> (32 - FIELD_CODE_TABLE_BITS)];
+    if (fieldCode == 0)
+    {
+      fieldCode = decodeFieldCode(streamCode);
+    }
+
+    skipStreamData(fieldCode & FIELD_CODE_LENGTH_MASK);
+    return fieldCode;
   }
 
   /*
    * Decodes the field bytes within this block.
    * 
-   * Reads the stream 
+   * Reads the stream into the 64 coefficients of the block starting at the offset and returns
+   * whether the block only has a DC coefficient. The AC coefficients are only cleared when there
+   * are any, a block with just the DC coefficient is never transformed completely.
    */
-  private void getBlockBytes(boolean acCoefficientsAvailable)
+  private boolean getBlockBytes(boolean acCoefficientsAvailable, short[] blockBuffer, int offset)
   {
     int zigZagPosition = 0;
     int matrixPosition = 0;
-
-    for (int i = 0; i < dataBlockBuffer.length; i++)
-    {
-      dataBlockBuffer[i] = 0;
-    }
+    boolean dcOnly = true;
 
     int dcCoefficientTemp = readStreamDataInt(10);
 
     if (quantizerMode == TABLE_QUANTIZATION_MODE)
     {
-      dataBlockBuffer[0] = (short) (dcCoefficientTemp * QUANTIZER_VALUES[0]);
+      blockBuffer[offset] = (short) (dcCoefficientTemp * QUANTIZER_VALUES[0]);
 
       if (acCoefficientsAvailable)
       {
-        decodeFieldBytes();
+        Arrays.fill(blockBuffer, offset + 1, offset + BLOCK_SIZE, (short) 0);
+        int fieldCode = readFieldCode();
 
-        while (!last)
+        while ((fieldCode & FIELD_CODE_LAST) == 0)
         {
-          zigZagPosition += run + 1;
+          zigZagPosition += (fieldCode >>> FIELD_CODE_RUN_SHIFT & FIELD_CODE_RUN_MASK) + 1;
           matrixPosition = ZIGZAG_POSITIONS[zigZagPosition];
-          level *= QUANTIZER_VALUES[matrixPosition];
-          dataBlockBuffer[matrixPosition] = (short) level;
-          decodeFieldBytes();
+          int level = (fieldCode >> FIELD_CODE_LEVEL_SHIFT) * QUANTIZER_VALUES[matrixPosition];
+          blockBuffer[offset + matrixPosition] = (short) level;
+          dcOnly = false;
+          fieldCode = readFieldCode();
         }
       }
     } else
@@ -562,6 +811,7 @@ public class P264ImageDecoder
       // Currently not implemented.
       throw new RuntimeException("ant quantizer mode is not yet implemented.");
     }
+    return dcOnly;
   }
 
   public int getFrameIndex()
@@ -599,23 +849,58 @@ public class P264ImageDecoder
     return width;
   }
 
-  void inverseTransform(int macroBlockIndex, int dataBlockIndex)
+  /*
+   * Transforms the six data blocks of a macro block, whose coefficients follow each other from the offset
+   * 
+   * A block with only a DC coefficient gives the same value for every element, which is the DC
+   * coefficient divided by 8 like in the complete transform, so the block is just filled with it.
+   * Records whether the macro block is flat and whether it fits into the color lookup tables.
+   */
+  private void transformMacroBlock(short[] coefficients, int offset, int dcOnlyBlocks, int[] workSpace, MacroBlock macroBlock)
+  {
+    int range = 0;
+    for (int dataBlockIndex = 0; dataBlockIndex < BLOCKS_PER_MACRO_BLOCK; dataBlockIndex++)
+    {
+      int blockOffset = offset + dataBlockIndex * BLOCK_SIZE;
+      short[] blockArray = macroBlock.DataBlocks[dataBlockIndex];
+      if ((dcOnlyBlocks >>> dataBlockIndex & 1) == 1)
+      {
+        int dcValue = coefficients[blockOffset] >> 3;
+        Arrays.fill(blockArray, (short) dcValue);
+        range |= dcValue + TABLE_RANGE_OFFSET;
+      } else if (vectorKernels != null)
+      {
+        range |= vectorKernels.inverseTransform(coefficients, blockOffset, workSpace, blockArray);
+      } else
+      {
+        range |= inverseTransform(coefficients, blockOffset, workSpace, blockArray);
+      }
+    }
+
+    macroBlock.DcOnlyBlocks = dcOnlyBlocks;
+    macroBlock.OutOfTableRange = (range & TABLE_RANGE_MASK) != 0;
+  }
+
+  // Returns the values of the block plus the table range offset combined by or, which exceeds the range if any value does
+  private static int inverseTransform(short[] coefficients, int offset, int[] workSpace, short[] blockArray)
   {
     int z1, z2, z3, z4, z5;
     int tmp0, tmp1, tmp2, tmp3;
     int tmp10, tmp11, tmp12, tmp13;
 
     int pointer;
-
-    short[] blockArray = imageSlice.MacroBlocks[macroBlockIndex].DataBlocks[dataBlockIndex];
+    int column;
+    int value0, value1, value2, value3, value4, value5, value6, value7;
+    int range = 0;
 
     for (pointer = 0; pointer < 8; pointer++)
     {
-      if (dataBlockBuffer[pointer + 8] == 0 && dataBlockBuffer[pointer + 16] == 0 && dataBlockBuffer[pointer + 24] == 0 &&
-              dataBlockBuffer[pointer + 32] == 0 && dataBlockBuffer[pointer + 40] == 0 && dataBlockBuffer[pointer + 48] == 0 &&
-              dataBlockBuffer[pointer + 56] == 0)
+      column = offset + pointer;
+      if (coefficients[column + 8] == 0 && coefficients[column + 16] == 0 && coefficients[column + 24] == 0 &&
+              coefficients[column + 32] == 0 && coefficients[column + 40] == 0 && coefficients[column + 48] == 0 &&
+              coefficients[column + 56] == 0)
       {
-        int dcValue = dataBlockBuffer[pointer] << PASS1_BITS;
+        int dcValue = coefficients[column] << PASS1_BITS;
 
         workSpace[pointer + 0] = dcValue;
         workSpace[pointer + 8] = dcValue;
@@ -627,15 +912,15 @@ public class P264ImageDecoder
         workSpace[pointer + 56] = dcValue;
       } else
       {
-        z2 = dataBlockBuffer[pointer + 16];
-        z3 = dataBlockBuffer[pointer + 48];
+        z2 = coefficients[column + 16];
+        z3 = coefficients[column + 48];
 
         z1 = (z2 + z3) * FIX_0_541196100;
         tmp2 = z1 + z3 * -FIX_1_847759065;
         tmp3 = z1 + z2 * FIX_0_765366865;
 
-        z2 = dataBlockBuffer[pointer];
-        z3 = dataBlockBuffer[pointer + 32];
+        z2 = coefficients[column];
+        z3 = coefficients[column + 32];
 
         tmp0 = (z2 + z3) << BITS;
         tmp1 = (z2 - z3) << BITS;
@@ -645,10 +930,10 @@ public class P264ImageDecoder
         tmp11 = tmp1 + tmp2;
         tmp12 = tmp1 - tmp2;
 
-        tmp0 = dataBlockBuffer[pointer + 56];
-        tmp1 = dataBlockBuffer[pointer + 40];
-        tmp2 = dataBlockBuffer[pointer + 24];
-        tmp3 = dataBlockBuffer[pointer + 8];
+        tmp0 = coefficients[column + 56];
+        tmp1 = coefficients[column + 40];
+        tmp2 = coefficients[column + 24];
+        tmp3 = coefficients[column + 8];
 
         z1 = tmp0 + tmp3;
         z2 = tmp1 + tmp2;
@@ -725,15 +1010,29 @@ public class P264ImageDecoder
       tmp2 = (tmp2 * FIX_3_072711026) + z2 + z3;
       tmp3 = (tmp3 * FIX_1_501321110) + z1 + z4;
 
-      blockArray[pointer] = (short) ((tmp10 + tmp3) >> F3);
-      blockArray[pointer + 1] = (short) ((tmp11 + tmp2) >> F3);
-      blockArray[pointer + 2] = (short) ((tmp12 + tmp1) >> F3);
-      blockArray[pointer + 3] = (short) ((tmp13 + tmp0) >> F3);
-      blockArray[pointer + 4] = (short) ((tmp13 - tmp0) >> F3);
-      blockArray[pointer + 5] = (short) ((tmp12 - tmp1) >> F3);
-      blockArray[pointer + 6] = (short) ((tmp11 - tmp2) >> F3);
-      blockArray[pointer + 7] = (short) ((tmp10 - tmp3) >> F3);
+      value0 = (tmp10 + tmp3) >> F3;
+      value1 = (tmp11 + tmp2) >> F3;
+      value2 = (tmp12 + tmp1) >> F3;
+      value3 = (tmp13 + tmp0) >> F3;
+      value4 = (tmp13 - tmp0) >> F3;
+      value5 = (tmp12 - tmp1) >> F3;
+      value6 = (tmp11 - tmp2) >> F3;
+      value7 = (tmp10 - tmp3) >> F3;
+
+      blockArray[pointer] = (short) value0;
+      blockArray[pointer + 1] = (short) value1;
+      blockArray[pointer + 2] = (short) value2;
+      blockArray[pointer + 3] = (short) value3;
+      blockArray[pointer + 4] = (short) value4;
+      blockArray[pointer + 5] = (short) value5;
+      blockArray[pointer + 6] = (short) value6;
+      blockArray[pointer + 7] = (short) value7;
+
+      range |= (value0 + TABLE_RANGE_OFFSET) | (value1 + TABLE_RANGE_OFFSET) | (value2 + TABLE_RANGE_OFFSET) |
+              (value3 + TABLE_RANGE_OFFSET) | (value4 + TABLE_RANGE_OFFSET) | (value5 + TABLE_RANGE_OFFSET) |
+              (value6 + TABLE_RANGE_OFFSET) | (value7 + TABLE_RANGE_OFFSET);
     }
+    return range;
   }
 
   // Blockline:
@@ -891,92 +1190,101 @@ public class P264ImageDecoder
   // So to calculate the real index we have to take that also into account
   // (blockCount)
 
-  // contains common code for optimization purposes
-    /*
-    private int peekStreamData(ByteBuffer stream, int count)
-    {
-        int data = 0;
-        int stream_field = streamField;
-        int stream_field_bit_index = streamFieldBitIndex;
-        while (count > (32 - stream_field_bit_index) && streamIndex < (imageStreamCapacity >> 2))
-        {
-            data = (data << (32 - stream_field_bit_index)) | (stream_field >>> stream_field_bit_index);
-            count -= 32 - stream_field_bit_index;
-            stream_field = ((imageStreamByteArray[streamIndex * 4 + 0] & 0xFF) | ((imageStreamByteArray[streamIndex * 4 + 1] & 0xFF) << 8) | ((imageStreamByteArray[streamIndex * 4 + 2] & 0xFF) << 16) | ((imageStreamByteArray[streamIndex * 4 + 3] & 0xFF) << 24));
-            stream_field_bit_index = 0;
-        }
-        if (count > 0)
-            data = (data << count) | (stream_field >>> (32 - count));
-        return data;
-    }
-     */
   private void processStream()
   {
-    boolean blockY0HasAcComponents = false;
-    boolean blockY1HasAcComponents = false;
-    boolean blockY2HasAcComponents = false;
-    boolean blockY3HasAcComponents = false;
-    boolean blockCbHasAcComponents = false;
-    boolean blockCrHasAcComponents = false;
-
-    // Set streamFieldBitIndex to 32 to make sure that the first call to
-    // ReadStreamData
-    // actually consumes data from the stream
-    streamFieldBitIndex = 32;
-    streamField = 0;
+    streamCache = 0;
+    streamCacheBitCount = 0;
     streamIndex = 0;
     sliceIndex = 0;
     pictureComplete = false;
 
-    while (!pictureComplete && streamIndex < (imageStreamCapacity >> 2))
+    try
     {
-      readHeader();
-
-      if (!pictureComplete)
+      while (!pictureComplete && getStreamWordCount() < imageStreamWordCount)
       {
-        for (int count = 0; count < blockCount; count++)
+        readHeader();
+
+        if (!pictureComplete)
         {
-          int macroBlockEmpty = readStreamDataInt(1);
-          if (macroBlockEmpty == 0)
+          for (int count = 0; count < blockCount; count++)
           {
-            int acCoefficientsTemp = readStreamDataInt(8);
-            blockY0HasAcComponents = (acCoefficientsTemp >>> 0 & 1) == 1;
-            blockY1HasAcComponents = (acCoefficientsTemp >>> 1 & 1) == 1;
-            blockY2HasAcComponents = (acCoefficientsTemp >>> 2 & 1) == 1;
-            blockY3HasAcComponents = (acCoefficientsTemp >>> 3 & 1) == 1;
-            blockCbHasAcComponents = (acCoefficientsTemp >>> 4 & 1) == 1;
-            blockCrHasAcComponents = (acCoefficientsTemp >>> 5 & 1) == 1;
-
-            if ((acCoefficientsTemp >>> 6 & 1) == 1)
+            int macroBlockEmpty = readStreamDataInt(1);
+            if (macroBlockEmpty == 0)
             {
-              int quantizer_modeTemp = readStreamDataInt(2);
-              quantizerMode = (int) ((quantizer_modeTemp < 2) ? ~quantizer_modeTemp : quantizer_modeTemp);
-            }
+              int acCoefficientsTemp = readStreamDataInt(8);
 
-            getBlockBytes(blockY0HasAcComponents);
-            inverseTransform(count, 0);
-
-            getBlockBytes(blockY1HasAcComponents);
-            inverseTransform(count, 1);
+              if ((acCoefficientsTemp >>> 6 & 1) == 1)
+              {
+                int quantizer_modeTemp = readStreamDataInt(2);
+                quantizerMode = (int) ((quantizer_modeTemp < 2) ? ~quantizer_modeTemp : quantizer_modeTemp);
+              }
 
-            getBlockBytes(blockY2HasAcComponents);
-            inverseTransform(count, 2);
+              // The parallel decoding keeps the coefficients for the slice task, otherwise they are transformed right away
+              short[] coefficients = slicePool == null ? macroBlockCoefficients : columnCoefficients;
+              int coefficientOffset = slicePool == null ? 0 : count * BLOCKS_PER_MACRO_BLOCK * BLOCK_SIZE;
 
-            getBlockBytes(blockY3HasAcComponents);
-            inverseTransform(count, 3);
+              int dcOnlyBlocks = 0;
+              for (int dataBlockIndex = 0; dataBlockIndex < BLOCKS_PER_MACRO_BLOCK; dataBlockIndex++)
+              {
+                if (getBlockBytes((acCoefficientsTemp >>> dataBlockIndex & 1) == 1, coefficients,
+                        coefficientOffset + dataBlockIndex * BLOCK_SIZE))
+                {
+                  dcOnlyBlocks |= 1 << dataBlockIndex;
+                }
+              }
 
-            getBlockBytes(blockCbHasAcComponents);
-            inverseTransform(count, 4);
+              if (slicePool == null)
+              {
+                transformMacroBlock(coefficients, coefficientOffset, dcOnlyBlocks, workSpace, imageSlice.MacroBlocks[count]);
+              } else
+              {
+                columnDcOnlyBlocks[count] = dcOnlyBlocks;
+              }
+            }
+          }
 
-            getBlockBytes(blockCrHasAcComponents);
-            inverseTransform(count, 5);
+          if (slicePool == null)
+          {
+            composeImageSlice(imageSlice, sliceIndex);
+          } else
+          {
+            submitSlice();
           }
         }
-        composeImageSlice();
       }
+
+      for (SliceTask sliceTask : pendingSliceTasks)
+      {
+        sliceTask.join();
+      }
+    } finally
+    {
+      // The pixel data must not be touched by the pool anymore once the picture is returned, even if it is broken
+      for (SliceTask sliceTask : pendingSliceTasks)
+      {
+        sliceTask.quietlyJoin();
+      }
+      pendingSliceTasks.clear();
     }
   }
 
+  private void submitSlice()
+  {
+    SliceTask sliceTask = sliceTasks[sliceIndex - 1];
+    if (pendingSliceTasks.contains(sliceTask))
+    {
+      // A slice header was broken and the slice index repeats, the task is reused only after it finished
+      sliceTask.join();
+    } else
+    {
+      pendingSliceTasks.add(sliceTask);
+    }
+
+    sliceTask.reinitialize();
+    sliceTask.setSlice(columnCoefficients, columnDcOnlyBlocks, sliceIndex);
+    slicePool.execute(sliceTask);
+  }
+
   private void readHeader()
   {
     alignStreamData();
@@ -1021,6 +1329,14 @@ public class P264ImageDecoder
           {
             imageSlice = new ImageSlice(blockCount);
             javaPixelData = new int[width * height];
+            sliceTasks = null;
+            columnCoefficients = null;
+            columnDcOnlyBlocks = null;
+          }
+
+          if (slicePool != null && (sliceTasks == null || sliceTasks.length != sliceCount))
+          {
+            createSliceTasks();
           }
         } else
         {
@@ -1032,22 +1348,120 @@ public class P264ImageDecoder
 
   private int readStreamDataInt(int count)
   {
-    int data = 0;
-    while (count > (32 - streamFieldBitIndex))
+    if (count > streamCacheBitCount)
     {
-      data = data << (32 - streamFieldBitIndex) | (streamField >>> streamFieldBitIndex);
-      count -= 32 - streamFieldBitIndex;
-      streamField = ((imageStreamByteArray[streamIndex * 4 + 0] & 0xFF) | ((imageStreamByteArray[streamIndex * 4 + 1] & 0xFF) << 8) |
-              ((imageStreamByteArray[streamIndex * 4 + 2] & 0xFF) << 16) | ((imageStreamByteArray[streamIndex * 4 + 3] & 0xFF) << 24));
-      streamFieldBitIndex = 0;
-      streamIndex++;
+      loadStreamWord();
     }
-    if (count > 0)
+
+    int data = (int) (streamCache >>> (64 - count));
+    streamCache <<= count;
+    streamCacheBitCount -= count;
+    return data;
+  }
+
+  /*
+   * Returns the next 32 bits of the stream without consuming them
+   * 
+   * Words behind the end of the stream are never loaded ahead, their bits are zero until they
+   * are actually read. Only the words which are really needed are read from the buffer.
+   */
+  private int peekStreamData()
+  {
+    if (streamCacheBitCount < 32 && streamIndex < imageStreamWordCount)
     {
-      data = (data << count) | (streamField >>> (32 - count));
-      streamField <<= count;
-      streamFieldBitIndex += count;
+      loadStreamWord();
+    }
+    return (int) (streamCache >>> 32);
+  }
+
+  private void skipStreamData(int count)
+  {
+    // Only broken codes are longer than the cache
+    while (count > streamCacheBitCount)
+    {
+      count -= streamCacheBitCount;
+      streamCache = 0;
+      streamCacheBitCount = 0;
+      loadStreamWord();
+    }
+
+    streamCache <<= count;
+    streamCacheBitCount -= count;
+  }
+
+  // The cache must not hold more than 32 bits, the bits of a word are read from the highest one on
+  private void loadStreamWord()
+  {
+    long word = imageStream.getInt(streamIndex * 4) & 0xFFFFFFFFL;
+    streamCache |= word << (32 - streamCacheBitCount);
+    streamCacheBitCount += 32;
+    streamIndex++;
+  }
+
+  // The number of words the decoding has reached, words which were only loaded ahead into the cache do not count
+  private int getStreamWordCount()
+  {
+    return streamIndex - (streamCacheBitCount >> 5);
+  }
+
+  private void createSliceTasks()
+  {
+    if (columnCoefficients == null)
+    {
+      columnCoefficients = new short[blockCount * BLOCKS_PER_MACRO_BLOCK * BLOCK_SIZE];
+      columnDcOnlyBlocks = new int[blockCount];
+    }
+
+    sliceTasks = new SliceTask[sliceCount];
+    for (int index = 0; index < sliceCount; index++)
+    {
+      sliceTasks[index] = new SliceTask(blockCount);
+    }
+  }
+
+  /*
+   * Transforms and converts one slice on a worker of the pool
+   * 
+   * Every task owns a copy of the coefficients and its own image slice and workspace, so the
+   * parsing of the next slice and the other workers never share a buffer with it.
+   */
+  private class SliceTask extends RecursiveAction
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final short[] coefficients;
+
+    private final int[] dcOnlyBlocks;
+
+    private final ImageSlice imageSlice;
+
+    private final int[] workSpace = new int[64];
+
+    private int sliceIndex;
+
+    private SliceTask(int macroBlockCount)
+    {
+      coefficients = new short[macroBlockCount * BLOCKS_PER_MACRO_BLOCK * BLOCK_SIZE];
+      dcOnlyBlocks = new int[macroBlockCount];
+      imageSlice = new ImageSlice(macroBlockCount);
+    }
+
+    private void setSlice(short[] columnCoefficients, int[] columnDcOnlyBlocks, int sliceIndex)
+    {
+      System.arraycopy(columnCoefficients, 0, coefficients, 0, coefficients.length);
+      System.arraycopy(columnDcOnlyBlocks, 0, dcOnlyBlocks, 0, dcOnlyBlocks.length);
+      this.sliceIndex = sliceIndex;
+    }
+
+    @Override
+    protected void compute()
+    {
+      for (int macroBlockIndex = 0; macroBlockIndex < imageSlice.MacroBlocks.length; macroBlockIndex++)
+      {
+        transformMacroBlock(coefficients, macroBlockIndex * BLOCKS_PER_MACRO_BLOCK * BLOCK_SIZE, dcOnlyBlocks[macroBlockIndex], workSpace,
+                imageSlice.MacroBlocks[macroBlockIndex]);
+      }
+      composeImageSlice(imageSlice, sliceIndex);
     }
-    return data;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.dronecontrol.droneapi.video;
+
+// Replaceable arithmetic kernels of the P264 decoder, implemented with the vector API by the video-vector module
+// Both kernels must give exactly the same values as the scalar code of the decoder and must not keep any state
+public interface P264Kernels
+{
+  // Transforms the 64 coefficients from the offset into the block, the workspace has 64 elements for intermediate values
+  // Returns every value of the block plus 1024 combined by or, which shows whether a value exceeds the color tables
+  int inverseTransform(short[] coefficients, int offset, int[] workSpace, short[] blockArray);
+
+  // Converts the four luma and the two chroma blocks of a macro block into the 16 x 16 pixels from the offset on
+  void composeMacroBlock(short[][] dataBlocks, int[] pixelData, int pixelOffset, int width);
+}
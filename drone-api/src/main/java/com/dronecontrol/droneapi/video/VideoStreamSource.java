@@ -0,0 +1,11 @@
+package com.dronecontrol.droneapi.video;
+
+import java.io.InputStream;
+
+// The stream the H264 decoder reads from, either the video connection to the drone or a recording
+public interface VideoStreamSource
+{
+  InputStream getInputStream();
+
+  void reconnect();
+}
@@ -0,0 +1,154 @@
+package com.dronecontrol.droneapi;
+
+import com.dronecontrol.droneapi.commands.SimpleCommand;
+import com.dronecontrol.droneapi.components.AddressComponent;
+import com.dronecontrol.droneapi.components.ErrorListenerComponent;
+import com.dronecontrol.droneapi.components.EventLoopComponent;
+import com.dronecontrol.droneapi.components.ReadyStateListenerComponent;
+import com.dronecontrol.droneapi.components.TcpComponent;
+import com.dronecontrol.droneapi.components.ThreadComponent;
+import com.dronecontrol.droneapi.components.UdpComponent;
+import com.dronecontrol.droneapi.configdata.ConfigurationDataDecoder;
+import com.dronecontrol.droneapi.data.DroneConfiguration;
+import com.dronecontrol.droneapi.data.MutableNavData;
+import com.dronecontrol.droneapi.data.NavData;
+import com.dronecontrol.droneapi.data.NavDataState;
+import com.dronecontrol.droneapi.navdata.NavigationDataDecoder;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkState;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class CommandSenderCoordinatorTest
+{
+  private static final int LONG_TIMEOUT = 10000;
+
+  private static final int SHORT_TIMEOUT = 10;
+
+  private static final int RETRY_TIMEOUT = 100;
+
+  // Failed checks of tries 0 to 5 are retried, so the sixth retry is the last one
+  private static final int MAX_EXECUTION_COUNT = 7;
+
+  private CommandSenderCoordinator coordinator;
+
+  @Before
+  public void setUp()
+  {
+    ErrorListenerComponent errorListenerComponent = new ErrorListenerComponent();
+    EventLoopComponent eventLoopComponent = new EventLoopComponent(new ThreadComponent(), errorListenerComponent);
+    NavigationDataRetriever navigationDataRetriever = new NavigationDataRetriever(new ThreadComponent(), new AddressComponent(),
+            new UdpComponent(), new ReadyStateListenerComponent(), errorListenerComponent, new NavigationDataDecoder(), eventLoopComponent);
+    ConfigurationDataRetriever configurationDataRetriever = new ConfigurationDataRetriever(new ThreadComponent(), new AddressComponent(),
+            new TcpComponent(), new ReadyStateListenerComponent(), errorListenerComponent, eventLoopComponent, new ConfigurationDataDecoder());
+
+    // The test commands do not send anything, so no command sender is needed
+    coordinator = new CommandSenderCoordinator(null, navigationDataRetriever, configurationDataRetriever);
+  }
+
+  @Test
+  public void testCommandCompletesWhenTheAckArrives()
+  {
+    AcknowledgedCommand command = new AcknowledgedCommand(LONG_TIMEOUT);
+
+    ListenableFuture<Void> executed = coordinator.executeCommandAsync(command);
+    coordinator.onNavData(getNavData(false));
+    assertThat(executed.isDone(), is(false));
+
+    // Completes right away instead of waiting for the timeout
+    coordinator.onNavData(getNavData(true));
+    assertThat(executed.isDone(), is(true));
+    assertThat(command.executionCount.get(), is(1));
+  }
+
+  @Test
+  public void testCommandIsRetriedAfterTheTimeout() throws InterruptedException, ExecutionException, TimeoutException
+  {
+    AcknowledgedCommand command = new AcknowledgedCommand(RETRY_TIMEOUT);
+
+    ListenableFuture<Void> executed = coordinator.executeCommandAsync(command);
+    coordinator.onNavData(getNavData(false));
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+    while (command.executionCount.get() < 2 && System.nanoTime() < deadline)
+    {
+      Thread.sleep(1);
+    }
+    assertThat(executed.isDone(), is(false));
+
+    // The drone sends the ACK with every nav data packet until the next command
+    while (!executed.isDone() && System.nanoTime() < deadline)
+    {
+      coordinator.onNavData(getNavData(true));
+      Thread.sleep(1);
+    }
+    executed.get(0, TimeUnit.MILLISECONDS);
+    assertThat(command.executionCount.get(), is(2));
+  }
+
+  @Test
+  public void testCommandFailsWhenNoRetryIsAcknowledged() throws InterruptedException, TimeoutException
+  {
+    AcknowledgedCommand command = new AcknowledgedCommand(SHORT_TIMEOUT);
+
+    ListenableFuture<Void> executed = coordinator.executeCommandAsync(command);
+    coordinator.onNavData(getNavData(false));
+    try
+    {
+      executed.get(2, TimeUnit.SECONDS);
+      throw new AssertionError("The command did not fail");
+    } catch (ExecutionException e)
+    {
+      assertThat(e.getCause() instanceof IllegalStateException, is(true));
+    }
+    assertThat(command.executionCount.get(), is(MAX_EXECUTION_COUNT));
+  }
+
+  private NavData getNavData(boolean controlReceived)
+  {
+    NavDataState state = new NavDataState();
+    state.setControlReceived(controlReceived);
+
+    MutableNavData navData = new MutableNavData();
+    navData.setState(state);
+    return navData;
+  }
+
+  // Succeeds once the drone acknowledged the command like the config commands do
+  private static class AcknowledgedCommand implements SimpleCommand
+  {
+    private final int timeoutMillis;
+
+    private final AtomicInteger executionCount = new AtomicInteger();
+
+    private AcknowledgedCommand(int timeoutMillis)
+    {
+      this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public void execute(CommandSender commandSender, CommandSenderCoordinator commandSenderCoordinator)
+    {
+      executionCount.incrementAndGet();
+    }
+
+    @Override
+    public int getTimeoutMillis()
+    {
+      return timeoutMillis;
+    }
+
+    @Override
+    public void checkSuccess(NavData navData, DroneConfiguration droneConfiguration)
+    {
+      checkState(navData.getState().isControlReceived(), "The command ACK flag was not set");
+    }
+  }
+}
@@ -0,0 +1,316 @@
+package com.dronecontrol.droneapi;
+
+import com.dronecontrol.droneapi.commands.simple.FlatTrimCommand;
+import com.dronecontrol.droneapi.commands.simple.FlightModeCommand;
+import com.dronecontrol.droneapi.commands.simple.SetConfigValueATCommand;
+import com.dronecontrol.droneapi.components.AddressComponent;
+import com.dronecontrol.droneapi.components.ErrorListenerComponent;
+import com.dronecontrol.droneapi.components.EventLoopComponent;
+import com.dronecontrol.droneapi.components.ReadyStateListenerComponent;
+import com.dronecontrol.droneapi.components.ThreadComponent;
+import com.dronecontrol.droneapi.components.TickSchedulerComponent;
+import com.dronecontrol.droneapi.components.UdpComponent;
+import com.dronecontrol.droneapi.data.CommandSenderStatistics;
+import com.dronecontrol.droneapi.data.LoginData;
+import com.dronecontrol.droneapi.data.enums.FlightMode;
+import com.dronecontrol.droneapi.listeners.ErrorListener;
+import com.dronecontrol.droneapi.navdata.NavigationDataDecoder;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class CommandSenderTest
+{
+  private static final String DRONE_IP_ADDRESS = "127.0.0.1";
+
+  private static final int COMMAND_PORT = 5556;
+
+  private static final int TICKS_PER_SECOND = 100;
+
+  private static final int CONFIG_COMMAND_COUNT = 20;
+
+  private final List<String> datagrams = Lists.newArrayList();
+
+  private final List<Throwable> errors = Lists.newArrayList();
+
+  private final SynchronousThreadComponent threadComponent = new SynchronousThreadComponent();
+
+  private final ScriptedTickSchedulerComponent tickSchedulerComponent = new ScriptedTickSchedulerComponent();
+
+  private final LoginData loginData = new LoginData("application", "profile");
+
+  private CommandSender commandSender;
+
+  @Before
+  public void setUp()
+  {
+    ErrorListenerComponent errorListenerComponent = new ErrorListenerComponent();
+    errorListenerComponent.addErrorListener(new ErrorListener()
+    {
+      @Override
+      public void onError(Throwable e)
+      {
+        errors.add(e);
+      }
+    });
+    EventLoopComponent eventLoopComponent = new EventLoopComponent(new ThreadComponent(), errorListenerComponent);
+    NavigationDataRetriever navigationDataRetriever = new NavigationDataRetriever(new ThreadComponent(), new AddressComponent(),
+            new UdpComponent(), new ReadyStateListenerComponent(), errorListenerComponent, new NavigationDataDecoder(), eventLoopComponent);
+
+    commandSender = new CommandSender(threadComponent, new AddressComponent(), new CapturingUdpComponent(), new ReadyStateListenerComponent(),
+            errorListenerComponent, new InternalStateWatcher(navigationDataRetriever), tickSchedulerComponent, eventLoopComponent);
+    commandSender.setCommandRate(TICKS_PER_SECOND);
+  }
+
+  @Test
+  public void testCommandsOfOneTickAreSentInOneDatagram()
+  {
+    commandSender.sendCommand(new FlatTrimCommand());
+    commandSender.sendCommand(new SetConfigValueATCommand(loginData, "video:video_channel", 1));
+
+    runTicks(1);
+
+    assertThat(datagrams.size(), is(1));
+    assertThat(datagrams.get(0), is("AT*FTRIM=1\r" +
+            getConfigIdsText(2) +
+            "AT*CONFIG=3,\"video:video_channel\",\"1\"\r" +
+            "AT*COMWDG=4\r"));
+  }
+
+  @Test
+  public void testDatagramsAreSplitAtTheMaximumSize()
+  {
+    sendConfigCommands();
+
+    runTicks(1);
+
+    assertThat(datagrams.size() > 1, is(true));
+    int sequenceNumber = 1;
+    for (int index = 0; index < datagrams.size(); index++)
+    {
+      String datagram = datagrams.get(index);
+      assertThat(datagram.length() <= CommandSender.SENDING_BUFFER_SIZE, is(true));
+      assertThat(datagram.endsWith("\r"), is(true));
+      // A datagram is only split if the next config command and its preparation command did not fit anymore
+      if (index < datagrams.size() - 1)
+      {
+        assertThat(datagram.length() + getFirstCommandLength(datagrams.get(index + 1)) > CommandSender.SENDING_BUFFER_SIZE, is(true));
+      }
+
+      for (String command : datagram.split("\r"))
+      {
+        assertThat(getSequenceNumber(command), is(sequenceNumber++));
+      }
+    }
+    assertThat(sequenceNumber, is(2 * CONFIG_COMMAND_COUNT + 2));
+  }
+
+  @Test
+  public void testConfigCommandIsSentInTheSameDatagramAsItsIds()
+  {
+    sendConfigCommands();
+
+    runTicks(1);
+
+    for (String datagram : datagrams)
+    {
+      String[] commands = datagram.split("\r");
+      for (int index = 0; index < commands.length; index++)
+      {
+        if (commands[index].startsWith("AT*CONFIG="))
+        {
+          assertThat(index > 0 && commands[index - 1].startsWith("AT*CONFIG_IDS="), is(true));
+        }
+      }
+      assertThat(commands[commands.length - 1].startsWith("AT*CONFIG_IDS="), is(false));
+    }
+  }
+
+  @Test
+  public void testPacketsPerTickAndBytesPerPacketAreCounted()
+  {
+    sendConfigCommands();
+
+    runTicks(2);
+
+    CommandSenderStatistics statistics = commandSender.getStatistics();
+    int byteCount = 0;
+    int maxBytesPerPacket = 0;
+    for (String datagram : datagrams)
+    {
+      byteCount += datagram.length();
+      maxBytesPerPacket = Math.max(maxBytesPerPacket, datagram.length());
+    }
+    assertThat(statistics.getTickCount(), is(2L));
+    assertThat(statistics.getPacketCount(), is((long) datagrams.size()));
+    assertThat(statistics.getByteCount(), is((long) byteCount));
+    assertThat(statistics.getMaxPacketsPerTick(), is(datagrams.size()));
+    // Nothing was left to send in the second tick
+    assertThat(statistics.getLastPacketsPerTick(), is(0));
+    assertThat(statistics.getMaxBytesPerPacket(), is(maxBytesPerPacket));
+    assertThat(statistics.getLastBytesPerPacket(), is(datagrams.get(datagrams.size() - 1).length()));
+  }
+
+  @Test
+  public void testPriorityCommandIsSentAheadOfQueuedCommands()
+  {
+    commandSender.sendCommand(new FlatTrimCommand());
+    commandSender.sendPriorityCommand(new FlightModeCommand(FlightMode.LAND));
+
+    runTicks(1);
+
+    assertThat(datagrams.size(), is(1));
+    assertThat(datagrams.get(0), is("AT*REF=1,290717696\rAT*FTRIM=2\rAT*COMWDG=3\r"));
+  }
+
+  @Test
+  public void testPriorityCommandIsSentWithoutWaitingForTheNextTick()
+  {
+    commandSender.sendCommand(new FlatTrimCommand());
+    tickSchedulerComponent.betweenTicks = new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        commandSender.sendPriorityCommand(new FlightModeCommand(FlightMode.EMERGENCY));
+      }
+    };
+
+    runTicks(2);
+
+    // The second tick had nothing left to send
+    assertThat(datagrams.size(), is(2));
+    assertThat(datagrams.get(0), is("AT*FTRIM=1\rAT*COMWDG=2\r"));
+    assertThat(datagrams.get(1), is("AT*REF=3,290717952\r"));
+
+    CommandSenderStatistics statistics = commandSender.getStatistics();
+    assertThat(statistics.getTickCount(), is(2L));
+    assertThat(statistics.getPriorityRequestCount(), is(1L));
+    // Packets sent between two ticks are counted for the following tick
+    assertThat(statistics.getLastPacketsPerTick(), is(1));
+  }
+
+  private void sendConfigCommands()
+  {
+    for (int index = 0; index < CONFIG_COMMAND_COUNT; index++)
+    {
+      commandSender.sendCommand(new SetConfigValueATCommand(loginData, "custom:key_" + index, "value_" + index));
+    }
+  }
+
+  private void runTicks(int ticks)
+  {
+    threadComponent.remainingTicks = ticks;
+    commandSender.start(DRONE_IP_ADDRESS, COMMAND_PORT);
+
+    assertThat(errors.isEmpty(), is(true));
+  }
+
+  private String getConfigIdsText(int sequenceNumber)
+  {
+    return String.format("AT*CONFIG_IDS=%d,\"%s\",\"%s\",\"%s\"\r", sequenceNumber, loginData.getSessionChecksum(),
+            loginData.getProfileChecksum(), loginData.getApplicationChecksum());
+  }
+
+  // A config command is only sent together with its preparation command
+  private int getFirstCommandLength(String datagram)
+  {
+    int end = datagram.indexOf('\r');
+    if (datagram.startsWith("AT*CONFIG_IDS="))
+    {
+      end = datagram.indexOf('\r', end + 1);
+    }
+    return end + 1;
+  }
+
+  private int getSequenceNumber(String command)
+  {
+    int start = command.indexOf('=') + 1;
+    int end = command.indexOf(',', start);
+    return Integer.parseInt(end < 0 ? command.substring(start) : command.substring(start, end));
+  }
+
+  // Runs the command sender on the test thread for the given number of ticks
+  private static class SynchronousThreadComponent extends ThreadComponent
+  {
+    private int remainingTicks;
+
+    @Override
+    public void start(Runnable runnable)
+    {
+      runnable.run();
+    }
+
+    @Override
+    public boolean isStopped()
+    {
+      return remainingTicks-- <= 0;
+    }
+  }
+
+  // The next tick is always due right away, a wake up ends the wait early like the real scheduler does
+  private static class ScriptedTickSchedulerComponent extends TickSchedulerComponent
+  {
+    // Run once while waiting after the first tick
+    private Runnable betweenTicks;
+
+    private boolean wakeUpRequested;
+
+    @Override
+    public void start(int ticksPerSecond)
+    {
+    }
+
+    @Override
+    public boolean waitForNextTick()
+    {
+      if (betweenTicks != null)
+      {
+        betweenTicks.run();
+        betweenTicks = null;
+      }
+
+      if (wakeUpRequested)
+      {
+        wakeUpRequested = false;
+        return false;
+      }
+      return true;
+    }
+
+    @Override
+    public void wakeUp()
+    {
+      wakeUpRequested = true;
+    }
+  }
+
+  private class CapturingUdpComponent extends UdpComponent
+  {
+    @Override
+    public void connect(InetAddress address, int port)
+    {
+    }
+
+    @Override
+    public void disconnect()
+    {
+    }
+
+    @Override
+    public void send(ByteBuffer buffer)
+    {
+      byte[] datagram = new byte[buffer.remaining()];
+      buffer.get(datagram);
+      datagrams.add(new String(datagram, StandardCharsets.US_ASCII));
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.dronecontrol.droneapi.commands.composed;
+
+import com.dronecontrol.droneapi.commands.ATCommand;
+import com.dronecontrol.droneapi.commands.Command;
+import com.dronecontrol.droneapi.commands.ComposedCommand;
+import com.dronecontrol.droneapi.configdata.ConfigurationDataDecoder;
+import com.dronecontrol.droneapi.data.DroneConfiguration;
+import com.dronecontrol.droneapi.data.LoginData;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class SetConfigValuesCommandTest
+{
+  private static final int FIRST_SEQUENCE_NUMBER = 10;
+
+  // Part of a config dump as the drone sends it
+  private static final String CONFIG_DUMP = "general:num_version_soft = 1.11.5\n" +
+          "general:navdata_demo = TRUE\n" +
+          "control:altitude_max = 3000\n" +
+          "control:euler_angle_max = 2.0000000e-01\n" +
+          "video:video_channel = 1\n\0";
+
+  @Test
+  public void testValuesAreSetOneAfterAnotherAndVerifiedOnce()
+  {
+    LoginData loginData = new LoginData("application", "profile");
+    String ids = String.format("\"%s\",\"%s\",\"%s\"", loginData.getSessionChecksum(), loginData.getProfileChecksum(),
+            loginData.getApplicationChecksum());
+
+    SetConfigValuesCommand command = new SetConfigValuesCommand(loginData,
+            ImmutableMap.<String, Object>of("video:video_channel", 1, "general:navdata_demo", true));
+
+    StringBuilder commandText = new StringBuilder();
+    appendCommandText(commandText, command, new int[]{FIRST_SEQUENCE_NUMBER});
+
+    assertThat(commandText.toString(), is("AT*CTRL=10,5,0\r" +
+            "AT*CONFIG_IDS=11," + ids + "\r" +
+            "AT*CONFIG=12,\"video:video_channel\",\"1\"\r" +
+            "AT*CTRL=13,5,0\r" +
+            "AT*CONFIG_IDS=14," + ids + "\r" +
+            "AT*CONFIG=15,\"general:navdata_demo\",\"TRUE\"\r" +
+            "AT*CTRL=16,5,0\r" +
+            "AT*CTRL=17,4,0\r"));
+  }
+
+  @Test
+  public void testValuesFormattedByTheDroneAreAccepted()
+  {
+    SetConfigValuesCommand command = new SetConfigValuesCommand(new LoginData("application", "profile"),
+            ImmutableMap.<String, Object>of("general:navdata_demo", true, "control:euler_angle_max", 0.2f));
+
+    command.checkSuccess(null, getDroneConfiguration());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testDifferentValueFailsTheCheck()
+  {
+    SetConfigValuesCommand command = new SetConfigValuesCommand(new LoginData("application", "profile"),
+            ImmutableMap.<String, Object>of("control:altitude_max", 2500, "video:video_channel", 1));
+
+    command.checkSuccess(null, getDroneConfiguration());
+  }
+
+  private DroneConfiguration getDroneConfiguration()
+  {
+    ConfigurationDataDecoder decoder = new ConfigurationDataDecoder();
+    assertThat(decoder.decode(ByteBuffer.wrap(CONFIG_DUMP.getBytes(StandardCharsets.US_ASCII))), is(true));
+    return decoder.getDroneConfiguration();
+  }
+
+  // Sends the commands in the same order and with the same sequence numbers as the command sender
+  private void appendCommandText(StringBuilder commandText, Command command, int[] sequenceNumber)
+  {
+    if (command instanceof ComposedCommand)
+    {
+      for (Command subCommand : ((ComposedCommand) command).getCommands())
+      {
+        appendCommandText(commandText, subCommand, sequenceNumber);
+      }
+    } else
+    {
+      ATCommand atCommand = (ATCommand) command;
+      if (atCommand.isPreparationCommandNeeded())
+      {
+        commandText.append(atCommand.getPreparationCommandText(sequenceNumber[0]++));
+      }
+      commandText.append(atCommand.getCommandText(sequenceNumber[0]++));
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.dronecontrol.droneapi.commands.simple;
+
+import com.dronecontrol.droneapi.commands.ATCommand;
+import com.dronecontrol.droneapi.data.LoginData;
+import com.dronecontrol.droneapi.data.enums.ControlDataMode;
+import com.dronecontrol.droneapi.data.enums.FlightMode;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class ATCommandAbstractTest
+{
+  private static final int SEQUENCE_NUMBER = 12345;
+
+  @Test
+  public void testWrittenCommandTextMatchesCommandText()
+  {
+    LoginData loginData = new LoginData("application", "profile");
+    ATCommand[] commands = new ATCommand[]{new WatchDogCommand(), new FlatTrimCommand(), new FlightModeCommand(FlightMode.TAKE_OFF),
+            new FlightMoveCommand(0.5f, -0.8f, 1.5f, 0.0f), new ControlDataATCommand(ControlDataMode.RESET_ACK_FLAG),
+            new SetConfigValueATCommand(loginData, "video:video_channel", 1)};
+
+    for (ATCommand command : commands)
+    {
+      assertThat(getWrittenCommandText(command), is(command.getCommandText(SEQUENCE_NUMBER)));
+    }
+  }
+
+  @Test
+  public void testWrittenPreparationCommandTextMatchesPreparationCommandText()
+  {
+    ATCommand command = new SetConfigValueATCommand(new LoginData("application", "profile"), "video:video_channel", 1);
+
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+    command.writePreparationCommandText(buffer, SEQUENCE_NUMBER);
+
+    assertThat(getText(buffer), is(command.getPreparationCommandText(SEQUENCE_NUMBER)));
+  }
+
+  private String getWrittenCommandText(ATCommand command)
+  {
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+    command.writeCommandText(buffer, SEQUENCE_NUMBER);
+    return getText(buffer);
+  }
+
+  private String getText(ByteBuffer buffer)
+  {
+    return new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII);
+  }
+}
@@ -0,0 +1,113 @@
+package com.dronecontrol.droneapi.components;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class EventLoopComponentTest
+{
+  @Test
+  public void testScheduledTasksRunInDeadlineOrder() throws InterruptedException
+  {
+    EventLoopComponent eventLoopComponent = new EventLoopComponent(new ThreadComponent(), new ErrorListenerComponent());
+    final List<Integer> order = Collections.synchronizedList(Lists.<Integer>newArrayList());
+    final CountDownLatch latch = new CountDownLatch(3);
+
+    eventLoopComponent.start();
+    try
+    {
+      eventLoopComponent.schedule(getRecordingTask(order, 2, latch), 60);
+      eventLoopComponent.schedule(getRecordingTask(order, 1, latch), 30);
+      eventLoopComponent.execute(getRecordingTask(order, 0, latch));
+
+      assertThat(latch.await(2, TimeUnit.SECONDS), is(true));
+      assertThat(order.toString(), is("[0, 1, 2]"));
+    } finally
+    {
+      eventLoopComponent.stop();
+    }
+  }
+
+  @Test
+  public void testCancelledTaskIsNotRun() throws InterruptedException
+  {
+    EventLoopComponent eventLoopComponent = new EventLoopComponent(new ThreadComponent(), new ErrorListenerComponent());
+    final List<Integer> order = Collections.synchronizedList(Lists.<Integer>newArrayList());
+    CountDownLatch latch = new CountDownLatch(1);
+
+    eventLoopComponent.start();
+    try
+    {
+      eventLoopComponent.schedule(getRecordingTask(order, 0, new CountDownLatch(1)), 10).cancel();
+      eventLoopComponent.schedule(getRecordingTask(order, 1, latch), 50);
+
+      assertThat(latch.await(2, TimeUnit.SECONDS), is(true));
+      assertThat(order.toString(), is("[1]"));
+    } finally
+    {
+      eventLoopComponent.stop();
+    }
+  }
+
+  @Test
+  public void testChannelIsConnectedWithoutBlockingTheLoop() throws IOException, InterruptedException
+  {
+    EventLoopComponent eventLoopComponent = new EventLoopComponent(new ThreadComponent(), new ErrorListenerComponent());
+    final TcpComponent tcpComponent = new TcpComponent();
+    final CountDownLatch connectedLatch = new CountDownLatch(1);
+
+    ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+    eventLoopComponent.start();
+    try
+    {
+      if (tcpComponent.connectChannel(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort()))
+      {
+        connectedLatch.countDown();
+      } else
+      {
+        eventLoopComponent.registerConnect(tcpComponent.getChannel(), new ConnectHandler()
+        {
+          @Override
+          public void onConnectable()
+          {
+            if (tcpComponent.finishConnect())
+            {
+              connectedLatch.countDown();
+            }
+          }
+        });
+      }
+
+      assertThat(connectedLatch.await(2, TimeUnit.SECONDS), is(true));
+      assertThat(tcpComponent.getChannel().isConnected(), is(true));
+    } finally
+    {
+      eventLoopComponent.stop();
+      tcpComponent.disconnect();
+      serverSocket.close();
+    }
+  }
+
+  private Runnable getRecordingTask(final List<Integer> order, final int number, final CountDownLatch latch)
+  {
+    return new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        order.add(number);
+        latch.countDown();
+      }
+    };
+  }
+}
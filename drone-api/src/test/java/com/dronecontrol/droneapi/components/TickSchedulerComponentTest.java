@@ -0,0 +1,127 @@
+package com.dronecontrol.droneapi.components;
+
+import com.dronecontrol.droneapi.data.TickStatistics;
+import com.google.common.base.Ticker;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class TickSchedulerComponentTest
+{
+  private static final int TICKS_PER_SECOND = 100;
+
+  private static final long PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private static final int WAKE_UP_COUNT = 21;
+
+  private long nanos = 0;
+
+  private final Ticker ticker = new Ticker()
+  {
+    @Override
+    public long read()
+    {
+      return nanos;
+    }
+  };
+
+  @Test
+  public void testTimeSpentInATickIsNotAddedToThePeriod()
+  {
+    TickSchedulerComponent tickSchedulerComponent = new TickSchedulerComponent(ticker);
+    tickSchedulerComponent.start(TICKS_PER_SECOND);
+
+    // The first tick ends 2 ms after its deadline, the next one is still due 10 ms after the first deadline
+    nanos = PERIOD_NANOS + TimeUnit.MILLISECONDS.toNanos(2);
+    assertThat(tickSchedulerComponent.waitForNextTick(), is(true));
+    assertThat(tickSchedulerComponent.getStatistics().getLastLatenessNanos(), is(TimeUnit.MILLISECONDS.toNanos(2)));
+
+    nanos = 2 * PERIOD_NANOS;
+    assertThat(tickSchedulerComponent.waitForNextTick(), is(true));
+    assertThat(tickSchedulerComponent.getStatistics().getLastLatenessNanos(), is(0L));
+
+    TickStatistics statistics = tickSchedulerComponent.getStatistics();
+    assertThat(statistics.getTickCount(), is(2L));
+    assertThat(statistics.getMaxLatenessNanos(), is(TimeUnit.MILLISECONDS.toNanos(2)));
+    assertThat(statistics.getMissedTickCount(), is(0L));
+  }
+
+  @Test
+  public void testMissedTicksAreSkipped()
+  {
+    TickSchedulerComponent tickSchedulerComponent = new TickSchedulerComponent(ticker);
+    tickSchedulerComponent.start(TICKS_PER_SECOND);
+
+    // Overslept past the deadlines at 20 and 30 ms, they are skipped instead of being run back to back
+    nanos = 3 * PERIOD_NANOS + PERIOD_NANOS / 2;
+    assertThat(tickSchedulerComponent.waitForNextTick(), is(true));
+    assertThat(tickSchedulerComponent.getStatistics().getMissedTickCount(), is(2L));
+
+    nanos = 4 * PERIOD_NANOS;
+    assertThat(tickSchedulerComponent.waitForNextTick(), is(true));
+    assertThat(tickSchedulerComponent.getStatistics().getLastLatenessNanos(), is(0L));
+    assertThat(tickSchedulerComponent.getStatistics().getTickCount(), is(2L));
+  }
+
+  @Test
+  public void testWakeUpDoesNotMoveTheDeadline()
+  {
+    TickSchedulerComponent tickSchedulerComponent = new TickSchedulerComponent(ticker);
+    tickSchedulerComponent.start(TICKS_PER_SECOND);
+
+    nanos = PERIOD_NANOS / 2;
+    tickSchedulerComponent.wakeUp();
+    assertThat(tickSchedulerComponent.waitForNextTick(), is(false));
+    assertThat(tickSchedulerComponent.getStatistics().getTickCount(), is(0L));
+
+    nanos = PERIOD_NANOS;
+    assertThat(tickSchedulerComponent.waitForNextTick(), is(true));
+    assertThat(tickSchedulerComponent.getStatistics().getLastLatenessNanos(), is(0L));
+  }
+
+  @Test
+  public void testWakeUpEndsAParkedWaitWellWithinAMillisecond() throws InterruptedException
+  {
+    final TickSchedulerComponent tickSchedulerComponent = new TickSchedulerComponent();
+    final Semaphore waiting = new Semaphore(0);
+    final AtomicLong wakeUpNanos = new AtomicLong();
+    final long[] latencies = new long[WAKE_UP_COUNT];
+
+    Thread tickingThread = new Thread(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        // One tick per second, so none of the waits reaches its deadline
+        tickSchedulerComponent.start(1);
+        for (int index = 0; index < WAKE_UP_COUNT; index++)
+        {
+          waiting.release();
+          boolean tick = tickSchedulerComponent.waitForNextTick();
+          latencies[index] = tick ? Long.MAX_VALUE : System.nanoTime() - wakeUpNanos.get();
+        }
+      }
+    });
+    tickingThread.start();
+
+    for (int index = 0; index < WAKE_UP_COUNT; index++)
+    {
+      waiting.acquire();
+      // Gives the ticking thread time to park
+      Thread.sleep(2);
+      wakeUpNanos.set(System.nanoTime());
+      tickSchedulerComponent.wakeUp();
+    }
+    tickingThread.join(TimeUnit.SECONDS.toMillis(2));
+
+    // The median keeps a single descheduling of the test threads from failing the test
+    Arrays.sort(latencies);
+    assertThat(latencies[WAKE_UP_COUNT / 2] < TimeUnit.MILLISECONDS.toNanos(1), is(true));
+  }
+}
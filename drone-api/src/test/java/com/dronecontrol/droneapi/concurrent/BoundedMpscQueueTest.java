@@ -0,0 +1,92 @@
+package com.dronecontrol.droneapi.concurrent;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class BoundedMpscQueueTest
+{
+  private static final int PRODUCER_COUNT = 4;
+
+  private static final int ELEMENTS_PER_PRODUCER = 100000;
+
+  @Test
+  public void testDrainToKeepsOrder()
+  {
+    BoundedMpscQueue<Integer> queue = new BoundedMpscQueue<>(4);
+    queue.offer(1);
+    queue.offer(2);
+    queue.offer(3);
+
+    List<Integer> drained = Lists.newArrayList();
+    assertThat(queue.drainTo(drained), is(3));
+    assertThat(drained.toString(), is("[1, 2, 3]"));
+    assertThat(queue.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testOverflowIsCounted()
+  {
+    BoundedMpscQueue<Integer> queue = new BoundedMpscQueue<>(2);
+
+    assertThat(queue.offer(1), is(true));
+    assertThat(queue.offer(2), is(true));
+    assertThat(queue.offer(3), is(false));
+    assertThat(queue.getOverflowCount(), is(1L));
+
+    queue.drainTo(Lists.<Integer>newArrayList());
+    assertThat(queue.offer(4), is(true));
+  }
+
+  @Test
+  public void testConcurrentProducersLoseNoElements() throws InterruptedException
+  {
+    final BoundedMpscQueue<Integer> queue = new BoundedMpscQueue<>(1024);
+    Thread[] producers = new Thread[PRODUCER_COUNT];
+    for (int producer = 0; producer < PRODUCER_COUNT; producer++)
+    {
+      producers[producer] = new Thread(new Runnable()
+      {
+        @Override
+        public void run()
+        {
+          for (int element = 0; element < ELEMENTS_PER_PRODUCER; element++)
+          {
+            while (!queue.offer(element))
+            {
+              Thread.yield();
+            }
+          }
+        }
+      });
+      producers[producer].start();
+    }
+
+    List<Integer> drained = Lists.newArrayListWithCapacity(1024);
+    long sum = 0;
+    int count = 0;
+    while (count < PRODUCER_COUNT * ELEMENTS_PER_PRODUCER)
+    {
+      queue.drainTo(drained);
+      for (Integer element : drained)
+      {
+        sum += element;
+      }
+      count += drained.size();
+      drained.clear();
+    }
+
+    for (Thread producer : producers)
+    {
+      producer.join();
+    }
+
+    long expectedSum = (long) PRODUCER_COUNT * ELEMENTS_PER_PRODUCER * (ELEMENTS_PER_PRODUCER - 1) / 2;
+    assertThat(sum, is(expectedSum));
+    assertThat(queue.isEmpty(), is(true));
+  }
+}
@@ -0,0 +1,46 @@
+package com.dronecontrol.droneapi.configdata;
+
+import com.dronecontrol.droneapi.data.DroneConfiguration;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ConfigurationDataDecoderTest
+{
+  @Test
+  public void testDumpIsCompletedAtZeroByte()
+  {
+    ConfigurationDataDecoder decoder = new ConfigurationDataDecoder();
+
+    assertThat(decoder.decode(getBuffer("general:num_version_soft = 1.11.5\r\nvideo:video_")), is(false));
+    assertThat(decoder.decode(getBuffer("codec = 129\ninvalid line\n\0")), is(true));
+
+    DroneConfiguration configuration = decoder.getDroneConfiguration();
+    assertThat(configuration.getConfig().size(), is(2));
+    assertThat(configuration.getConfig().get("general:num_version_soft"), is("1.11.5"));
+    assertThat(configuration.getConfig().get("video:video_codec"), is("129"));
+    assertThat(decoder.hasData(), is(false));
+  }
+
+  @Test
+  public void testRemainingBytesBelongToNextDump()
+  {
+    ConfigurationDataDecoder decoder = new ConfigurationDataDecoder();
+    ByteBuffer buffer = getBuffer("a = 1\n\0b = 2\n");
+
+    assertThat(decoder.decode(buffer), is(true));
+    assertThat(decoder.getDroneConfiguration().getConfig().get("b"), is(nullValue()));
+
+    assertThat(decoder.decode(buffer), is(false));
+    assertThat(decoder.getDroneConfiguration().getConfig().get("b"), is("2"));
+  }
+
+  private ByteBuffer getBuffer(String text)
+  {
+    return ByteBuffer.wrap(text.getBytes());
+  }
+}
@@ -0,0 +1,69 @@
+package com.dronecontrol.droneapi.data;
+
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class LatencyHistogramTest
+{
+  @Test
+  public void testPercentilesAreWithinTheBucketPrecision()
+  {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int micros = 1; micros <= 1000; micros++)
+    {
+      histogram.record(micros * 1000L);
+    }
+
+    assertThat(histogram.getCount(), is(1000L));
+    assertThat(histogram.getMaxNanos(), is(1000000L));
+    assertThat(histogram.getAverageNanos(), is(500500L));
+    assertThat(isWithinPrecision(histogram.getPercentileNanos(50), 500000), is(true));
+    assertThat(isWithinPrecision(histogram.getPercentileNanos(99), 990000), is(true));
+    assertThat(histogram.getPercentileNanos(100), is(1000000L));
+  }
+
+  @Test
+  public void testSmallValuesAreExact()
+  {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(3);
+    histogram.record(7);
+
+    assertThat(histogram.getPercentileNanos(50), is(3L));
+    assertThat(histogram.getPercentileNanos(100), is(7L));
+  }
+
+  @Test
+  public void testCumulativeCounts()
+  {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(10);
+    histogram.record(1000);
+    histogram.record(100000);
+
+    long[] cumulativeCounts = histogram.getCumulativeCounts(new long[]{5, 10, 2000, 1000000});
+
+    assertThat(cumulativeCounts[0], is(0L));
+    assertThat(cumulativeCounts[1], is(1L));
+    assertThat(cumulativeCounts[2], is(2L));
+    assertThat(cumulativeCounts[3], is(3L));
+  }
+
+  @Test
+  public void testReset()
+  {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(1000);
+    histogram.reset();
+
+    assertThat(histogram.getCount(), is(0L));
+    assertThat(histogram.getPercentileNanos(99), is(0L));
+  }
+
+  private boolean isWithinPrecision(long actualNanos, long expectedNanos)
+  {
+    return Math.abs(actualNanos - expectedNanos) <= expectedNanos / 16;
+  }
+}
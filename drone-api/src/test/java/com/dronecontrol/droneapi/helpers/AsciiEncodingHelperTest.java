@@ -0,0 +1,45 @@
+package com.dronecontrol.droneapi.helpers;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class AsciiEncodingHelperTest
+{
+  @Test
+  public void testPutInt()
+  {
+    assertThat(getPutIntText(0), is("0"));
+    assertThat(getPutIntText(7), is("7"));
+    assertThat(getPutIntText(1234567890), is("1234567890"));
+    assertThat(getPutIntText(-1085485875), is("-1085485875"));
+    assertThat(getPutIntText(Integer.MAX_VALUE), is(String.valueOf(Integer.MAX_VALUE)));
+    assertThat(getPutIntText(Integer.MIN_VALUE), is(String.valueOf(Integer.MIN_VALUE)));
+  }
+
+  @Test
+  public void testPutAscii()
+  {
+    ByteBuffer buffer = ByteBuffer.allocate(32);
+    AsciiEncodingHelper.putAscii(buffer, "AT*COMWDG=");
+    AsciiEncodingHelper.putInt(buffer, 42);
+
+    assertThat(getText(buffer), is("AT*COMWDG=42"));
+  }
+
+  private String getPutIntText(int value)
+  {
+    ByteBuffer buffer = ByteBuffer.allocate(16);
+    AsciiEncodingHelper.putInt(buffer, value);
+    return getText(buffer);
+  }
+
+  private String getText(ByteBuffer buffer)
+  {
+    return new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII);
+  }
+}
@@ -0,0 +1,72 @@
+package com.dronecontrol.droneapi.navdata;
+
+import com.dronecontrol.droneapi.data.MutableNavData;
+import com.dronecontrol.droneapi.data.NavData;
+import com.dronecontrol.droneapi.listeners.NavDataListener;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class AsyncNavDataListenerTest
+{
+  @Test
+  public void testOldestNavDataIsDroppedForSlowListener() throws InterruptedException
+  {
+    final CountDownLatch firstReceived = new CountDownLatch(1);
+    final CountDownLatch proceed = new CountDownLatch(1);
+    final CountDownLatch lastReceived = new CountDownLatch(1);
+    final List<Integer> sequenceNumbers = new CopyOnWriteArrayList<>();
+
+    AsyncNavDataListener asyncNavDataListener = new AsyncNavDataListener(new NavDataListener()
+    {
+      @Override
+      public void onNavData(NavData navData)
+      {
+        sequenceNumbers.add(navData.getSequenceNumber());
+        firstReceived.countDown();
+        await(proceed);
+        if (navData.getSequenceNumber() == 4)
+        {
+          lastReceived.countDown();
+        }
+      }
+    }, 1);
+
+    asyncNavDataListener.offer(getNavData(1), System.nanoTime());
+    await(firstReceived);
+    asyncNavDataListener.offer(getNavData(2), System.nanoTime());
+    asyncNavDataListener.offer(getNavData(3), System.nanoTime());
+    asyncNavDataListener.offer(getNavData(4), System.nanoTime());
+    proceed.countDown();
+    await(lastReceived);
+    asyncNavDataListener.shutdown();
+
+    assertThat(sequenceNumbers.toString(), is("[1, 4]"));
+    assertThat(asyncNavDataListener.getStatistics().getDroppedCount(), is(2L));
+    assertThat(asyncNavDataListener.getStatistics().getDeliveredCount(), is(2L));
+  }
+
+  private NavData getNavData(int sequenceNumber)
+  {
+    MutableNavData navData = new MutableNavData();
+    navData.setSequenceNumber(sequenceNumber);
+    return navData;
+  }
+
+  private static void await(CountDownLatch latch)
+  {
+    try
+    {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e)
+    {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.dronecontrol.droneapi.navdata;
+
+import com.dronecontrol.droneapi.data.MutableNavData;
+import com.dronecontrol.droneapi.data.NavData;
+import com.dronecontrol.droneapi.data.NavDataState;
+import com.dronecontrol.droneapi.data.NavDataWindow;
+import com.dronecontrol.droneapi.data.enums.NavDataSeries;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class NavDataHistoryTest
+{
+  private final NavDataHistory history = new NavDataHistory(8);
+
+  @Test
+  public void testWindowContainsOnlyRecentValues()
+  {
+    for (int second = 0; second < 5; second++)
+    {
+      history.append(getNavData(second), TimeUnit.SECONDS.toNanos(second));
+    }
+
+    NavDataWindow window = history.getWindow(NavDataSeries.ALTITUDE, 2, TimeUnit.SECONDS);
+
+    assertThat(window.getCount(), is(3));
+    assertThat(window.getMin(), is(2.0f));
+    assertThat(window.getMax(), is(4.0f));
+    assertThat(window.getMean(), is(3.0f));
+    assertThat(window.getLast(), is(4.0f));
+    assertThat(window.getSlopePerSecond(), is(1.0f));
+  }
+
+  @Test
+  public void testOldValuesAreOverwritten()
+  {
+    for (int second = 0; second < 20; second++)
+    {
+      history.append(getNavData(second), TimeUnit.SECONDS.toNanos(second));
+    }
+
+    float[] altitudes = new float[10];
+    int count = history.getLast(NavDataSeries.ALTITUDE, altitudes);
+
+    assertThat(count, is(7));
+    assertThat(altitudes[0], is(13.0f));
+    assertThat(altitudes[6], is(19.0f));
+    assertThat(history.getSize(), is(7));
+  }
+
+  private NavData getNavData(float altitude)
+  {
+    MutableNavData navData = new MutableNavData();
+    navData.setState(new NavDataState());
+    navData.setAltitude(altitude);
+    return navData;
+  }
+}
@@ -0,0 +1,66 @@
+package com.dronecontrol.droneapi.navdata;
+
+import org.junit.Test;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class NavDataSequenceTrackerTest
+{
+  private final NavDataSequenceTracker tracker = new NavDataSequenceTracker();
+
+  @Test
+  public void testOlderAndDuplicatePacketsAreDropped()
+  {
+    assertThat(tracker.accept(10, 0), is(true));
+    assertThat(tracker.accept(13, 15), is(true));
+    assertThat(tracker.accept(12, 20), is(false));
+    assertThat(tracker.accept(13, 25), is(false));
+    assertThat(tracker.accept(14, 30), is(true));
+
+    assertThat(tracker.getStatistics().getLostCount(), is(2L));
+    assertThat(tracker.getStatistics().getReorderedCount(), is(1L));
+    assertThat(tracker.getStatistics().getDuplicateCount(), is(1L));
+    assertThat(tracker.getStatistics().getWindowMeanInterArrivalNanos(), is(15L));
+    assertThat(tracker.getStatistics().getWindowLossRate(), is(0.5f));
+  }
+
+  @Test
+  public void testRestartedSequenceIsAccepted()
+  {
+    assertThat(tracker.accept(500, 0), is(true));
+    assertThat(tracker.accept(1, 5), is(true));
+    assertThat(tracker.accept(2, 10), is(true));
+
+    assertThat(tracker.getStatistics().getResetCount(), is(1L));
+    assertThat(tracker.getStatistics().getReorderedCount(), is(0L));
+  }
+
+  @Test
+  public void testRestartIsDetectedWhenTheFirstPacketIsLost()
+  {
+    assertThat(tracker.accept(500, 0), is(true));
+    assertThat(tracker.accept(2, 5), is(true));
+    assertThat(tracker.accept(3, 10), is(true));
+
+    assertThat(tracker.getStatistics().getResetCount(), is(1L));
+    assertThat(tracker.getStatistics().getReorderedCount(), is(0L));
+  }
+
+  @Test
+  public void testStreamIsTakenUpAgainAfterRejectedPackets()
+  {
+    // A restart shortly after the last one looks like reordered packets at first
+    assertThat(tracker.accept(40, 0), is(true));
+    int sequenceNumber = 2;
+    while (!tracker.accept(sequenceNumber, sequenceNumber))
+    {
+      sequenceNumber++;
+    }
+    assertThat(sequenceNumber, is(18));
+    assertThat(tracker.accept(sequenceNumber + 1, sequenceNumber + 1), is(true));
+
+    assertThat(tracker.getStatistics().getReorderedCount(), is(16L));
+    assertThat(tracker.getStatistics().getResetCount(), is(1L));
+  }
+}
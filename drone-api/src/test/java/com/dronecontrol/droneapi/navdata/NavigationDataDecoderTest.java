@@ -0,0 +1,126 @@
+package com.dronecontrol.droneapi.navdata;
+
+import com.dronecontrol.droneapi.data.NavData;
+import com.dronecontrol.droneapi.data.options.AltitudeOption;
+import com.dronecontrol.droneapi.data.options.WifiOption;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class NavigationDataDecoderTest
+{
+  private static final int FLYING_AND_CONTROL_RECEIVED = 0x41;
+
+  @Test
+  public void testValuesAreReadFromBuffer()
+  {
+    NavigationDataDecoder decoder = new NavigationDataDecoder();
+
+    NavData navData = decoder.getNavDataFrom(getPacket(7, 1500));
+
+    assertThat(navData.isOnlyHeaderPresent(), is(false));
+    assertThat(navData.getSequenceNumber(), is(7));
+    assertThat(navData.getState().isFlying(), is(true));
+    assertThat(navData.getState().isControlReceived(), is(true));
+    assertThat(navData.getState().isEmergency(), is(false));
+    assertThat(navData.getBatteryLevel(), is(80));
+    assertThat(navData.getAltitude(), is(1.5f));
+  }
+
+  @Test
+  public void testSnapshotStaysValidWhenViewIsReused()
+  {
+    NavigationDataDecoder decoder = new NavigationDataDecoder();
+
+    NavData snapshot = decoder.getNavDataFrom(getPacket(1, 1000)).snapshot();
+    NavData navData = decoder.getNavDataFrom(getPacket(2, 2000));
+
+    assertThat(snapshot.getSequenceNumber(), is(1));
+    assertThat(snapshot.getAltitude(), is(1.0f));
+    assertThat(snapshot.getState().isFlying(), is(true));
+    assertThat(navData.getAltitude(), is(2.0f));
+  }
+
+  @Test
+  public void testOptionsAreIndexedAndReadOnRequest()
+  {
+    NavigationDataDecoder decoder = new NavigationDataDecoder();
+
+    NavData navData = decoder.getNavDataFrom(getPacket(3, 1200, true));
+
+    assertThat(navData.isOptionPresent(AltitudeOption.TAG), is(true));
+    assertThat(navData.getAltitudeOption().getVisionAltitude(), is(1234));
+    assertThat(navData.getAltitudeOption().getAltitudeSpeed(), is(0.5f));
+    assertThat(navData.getWifiOption().getLinkQuality(), is(42L));
+    assertThat(navData.getMagnetoOption(), is(nullValue()));
+    assertThat(navData.getAltitude(), is(1.2f));
+  }
+
+  @Test
+  public void testSnapshotKeepsOptions()
+  {
+    NavigationDataDecoder decoder = new NavigationDataDecoder();
+
+    NavData snapshot = decoder.getNavDataFrom(getPacket(1, 1000, true)).snapshot();
+    NavData navData = decoder.getNavDataFrom(getPacket(2, 2000));
+
+    assertThat(snapshot.getAltitudeOption().getVisionAltitude(), is(1234));
+    assertThat(navData.getAltitudeOption(), is(nullValue()));
+  }
+
+  private ByteBuffer getPacket(int sequenceNumber, int altitudeMillimeters)
+  {
+    return getPacket(sequenceNumber, altitudeMillimeters, false);
+  }
+
+  private ByteBuffer getPacket(int sequenceNumber, int altitudeMillimeters, boolean withOptions)
+  {
+    ByteBuffer buffer = ByteBuffer.allocate(16 + 40 + 56 + 8 + 8).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(0x55667788);
+    buffer.putInt(FLYING_AND_CONTROL_RECEIVED);
+    buffer.putInt(sequenceNumber);
+    buffer.putInt(0);
+
+    buffer.putShort((short) 0x0000);
+    buffer.putShort((short) 40);
+    buffer.putInt(0);
+    buffer.putInt(80);
+    buffer.putFloat(0);
+    buffer.putFloat(0);
+    buffer.putFloat(0);
+    buffer.putInt(altitudeMillimeters);
+    buffer.putFloat(0);
+    buffer.putFloat(0);
+    buffer.putFloat(0);
+
+    if (withOptions)
+    {
+      buffer.putShort((short) AltitudeOption.TAG);
+      buffer.putShort((short) 56);
+      buffer.putInt(1234);
+      buffer.putFloat(0.5f);
+      buffer.position(buffer.position() + 44);
+
+      buffer.putShort((short) WifiOption.TAG);
+      buffer.putShort((short) 8);
+      buffer.putInt(42);
+    }
+
+    int checksum = 0;
+    for (int index = 0; index < buffer.position(); index++)
+    {
+      checksum += buffer.get(index) & 0xFF;
+    }
+    buffer.putShort((short) 0xFFFF);
+    buffer.putShort((short) 8);
+    buffer.putInt(checksum);
+
+    buffer.flip();
+    return buffer;
+  }
+}
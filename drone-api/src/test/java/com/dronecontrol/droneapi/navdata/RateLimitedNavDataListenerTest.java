@@ -0,0 +1,118 @@
+package com.dronecontrol.droneapi.navdata;
+
+import com.dronecontrol.droneapi.data.MutableNavData;
+import com.dronecontrol.droneapi.data.NavData;
+import com.dronecontrol.droneapi.data.NavDataState;
+import com.dronecontrol.droneapi.data.enums.NavDataAggregation;
+import com.dronecontrol.droneapi.listeners.NavDataListener;
+import com.google.common.base.Ticker;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class RateLimitedNavDataListenerTest
+{
+  private static final float VERY_LOW_RATE_HZ = 0.001f;
+
+  private static final float RATE_HZ = 10;
+
+  private static final long INTERVAL_NANOS = 100000000;
+
+  private long nanos = 0;
+
+  private final Ticker ticker = new Ticker()
+  {
+    @Override
+    public long read()
+    {
+      return nanos;
+    }
+  };
+
+  private final List<NavData> received = new ArrayList<>();
+
+  private final NavDataListener navDataListener = new NavDataListener()
+  {
+    @Override
+    public void onNavData(NavData navData)
+    {
+      received.add(navData);
+    }
+  };
+
+  @Test
+  public void testNavDataIsSkippedWithinInterval()
+  {
+    RateLimitedNavDataListener listener = new RateLimitedNavDataListener(navDataListener, VERY_LOW_RATE_HZ, NavDataAggregation.LATEST);
+
+    listener.onNavData(getNavData(1, 1.0f));
+    listener.onNavData(getNavData(2, 2.0f));
+    listener.onNavData(getNavData(3, 3.0f));
+
+    assertThat(received.size(), is(1));
+    assertThat(received.get(0).getSequenceNumber(), is(1));
+  }
+
+  @Test
+  public void testMaximumIsDeliveredWhenAggregating()
+  {
+    feedTwoIntervals(new RateLimitedNavDataListener(navDataListener, RATE_HZ, NavDataAggregation.MAX, ticker));
+
+    assertThat(received.size(), is(2));
+    assertThat(received.get(1).getAltitude(), is(5.0f));
+    assertThat(received.get(1).getSequenceNumber(), is(5));
+  }
+
+  @Test
+  public void testMinimumIsDeliveredWhenAggregating()
+  {
+    feedTwoIntervals(new RateLimitedNavDataListener(navDataListener, RATE_HZ, NavDataAggregation.MIN, ticker));
+
+    assertThat(received.size(), is(2));
+    assertThat(received.get(1).getAltitude(), is(2.0f));
+    assertThat(received.get(1).getSequenceNumber(), is(5));
+  }
+
+  @Test
+  public void testMeanIsDeliveredWhenAggregating()
+  {
+    feedTwoIntervals(new RateLimitedNavDataListener(navDataListener, RATE_HZ, NavDataAggregation.MEAN, ticker));
+
+    assertThat(received.size(), is(2));
+    assertThat(received.get(1).getAltitude(), is(3.5f));
+    assertThat(received.get(1).getSequenceNumber(), is(5));
+  }
+
+  // The first packet is delivered right away, the next four are aggregated and delivered with the last one
+  private void feedTwoIntervals(RateLimitedNavDataListener listener)
+  {
+    listener.onNavData(getNavData(1, 10.0f));
+    assertThat(received.size(), is(1));
+    assertThat(received.get(0).getAltitude(), is(10.0f));
+
+    nanos += INTERVAL_NANOS / 4;
+    listener.onNavData(getNavData(2, 2.0f));
+    nanos += INTERVAL_NANOS / 4;
+    listener.onNavData(getNavData(3, 5.0f));
+    nanos += INTERVAL_NANOS / 4;
+    listener.onNavData(getNavData(4, 3.0f));
+    assertThat(received.size(), is(1));
+
+    nanos += INTERVAL_NANOS / 4;
+    listener.onNavData(getNavData(5, 4.0f));
+  }
+
+  private NavData getNavData(int sequenceNumber, float altitude)
+  {
+    MutableNavData navData = new MutableNavData();
+    navData.setState(new NavDataState());
+    navData.setOnlyHeaderPresent(false);
+    navData.setSequenceNumber(sequenceNumber);
+    navData.setAltitude(altitude);
+    return navData;
+  }
+}
@@ -0,0 +1,63 @@
+package com.dronecontrol.droneapi.recording;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class RecordingWriterTest
+{
+  private File directory;
+
+  @Before
+  public void setUp() throws IOException
+  {
+    directory = File.createTempFile("recording", "");
+    directory.delete();
+  }
+
+  @After
+  public void tearDown()
+  {
+    File[] files = directory.listFiles();
+    if (files != null)
+    {
+      for (File file : files)
+      {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void testRecordsAreReadAcrossSegments()
+  {
+    RecordingWriter writer = new RecordingWriter(directory, "test", 100);
+    for (int index = 0; index < 10; index++)
+    {
+      ByteBuffer data = ByteBuffer.wrap(new byte[]{(byte) index, 1, 2, 3, 4, 5, 6, 7});
+      writer.append(RecordType.NAV_DATA, index * 1000L, data);
+      assertThat(data.position(), is(0));
+    }
+    writer.close();
+
+    RecordingReader reader = new RecordingReader(directory, "test");
+    for (int index = 0; index < 10; index++)
+    {
+      assertThat(reader.next(), is(true));
+      assertThat(reader.getType(), is(RecordType.NAV_DATA));
+      assertThat(reader.getTimestampNanos(), is(index * 1000L));
+      assertThat(reader.getData().remaining(), is(8));
+      assertThat(reader.getData().get(0), is((byte) index));
+    }
+    assertThat(reader.next(), is(false));
+    assertThat(RecordingWriter.getSegmentFile(directory, "test", 4).exists(), is(true));
+  }
+}
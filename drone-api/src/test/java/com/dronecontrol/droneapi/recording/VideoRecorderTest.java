@@ -0,0 +1,157 @@
+package com.dronecontrol.droneapi.recording;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class VideoRecorderTest
+{
+  private static final int HEADER_SIZE = 64;
+
+  private File directory;
+
+  @Before
+  public void setUp() throws IOException
+  {
+    directory = File.createTempFile("video", "");
+    directory.delete();
+  }
+
+  @After
+  public void tearDown()
+  {
+    File[] files = directory.listFiles();
+    if (files != null)
+    {
+      for (File file : files)
+      {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void testFramesAreIndexedAcrossReads() throws IOException
+  {
+    byte[] stream = getStream();
+    VideoRecorder videoRecorder = new VideoRecorder(directory);
+    // Garbage before the first frame and reads which split the headers
+    videoRecorder.recordH264(new byte[]{1, 2, 3}, 0, 3);
+    videoRecorder.recordH264(stream, 0, 10);
+    videoRecorder.recordH264(stream, 10, 100);
+    videoRecorder.recordH264(stream, 110, stream.length - 110);
+    videoRecorder.close();
+
+    RecordingReader indexReader = new RecordingReader(directory, VideoRecorder.VIDEO_INDEX_STREAM);
+    assertThat(indexReader.next(), is(true));
+    assertThat(indexReader.getData().getLong(0), is(3L));
+    assertThat(indexReader.getData().getInt(8), is(7));
+    assertThat(indexReader.getData().get(12), is((byte) 1));
+    assertThat(indexReader.next(), is(true));
+    assertThat(indexReader.getData().getInt(8), is(8));
+    assertThat(indexReader.getData().get(12), is((byte) 0));
+    assertThat(indexReader.next(), is(true));
+    long lastFrameOffset = indexReader.getData().getLong(0);
+    assertThat(lastFrameOffset, is(3L + 2 * (HEADER_SIZE + 20)));
+    assertThat(indexReader.getData().getInt(8), is(9));
+    assertThat(indexReader.getData().get(12), is((byte) 1));
+    assertThat(indexReader.next(), is(false));
+
+    RecordingReader reader = new RecordingReader(directory, VideoRecorder.VIDEO_STREAM);
+    InputStream inputStream = new RecordedVideoSource(reader, lastFrameOffset, TrafficReplayer.MAX_SPEED).getInputStream();
+    byte[] signature = new byte[4];
+    assertThat(inputStream.read(signature, 0, 4), is(4));
+    assertThat(new String(signature, "US-ASCII"), is("PaVE"));
+  }
+
+  @Test
+  public void testGarbageWithoutSignatureIsNotTakenForAHeader() throws IOException
+  {
+    // Starts like a header with an invalid size, shifted by one byte the size would be valid
+    byte[] garbage = new byte[40];
+    garbage[0] = 'P';
+    garbage[1] = 'a';
+    garbage[2] = 'V';
+    garbage[3] = 'E';
+    garbage[7] = HEADER_SIZE;
+    for (int index = 9; index < garbage.length; index++)
+    {
+      garbage[index] = (byte) index;
+    }
+
+    byte[] stream = getStream();
+    VideoRecorder videoRecorder = new VideoRecorder(directory);
+    videoRecorder.recordH264(garbage, 0, garbage.length);
+    videoRecorder.recordH264(stream, 0, stream.length);
+    videoRecorder.close();
+
+    RecordingReader indexReader = new RecordingReader(directory, VideoRecorder.VIDEO_INDEX_STREAM);
+    for (int frame = 0; frame < 3; frame++)
+    {
+      assertThat(indexReader.next(), is(true));
+      assertThat(indexReader.getData().getLong(0), is((long) garbage.length + frame * (HEADER_SIZE + 20)));
+      assertThat(indexReader.getData().getInt(8), is(7 + frame));
+    }
+    assertThat(indexReader.next(), is(false));
+  }
+
+  @Test
+  public void testOffsetsContinueWhenTheDirectoryIsReopened() throws IOException
+  {
+    byte[] stream = getStream();
+    for (int recording = 0; recording < 3; recording++)
+    {
+      VideoRecorder videoRecorder = new VideoRecorder(directory);
+      videoRecorder.recordH264(stream, 0, stream.length);
+      videoRecorder.close();
+    }
+
+    RecordingReader indexReader = new RecordingReader(directory, VideoRecorder.VIDEO_INDEX_STREAM);
+    long lastFrameOffset = 0;
+    for (int frame = 0; frame < 9; frame++)
+    {
+      assertThat(indexReader.next(), is(true));
+      lastFrameOffset = indexReader.getData().getLong(0);
+      assertThat(lastFrameOffset, is((long) frame * (HEADER_SIZE + 20)));
+    }
+    assertThat(indexReader.next(), is(false));
+
+    RecordingReader reader = new RecordingReader(directory, VideoRecorder.VIDEO_STREAM);
+    InputStream inputStream = new RecordedVideoSource(reader, lastFrameOffset, TrafficReplayer.MAX_SPEED).getInputStream();
+    byte[] header = new byte[HEADER_SIZE];
+    assertThat(inputStream.read(header, 0, HEADER_SIZE), is(HEADER_SIZE));
+    ByteBuffer headerBuffer = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+    assertThat(headerBuffer.getInt(0), is(0x45566150));
+    assertThat(headerBuffer.getInt(20), is(9));
+  }
+
+  private byte[] getStream()
+  {
+    ByteBuffer stream = ByteBuffer.allocate(3 * (HEADER_SIZE + 20)).order(ByteOrder.LITTLE_ENDIAN);
+    putFrame(stream, 7, 1);
+    putFrame(stream, 8, 3);
+    putFrame(stream, 9, 2);
+    return stream.array();
+  }
+
+  private void putFrame(ByteBuffer stream, int frameNumber, int frameType)
+  {
+    int start = stream.position();
+    stream.put(new byte[]{'P', 'a', 'V', 'E'});
+    stream.putShort(6 + start, (short) HEADER_SIZE);
+    stream.putInt(8 + start, 20);
+    stream.putInt(20 + start, frameNumber);
+    stream.put(30 + start, (byte) frameType);
+    stream.position(start + HEADER_SIZE + 20);
+  }
+}
@@ -0,0 +1,120 @@
+package com.dronecontrol.dronesimulator;
+
+import com.dronecontrol.droneapi.components.AddressComponent;
+import com.dronecontrol.dronesimulator.data.SimulatorConfig;
+import com.dronecontrol.dronesimulator.data.SimulatorStatistics;
+import com.dronecontrol.dronesimulator.servers.CommandServer;
+import com.dronecontrol.dronesimulator.servers.ConfigDataServer;
+import com.dronecontrol.dronesimulator.servers.FtpServer;
+import com.dronecontrol.dronesimulator.servers.H264VideoServer;
+import com.dronecontrol.dronesimulator.servers.NavDataServer;
+import com.dronecontrol.dronesimulator.servers.P264VideoServer;
+import com.dronecontrol.dronesimulator.servers.ServerAbstract;
+import com.google.common.collect.Lists;
+import org.apache.log4j.Logger;
+
+import java.net.InetAddress;
+import java.util.List;
+
+// Stands in for a drone on the local machine, every instance has its own state, so several instances can run in one JVM
+// as long as each one gets its own address or ports
+public class DroneSimulator
+{
+  private final Logger logger = Logger.getLogger(DroneSimulator.class);
+
+  private final SimulatorConfig config;
+
+  private final SimulatedDrone drone;
+
+  private final SimulatorStatistics statistics;
+
+  private final List<ServerAbstract> servers;
+
+  private boolean started;
+
+  public DroneSimulator(SimulatorConfig config)
+  {
+    this.config = config;
+
+    drone = new SimulatedDrone(config.getFirmwareVersion(), config.getBatteryLevel());
+    statistics = new SimulatorStatistics();
+    servers = createServers(new AddressComponent().getInetAddress(config.getIpAddress()));
+  }
+
+  private List<ServerAbstract> createServers(InetAddress address)
+  {
+    ConfigDataServer configDataServer = new ConfigDataServer(address, config.getConfigDataPort(), drone, statistics);
+
+    List<ServerAbstract> servers = Lists.newArrayList();
+    servers.add(new FtpServer(address, config.getFtpPort(), config.getFirmwareVersion()));
+    servers.add(configDataServer);
+    servers.add(new CommandServer(address, config.getCommandPort(), drone, configDataServer, statistics));
+    servers.add(new NavDataServer(address, config.getNavDataPort(), config.getNavDataRate(), drone, statistics));
+    // The AR.Drone 1 streams P264 over UDP and the AR.Drone 2 H264 over TCP, both are offered on the video port
+    servers.add(new P264VideoServer(address, config.getVideoDataPort(), config.getVideoFrameRate(), statistics));
+    servers.add(new H264VideoServer(address, config.getVideoDataPort(), config.getVideoFrameRate(), statistics));
+    return servers;
+  }
+
+  public synchronized void start()
+  {
+    if (started)
+    {
+      return;
+    }
+
+    logger.info(String.format("Starting drone simulator on %s", config.getIpAddress()));
+    try
+    {
+      for (ServerAbstract server : servers)
+      {
+        server.start();
+      }
+    } catch (RuntimeException e)
+    {
+      stopServers();
+      throw e;
+    }
+    started = true;
+  }
+
+  public synchronized void stop()
+  {
+    if (!started)
+    {
+      return;
+    }
+
+    logger.info(String.format("Stopping drone simulator on %s", config.getIpAddress()));
+    stopServers();
+    started = false;
+  }
+
+  private void stopServers()
+  {
+    for (ServerAbstract server : Lists.reverse(servers))
+    {
+      server.stop();
+    }
+  }
+
+  public synchronized boolean isStarted()
+  {
+    return started;
+  }
+
+  public SimulatorConfig getConfig()
+  {
+    return config;
+  }
+
+  public SimulatedDrone getDrone()
+  {
+    return drone;
+  }
+
+  public SimulatorStatistics getStatistics()
+  {
+    return statistics;
+  }
+}
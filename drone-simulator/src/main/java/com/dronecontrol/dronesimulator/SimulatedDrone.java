@@ -0,0 +1,315 @@
+package com.dronecontrol.dronesimulator;
+
+import com.dronecontrol.droneapi.data.DroneConfiguration;
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// State and a very simple flight model of the simulated drone, shared by the servers of one simulator
+public class SimulatedDrone
+{
+  private static final int FLYING_FLAG = 0;
+
+  private static final int CONTROL_RECEIVED_FLAG = 6;
+
+  private static final int TRIM_RECEIVED_FLAG = 7;
+
+  private static final int TRIM_SUCCEEDED_FLAG = 9;
+
+  private static final int NAV_DATA_DEMO_ONLY_FLAG = 10;
+
+  private static final int NAV_DATA_BOOTSTRAP_FLAG = 11;
+
+  private static final int AT_CODED_THREAD_ON_FLAG = 24;
+
+  private static final int NAV_DATA_THREAD_ON_FLAG = 25;
+
+  private static final int VIDEO_THREAD_ON_FLAG = 26;
+
+  private static final int EMERGENCY_FLAG = 31;
+
+  private static final int EMERGENCY_BIT = 8;
+
+  private static final int TAKE_OFF_BIT = 9;
+
+  // Major control states of the demo option
+  private static final int LANDED_STATE = 2 << 16;
+
+  private static final int FLYING_STATE = 3 << 16;
+
+  private static final int TAKE_OFF_STATE = 6 << 16;
+
+  private static final int LANDING_STATE = 8 << 16;
+
+  private static final int TAKE_OFF_ALTITUDE = 1000;
+
+  private static final float VERTICAL_SPEED = 1000.0f;
+
+  private static final float MAX_HORIZONTAL_SPEED = 5000.0f;
+
+  private static final float MAX_YAW_SPEED = 100000.0f;
+
+  private static final float MAX_EULER_ANGLE = 12000.0f;
+
+  private final Map<String, String> configValues;
+
+  private boolean navDataDemo;
+
+  private boolean controlReceived;
+
+  private boolean trimReceived;
+
+  private boolean emergencyBitSet;
+
+  private boolean emergency;
+
+  private boolean takeOffRequested;
+
+  private boolean flying;
+
+  private int batteryLevel;
+
+  // Angles in millidegrees, altitude in millimeters and speeds in millimeters per second like in the demo option
+  private float pitch;
+
+  private float roll;
+
+  private float yaw;
+
+  private float altitude;
+
+  private float speedX;
+
+  private float speedY;
+
+  private float speedZ;
+
+  private float requestedRoll;
+
+  private float requestedPitch;
+
+  private float requestedGaz;
+
+  private float requestedYaw;
+
+  public SimulatedDrone(String firmwareVersion, int batteryLevel)
+  {
+    this.batteryLevel = batteryLevel;
+
+    configValues = Maps.newTreeMap();
+    configValues.put(DroneConfiguration.FIRMWARE_VERSION_KEY, firmwareVersion);
+    configValues.put(DroneConfiguration.ENABLE_NAV_DATA_KEY, "FALSE");
+    configValues.put(DroneConfiguration.VIDEO_CODEC_KEY, "0");
+    configValues.put(DroneConfiguration.VIDEO_CHANNEL_KEY, "0");
+    configValues.put(DroneConfiguration.SESSION_ID_KEY, "00000000");
+    configValues.put(DroneConfiguration.PROFILE_ID_KEY, "00000000");
+    configValues.put(DroneConfiguration.APPLICATION_ID_KEY, "00000000");
+  }
+
+  public synchronized void setConfigValue(String key, String value)
+  {
+    configValues.put(key, value);
+    controlReceived = true;
+
+    if (DroneConfiguration.ENABLE_NAV_DATA_KEY.equals(key))
+    {
+      navDataDemo = "TRUE".equalsIgnoreCase(value);
+    }
+  }
+
+  public synchronized String getConfigValue(String key)
+  {
+    return configValues.get(key);
+  }
+
+  public synchronized void resetControlReceived()
+  {
+    controlReceived = false;
+  }
+
+  // The drone toggles the emergency state on a rising edge of the emergency bit only
+  public synchronized void setReference(int referenceBits)
+  {
+    boolean emergencyBit = (referenceBits & (1 << EMERGENCY_BIT)) != 0;
+    if (emergencyBit && !emergencyBitSet)
+    {
+      emergency = !emergency;
+      if (emergency)
+      {
+        flying = false;
+        takeOffRequested = false;
+        altitude = 0;
+        speedZ = 0;
+      }
+    }
+    emergencyBitSet = emergencyBit;
+
+    takeOffRequested = !emergency && (referenceBits & (1 << TAKE_OFF_BIT)) != 0;
+    if (takeOffRequested)
+    {
+      flying = true;
+    }
+  }
+
+  public synchronized void setMove(boolean progressive, float roll, float pitch, float gaz, float yaw)
+  {
+    requestedRoll = progressive ? roll : 0;
+    requestedPitch = progressive ? pitch : 0;
+    requestedGaz = gaz;
+    requestedYaw = yaw;
+  }
+
+  public synchronized void flatTrim()
+  {
+    if (!flying)
+    {
+      trimReceived = true;
+    }
+  }
+
+  public synchronized void advance(long elapsedNanos)
+  {
+    float seconds = (float) elapsedNanos / TimeUnit.SECONDS.toNanos(1);
+
+    if (!flying)
+    {
+      pitch = roll = 0;
+      speedX = speedY = speedZ = 0;
+      return;
+    }
+
+    if (!takeOffRequested)
+    {
+      speedZ = -VERTICAL_SPEED;
+    } else if (altitude < TAKE_OFF_ALTITUDE && requestedGaz == 0)
+    {
+      speedZ = VERTICAL_SPEED;
+    } else
+    {
+      speedZ = requestedGaz * VERTICAL_SPEED;
+    }
+    altitude = Math.max(0, altitude + speedZ * seconds);
+    if (!takeOffRequested && altitude == 0)
+    {
+      flying = false;
+    }
+
+    pitch = requestedPitch * MAX_EULER_ANGLE;
+    roll = requestedRoll * MAX_EULER_ANGLE;
+    yaw = normalizeAngle(yaw + requestedYaw * MAX_YAW_SPEED * seconds);
+    speedX = -requestedPitch * MAX_HORIZONTAL_SPEED;
+    speedY = requestedRoll * MAX_HORIZONTAL_SPEED;
+  }
+
+  private float normalizeAngle(float angle)
+  {
+    if (angle > 180000)
+    {
+      return angle - 360000;
+    }
+    return angle < -180000 ? angle + 360000 : angle;
+  }
+
+  public synchronized int getStateFlags()
+  {
+    int stateFlags = (1 << AT_CODED_THREAD_ON_FLAG) | (1 << NAV_DATA_THREAD_ON_FLAG) | (1 << VIDEO_THREAD_ON_FLAG);
+    stateFlags |= getFlag(FLYING_FLAG, flying);
+    stateFlags |= getFlag(CONTROL_RECEIVED_FLAG, controlReceived);
+    stateFlags |= getFlag(TRIM_RECEIVED_FLAG, trimReceived);
+    stateFlags |= getFlag(TRIM_SUCCEEDED_FLAG, trimReceived);
+    stateFlags |= getFlag(NAV_DATA_DEMO_ONLY_FLAG, navDataDemo);
+    stateFlags |= getFlag(NAV_DATA_BOOTSTRAP_FLAG, !navDataDemo);
+    stateFlags |= getFlag(EMERGENCY_FLAG, emergency);
+    return stateFlags;
+  }
+
+  private int getFlag(int index, boolean value)
+  {
+    return value ? 1 << index : 0;
+  }
+
+  public synchronized int getControlState()
+  {
+    if (!flying)
+    {
+      return LANDED_STATE;
+    } else if (!takeOffRequested)
+    {
+      return LANDING_STATE;
+    }
+    return altitude < TAKE_OFF_ALTITUDE && speedZ > 0 ? TAKE_OFF_STATE : FLYING_STATE;
+  }
+
+  // Until the demo nav data is enabled, the drone only sends the header in bootstrap mode
+  public synchronized boolean isNavDataDemo()
+  {
+    return navDataDemo;
+  }
+
+  public synchronized boolean isFlying()
+  {
+    return flying;
+  }
+
+  public synchronized boolean isEmergency()
+  {
+    return emergency;
+  }
+
+  public synchronized int getBatteryLevel()
+  {
+    return batteryLevel;
+  }
+
+  public synchronized void setBatteryLevel(int batteryLevel)
+  {
+    this.batteryLevel = batteryLevel;
+  }
+
+  public synchronized float getPitch()
+  {
+    return pitch;
+  }
+
+  public synchronized float getRoll()
+  {
+    return roll;
+  }
+
+  public synchronized float getYaw()
+  {
+    return yaw;
+  }
+
+  public synchronized int getAltitude()
+  {
+    return (int) altitude;
+  }
+
+  public synchronized float getSpeedX()
+  {
+    return speedX;
+  }
+
+  public synchronized float getSpeedY()
+  {
+    return speedY;
+  }
+
+  public synchronized float getSpeedZ()
+  {
+    return speedZ;
+  }
+
+  // Lines of "key = value" like the config dump of the drone, without the terminating zero byte
+  public synchronized String getConfigDump()
+  {
+    StringBuilder dump = new StringBuilder();
+    for (Map.Entry<String, String> entry : configValues.entrySet())
+    {
+      dump.append(entry.getKey()).append(" = ").append(entry.getValue()).append('\n');
+    }
+    return dump.toString();
+  }
+}
@@ -0,0 +1,105 @@
+package com.dronecontrol.dronesimulator.commands;
+
+import com.google.common.collect.Lists;
+
+import java.util.Collection;
+import java.util.List;
+
+// Splits a command packet into its commands, which are terminated by a carriage return each
+public class ATCommandParser
+{
+  private static final String PREFIX = "AT*";
+
+  private static final char TERMINATOR = '\r';
+
+  private static final char SEPARATOR = ',';
+
+  private static final char QUOTE = '"';
+
+  // Adds the commands of the packet to the collection, returns the number of malformed commands which were skipped
+  public int parse(String packet, Collection<ReceivedCommand> commands)
+  {
+    int malformedCount = 0;
+
+    int start = 0;
+    while (start < packet.length())
+    {
+      int end = packet.indexOf(TERMINATOR, start);
+      if (end < 0)
+      {
+        end = packet.length();
+      }
+
+      String commandText = packet.substring(start, end).trim();
+      if (!commandText.isEmpty())
+      {
+        ReceivedCommand command = parseCommand(commandText);
+        if (command == null)
+        {
+          malformedCount++;
+        } else
+        {
+          commands.add(command);
+        }
+      }
+      start = end + 1;
+    }
+
+    return malformedCount;
+  }
+
+  private ReceivedCommand parseCommand(String commandText)
+  {
+    int equalsIndex = commandText.indexOf('=');
+    if (!commandText.startsWith(PREFIX) || equalsIndex < 0)
+    {
+      return null;
+    }
+
+    List<String> arguments = splitArguments(commandText.substring(equalsIndex + 1));
+    if (arguments == null || arguments.isEmpty())
+    {
+      return null;
+    }
+
+    try
+    {
+      int sequenceNumber = Integer.parseInt(arguments.get(0));
+      return new ReceivedCommand(commandText.substring(PREFIX.length(), equalsIndex), sequenceNumber, arguments.subList(1, arguments.size()));
+    } catch (NumberFormatException e)
+    {
+      return null;
+    }
+  }
+
+  // Quoted arguments may contain the separator, e.g. the values of an animation
+  private List<String> splitArguments(String argumentsText)
+  {
+    List<String> arguments = Lists.newArrayList();
+    StringBuilder argument = new StringBuilder();
+    boolean quoted = false;
+
+    for (int index = 0; index < argumentsText.length(); index++)
+    {
+      char value = argumentsText.charAt(index);
+      if (value == QUOTE)
+      {
+        quoted = !quoted;
+      } else if (value == SEPARATOR && !quoted)
+      {
+        arguments.add(argument.toString());
+        argument.setLength(0);
+      } else
+      {
+        argument.append(value);
+      }
+    }
+
+    if (quoted)
+    {
+      return null;
+    }
+    arguments.add(argument.toString());
+    return arguments;
+  }
+}
@@ -0,0 +1,49 @@
+package com.dronecontrol.dronesimulator.commands;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+public class ReceivedCommand
+{
+  private final String name;
+
+  private final int sequenceNumber;
+
+  private final List<String> arguments;
+
+  public ReceivedCommand(String name, int sequenceNumber, List<String> arguments)
+  {
+    this.name = name;
+    this.sequenceNumber = sequenceNumber;
+    this.arguments = ImmutableList.copyOf(arguments);
+  }
+
+  // The name without the "AT*" prefix, e.g. "PCMD"
+  public String getName()
+  {
+    return name;
+  }
+
+  public int getSequenceNumber()
+  {
+    return sequenceNumber;
+  }
+
+  // The arguments behind the sequence number, quoted strings without the quotes
+  public List<String> getArguments()
+  {
+    return arguments;
+  }
+
+  public int getIntArgument(int index)
+  {
+    return Integer.parseInt(arguments.get(index));
+  }
+
+  // Float arguments are sent as the int value of their bits
+  public float getFloatArgument(int index)
+  {
+    return Float.intBitsToFloat(getIntArgument(index));
+  }
+}
@@ -0,0 +1,150 @@
+package com.dronecontrol.dronesimulator.data;
+
+import com.dronecontrol.droneapi.data.Config;
+
+public final class SimulatorConfig
+{
+  // The version of the AR.Drone 1, its P264 video is decoded without native libraries
+  public static final String DEFAULT_FIRMWARE_VERSION = "1.11.5";
+
+  // Rate of the drone in demo mode, the full nav data is sent with 200 Hz
+  public static final int DEFAULT_NAV_DATA_RATE = 15;
+
+  public static final int DEFAULT_VIDEO_FRAME_RATE = 15;
+
+  // The client config of the simulator uses free local UDP ports, so the ports do not collide on the same address
+  private String ipAddress = "127.0.0.1";
+
+  private int ftpPort = 5551;
+
+  private int navDataPort = 5554;
+
+  private int videoDataPort = 5555;
+
+  private int commandPort = 5556;
+
+  private int configDataPort = 5559;
+
+  private String firmwareVersion = DEFAULT_FIRMWARE_VERSION;
+
+  private int navDataRate = DEFAULT_NAV_DATA_RATE;
+
+  private int videoFrameRate = DEFAULT_VIDEO_FRAME_RATE;
+
+  private int batteryLevel = 100;
+
+  public String getIpAddress()
+  {
+    return ipAddress;
+  }
+
+  public void setIpAddress(String ipAddress)
+  {
+    this.ipAddress = ipAddress;
+  }
+
+  public int getFtpPort()
+  {
+    return ftpPort;
+  }
+
+  public void setFtpPort(int ftpPort)
+  {
+    this.ftpPort = ftpPort;
+  }
+
+  public int getNavDataPort()
+  {
+    return navDataPort;
+  }
+
+  public void setNavDataPort(int navDataPort)
+  {
+    this.navDataPort = navDataPort;
+  }
+
+  public int getVideoDataPort()
+  {
+    return videoDataPort;
+  }
+
+  public void setVideoDataPort(int videoDataPort)
+  {
+    this.videoDataPort = videoDataPort;
+  }
+
+  public int getCommandPort()
+  {
+    return commandPort;
+  }
+
+  public void setCommandPort(int commandPort)
+  {
+    this.commandPort = commandPort;
+  }
+
+  public int getConfigDataPort()
+  {
+    return configDataPort;
+  }
+
+  public void setConfigDataPort(int configDataPort)
+  {
+    this.configDataPort = configDataPort;
+  }
+
+  // Also written into the version file, a major version of 2 makes the client use the H264 video
+  public String getFirmwareVersion()
+  {
+    return firmwareVersion;
+  }
+
+  public void setFirmwareVersion(String firmwareVersion)
+  {
+    this.firmwareVersion = firmwareVersion;
+  }
+
+  public int getNavDataRate()
+  {
+    return navDataRate;
+  }
+
+  public void setNavDataRate(int navDataRate)
+  {
+    this.navDataRate = navDataRate;
+  }
+
+  public int getVideoFrameRate()
+  {
+    return videoFrameRate;
+  }
+
+  public void setVideoFrameRate(int videoFrameRate)
+  {
+    this.videoFrameRate = videoFrameRate;
+  }
+
+  public int getBatteryLevel()
+  {
+    return batteryLevel;
+  }
+
+  public void setBatteryLevel(int batteryLevel)
+  {
+    this.batteryLevel = batteryLevel;
+  }
+
+  // Creates a client config which connects to this simulator instead of a real drone
+  public Config createClientConfig(String applicationName, String profileName)
+  {
+    Config config = new Config(applicationName, profileName);
+    config.setDroneIpAddress(ipAddress);
+    config.setFtpPort(ftpPort);
+    config.setNavDataPort(navDataPort);
+    config.setVideoDataPort(videoDataPort);
+    config.setCommandPort(commandPort);
+    config.setConfigDataPort(configDataPort);
+    config.setFixedLocalPortsEnabled(false);
+    return config;
+  }
+}
@@ -0,0 +1,102 @@
+package com.dronecontrol.dronesimulator.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SimulatorStatistics
+{
+  // Only the command server thread writes these values, so volatile is sufficient for readers
+  private volatile long commandPacketCount;
+
+  private volatile long commandCount;
+
+  private volatile long outdatedCommandCount;
+
+  private volatile long unknownCommandCount;
+
+  // Only the nav data server thread writes these values
+  private volatile long navDataPacketCount;
+
+  // Written by the threads of both video servers
+  private final AtomicLong videoFrameCount = new AtomicLong();
+
+  private final AtomicLong videoByteCount = new AtomicLong();
+
+  private final AtomicLong configDumpCount = new AtomicLong();
+
+  public void onCommandPacketReceived()
+  {
+    commandPacketCount++;
+  }
+
+  public void onCommandExecuted()
+  {
+    commandCount++;
+  }
+
+  public void onOutdatedCommand()
+  {
+    outdatedCommandCount++;
+  }
+
+  public void onUnknownCommand()
+  {
+    unknownCommandCount++;
+  }
+
+  public void onNavDataSent()
+  {
+    navDataPacketCount++;
+  }
+
+  public void onVideoFrameSent(int bytes)
+  {
+    videoFrameCount.incrementAndGet();
+    videoByteCount.addAndGet(bytes);
+  }
+
+  public void onConfigDumpSent()
+  {
+    configDumpCount.incrementAndGet();
+  }
+
+  public long getCommandPacketCount()
+  {
+    return commandPacketCount;
+  }
+
+  public long getCommandCount()
+  {
+    return commandCount;
+  }
+
+  // Commands with a sequence number lower than the last one are ignored by the drone
+  public long getOutdatedCommandCount()
+  {
+    return outdatedCommandCount;
+  }
+
+  public long getUnknownCommandCount()
+  {
+    return unknownCommandCount;
+  }
+
+  public long getNavDataPacketCount()
+  {
+    return navDataPacketCount;
+  }
+
+  public long getVideoFrameCount()
+  {
+    return videoFrameCount.get();
+  }
+
+  public long getVideoByteCount()
+  {
+    return videoByteCount.get();
+  }
+
+  public long getConfigDumpCount()
+  {
+    return configDumpCount.get();
+  }
+}
@@ -0,0 +1,35 @@
+package com.dronecontrol.dronesimulator.entry;
+
+import com.dronecontrol.dronesimulator.DroneSimulator;
+import com.dronecontrol.dronesimulator.data.SimulatorConfig;
+
+// Runs a simulator until the process is stopped, the optional arguments are the IP address and the firmware version.
+// Clients with fixed local ports, like the control applications, need an address of their own, e.g. 127.0.0.2 on Linux.
+public class Main
+{
+  public static void main(String[] args) throws InterruptedException
+  {
+    SimulatorConfig config = new SimulatorConfig();
+    if (args.length > 0)
+    {
+      config.setIpAddress(args[0]);
+    }
+    if (args.length > 1)
+    {
+      config.setFirmwareVersion(args[1]);
+    }
+
+    final DroneSimulator simulator = new DroneSimulator(config);
+    Runtime.getRuntime().addShutdownHook(new Thread()
+    {
+      @Override
+      public void run()
+      {
+        simulator.stop();
+      }
+    });
+
+    simulator.start();
+    Thread.currentThread().join();
+  }
+}
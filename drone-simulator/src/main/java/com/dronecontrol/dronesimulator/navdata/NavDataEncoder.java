@@ -0,0 +1,76 @@
+package com.dronecontrol.dronesimulator.navdata;
+
+import com.dronecontrol.dronesimulator.SimulatedDrone;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Writes nav data packets in the format of the drone: header, demo option and checksum option
+public class NavDataEncoder
+{
+  public static final int HEADER = 0x55667788;
+
+  public static final int MAX_PACKET_SIZE = 16 + 148 + 8;
+
+  private static final int DEMO_TAG = 0;
+
+  private static final int DEMO_SIZE = 148;
+
+  private static final int CHECKSUM_TAG = 0xFFFF;
+
+  private static final int CHECKSUM_SIZE = 8;
+
+  // Writes one packet from the start of the buffer and flips it
+  public void encode(SimulatedDrone drone, int sequenceNumber, ByteBuffer buffer)
+  {
+    buffer.clear();
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+    // One lock for all values, so the packet shows one consistent state of the drone
+    synchronized (drone)
+    {
+      buffer.putInt(HEADER);
+      buffer.putInt(drone.getStateFlags());
+      buffer.putInt(sequenceNumber);
+      buffer.putInt(0);
+
+      if (drone.isNavDataDemo())
+      {
+        putDemoOption(drone, buffer);
+      }
+    }
+
+    int checksum = 0;
+    for (int index = 0; index < buffer.position(); index++)
+    {
+      checksum += buffer.get(index) & 0xFF;
+    }
+    buffer.putShort((short) CHECKSUM_TAG);
+    buffer.putShort((short) CHECKSUM_SIZE);
+    buffer.putInt(checksum);
+
+    buffer.flip();
+  }
+
+  private void putDemoOption(SimulatedDrone drone, ByteBuffer buffer)
+  {
+    int start = buffer.position();
+    buffer.putShort((short) DEMO_TAG);
+    buffer.putShort((short) DEMO_SIZE);
+    buffer.putInt(drone.getControlState());
+    buffer.putInt(drone.getBatteryLevel());
+    buffer.putFloat(drone.getPitch());
+    buffer.putFloat(drone.getRoll());
+    buffer.putFloat(drone.getYaw());
+    buffer.putInt(drone.getAltitude());
+    buffer.putFloat(drone.getSpeedX());
+    buffer.putFloat(drone.getSpeedY());
+    buffer.putFloat(drone.getSpeedZ());
+
+    // The remaining values (frame index, detection and camera matrices) are not simulated
+    while (buffer.position() < start + DEMO_SIZE)
+    {
+      buffer.put((byte) 0);
+    }
+  }
+}
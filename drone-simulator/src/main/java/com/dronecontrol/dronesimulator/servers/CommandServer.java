@@ -0,0 +1,164 @@
+package com.dronecontrol.dronesimulator.servers;
+
+import com.dronecontrol.droneapi.data.enums.ControlDataMode;
+import com.dronecontrol.dronesimulator.SimulatedDrone;
+import com.dronecontrol.dronesimulator.commands.ATCommandParser;
+import com.dronecontrol.dronesimulator.commands.ReceivedCommand;
+import com.dronecontrol.dronesimulator.data.SimulatorStatistics;
+import com.google.common.collect.Lists;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Receives the AT commands and applies them to the simulated drone
+public class CommandServer extends ServerAbstract
+{
+  private static final int RECEIVING_BUFFER_SIZE = 4096;
+
+  private final Logger logger = Logger.getLogger(CommandServer.class);
+
+  private final InetAddress address;
+
+  private final int port;
+
+  private final SimulatedDrone drone;
+
+  private final ConfigDataServer configDataServer;
+
+  private final SimulatorStatistics statistics;
+
+  private final ATCommandParser commandParser;
+
+  private final List<ReceivedCommand> receivedCommands;
+
+  private DatagramSocket socket;
+
+  private int lastSequenceNumber;
+
+  public CommandServer(InetAddress address, int port, SimulatedDrone drone, ConfigDataServer configDataServer, SimulatorStatistics statistics)
+  {
+    super("simulator-commands");
+    this.address = address;
+    this.port = port;
+    this.drone = drone;
+    this.configDataServer = configDataServer;
+    this.statistics = statistics;
+
+    commandParser = new ATCommandParser();
+    receivedCommands = Lists.newArrayList();
+  }
+
+  @Override
+  protected void open() throws IOException
+  {
+    socket = new DatagramSocket(null);
+    socket.setReuseAddress(true);
+    socket.bind(new InetSocketAddress(address, port));
+  }
+
+  @Override
+  protected void close()
+  {
+    socket.close();
+  }
+
+  @Override
+  protected void doRun() throws IOException
+  {
+    DatagramPacket packet = new DatagramPacket(new byte[RECEIVING_BUFFER_SIZE], RECEIVING_BUFFER_SIZE);
+    while (!isStopped())
+    {
+      packet.setLength(RECEIVING_BUFFER_SIZE);
+      socket.receive(packet);
+      statistics.onCommandPacketReceived();
+
+      String packetText = new String(packet.getData(), 0, packet.getLength(), StandardCharsets.US_ASCII);
+      int malformedCount = commandParser.parse(packetText, receivedCommands);
+      for (int index = 0; index < malformedCount; index++)
+      {
+        statistics.onUnknownCommand();
+      }
+
+      for (ReceivedCommand command : receivedCommands)
+      {
+        processCommand(command);
+      }
+      receivedCommands.clear();
+    }
+  }
+
+  private void processCommand(ReceivedCommand command)
+  {
+    // A sequence number of 1 resets the counter, all other commands must have a higher number than the last one
+    if (command.getSequenceNumber() != 1 && command.getSequenceNumber() <= lastSequenceNumber)
+    {
+      statistics.onOutdatedCommand();
+      return;
+    }
+    lastSequenceNumber = command.getSequenceNumber();
+
+    try
+    {
+      if (executeCommand(command))
+      {
+        statistics.onCommandExecuted();
+      } else
+      {
+        statistics.onUnknownCommand();
+      }
+    } catch (RuntimeException e)
+    {
+      logger.warn(String.format("Invalid arguments for command %s: %s", command.getName(), command.getArguments()));
+      statistics.onUnknownCommand();
+    }
+  }
+
+  private boolean executeCommand(ReceivedCommand command)
+  {
+    switch (command.getName())
+    {
+      case "REF":
+        drone.setReference(command.getIntArgument(0));
+        return true;
+      case "PCMD":
+      case "PCMD_MAG":
+        drone.setMove((command.getIntArgument(0) & 1) != 0, command.getFloatArgument(1), command.getFloatArgument(2),
+                command.getFloatArgument(3), command.getFloatArgument(4));
+        return true;
+      case "FTRIM":
+        drone.flatTrim();
+        return true;
+      case "CONFIG":
+        drone.setConfigValue(command.getArguments().get(0), command.getArguments().get(1));
+        return true;
+      case "CTRL":
+        executeControlCommand(command.getIntArgument(0));
+        return true;
+      case "CONFIG_IDS":
+      case "COMWDG":
+      case "CALIB":
+      case "LED":
+      case "ANIM":
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private void executeControlCommand(int controlModeCode)
+  {
+    if (controlModeCode == ControlDataMode.RESET_ACK_FLAG.getControlModeCode())
+    {
+      drone.resetControlReceived();
+    } else if (controlModeCode == ControlDataMode.GET_CONFIGURATION_DATA.getControlModeCode())
+    {
+      configDataServer.sendConfigDump();
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.dronecontrol.dronesimulator.servers;
+
+import com.dronecontrol.dronesimulator.SimulatedDrone;
+import com.dronecontrol.dronesimulator.data.SimulatorStatistics;
+import org.apache.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Accepts the config data connections, the dump itself is requested by a control command on the command port
+public class ConfigDataServer extends ServerAbstract
+{
+  private static final byte END_OF_DUMP = 0x00;
+
+  private final Logger logger = Logger.getLogger(ConfigDataServer.class);
+
+  private final InetAddress address;
+
+  private final int port;
+
+  private final SimulatedDrone drone;
+
+  private final SimulatorStatistics statistics;
+
+  private final List<Socket> clients;
+
+  private ServerSocket serverSocket;
+
+  public ConfigDataServer(InetAddress address, int port, SimulatedDrone drone, SimulatorStatistics statistics)
+  {
+    super("simulator-config");
+    this.address = address;
+    this.port = port;
+    this.drone = drone;
+    this.statistics = statistics;
+
+    clients = new CopyOnWriteArrayList<>();
+  }
+
+  @Override
+  protected void open() throws IOException
+  {
+    serverSocket = new ServerSocket();
+    serverSocket.setReuseAddress(true);
+    serverSocket.bind(new InetSocketAddress(address, port));
+  }
+
+  @Override
+  protected void close()
+  {
+    closeQuietly(serverSocket);
+    for (Socket client : clients)
+    {
+      closeQuietly(client);
+    }
+    clients.clear();
+  }
+
+  @Override
+  protected void doRun() throws IOException
+  {
+    while (!isStopped())
+    {
+      Socket client = serverSocket.accept();
+      logger.info(String.format("Config data client connected from %s", client.getRemoteSocketAddress()));
+      clients.add(client);
+    }
+  }
+
+  // Called by the command server thread, writes the complete dump to every connected client
+  public void sendConfigDump()
+  {
+    byte[] dumpBytes = drone.getConfigDump().getBytes(StandardCharsets.US_ASCII);
+    for (Socket client : clients)
+    {
+      try
+      {
+        OutputStream outputStream = client.getOutputStream();
+        outputStream.write(dumpBytes);
+        outputStream.write(END_OF_DUMP);
+        outputStream.flush();
+        statistics.onConfigDumpSent();
+      } catch (IOException e)
+      {
+        logger.info("Config data client disconnected: " + e.getMessage());
+        closeQuietly(client);
+        clients.remove(client);
+      }
+    }
+  }
+
+  private void closeQuietly(Closeable closeable)
+  {
+    try
+    {
+      if (closeable != null)
+      {
+        closeable.close();
+      }
+    } catch (IOException e)
+    {
+      logger.debug("Error while closing socket: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,192 @@
+package com.dronecontrol.dronesimulator.servers;
+
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+// Serves the version file with the passive mode subset of FTP which the URL connection of the JDK uses
+public class FtpServer extends ServerAbstract
+{
+  private static final String VERSION_FILE_NAME = "version.txt";
+
+  private final Logger logger = Logger.getLogger(FtpServer.class);
+
+  private final InetAddress address;
+
+  private final int port;
+
+  private final byte[] versionFileBytes;
+
+  private ServerSocket serverSocket;
+
+  private volatile ServerSocket dataServerSocket;
+
+  public FtpServer(InetAddress address, int port, String firmwareVersion)
+  {
+    super("simulator-ftp");
+    this.address = address;
+    this.port = port;
+
+    versionFileBytes = (firmwareVersion + "\n").getBytes(StandardCharsets.US_ASCII);
+  }
+
+  @Override
+  protected void open() throws IOException
+  {
+    serverSocket = new ServerSocket();
+    serverSocket.setReuseAddress(true);
+    serverSocket.bind(new InetSocketAddress(address, port));
+  }
+
+  @Override
+  protected void close()
+  {
+    closeQuietly(serverSocket);
+    closeQuietly(dataServerSocket);
+  }
+
+  @Override
+  protected void doRun() throws IOException
+  {
+    while (!isStopped())
+    {
+      try (Socket socket = serverSocket.accept())
+      {
+        serveSession(socket);
+      } catch (IOException e)
+      {
+        if (!isStopped())
+        {
+          logger.warn("FTP session failed: " + e.getMessage());
+        }
+      } finally
+      {
+        closeQuietly(dataServerSocket);
+      }
+    }
+  }
+
+  private void serveSession(Socket socket) throws IOException
+  {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+    Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+    reply(writer, "220 AR.Drone simulator");
+
+    String line = reader.readLine();
+    while (line != null)
+    {
+      String command = line.trim().toUpperCase(Locale.ENGLISH);
+      String argument = line.indexOf(' ') < 0 ? "" : line.substring(line.indexOf(' ') + 1).trim();
+
+      if (command.startsWith("USER"))
+      {
+        reply(writer, "331 Password required");
+      } else if (command.startsWith("PASS"))
+      {
+        reply(writer, "230 Logged in");
+      } else if (command.startsWith("TYPE") || command.equals("EPSV ALL") || command.startsWith("MODE"))
+      {
+        reply(writer, "200 OK");
+      } else if (command.startsWith("CWD"))
+      {
+        reply(writer, "250 OK");
+      } else if (command.startsWith("PWD"))
+      {
+        reply(writer, "257 \"/\"");
+      } else if (command.startsWith("SYST"))
+      {
+        reply(writer, "215 UNIX Type: L8");
+      } else if (command.startsWith("EPSV"))
+      {
+        openDataServerSocket();
+        reply(writer, String.format("229 Entering Extended Passive Mode (|||%d|)", dataServerSocket.getLocalPort()));
+      } else if (command.startsWith("PASV"))
+      {
+        openDataServerSocket();
+        int dataPort = dataServerSocket.getLocalPort();
+        reply(writer, String.format("227 Entering Passive Mode (%s,%d,%d)", address.getHostAddress().replace('.', ','), dataPort >> 8,
+                dataPort & 0xFF));
+      } else if (command.startsWith("SIZE"))
+      {
+        reply(writer, isVersionFile(argument) ? "213 " + versionFileBytes.length : "550 No such file");
+      } else if (command.startsWith("RETR"))
+      {
+        retrieve(writer, argument);
+      } else if (command.startsWith("QUIT"))
+      {
+        reply(writer, "221 Bye");
+        return;
+      } else
+      {
+        reply(writer, "502 Command not implemented");
+      }
+
+      line = reader.readLine();
+    }
+  }
+
+  private void openDataServerSocket() throws IOException
+  {
+    closeQuietly(dataServerSocket);
+    dataServerSocket = new ServerSocket(0, 1, address);
+  }
+
+  private void retrieve(Writer writer, String fileName) throws IOException
+  {
+    if (!isVersionFile(fileName) || dataServerSocket == null)
+    {
+      reply(writer, "550 No such file");
+      return;
+    }
+
+    reply(writer, String.format("150 Opening BINARY mode data connection for %s (%d bytes)", VERSION_FILE_NAME, versionFileBytes.length));
+    try (Socket dataSocket = dataServerSocket.accept())
+    {
+      OutputStream outputStream = dataSocket.getOutputStream();
+      outputStream.write(versionFileBytes);
+      outputStream.flush();
+    } finally
+    {
+      closeQuietly(dataServerSocket);
+      dataServerSocket = null;
+    }
+    reply(writer, "226 Transfer complete");
+  }
+
+  private boolean isVersionFile(String fileName)
+  {
+    return fileName.equals(VERSION_FILE_NAME) || fileName.equals("/" + VERSION_FILE_NAME);
+  }
+
+  private void reply(Writer writer, String reply) throws IOException
+  {
+    writer.write(reply);
+    writer.write("\r\n");
+    writer.flush();
+  }
+
+  private void closeQuietly(ServerSocket socket)
+  {
+    try
+    {
+      if (socket != null)
+      {
+        socket.close();
+      }
+    } catch (IOException e)
+    {
+      logger.debug("Error while closing socket: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,232 @@
+package com.dronecontrol.dronesimulator.servers;
+
+import com.dronecontrol.dronesimulator.data.SimulatorStatistics;
+import com.dronecontrol.dronesimulator.video.H264PictureEncoder;
+import com.google.common.collect.Lists;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+// Streams the synthetic H264 frames behind PaVE headers to every connected client like the AR.Drone 2
+public class H264VideoServer extends ServerAbstract
+{
+  private static final int PAVE_SIGNATURE = 0x45566150;
+
+  private static final int PAVE_VERSION = 2;
+
+  private static final int PAVE_CODEC_H264 = 4;
+
+  private static final int PAVE_HEADER_SIZE = 64;
+
+  private static final int IDR_FRAME = 1;
+
+  private static final int P_FRAME = 3;
+
+  private final Logger logger = Logger.getLogger(H264VideoServer.class);
+
+  private final InetAddress address;
+
+  private final int port;
+
+  private final long periodNanos;
+
+  private final SimulatorStatistics statistics;
+
+  private final H264PictureEncoder pictureEncoder;
+
+  private final ByteBuffer headerBuffer;
+
+  private final ByteBuffer frameBuffer;
+
+  private final List<SocketChannel> clients;
+
+  private ServerSocketChannel serverChannel;
+
+  private Selector selector;
+
+  private int frameNumber;
+
+  public H264VideoServer(InetAddress address, int port, int frameRate, SimulatorStatistics statistics)
+  {
+    super("simulator-video-h264");
+    checkArgument(frameRate > 0, "The frame rate must be positive");
+
+    this.address = address;
+    this.port = port;
+    this.statistics = statistics;
+
+    periodNanos = TimeUnit.SECONDS.toNanos(1) / frameRate;
+    pictureEncoder = new H264PictureEncoder();
+    headerBuffer = ByteBuffer.allocateDirect(PAVE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    frameBuffer = ByteBuffer.allocateDirect(H264PictureEncoder.MAX_FRAME_SIZE);
+    clients = Lists.newArrayList();
+  }
+
+  @Override
+  protected void open() throws IOException
+  {
+    serverChannel = ServerSocketChannel.open();
+    serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+    serverChannel.bind(new InetSocketAddress(address, port));
+    serverChannel.configureBlocking(false);
+
+    selector = Selector.open();
+    serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+  }
+
+  @Override
+  protected void close()
+  {
+    try
+    {
+      selector.wakeup();
+      selector.close();
+      serverChannel.close();
+    } catch (IOException e)
+    {
+      logger.debug("Error while closing channel: " + e.getMessage());
+    }
+  }
+
+  @Override
+  protected void doRun() throws IOException
+  {
+    long nextFrameNanos = System.nanoTime();
+    try
+    {
+      while (!isStopped())
+      {
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(nextFrameNanos - System.nanoTime());
+        int readyCount = waitMillis > 0 ? selector.select(waitMillis) : selector.selectNow();
+        if (readyCount > 0)
+        {
+          selector.selectedKeys().clear();
+          acceptPendingClients();
+        }
+
+        long now = System.nanoTime();
+        if (now - nextFrameNanos >= 0)
+        {
+          sendFrame();
+          nextFrameNanos = Math.max(nextFrameNanos + periodNanos, now - periodNanos);
+        }
+      }
+    } finally
+    {
+      for (SocketChannel client : clients)
+      {
+        client.close();
+      }
+      clients.clear();
+    }
+  }
+
+  private void acceptPendingClients() throws IOException
+  {
+    SocketChannel client = serverChannel.accept();
+    while (client != null)
+    {
+      logger.info(String.format("Streaming video to %s", client.getRemoteAddress()));
+
+      // The client is not registered with the selector, so the frames are written blocking
+      client.configureBlocking(true);
+      clients.add(client);
+
+      // The decoder needs a keyframe to start with
+      frameNumber = 0;
+      client = serverChannel.accept();
+    }
+  }
+
+  private void sendFrame()
+  {
+    if (clients.isEmpty())
+    {
+      return;
+    }
+
+    pictureEncoder.encode(frameNumber, frameBuffer);
+    writeHeader(frameBuffer.remaining());
+
+    Iterator<SocketChannel> iterator = clients.iterator();
+    while (iterator.hasNext())
+    {
+      SocketChannel client = iterator.next();
+      try
+      {
+        headerBuffer.rewind();
+        frameBuffer.rewind();
+        writeFully(client, headerBuffer);
+        writeFully(client, frameBuffer);
+        statistics.onVideoFrameSent(PAVE_HEADER_SIZE + frameBuffer.limit());
+      } catch (IOException e)
+      {
+        logger.info("Video client disconnected: " + e.getMessage());
+        closeQuietly(client);
+        iterator.remove();
+      }
+    }
+    frameNumber++;
+  }
+
+  private void writeHeader(int payloadSize)
+  {
+    boolean keyframe = pictureEncoder.isKeyframe(frameNumber);
+
+    headerBuffer.clear();
+    headerBuffer.putInt(PAVE_SIGNATURE);
+    headerBuffer.put((byte) PAVE_VERSION);
+    headerBuffer.put((byte) PAVE_CODEC_H264);
+    headerBuffer.putShort((short) PAVE_HEADER_SIZE);
+    headerBuffer.putInt(payloadSize);
+    headerBuffer.putShort((short) H264PictureEncoder.WIDTH);
+    headerBuffer.putShort((short) H264PictureEncoder.HEIGHT);
+    headerBuffer.putShort((short) H264PictureEncoder.WIDTH);
+    headerBuffer.putShort((short) H264PictureEncoder.HEIGHT);
+    headerBuffer.putInt(frameNumber);
+    headerBuffer.putInt((int) TimeUnit.NANOSECONDS.toMillis(frameNumber * periodNanos));
+    // One chunk and one slice per frame
+    headerBuffer.put((byte) 1);
+    headerBuffer.put((byte) 0);
+    headerBuffer.put((byte) (keyframe ? IDR_FRAME : P_FRAME));
+    while (headerBuffer.hasRemaining())
+    {
+      headerBuffer.put((byte) 0);
+    }
+    headerBuffer.put(42, (byte) 1);
+    headerBuffer.flip();
+  }
+
+  private void writeFully(SocketChannel client, ByteBuffer buffer) throws IOException
+  {
+    while (buffer.hasRemaining())
+    {
+      client.write(buffer);
+    }
+  }
+
+  private void closeQuietly(SocketChannel client)
+  {
+    try
+    {
+      client.close();
+    } catch (IOException e)
+    {
+      logger.debug("Error while closing channel: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.dronecontrol.dronesimulator.servers;
+
+import com.dronecontrol.dronesimulator.SimulatedDrone;
+import com.dronecontrol.dronesimulator.data.SimulatorStatistics;
+import com.dronecontrol.dronesimulator.navdata.NavDataEncoder;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+
+// Advances the flight model and sends its state with every tick, only the header is sent until the demo nav data is enabled
+public class NavDataServer extends UdpStreamServerAbstract
+{
+  private final SimulatedDrone drone;
+
+  private final SimulatorStatistics statistics;
+
+  private final NavDataEncoder navDataEncoder;
+
+  private int sequenceNumber;
+
+  public NavDataServer(InetAddress address, int port, int navDataRate, SimulatedDrone drone, SimulatorStatistics statistics)
+  {
+    super("simulator-navdata", address, port, navDataRate, NavDataEncoder.MAX_PACKET_SIZE);
+    this.drone = drone;
+    this.statistics = statistics;
+
+    navDataEncoder = new NavDataEncoder();
+  }
+
+  @Override
+  protected void onTick(long elapsedNanos)
+  {
+    drone.advance(elapsedNanos);
+  }
+
+  @Override
+  protected void onClientChanged()
+  {
+    // The drone starts counting again for a new client
+    sequenceNumber = 0;
+  }
+
+  @Override
+  protected void writePacket(ByteBuffer buffer)
+  {
+    navDataEncoder.encode(drone, ++sequenceNumber, buffer);
+    statistics.onNavDataSent();
+  }
+}
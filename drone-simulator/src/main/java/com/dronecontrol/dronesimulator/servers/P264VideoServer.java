@@ -0,0 +1,32 @@
+package com.dronecontrol.dronesimulator.servers;
+
+import com.dronecontrol.dronesimulator.data.SimulatorStatistics;
+import com.dronecontrol.dronesimulator.video.P264PictureEncoder;
+
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+
+// Sends one synthetic picture per datagram like the video of the AR.Drone 1
+public class P264VideoServer extends UdpStreamServerAbstract
+{
+  private final SimulatorStatistics statistics;
+
+  private final P264PictureEncoder pictureEncoder;
+
+  private int frameIndex;
+
+  public P264VideoServer(InetAddress address, int port, int frameRate, SimulatorStatistics statistics)
+  {
+    super("simulator-video-p264", address, port, frameRate, P264PictureEncoder.MAX_PICTURE_SIZE);
+    this.statistics = statistics;
+
+    pictureEncoder = new P264PictureEncoder();
+  }
+
+  @Override
+  protected void writePacket(ByteBuffer buffer)
+  {
+    pictureEncoder.encode(frameIndex++, buffer);
+    statistics.onVideoFrameSent(buffer.remaining());
+  }
+}
@@ -0,0 +1,88 @@
+package com.dronecontrol.dronesimulator.servers;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+
+import static com.google.common.base.Preconditions.checkState;
+
+// Binds its socket while starting, so a client can connect as soon as the simulator is started, and serves it on an own thread
+public abstract class ServerAbstract implements Runnable
+{
+  private final Logger logger = Logger.getLogger(ServerAbstract.class);
+
+  private final String name;
+
+  private volatile boolean stopped = true;
+
+  private Thread thread;
+
+  protected ServerAbstract(String name)
+  {
+    this.name = name;
+  }
+
+  public void start()
+  {
+    checkState(stopped, "Already started");
+
+    try
+    {
+      open();
+    } catch (IOException e)
+    {
+      throw new IllegalStateException(String.format("Error while opening the %s", name), e);
+    }
+
+    stopped = false;
+    thread = new Thread(this, name);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  public void stop()
+  {
+    if (stopped)
+    {
+      return;
+    }
+
+    // Closing the socket wakes up the thread if it is blocked in an accept or receive call
+    stopped = true;
+    close();
+
+    try
+    {
+      thread.join();
+    } catch (InterruptedException e)
+    {
+      throw new IllegalStateException("Joining threads was interrupted", e);
+    }
+  }
+
+  protected boolean isStopped()
+  {
+    return stopped;
+  }
+
+  @Override
+  public void run()
+  {
+    try
+    {
+      doRun();
+    } catch (Exception e)
+    {
+      if (!stopped)
+      {
+        logger.error(String.format("The %s stopped unexpectedly", name), e);
+      }
+    }
+  }
+
+  protected abstract void open() throws IOException;
+
+  protected abstract void close();
+
+  protected abstract void doRun() throws IOException;
+}
@@ -0,0 +1,148 @@
+package com.dronecontrol.dronesimulator.servers;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+// Streams packets with a fixed rate to the client which sent the last keep alive packet, like the nav data and P264 video of the drone
+public abstract class UdpStreamServerAbstract extends ServerAbstract
+{
+  private final Logger logger = Logger.getLogger(UdpStreamServerAbstract.class);
+
+  private final InetAddress address;
+
+  private final int port;
+
+  private final long periodNanos;
+
+  private final ByteBuffer receivingBuffer;
+
+  private final ByteBuffer sendingBuffer;
+
+  private DatagramChannel channel;
+
+  private Selector selector;
+
+  private SocketAddress clientAddress;
+
+  protected UdpStreamServerAbstract(String name, InetAddress address, int port, int rate, int maxPacketSize)
+  {
+    super(name);
+    checkArgument(rate > 0, "The rate must be positive");
+
+    this.address = address;
+    this.port = port;
+
+    periodNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+    receivingBuffer = ByteBuffer.allocateDirect(1024);
+    sendingBuffer = ByteBuffer.allocateDirect(maxPacketSize);
+  }
+
+  @Override
+  protected void open() throws IOException
+  {
+    // A client with fixed local ports binds the same port number on its own address, which the reuse option allows
+    channel = DatagramChannel.open();
+    channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+    channel.bind(new InetSocketAddress(address, port));
+    channel.configureBlocking(false);
+
+    selector = Selector.open();
+    channel.register(selector, SelectionKey.OP_READ);
+  }
+
+  @Override
+  protected void close()
+  {
+    try
+    {
+      selector.wakeup();
+      selector.close();
+      channel.close();
+    } catch (IOException e)
+    {
+      logger.debug("Error while closing channel: " + e.getMessage());
+    }
+  }
+
+  @Override
+  protected void doRun() throws IOException
+  {
+    long lastTickNanos = System.nanoTime();
+    long nextTickNanos = lastTickNanos + periodNanos;
+
+    while (!isStopped())
+    {
+      long waitMillis = TimeUnit.NANOSECONDS.toMillis(nextTickNanos - System.nanoTime());
+      int readyCount = waitMillis > 0 ? selector.select(waitMillis) : selector.selectNow();
+      if (readyCount > 0)
+      {
+        selector.selectedKeys().clear();
+        receivePendingPackets();
+      }
+
+      long now = System.nanoTime();
+      if (now - nextTickNanos >= 0)
+      {
+        tick(now - lastTickNanos);
+        lastTickNanos = now;
+
+        // A late tick is not caught up, so a slow thread does not send bursts
+        nextTickNanos = Math.max(nextTickNanos + periodNanos, now - periodNanos);
+      }
+    }
+  }
+
+  private void receivePendingPackets() throws IOException
+  {
+    receivingBuffer.clear();
+    SocketAddress sender = channel.receive(receivingBuffer);
+    while (sender != null)
+    {
+      if (!sender.equals(clientAddress))
+      {
+        logger.info(String.format("Streaming to %s on port %d", sender, port));
+        clientAddress = sender;
+        onClientChanged();
+      }
+
+      receivingBuffer.clear();
+      sender = channel.receive(receivingBuffer);
+    }
+  }
+
+  private void tick(long elapsedNanos) throws IOException
+  {
+    onTick(elapsedNanos);
+    if (clientAddress == null)
+    {
+      return;
+    }
+
+    writePacket(sendingBuffer);
+    channel.send(sendingBuffer, clientAddress);
+  }
+
+  // Called on every tick, also while no client is connected
+  protected void onTick(long elapsedNanos)
+  {
+  }
+
+  protected void onClientChanged()
+  {
+  }
+
+  // Writes the next packet from the start of the buffer and flips it
+  protected abstract void writePacket(ByteBuffer buffer);
+}
@@ -0,0 +1,95 @@
+package com.dronecontrol.dronesimulator.video;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+// Writes bits most significant first into a growing byte array, including the Exp-Golomb codes of H264
+public class BitWriter
+{
+  private static final int INITIAL_CAPACITY = 4096;
+
+  private byte[] bytes;
+
+  private int bitPosition;
+
+  public BitWriter()
+  {
+    bytes = new byte[INITIAL_CAPACITY];
+  }
+
+  public void reset()
+  {
+    Arrays.fill(bytes, 0, getByteLength(), (byte) 0);
+    bitPosition = 0;
+  }
+
+  public void writeBits(int value, int count)
+  {
+    checkArgument(count >= 0 && count <= 32, "Only up to 32 bits can be written at once");
+    ensureCapacity(count);
+
+    for (int bit = count - 1; bit >= 0; bit--)
+    {
+      if ((value >>> bit & 1) == 1)
+      {
+        bytes[bitPosition >> 3] |= 0x80 >>> (bitPosition & 7);
+      }
+      bitPosition++;
+    }
+  }
+
+  public void writeBit(boolean value)
+  {
+    writeBits(value ? 1 : 0, 1);
+  }
+
+  public void writeUnsignedExpGolomb(int value)
+  {
+    int codeNumber = value + 1;
+    int length = 32 - Integer.numberOfLeadingZeros(codeNumber);
+    writeBits(0, length - 1);
+    writeBits(codeNumber, length);
+  }
+
+  public void writeSignedExpGolomb(int value)
+  {
+    writeUnsignedExpGolomb(value > 0 ? 2 * value - 1 : -2 * value);
+  }
+
+  public void writeByte(int value)
+  {
+    writeBits(value & 0xFF, 8);
+  }
+
+  // Pads with zero bits up to the next byte boundary
+  public void alignToByte()
+  {
+    bitPosition = (bitPosition + 7) & ~7;
+  }
+
+  public boolean isByteAligned()
+  {
+    return (bitPosition & 7) == 0;
+  }
+
+  public int getByteLength()
+  {
+    return (bitPosition + 7) >> 3;
+  }
+
+  // The backing array, valid up to the byte length
+  public byte[] getBytes()
+  {
+    return bytes;
+  }
+
+  private void ensureCapacity(int count)
+  {
+    int requiredLength = (bitPosition + count + 7) >> 3;
+    if (requiredLength > bytes.length)
+    {
+      bytes = Arrays.copyOf(bytes, Math.max(requiredLength, bytes.length * 2));
+    }
+  }
+}
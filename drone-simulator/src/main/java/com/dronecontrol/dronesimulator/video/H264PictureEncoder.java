@@ -0,0 +1,225 @@
+package com.dronecontrol.dronesimulator.video;
+
+import java.nio.ByteBuffer;
+
+// Encodes a synthetic 360p H264 baseline stream like the one of the AR.Drone 2 without a real encoder
+// Keyframes consist of uncompressed (I_PCM) macro blocks, the frames in between skip all macro blocks
+public class H264PictureEncoder
+{
+  public static final int WIDTH = 640;
+
+  public static final int HEIGHT = 360;
+
+  public static final int KEYFRAME_INTERVAL = 30;
+
+  public static final int MAX_FRAME_SIZE = 512 * 1024;
+
+  private static final int MACRO_BLOCK_SIZE = 16;
+
+  private static final int MACRO_BLOCK_COLUMNS = WIDTH / MACRO_BLOCK_SIZE;
+
+  private static final int MACRO_BLOCK_ROWS = (HEIGHT + MACRO_BLOCK_SIZE - 1) / MACRO_BLOCK_SIZE;
+
+  private static final int MACRO_BLOCK_COUNT = MACRO_BLOCK_COLUMNS * MACRO_BLOCK_ROWS;
+
+  private static final byte[] START_CODE = new byte[]{0x00, 0x00, 0x00, 0x01};
+
+  private static final int SEQUENCE_PARAMETER_SET = 0x67;
+
+  private static final int PICTURE_PARAMETER_SET = 0x68;
+
+  private static final int IDR_SLICE = 0x65;
+
+  private static final int REFERENCE_SLICE = 0x41;
+
+  private static final int BASELINE_PROFILE = 66;
+
+  private static final int LEVEL_3_1 = 31;
+
+  private static final int LOG2_MAX_FRAME_NUMBER = 4;
+
+  private static final int P_SLICE = 5;
+
+  private static final int I_SLICE = 7;
+
+  private static final int I_PCM = 25;
+
+  private static final int NEUTRAL_CHROMA = 128;
+
+  private final BitWriter bitWriter;
+
+  private int idrPictureId;
+
+  public H264PictureEncoder()
+  {
+    bitWriter = new BitWriter();
+  }
+
+  public boolean isKeyframe(int frameNumber)
+  {
+    return frameNumber % KEYFRAME_INTERVAL == 0;
+  }
+
+  // Writes the NAL units of one frame with start codes from the start of the buffer and flips it
+  public void encode(int frameNumber, ByteBuffer buffer)
+  {
+    buffer.clear();
+    if (isKeyframe(frameNumber))
+    {
+      writeSequenceParameterSet();
+      writeNalUnit(SEQUENCE_PARAMETER_SET, buffer);
+      writePictureParameterSet();
+      writeNalUnit(PICTURE_PARAMETER_SET, buffer);
+      writeIdrSlice(frameNumber);
+      writeNalUnit(IDR_SLICE, buffer);
+    } else
+    {
+      writeSkippedSlice(frameNumber % KEYFRAME_INTERVAL);
+      writeNalUnit(REFERENCE_SLICE, buffer);
+    }
+    buffer.flip();
+  }
+
+  private void writeSequenceParameterSet()
+  {
+    bitWriter.reset();
+    bitWriter.writeByte(BASELINE_PROFILE);
+    bitWriter.writeByte(0);
+    bitWriter.writeByte(LEVEL_3_1);
+    bitWriter.writeUnsignedExpGolomb(0);
+    bitWriter.writeUnsignedExpGolomb(LOG2_MAX_FRAME_NUMBER - 4);
+    // Picture order count type 2, the output order equals the decoding order
+    bitWriter.writeUnsignedExpGolomb(2);
+    bitWriter.writeUnsignedExpGolomb(1);
+    bitWriter.writeBit(false);
+    bitWriter.writeUnsignedExpGolomb(MACRO_BLOCK_COLUMNS - 1);
+    bitWriter.writeUnsignedExpGolomb(MACRO_BLOCK_ROWS - 1);
+    bitWriter.writeBit(true);
+    bitWriter.writeBit(true);
+
+    // The coded height is a multiple of 16, the bottom rows are cropped in units of 2 lines
+    int croppedLines = MACRO_BLOCK_ROWS * MACRO_BLOCK_SIZE - HEIGHT;
+    bitWriter.writeBit(croppedLines > 0);
+    if (croppedLines > 0)
+    {
+      bitWriter.writeUnsignedExpGolomb(0);
+      bitWriter.writeUnsignedExpGolomb(0);
+      bitWriter.writeUnsignedExpGolomb(0);
+      bitWriter.writeUnsignedExpGolomb(croppedLines / 2);
+    }
+    bitWriter.writeBit(false);
+    writeTrailingBits();
+  }
+
+  private void writePictureParameterSet()
+  {
+    bitWriter.reset();
+    bitWriter.writeUnsignedExpGolomb(0);
+    bitWriter.writeUnsignedExpGolomb(0);
+    // CAVLC, no slice groups, one reference picture and no weighted prediction
+    bitWriter.writeBit(false);
+    bitWriter.writeBit(false);
+    bitWriter.writeUnsignedExpGolomb(0);
+    bitWriter.writeUnsignedExpGolomb(0);
+    bitWriter.writeUnsignedExpGolomb(0);
+    bitWriter.writeBit(false);
+    bitWriter.writeBits(0, 2);
+    bitWriter.writeSignedExpGolomb(0);
+    bitWriter.writeSignedExpGolomb(0);
+    bitWriter.writeSignedExpGolomb(0);
+    // The deblocking filter can be controlled and is turned off in the slices
+    bitWriter.writeBit(true);
+    bitWriter.writeBit(false);
+    bitWriter.writeBit(false);
+    writeTrailingBits();
+  }
+
+  private void writeIdrSlice(int frameNumber)
+  {
+    bitWriter.reset();
+    bitWriter.writeUnsignedExpGolomb(0);
+    bitWriter.writeUnsignedExpGolomb(I_SLICE);
+    bitWriter.writeUnsignedExpGolomb(0);
+    bitWriter.writeBits(0, LOG2_MAX_FRAME_NUMBER);
+    // Consecutive IDR pictures must have different IDs
+    bitWriter.writeUnsignedExpGolomb(idrPictureId);
+    idrPictureId ^= 1;
+    bitWriter.writeBit(false);
+    bitWriter.writeBit(false);
+    bitWriter.writeSignedExpGolomb(0);
+    bitWriter.writeUnsignedExpGolomb(1);
+
+    for (int macroBlock = 0; macroBlock < MACRO_BLOCK_COUNT; macroBlock++)
+    {
+      bitWriter.writeUnsignedExpGolomb(I_PCM);
+      bitWriter.alignToByte();
+      writePcmSamples(macroBlock % MACRO_BLOCK_COLUMNS * MACRO_BLOCK_SIZE, macroBlock / MACRO_BLOCK_COLUMNS * MACRO_BLOCK_SIZE,
+              frameNumber);
+    }
+    writeTrailingBits();
+  }
+
+  private void writePcmSamples(int left, int top, int frameNumber)
+  {
+    for (int y = top; y < top + MACRO_BLOCK_SIZE; y++)
+    {
+      for (int x = left; x < left + MACRO_BLOCK_SIZE; x++)
+      {
+        bitWriter.writeByte(getLuma(x, y, frameNumber));
+      }
+    }
+    for (int chromaSample = 0; chromaSample < 2 * 64; chromaSample++)
+    {
+      bitWriter.writeByte(NEUTRAL_CHROMA);
+    }
+  }
+
+  // A diagonal gradient in the video range which moves with every keyframe
+  private int getLuma(int x, int y, int frameNumber)
+  {
+    return 16 + ((x + y + frameNumber) & 0xFF) * 219 / 255;
+  }
+
+  private void writeSkippedSlice(int frameNumber)
+  {
+    bitWriter.reset();
+    bitWriter.writeUnsignedExpGolomb(0);
+    bitWriter.writeUnsignedExpGolomb(P_SLICE);
+    bitWriter.writeUnsignedExpGolomb(0);
+    bitWriter.writeBits(frameNumber % (1 << LOG2_MAX_FRAME_NUMBER), LOG2_MAX_FRAME_NUMBER);
+    bitWriter.writeBit(false);
+    bitWriter.writeBit(false);
+    bitWriter.writeBit(false);
+    bitWriter.writeSignedExpGolomb(0);
+    bitWriter.writeUnsignedExpGolomb(1);
+    bitWriter.writeUnsignedExpGolomb(MACRO_BLOCK_COUNT);
+    writeTrailingBits();
+  }
+
+  private void writeTrailingBits()
+  {
+    bitWriter.writeBit(true);
+    bitWriter.alignToByte();
+  }
+
+  // Copies the written payload behind a start code and inserts the emulation prevention bytes
+  private void writeNalUnit(int header, ByteBuffer buffer)
+  {
+    buffer.put(START_CODE);
+    buffer.put((byte) header);
+
+    byte[] bytes = bitWriter.getBytes();
+    int zeroCount = 0;
+    for (int index = 0; index < bitWriter.getByteLength(); index++)
+    {
+      byte value = bytes[index];
+      if (zeroCount == 2 && (value & 0xFF) <= 3)
+      {
+        buffer.put((byte) 0x03);
+        zeroCount = 0;
+      }
+      buffer.put(value);
+      zeroCount = value == 0 ? zeroCount + 1 : 0;
+    }
+  }
+}
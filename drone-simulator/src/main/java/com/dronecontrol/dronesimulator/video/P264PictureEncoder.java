@@ -0,0 +1,130 @@
+package com.dronecontrol.dronesimulator.video;
+
+import com.dronecontrol.droneapi.video.P264ImageDecoder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Encodes synthetic P264 pictures of the AR.Drone 1, one picture fits into one datagram
+// Every macro block only carries DC coefficients, which gives a moving pattern of flat 8x8 blocks
+public class P264PictureEncoder
+{
+  public static final int WIDTH = 320;
+
+  public static final int HEIGHT = 240;
+
+  public static final int MAX_PICTURE_SIZE = 8192;
+
+  private static final int PICTURE_START_CODE = 0x20;
+
+  private static final int END_OF_PICTURE = 0x1F;
+
+  private static final int QVGA_FORMAT = 2;
+
+  private static final int QVGA_RESOLUTION = 2;
+
+  private static final int TABLE_QUANTIZATION_MODE = 31;
+
+  private static final int GROUP_OF_BLOCKS_COUNT = HEIGHT / 16;
+
+  private static final int MACRO_BLOCK_COUNT = WIDTH / 16;
+
+  private static final int BLOCKS_PER_MACRO_BLOCK = 6;
+
+  private static final int LUMA_BLOCKS_PER_MACRO_BLOCK = 4;
+
+  private static final int NEUTRAL_CHROMA = 128;
+
+  private final BitWriter bitWriter;
+
+  public P264PictureEncoder()
+  {
+    bitWriter = new BitWriter();
+  }
+
+  // Writes one picture from the start of the buffer and flips it
+  public void encode(int frameIndex, ByteBuffer buffer)
+  {
+    bitWriter.reset();
+
+    for (int groupOfBlocks = 0; groupOfBlocks < GROUP_OF_BLOCKS_COUNT; groupOfBlocks++)
+    {
+      writeGroupOfBlocksHeader(groupOfBlocks, frameIndex);
+      for (int macroBlock = 0; macroBlock < MACRO_BLOCK_COUNT; macroBlock++)
+      {
+        writeMacroBlock(getLuma(macroBlock, groupOfBlocks, frameIndex));
+      }
+    }
+
+    bitWriter.alignToByte();
+    bitWriter.writeBits(PICTURE_START_CODE | END_OF_PICTURE, 22);
+
+    // The decoder reads whole words and may read one word ahead, so a zero word is appended
+    bitWriter.alignToByte();
+    while (bitWriter.getByteLength() % 4 != 0)
+    {
+      bitWriter.writeByte(0);
+    }
+    bitWriter.writeBits(0, 32);
+
+    writeWords(buffer);
+  }
+
+  private void writeGroupOfBlocksHeader(int groupOfBlocks, int frameIndex)
+  {
+    bitWriter.alignToByte();
+    bitWriter.writeBits(PICTURE_START_CODE | groupOfBlocks, 22);
+
+    if (groupOfBlocks == 0)
+    {
+      bitWriter.writeBits(QVGA_FORMAT, 2);
+      bitWriter.writeBits(QVGA_RESOLUTION, 3);
+      bitWriter.writeBits(P264ImageDecoder.INTRA_PICTURE, 3);
+      bitWriter.writeBits(TABLE_QUANTIZATION_MODE, 5);
+      bitWriter.writeBits(frameIndex, 32);
+    } else
+    {
+      bitWriter.writeBits(TABLE_QUANTIZATION_MODE, 5);
+    }
+  }
+
+  private void writeMacroBlock(int luma)
+  {
+    // Coded macro block without AC coefficients and without a quantizer change
+    bitWriter.writeBit(false);
+    bitWriter.writeBits(0, 8);
+
+    for (int block = 0; block < BLOCKS_PER_MACRO_BLOCK; block++)
+    {
+      bitWriter.writeBits(getDcCoefficient(block < LUMA_BLOCKS_PER_MACRO_BLOCK ? luma : NEUTRAL_CHROMA), 10);
+    }
+  }
+
+  // The decoder multiplies the DC coefficient by 3 and the inverse transform divides it by 8
+  private int getDcCoefficient(int value)
+  {
+    return value * 8 / 3;
+  }
+
+  private int getLuma(int macroBlock, int groupOfBlocks, int frameIndex)
+  {
+    return 16 + ((macroBlock + groupOfBlocks + frameIndex) & 7) * 28;
+  }
+
+  // The decoder reads the bits most significant first from little endian 32 bit words
+  private void writeWords(ByteBuffer buffer)
+  {
+    buffer.clear();
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+    byte[] bytes = bitWriter.getBytes();
+    int wordCount = bitWriter.getByteLength() / 4;
+    for (int word = 0; word < wordCount; word++)
+    {
+      int offset = word * 4;
+      buffer.putInt((bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8 | bytes[offset + 3] & 0xFF);
+    }
+
+    buffer.flip();
+  }
+}
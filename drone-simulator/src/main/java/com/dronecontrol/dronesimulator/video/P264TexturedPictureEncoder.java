@@ -0,0 +1,239 @@
+package com.dronecontrol.dronesimulator.video;
+
+import com.dronecontrol.droneapi.video.P264ImageDecoder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+// Encodes pseudo random P264 pictures in CIF or QVGA with AC coefficients, clipped colors and skipped macro blocks, so
+// every path of the decoder is exercised. The same seed and frame index always give the same picture.
+public class P264TexturedPictureEncoder
+{
+  public static final int CIF_FORMAT = 1;
+
+  public static final int QVGA_FORMAT = 2;
+
+  public static final int MAX_PICTURE_SIZE = 65536;
+
+  private static final int RESOLUTION = 2;
+
+  private static final int PICTURE_START_CODE = 0x20;
+
+  private static final int END_OF_PICTURE = 0x1F;
+
+  private static final int TABLE_QUANTIZATION_MODE = 31;
+
+  private static final int BLOCKS_PER_MACRO_BLOCK = 6;
+
+  private static final int LUMA_BLOCKS_PER_MACRO_BLOCK = 4;
+
+  private static final int MAX_DC_COEFFICIENT = 1023;
+
+  private static final int NEUTRAL_CHROMA_COEFFICIENT = 341;
+
+  private static final int LAST_ZIGZAG_POSITION = 63;
+
+  private static final int SKIPPED_MACRO_BLOCK_RATIO = 8;
+
+  private final int pictureFormat;
+
+  private final int width;
+
+  private final int height;
+
+  private final long seed;
+
+  private final BitWriter bitWriter;
+
+  private final Random random;
+
+  public P264TexturedPictureEncoder(int pictureFormat, long seed)
+  {
+    checkArgument(pictureFormat == CIF_FORMAT || pictureFormat == QVGA_FORMAT, "Only CIF and QVGA are supported");
+    this.pictureFormat = pictureFormat;
+    this.seed = seed;
+
+    width = pictureFormat == CIF_FORMAT ? 176 : 320;
+    height = pictureFormat == CIF_FORMAT ? 144 : 240;
+    bitWriter = new BitWriter();
+    random = new Random();
+  }
+
+  public int getWidth()
+  {
+    return width;
+  }
+
+  public int getHeight()
+  {
+    return height;
+  }
+
+  // Writes one picture from the start of the buffer and flips it
+  public void encode(int frameIndex, ByteBuffer buffer)
+  {
+    bitWriter.reset();
+    random.setSeed(seed * 31 + frameIndex);
+
+    int groupOfBlocksCount = height / 16;
+    int macroBlockCount = width / 16;
+    for (int groupOfBlocks = 0; groupOfBlocks < groupOfBlocksCount; groupOfBlocks++)
+    {
+      writeGroupOfBlocksHeader(groupOfBlocks, frameIndex);
+      for (int macroBlock = 0; macroBlock < macroBlockCount; macroBlock++)
+      {
+        writeMacroBlock(macroBlock + groupOfBlocks + frameIndex);
+      }
+    }
+
+    bitWriter.alignToByte();
+    bitWriter.writeBits(PICTURE_START_CODE | END_OF_PICTURE, 22);
+
+    // The decoder reads whole words and may read one word ahead, so a zero word is appended
+    bitWriter.alignToByte();
+    while (bitWriter.getByteLength() % 4 != 0)
+    {
+      bitWriter.writeByte(0);
+    }
+    bitWriter.writeBits(0, 32);
+
+    writeWords(buffer);
+  }
+
+  private void writeGroupOfBlocksHeader(int groupOfBlocks, int frameIndex)
+  {
+    bitWriter.alignToByte();
+    bitWriter.writeBits(PICTURE_START_CODE | groupOfBlocks, 22);
+
+    if (groupOfBlocks == 0)
+    {
+      bitWriter.writeBits(pictureFormat, 2);
+      bitWriter.writeBits(RESOLUTION, 3);
+      bitWriter.writeBits(P264ImageDecoder.INTRA_PICTURE, 3);
+      bitWriter.writeBits(TABLE_QUANTIZATION_MODE, 5);
+      bitWriter.writeBits(frameIndex, 32);
+    } else
+    {
+      bitWriter.writeBits(TABLE_QUANTIZATION_MODE, 5);
+    }
+  }
+
+  private void writeMacroBlock(int position)
+  {
+    // The decoder keeps the blocks of a skipped macro block from the one decoded before at the same position
+    if (random.nextInt(SKIPPED_MACRO_BLOCK_RATIO) == 0)
+    {
+      bitWriter.writeBit(true);
+      return;
+    }
+
+    // The six lowest bits flag the blocks with AC coefficients, the quantizer is never changed
+    int acCoefficientFlags = random.nextInt(1 << BLOCKS_PER_MACRO_BLOCK);
+    bitWriter.writeBit(false);
+    bitWriter.writeBits(acCoefficientFlags, 8);
+
+    // A moving gradient with noise, which now and then exceeds the color range
+    int luma = 200 + (position & 15) * 32;
+    for (int block = 0; block < BLOCKS_PER_MACRO_BLOCK; block++)
+    {
+      int dcCoefficient = block < LUMA_BLOCKS_PER_MACRO_BLOCK ? luma : NEUTRAL_CHROMA_COEFFICIENT;
+      dcCoefficient += random.nextInt(129) - 64;
+      bitWriter.writeBits(Math.max(0, Math.min(MAX_DC_COEFFICIENT, dcCoefficient)), 10);
+
+      if ((acCoefficientFlags >>> block & 1) == 1)
+      {
+        writeAcCoefficients();
+      }
+    }
+  }
+
+  private void writeAcCoefficients()
+  {
+    int zigZagPosition = 0;
+    int coefficientCount = 1 + random.nextInt(12);
+    for (int coefficient = 0; coefficient < coefficientCount; coefficient++)
+    {
+      // Mostly short runs like in a real picture, with some long ones in between
+      int run = random.nextInt(4) == 0 ? random.nextInt(24) : random.nextInt(3);
+      if (zigZagPosition + run + 1 > LAST_ZIGZAG_POSITION)
+      {
+        break;
+      }
+      zigZagPosition += run + 1;
+
+      int level = getLevel();
+      writeRun(run);
+      writeLevel(random.nextBoolean() ? -level : level);
+    }
+
+    // The end of the block is the level code 01 after an empty run
+    writeRun(0);
+    bitWriter.writeBits(1, 2);
+  }
+
+  // Mostly small levels like in a real picture, some larger ones and rarely one far beyond the range of the colors
+  private int getLevel()
+  {
+    int chance = random.nextInt(256);
+    if (chance == 0)
+    {
+      return 256 + random.nextInt(768);
+    }
+    return chance < 8 ? 1 + random.nextInt(64) : 1 + random.nextInt(4);
+  }
+
+  // A run of 0 is coded as 1, a run of 1 as 01, larger runs as n zeros, a one and the n - 1 lower bits of the run
+  private void writeRun(int run)
+  {
+    if (run < 2)
+    {
+      bitWriter.writeBits(1, run + 1);
+      return;
+    }
+
+    int zeroCount = 32 - Integer.numberOfLeadingZeros(run);
+    bitWriter.writeBits(0, zeroCount);
+    bitWriter.writeBits(1, 1);
+    bitWriter.writeBits(run, zeroCount - 1);
+  }
+
+  // A level of 1 is coded as 1 and the sign, larger levels as n zeros, a one, the n - 1 lower bits and the sign
+  private void writeLevel(int level)
+  {
+    int magnitude = Math.abs(level);
+    int sign = level < 0 ? 1 : 0;
+    if (magnitude == 1)
+    {
+      bitWriter.writeBits(2 | sign, 2);
+      return;
+    }
+
+    int zeroCount = 32 - Integer.numberOfLeadingZeros(magnitude);
+    bitWriter.writeBits(0, zeroCount);
+    bitWriter.writeBits(1, 1);
+    bitWriter.writeBits(magnitude, zeroCount - 1);
+    bitWriter.writeBits(sign, 1);
+  }
+
+  // The decoder reads the bits most significant first from little endian 32 bit words
+  private void writeWords(ByteBuffer buffer)
+  {
+    checkState(bitWriter.getByteLength() <= buffer.capacity(), "The picture does not fit into the buffer");
+    buffer.clear();
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+    byte[] bytes = bitWriter.getBytes();
+    int wordCount = bitWriter.getByteLength() / 4;
+    for (int word = 0; word < wordCount; word++)
+    {
+      int offset = word * 4;
+      buffer.putInt((bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8 | bytes[offset + 3] & 0xFF);
+    }
+
+    buffer.flip();
+  }
+}
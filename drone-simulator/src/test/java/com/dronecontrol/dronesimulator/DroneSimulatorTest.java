@@ -0,0 +1,68 @@
+package com.dronecontrol.dronesimulator;
+
+import com.dronecontrol.droneapi.DroneController;
+import com.dronecontrol.droneapi.data.NavData;
+import com.dronecontrol.droneapi.injection.Context;
+import com.dronecontrol.droneapi.listeners.NavDataListener;
+import com.dronecontrol.dronesimulator.data.SimulatorConfig;
+import com.dronecontrol.dronesimulator.data.SimulatorStatistics;
+import com.google.inject.Guice;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class DroneSimulatorTest
+{
+  private DroneSimulator simulator;
+
+  private DroneController droneController;
+
+  @Before
+  public void setUp()
+  {
+    simulator = new DroneSimulator(new SimulatorConfig());
+    simulator.start();
+
+    droneController = Guice.createInjector(new Context()).getInstance(DroneController.class);
+  }
+
+  @After
+  public void tearDown()
+  {
+    droneController.stop();
+    simulator.stop();
+  }
+
+  @Test
+  public void testDroneControllerTakesOff() throws InterruptedException
+  {
+    final CountDownLatch flyingLatch = new CountDownLatch(1);
+    droneController.addNavDataListener(new NavDataListener()
+    {
+      @Override
+      public void onNavData(NavData navData)
+      {
+        if (navData.getState().isFlying())
+        {
+          flyingLatch.countDown();
+        }
+      }
+    });
+
+    droneController.start(simulator.getConfig().createClientConfig("simulator-test", "simulator-test"));
+    droneController.takeOff();
+
+    assertThat(flyingLatch.await(10, TimeUnit.SECONDS), is(true));
+
+    SimulatorStatistics statistics = simulator.getStatistics();
+    assertThat(statistics.getConfigDumpCount() > 0, is(true));
+    assertThat(statistics.getNavDataPacketCount() > 0, is(true));
+    assertThat(statistics.getUnknownCommandCount(), is(0L));
+  }
+}
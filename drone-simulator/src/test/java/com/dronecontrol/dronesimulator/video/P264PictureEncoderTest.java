@@ -0,0 +1,34 @@
+package com.dronecontrol.dronesimulator.video;
+
+import com.dronecontrol.droneapi.video.P264ImageDecoder;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class P264PictureEncoderTest
+{
+  @Test
+  public void testPictureIsDecodedByTheClient()
+  {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(P264PictureEncoder.MAX_PICTURE_SIZE);
+    new P264PictureEncoder().encode(5, buffer);
+
+    P264ImageDecoder decoder = new P264ImageDecoder();
+    decoder.determineImageFromStream(buffer, buffer.limit());
+
+    assertThat(decoder.getWidth(), is(P264PictureEncoder.WIDTH));
+    assertThat(decoder.getHeight(), is(P264PictureEncoder.HEIGHT));
+    assertThat(decoder.getFrameIndex(), is(5));
+    assertThat(decoder.getPictureType(), is(P264ImageDecoder.INTRA_PICTURE));
+
+    // The first macro block of frame 5 has a luma of 16 + 5 * 28 and neutral chroma, the color conversion rounds a little
+    int[] pixels = decoder.getJavaPixelData();
+    int red = pixels[0] >> 16 & 0xFF;
+    int blue = pixels[0] & 0xFF;
+    assertThat(Math.abs(red - 156) <= 4, is(true));
+    assertThat(red, is(blue));
+  }
+}
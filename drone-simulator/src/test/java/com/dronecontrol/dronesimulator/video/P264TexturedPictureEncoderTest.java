@@ -0,0 +1,64 @@
+package com.dronecontrol.dronesimulator.video;
+
+import com.dronecontrol.droneapi.video.P264ImageDecoder;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+public class P264TexturedPictureEncoderTest
+{
+  private static final long SEED = 42;
+
+  private static final int FRAME_COUNT = 16;
+
+  // Checksums of the pixels decoded by the original serial decoder, every optimization must keep the pictures bit-identical
+  private static final long CIF_CHECKSUM = 0x72203215L;
+
+  private static final long QVGA_CHECKSUM = 0xe34b6db6L;
+
+  @Test
+  public void testPicturesAreDecodedLikeByTheOriginalDecoder()
+  {
+    assertThat(getChecksum(P264TexturedPictureEncoder.CIF_FORMAT, new P264ImageDecoder()), is(CIF_CHECKSUM));
+    assertThat(getChecksum(P264TexturedPictureEncoder.QVGA_FORMAT, new P264ImageDecoder()), is(QVGA_CHECKSUM));
+  }
+
+  @Test
+  public void testParallelDecodingIsBitIdentical()
+  {
+    P264ImageDecoder decoder = new P264ImageDecoder();
+    decoder.setParallelism(3);
+
+    assertThat(getChecksum(P264TexturedPictureEncoder.CIF_FORMAT, decoder), is(CIF_CHECKSUM));
+    assertThat(getChecksum(P264TexturedPictureEncoder.QVGA_FORMAT, decoder), is(QVGA_CHECKSUM));
+    decoder.setParallelism(0);
+  }
+
+  private long getChecksum(int pictureFormat, P264ImageDecoder decoder)
+  {
+    P264TexturedPictureEncoder encoder = new P264TexturedPictureEncoder(pictureFormat, SEED);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(P264TexturedPictureEncoder.MAX_PICTURE_SIZE);
+
+    CRC32 checksum = new CRC32();
+    for (int frameIndex = 0; frameIndex < FRAME_COUNT; frameIndex++)
+    {
+      encoder.encode(frameIndex, buffer);
+      decoder.determineImageFromStream(buffer, buffer.limit());
+
+      assertThat(decoder.getWidth(), is(encoder.getWidth()));
+      assertThat(decoder.getHeight(), is(encoder.getHeight()));
+      assertThat(decoder.getFrameIndex(), is(frameIndex));
+      for (int pixel : decoder.getJavaPixelData())
+      {
+        checksum.update(pixel >> 16);
+        checksum.update(pixel >> 8);
+        checksum.update(pixel);
+      }
+    }
+    return checksum.getValue();
+  }
+}
@@ -2,6 +2,7 @@ package com.dronecontrol.intelcontrol.entry;
 
 import com.dronecontrol.droneapi.DroneController;
 import com.dronecontrol.droneapi.data.Config;
+import com.dronecontrol.droneapi.data.enums.NavDataAggregation;
 import com.dronecontrol.droneapi.listeners.ErrorListener;
 import com.dronecontrol.intelcontrol.control.DroneInputController;
 import com.dronecontrol.intelcontrol.ui.FxController;
@@ -18,6 +19,9 @@ import org.apache.log4j.Logger;
 
 public class Main implements ErrorListener, UIActionListener
 {
+  // The UI only shows the battery level, so it does not need every nav data packet
+  private static final float UI_NAV_DATA_RATE_HZ = 2;
+
   private final Logger logger = Logger.getLogger(ErrorListener.class);
 
   private final FxWindow fxWindow;
@@ -68,7 +72,7 @@ public class Main implements ErrorListener, UIActionListener
     fxController.addUIActionListener(this);
 
     droneController.addVideoDataListener(fxController);
-    droneController.addNavDataListener(fxController);
+    droneController.addRateLimitedNavDataListener(fxController, UI_NAV_DATA_RATE_HZ, NavDataAggregation.LATEST);
 
     droneController.addNavDataListener(droneInputController);
     droneController.addReadyStateChangeListener(droneInputController);
@@ -170,10 +170,17 @@ public class DroneInputController implements ReadyStateChangeListener, NavDataLi
   {
     if (ready)
     {
-      droneController.move(movementData.getRoll(), -movementData.getPitch(), movementData.getYaw(), movementData.getGaz());
+      droneController.move(movementData.getRoll(), -movementData.getPitch(), movementData.getYaw(), movementData.getGaz(),
+              getInputNanos(movementData));
     }
   }
 
+  // The movement data of the failsafe was not received from the socket, so its latency is measured from here
+  private long getInputNanos(MovementData movementData)
+  {
+    return movementData.getReceivedNanos() != 0 ? movementData.getReceivedNanos() : System.nanoTime();
+  }
+
   @Override
   public void onReadyStateChange(ReadyState readyState)
   {
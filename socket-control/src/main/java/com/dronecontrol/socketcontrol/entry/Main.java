@@ -2,6 +2,7 @@ package com.dronecontrol.socketcontrol.entry;
 
 import com.dronecontrol.droneapi.DroneController;
 import com.dronecontrol.droneapi.data.Config;
+import com.dronecontrol.droneapi.data.enums.NavDataAggregation;
 import com.dronecontrol.droneapi.listeners.ErrorListener;
 import com.dronecontrol.socketcontrol.control.DroneInputController;
 import com.dronecontrol.socketcontrol.input.SocketController;
@@ -15,6 +16,12 @@ import org.apache.log4j.Logger;
 
 public class Main implements ErrorListener, UIActionListener
 {
+  // The UI only shows the battery level, so it does not need every nav data packet
+  private static final float UI_NAV_DATA_RATE_HZ = 2;
+
+  // Only the latest nav data is of interest for the socket clients, older data is dropped if the socket is slow
+  private static final int SOCKET_NAV_DATA_QUEUE_CAPACITY = 1;
+
   private final Logger logger = Logger.getLogger(ErrorListener.class);
 
   private final FxWindow fxWindow;
@@ -56,10 +63,10 @@ public class Main implements ErrorListener, UIActionListener
     fxController.addUIActionListener(this);
 
     droneController.addVideoDataListener(fxController);
-    droneController.addNavDataListener(fxController);
+    droneController.addRateLimitedNavDataListener(fxController, UI_NAV_DATA_RATE_HZ, NavDataAggregation.LATEST);
 
     droneController.addNavDataListener(droneInputController);
-    droneController.addNavDataListener(socketController);
+    droneController.addNavDataListener(socketController, SOCKET_NAV_DATA_QUEUE_CAPACITY);
 
     droneController.addReadyStateChangeListener(droneInputController);
     socketController.addMovementDataListener(droneInputController);
@@ -87,9 +87,14 @@ public class SocketDataReceiver implements SocketClientDataListener
   @Override
   public void OnData(String message)
   {
+    long receivedNanos = System.nanoTime();
     PilotData pilotData = getPilotData(message);
     if (pilotData != null)
     {
+      if (pilotData.getMovementData() != null)
+      {
+        pilotData.getMovementData().setReceivedNanos(receivedNanos);
+      }
       emitMovementData(pilotData.getMovementData());
       emitPilotActions(pilotData.getPilotActions());
     }
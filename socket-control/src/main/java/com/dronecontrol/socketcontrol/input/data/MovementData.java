@@ -1,5 +1,7 @@
 package com.dronecontrol.socketcontrol.input.data;
 
+import org.codehaus.jackson.annotate.JsonIgnore;
+
 @SuppressWarnings("UnusedDeclaration")
 public class MovementData
 {
@@ -13,6 +15,9 @@ public class MovementData
 
   private float gaz;
 
+  // Not part of the message, set when the message was received to measure the latency until the drone gets the command
+  private long receivedNanos;
+
   public MovementData()
   {
   }
@@ -65,6 +70,18 @@ public class MovementData
     this.gaz = gaz;
   }
 
+  @JsonIgnore
+  public long getReceivedNanos()
+  {
+    return receivedNanos;
+  }
+
+  @JsonIgnore
+  public void setReceivedNanos(long receivedNanos)
+  {
+    this.receivedNanos = receivedNanos;
+  }
+
   @Override
   public String toString()
   {
@@ -135,14 +135,16 @@ public class FxController implements VideoDataListener, NavDataListener, EventHa
   }
 
   @Override
-  public void onNavData(final NavData navData)
+  public void onNavData(NavData navData)
   {
+    // The nav data is reused by the drone api, so a copy is handed to the FX thread
+    final NavData navDataSnapshot = navData.snapshot();
     runOnFxThread(new Runnable()
     {
       @Override
       public void run()
       {
-        setBatteryLabel(navData);
+        setBatteryLabel(navDataSnapshot);
       }
     });
   }
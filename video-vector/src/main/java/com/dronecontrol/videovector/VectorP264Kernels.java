@@ -0,0 +1,279 @@
+package com.dronecontrol.videovector;
+
+import com.dronecontrol.droneapi.video.P264Kernels;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// The inverse transform and the color conversion of the P264 decoder with the vector API, one row of eight values of
+// a block per vector. All operations are the integer operations of the scalar code, so the values are exactly the same.
+public class VectorP264Kernels implements P264Kernels
+{
+  private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_256;
+
+  private static final VectorSpecies<Short> SHORT_SPECIES = ShortVector.SPECIES_128;
+
+  private static final int BLOCK_WIDTH = 8;
+
+  private static final int FIX_0_298631336 = 2446;
+
+  private static final int FIX_0_390180644 = 3196;
+
+  private static final int FIX_0_541196100 = 4433;
+
+  private static final int FIX_0_765366865 = 6270;
+
+  private static final int FIX_0_899976223 = 7373;
+
+  private static final int FIX_1_175875602 = 9633;
+
+  private static final int FIX_1_501321110 = 12299;
+
+  private static final int FIX_1_847759065 = 15137;
+
+  private static final int FIX_1_961570560 = 16069;
+
+  private static final int FIX_2_053119869 = 16819;
+
+  private static final int FIX_2_562915447 = 20995;
+
+  private static final int FIX_3_072711026 = 25172;
+
+  private static final int BITS = 13;
+
+  private static final int PASS1_BITS = 1;
+
+  private static final int F1 = BITS - PASS1_BITS - 1;
+
+  private static final int F2 = BITS - PASS1_BITS;
+
+  private static final int F3 = BITS + PASS1_BITS + 3;
+
+  private static final int TABLE_RANGE_OFFSET = 1024;
+
+  // Every chroma value is used for two neighboring pixels
+  private static final int[] CHROMA_DUPLICATION_MAP = new int[]{0, 0, 1, 1, 2, 2, 3, 3};
+
+  // The second pass of the transform is linear until the final shift, so row j of this matrix is the result for a
+  // workspace row which is 1 at j and 0 elsewhere, and every row of the block is the sum of the rows weighted by the
+  // workspace values. Integer arithmetic wraps the same way in any order, so the sums are exactly the scalar ones.
+  private static final int[] ROW_TRANSFORM_MATRIX = createRowTransformMatrix();
+
+  public VectorP264Kernels()
+  {
+    if (IntVector.SPECIES_PREFERRED.vectorBitSize() < INT_SPECIES.vectorBitSize())
+    {
+      throw new UnsupportedOperationException("The processor has no 256 bit vectors");
+    }
+  }
+
+  @Override
+  public int inverseTransform(short[] coefficients, int offset, int[] workSpace, short[] blockArray)
+  {
+    IntVector row0 = loadRow(coefficients, offset);
+    IntVector row1 = loadRow(coefficients, offset + 8);
+    IntVector row2 = loadRow(coefficients, offset + 16);
+    IntVector row3 = loadRow(coefficients, offset + 24);
+    IntVector row4 = loadRow(coefficients, offset + 32);
+    IntVector row5 = loadRow(coefficients, offset + 40);
+    IntVector row6 = loadRow(coefficients, offset + 48);
+    IntVector row7 = loadRow(coefficients, offset + 56);
+
+    // First pass over all eight columns at once, a column with only a DC coefficient gives the same values as the
+    // shortcut of the scalar code
+    IntVector z1 = row2.add(row6).mul(FIX_0_541196100);
+    IntVector tmp2 = z1.add(row6.mul(-FIX_1_847759065));
+    IntVector tmp3 = z1.add(row2.mul(FIX_0_765366865));
+
+    IntVector tmp0 = row0.add(row4).lanewise(VectorOperators.LSHL, BITS);
+    IntVector tmp1 = row0.sub(row4).lanewise(VectorOperators.LSHL, BITS);
+
+    IntVector tmp10 = tmp0.add(tmp3);
+    IntVector tmp13 = tmp0.sub(tmp3);
+    IntVector tmp11 = tmp1.add(tmp2);
+    IntVector tmp12 = tmp1.sub(tmp2);
+
+    z1 = row7.add(row1).mul(-FIX_0_899976223);
+    IntVector z2 = row5.add(row3).mul(-FIX_2_562915447);
+    IntVector z3 = row7.add(row3);
+    IntVector z4 = row5.add(row1);
+    IntVector z5 = z3.add(z4).mul(FIX_1_175875602);
+
+    z3 = z3.mul(-FIX_1_961570560).add(z5);
+    z4 = z4.mul(-FIX_0_390180644).add(z5);
+
+    tmp0 = row7.mul(FIX_0_298631336).add(z1).add(z3);
+    tmp1 = row5.mul(FIX_2_053119869).add(z2).add(z4);
+    tmp2 = row3.mul(FIX_3_072711026).add(z2).add(z3);
+    tmp3 = row1.mul(FIX_1_501321110).add(z1).add(z4);
+
+    storeWorkSpaceRow(tmp10.add(tmp3), workSpace, 0);
+    storeWorkSpaceRow(tmp10.sub(tmp3), workSpace, 56);
+    storeWorkSpaceRow(tmp11.add(tmp2), workSpace, 8);
+    storeWorkSpaceRow(tmp11.sub(tmp2), workSpace, 48);
+    storeWorkSpaceRow(tmp12.add(tmp1), workSpace, 16);
+    storeWorkSpaceRow(tmp12.sub(tmp1), workSpace, 40);
+    storeWorkSpaceRow(tmp13.add(tmp0), workSpace, 24);
+    storeWorkSpaceRow(tmp13.sub(tmp0), workSpace, 32);
+
+    // Second pass over the rows as the weighted sum of the matrix rows
+    IntVector matrixRow0 = IntVector.fromArray(INT_SPECIES, ROW_TRANSFORM_MATRIX, 0);
+    IntVector matrixRow1 = IntVector.fromArray(INT_SPECIES, ROW_TRANSFORM_MATRIX, 8);
+    IntVector matrixRow2 = IntVector.fromArray(INT_SPECIES, ROW_TRANSFORM_MATRIX, 16);
+    IntVector matrixRow3 = IntVector.fromArray(INT_SPECIES, ROW_TRANSFORM_MATRIX, 24);
+    IntVector matrixRow4 = IntVector.fromArray(INT_SPECIES, ROW_TRANSFORM_MATRIX, 32);
+    IntVector matrixRow5 = IntVector.fromArray(INT_SPECIES, ROW_TRANSFORM_MATRIX, 40);
+    IntVector matrixRow6 = IntVector.fromArray(INT_SPECIES, ROW_TRANSFORM_MATRIX, 48);
+    IntVector matrixRow7 = IntVector.fromArray(INT_SPECIES, ROW_TRANSFORM_MATRIX, 56);
+
+    IntVector range = IntVector.zero(INT_SPECIES);
+    for (int pointer = 0; pointer < 64; pointer += 8)
+    {
+      IntVector values = matrixRow0.mul(workSpace[pointer])
+              .add(matrixRow1.mul(workSpace[pointer + 1]))
+              .add(matrixRow2.mul(workSpace[pointer + 2]))
+              .add(matrixRow3.mul(workSpace[pointer + 3]))
+              .add(matrixRow4.mul(workSpace[pointer + 4]))
+              .add(matrixRow5.mul(workSpace[pointer + 5]))
+              .add(matrixRow6.mul(workSpace[pointer + 6]))
+              .add(matrixRow7.mul(workSpace[pointer + 7]))
+              .lanewise(VectorOperators.ASHR, F3);
+
+      ((ShortVector) values.convertShape(VectorOperators.I2S, SHORT_SPECIES, 0)).intoArray(blockArray, pointer);
+      range = range.or(values.add(TABLE_RANGE_OFFSET));
+    }
+    return range.reduceLanes(VectorOperators.OR);
+  }
+
+  @Override
+  public void composeMacroBlock(short[][] dataBlocks, int[] pixelData, int pixelOffset, int width)
+  {
+    short[] chromaBlueBlock = dataBlocks[4];
+    short[] chromaRedBlock = dataBlocks[5];
+
+    for (int chromaRow = 0; chromaRow < BLOCK_WIDTH; chromaRow++)
+    {
+      // Every chroma row covers two pixel rows, the upper half of the macro block comes from the first two luma blocks
+      int lumaBlockIndex = chromaRow < BLOCK_WIDTH / 2 ? 0 : 2;
+      int lumaOffset = (2 * chromaRow % BLOCK_WIDTH) * BLOCK_WIDTH;
+      int pixelIndex = pixelOffset + 2 * chromaRow * width;
+
+      for (int half = 0; half < 2; half++)
+      {
+        int chromaOffset = chromaRow * BLOCK_WIDTH + half * BLOCK_WIDTH / 2;
+        IntVector u = loadChromaRow(chromaBlueBlock, chromaOffset).sub(128);
+        IntVector v = loadChromaRow(chromaRedBlock, chromaOffset).sub(128);
+
+        IntVector redDifference = v.mul(359).lanewise(VectorOperators.ASHR, 8);
+        IntVector greenDifference = u.mul(-88).add(v.mul(-183)).lanewise(VectorOperators.ASHR, 8);
+        IntVector blueDifference = u.mul(454).lanewise(VectorOperators.ASHR, 8);
+
+        short[] lumaBlock = dataBlocks[lumaBlockIndex + half];
+        int halfPixelIndex = pixelIndex + half * BLOCK_WIDTH;
+        composeRow(loadRow(lumaBlock, lumaOffset), redDifference, greenDifference, blueDifference, pixelData, halfPixelIndex);
+        composeRow(loadRow(lumaBlock, lumaOffset + BLOCK_WIDTH), redDifference, greenDifference, blueDifference, pixelData,
+                halfPixelIndex + width);
+      }
+    }
+  }
+
+  // Adding the shifted chroma product to the luma is the same as shifting the luma, adding the product and shifting back
+  private static void composeRow(IntVector luma, IntVector redDifference, IntVector greenDifference, IntVector blueDifference,
+                                 int[] pixelData, int pixelIndex)
+  {
+    IntVector red = clamp(luma.add(redDifference)).lanewise(VectorOperators.LSHL, 16);
+    IntVector green = clamp(luma.add(greenDifference)).lanewise(VectorOperators.LSHL, 8);
+    IntVector blue = clamp(luma.add(blueDifference));
+    red.or(green).or(blue).intoArray(pixelData, pixelIndex);
+  }
+
+  private static IntVector clamp(IntVector values)
+  {
+    return values.max(0).min(0xFF);
+  }
+
+  private static IntVector loadRow(short[] values, int offset)
+  {
+    return (IntVector) ShortVector.fromArray(SHORT_SPECIES, values, offset).convertShape(VectorOperators.S2I, INT_SPECIES, 0);
+  }
+
+  private static IntVector loadChromaRow(short[] values, int offset)
+  {
+    return (IntVector) ShortVector.fromArray(SHORT_SPECIES, values, offset, CHROMA_DUPLICATION_MAP, 0)
+            .convertShape(VectorOperators.S2I, INT_SPECIES, 0);
+  }
+
+  private static void storeWorkSpaceRow(IntVector values, int[] workSpace, int offset)
+  {
+    values.add(1 << F1).lanewise(VectorOperators.ASHR, F2).intoArray(workSpace, offset);
+  }
+
+  private static int[] createRowTransformMatrix()
+  {
+    int[] matrix = new int[64];
+    int[] row = new int[BLOCK_WIDTH];
+    for (int index = 0; index < BLOCK_WIDTH; index++)
+    {
+      row[index] = 1;
+      transformRow(row, matrix, index * BLOCK_WIDTH);
+      row[index] = 0;
+    }
+    return matrix;
+  }
+
+  // The second pass of the scalar transform for one row without the final shift
+  private static void transformRow(int[] row, int[] result, int offset)
+  {
+    int z1, z2, z3, z4, z5;
+    int tmp0, tmp1, tmp2, tmp3;
+    int tmp10, tmp11, tmp12, tmp13;
+
+    z2 = row[2];
+    z3 = row[6];
+
+    z1 = (z2 + z3) * FIX_0_541196100;
+    tmp2 = z1 + z3 * -FIX_1_847759065;
+    tmp3 = z1 + z2 * FIX_0_765366865;
+
+    z1 = row[0];
+    z2 = row[4];
+
+    tmp0 = (z1 + z2) << BITS;
+    tmp1 = (z1 - z2) << BITS;
+
+    tmp10 = tmp0 + tmp3;
+    tmp13 = tmp0 - tmp3;
+    tmp11 = tmp1 + tmp2;
+    tmp12 = tmp1 - tmp2;
+
+    tmp3 = row[1];
+    tmp2 = row[3];
+    tmp1 = row[5];
+    tmp0 = row[7];
+
+    z1 = (tmp0 + tmp3) * -FIX_0_899976223;
+    z2 = (tmp1 + tmp2) * -FIX_2_562915447;
+    z3 = tmp0 + tmp2;
+    z4 = tmp1 + tmp3;
+
+    z5 = (z3 + z4) * FIX_1_175875602;
+
+    z3 = (z3 * -FIX_1_961570560) + z5;
+    z4 = (z4 * -FIX_0_390180644) + z5;
+
+    tmp0 = (tmp0 * FIX_0_298631336) + z1 + z3;
+    tmp1 = (tmp1 * FIX_2_053119869) + z2 + z4;
+    tmp2 = (tmp2 * FIX_3_072711026) + z2 + z3;
+    tmp3 = (tmp3 * FIX_1_501321110) + z1 + z4;
+
+    result[offset] = tmp10 + tmp3;
+    result[offset + 1] = tmp11 + tmp2;
+    result[offset + 2] = tmp12 + tmp1;
+    result[offset + 3] = tmp13 + tmp0;
+    result[offset + 4] = tmp13 - tmp0;
+    result[offset + 5] = tmp12 - tmp1;
+    result[offset + 6] = tmp11 - tmp2;
+    result[offset + 7] = tmp10 - tmp3;
+  }
+}
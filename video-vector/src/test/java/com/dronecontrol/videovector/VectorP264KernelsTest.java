@@ -0,0 +1,90 @@
+package com.dronecontrol.videovector;
+
+import com.dronecontrol.droneapi.recording.RecordType;
+import com.dronecontrol.droneapi.recording.RecordingReader;
+import com.dronecontrol.droneapi.recording.VideoRecorder;
+import com.dronecontrol.droneapi.video.P264ImageDecoder;
+import com.dronecontrol.dronesimulator.video.P264TexturedPictureEncoder;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class VectorP264KernelsTest
+{
+  private static final long SEED = 42;
+
+  private static final int FRAME_COUNT = 16;
+
+  // A directory with a video recording of a real drone, the test of the recording is skipped without it
+  private static final String RECORDING_PROPERTY = "p264.recording";
+
+  @Test
+  public void testKernelsAreUsedByTheDecoder()
+  {
+    assertThat(P264ImageDecoder.isVectorKernelsAvailable(), is(true));
+  }
+
+  @Test
+  public void testTexturedPicturesAreDecodedBitIdentically()
+  {
+    assertTexturedPicturesAreDecodedBitIdentically(P264TexturedPictureEncoder.CIF_FORMAT, 0);
+    assertTexturedPicturesAreDecodedBitIdentically(P264TexturedPictureEncoder.QVGA_FORMAT, 0);
+  }
+
+  @Test
+  public void testParallelDecodingIsBitIdentical()
+  {
+    assertTexturedPicturesAreDecodedBitIdentically(P264TexturedPictureEncoder.CIF_FORMAT, 3);
+    assertTexturedPicturesAreDecodedBitIdentically(P264TexturedPictureEncoder.QVGA_FORMAT, 3);
+  }
+
+  @Test
+  public void testRecordingIsDecodedBitIdentically()
+  {
+    String recordingDirectory = System.getProperty(RECORDING_PROPERTY);
+    assumeTrue(recordingDirectory != null);
+
+    P264ImageDecoder vectorDecoder = new P264ImageDecoder();
+    P264ImageDecoder scalarDecoder = new P264ImageDecoder();
+    scalarDecoder.setVectorKernelsEnabled(false);
+
+    RecordingReader reader = new RecordingReader(new File(recordingDirectory), VideoRecorder.VIDEO_STREAM);
+    while (reader.next())
+    {
+      if (reader.getType() == RecordType.VIDEO_P264)
+      {
+        ByteBuffer picture = reader.getData();
+        vectorDecoder.determineImageFromStream(picture.duplicate(), picture.remaining());
+        scalarDecoder.determineImageFromStream(picture.duplicate(), picture.remaining());
+        assertThat(vectorDecoder.getJavaPixelData(), is(scalarDecoder.getJavaPixelData()));
+      }
+    }
+  }
+
+  private void assertTexturedPicturesAreDecodedBitIdentically(int pictureFormat, int parallelism)
+  {
+    P264TexturedPictureEncoder encoder = new P264TexturedPictureEncoder(pictureFormat, SEED);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(P264TexturedPictureEncoder.MAX_PICTURE_SIZE);
+
+    P264ImageDecoder vectorDecoder = new P264ImageDecoder();
+    vectorDecoder.setParallelism(parallelism);
+    P264ImageDecoder scalarDecoder = new P264ImageDecoder();
+    scalarDecoder.setVectorKernelsEnabled(false);
+
+    for (int frameIndex = 0; frameIndex < FRAME_COUNT; frameIndex++)
+    {
+      encoder.encode(frameIndex, buffer);
+      vectorDecoder.determineImageFromStream(buffer.duplicate(), buffer.limit());
+      scalarDecoder.determineImageFromStream(buffer.duplicate(), buffer.limit());
+
+      assertThat(vectorDecoder.getFrameIndex(), is(frameIndex));
+      assertThat(vectorDecoder.getJavaPixelData(), is(scalarDecoder.getJavaPixelData()));
+    }
+    vectorDecoder.setParallelism(0);
+  }
+}